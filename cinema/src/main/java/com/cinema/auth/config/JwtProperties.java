@@ -14,6 +14,8 @@ public class JwtProperties {
     private String secret;
     private long accessTokenExpiration;
     private long refreshTokenExpiration;
+    // Verified tokens kept in memory; 0 verifies every request
+    private int verificationCacheSize = 10_000;
     private Cookie cookie = new Cookie();
     
     @Getter
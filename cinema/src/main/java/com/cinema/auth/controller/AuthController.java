@@ -5,7 +5,8 @@ import com.cinema.auth.dto.LoginRequest;
 import com.cinema.auth.dto.RegisterRequest;
 import com.cinema.auth.service.AuthService;
 import com.cinema.shared.dto.ApiResponse;
-import com.cinema.user.entity.User;
+import com.cinema.shared.ratelimit.RateLimit;
+import com.cinema.shared.security.AuthenticatedUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.Cookie;
@@ -31,6 +32,7 @@ public class AuthController {
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
+    @RateLimit(name = "register", key = RateLimit.Key.IP, limit = 10, windowSeconds = 3600)
     public ResponseEntity<ApiResponse<AuthResponse>> register(
             @Valid @RequestBody RegisterRequest request) {
         log.info("Registration request for username: {}", request.getUsername());
@@ -40,6 +42,7 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "Login with username/email and password")
+    @RateLimit(name = "login", key = RateLimit.Key.IP, limit = 20, windowSeconds = 60)
     public ResponseEntity<ApiResponse<AuthResponse>> login(
             @Valid @RequestBody LoginRequest request,
             HttpServletResponse response) {
@@ -50,6 +53,7 @@ public class AuthController {
 
     @PostMapping("/refresh")
     @Operation(summary = "Refresh access token using refresh token from cookie")
+    @RateLimit(name = "refresh", key = RateLimit.Key.IP, limit = 60, windowSeconds = 60)
     public ResponseEntity<ApiResponse<AuthResponse>> refreshToken(
             HttpServletRequest request,
             HttpServletResponse response) {
@@ -72,11 +76,11 @@ public class AuthController {
     @PostMapping("/logout")
     @Operation(summary = "Logout and invalidate all tokens")
     public ResponseEntity<ApiResponse<Void>> logout(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             HttpServletResponse response) {
 
         if (user != null) {
-            authService.logout(user, response);
+            authService.logout(user.id(), response);
         }
 
         return ResponseEntity.ok(ApiResponse.success("Logged out successfully"));
@@ -85,20 +89,13 @@ public class AuthController {
     @GetMapping("/me")
     @Operation(summary = "Get current authenticated user info")
     public ResponseEntity<ApiResponse<AuthResponse.UserInfo>> getCurrentUser(
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
         if (user == null) {
             return ResponseEntity.status(401).build();
         }
 
-        AuthResponse.UserInfo userInfo = AuthResponse.UserInfo.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .fullName(user.getFullName())
-                .role(user.getRole().name())
-                .points(user.getPoints())
-                .build();
+        AuthResponse.UserInfo userInfo = authService.getUserInfo(user.id());
 
         return ResponseEntity.ok(ApiResponse.success(userInfo));
     }
@@ -0,0 +1,122 @@
+package com.cinema.auth.crypto;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt on a dedicated pool of one thread per core. A login storm queues here
+ * instead of occupying request threads, and once the queue is full further
+ * hashes fail at once with {@code RATE_LIMIT_EXCEEDED} rather than waiting. The
+ * caller parks on the result, which frees its carrier when it is a virtual thread.
+ *
+ * <p>{@link #upgradeEncoding(String)} is true for any hash not at the configured
+ * cost, so hashes are rehashed up or down on the next successful login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final long waitTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(AppProperties.PasswordHashing properties, MeterRegistry meterRegistry) {
+        this.cost = properties.getBcryptCost();
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.waitTimeoutMillis = TimeUnit.SECONDS.toMillis(properties.getWaitTimeoutSeconds());
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("password.hashing.queued", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.hashTimer = Timer.builder("password.hashing").tag("operation", "hash").register(meterRegistry);
+        this.verifyTimer = Timer.builder("password.hashing").tag("operation", "verify").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(hashTimer, () -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(verifyTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && cost(encodedPassword) != cost;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    <T> T run(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new BusinessException(ErrorCode.RATE_LIMIT_EXCEEDED, "Too many sign-ins right now, please retry shortly");
+        }
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new BusinessException(ErrorCode.RATE_LIMIT_EXCEEDED, "Too many sign-ins right now, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    int queued() {
+        return executor.getQueue().size();
+    }
+
+    // $2a$12$... -> 12; anything that is not a BCrypt hash gets rehashed
+    static int cost(String encodedPassword) {
+        if (encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
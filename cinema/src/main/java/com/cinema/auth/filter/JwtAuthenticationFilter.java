@@ -1,8 +1,10 @@
 package com.cinema.auth.filter;
 
 import com.cinema.auth.service.JwtService;
-import com.cinema.user.entity.User;
-import com.cinema.user.repository.UserRepository;
+import com.cinema.auth.service.VerifiedToken;
+import com.cinema.shared.security.AuthenticatedUser;
+import com.cinema.user.service.TokenVersionService;
+import com.cinema.user.service.UserActivityService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,7 +28,8 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final TokenVersionService tokenVersionService;
+    private final UserActivityService userActivityService;
 
     @Override
     protected void doFilterInternal(
@@ -46,36 +49,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String jwt = authHeader.substring(7);
         
         try {
-            // Validate token format
-            if (!jwtService.validateToken(jwt)) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-            
+            // Parses and verifies the token once; null when invalid or expired
+            final VerifiedToken token = jwtService.verify(jwt);
+
             // Don't process refresh tokens
-            if (jwtService.isRefreshToken(jwt)) {
+            if (token == null || token.refresh()) {
                 filterChain.doFilter(request, response);
                 return;
             }
-            
-            final String username = jwtService.extractUsername(jwt);
-            
+
             // If user is not already authenticated
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findByUsername(username).orElse(null);
-                
-                if (user != null && jwtService.isTokenValid(jwt, user)) {
+            if (token.userId() != null && token.role() != null
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Revoked tokens have an old version; the principal comes from the claims, not the database
+                if (tokenVersionService.isCurrent(token.userId(), token.tokenVersion())) {
+                    AuthenticatedUser user = new AuthenticatedUser(token.userId(), token.username(), token.role());
+
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             user,
                             null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role()))
                     );
                     
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    userActivityService.recordSeen(user.id());
                     
-                    log.debug("User authenticated: {} with role: {}", username, user.getRole());
+                    log.debug("User authenticated: {} with role: {}", user.username(), user.role());
                 }
             }
         } catch (Exception e) {
@@ -6,6 +6,9 @@ import com.cinema.auth.dto.LoginRequest;
 import com.cinema.auth.dto.RegisterRequest;
 import com.cinema.user.entity.User;
 import com.cinema.user.repository.UserRepository;
+import com.cinema.user.service.PointsLedgerService;
+import com.cinema.user.service.TokenVersionService;
+import com.cinema.user.service.UserActivityService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +19,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.cinema.shared.exception.BusinessException;
 import com.cinema.shared.exception.ErrorCode;
 
@@ -29,8 +33,14 @@ public class AuthService {
     private final JwtService jwtService;
     private final JwtProperties jwtProperties;
     private final AuthenticationManager authenticationManager;
+    private final PointsLedgerService pointsLedgerService;
+    private final TokenVersionService tokenVersionService;
+    private final UserActivityService userActivityService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    // Not transactional: hashing can wait up to the encoder's queue timeout, and a
+    // pooled connection must not be held meanwhile. Each lookup and write is its
+    // own short transaction.
     public AuthResponse register(RegisterRequest request) {
         // Check if username exists
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -42,16 +52,17 @@ public class AuthService {
             throw new BusinessException(ErrorCode.USER_EMAIL_EXISTS);
         }
         
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+
         // Create new user
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHash)
                 .fullName(request.getFullName())
                 .phoneNumber(request.getPhoneNumber())
                 .role(User.UserRole.CUSTOMER)
                 .status(User.UserStatus.ACTIVE)
-                .points(0)
                 .tokenVersion(0L)
                 .build();
         
@@ -64,7 +75,7 @@ public class AuthService {
         return buildAuthResponse(user, accessToken);
     }
 
-    @Transactional
+    // Not transactional, for the same reason as register
     public AuthResponse login(LoginRequest request, HttpServletResponse response) {
         // Find user by username or email
         User user = userRepository.findByUsernameOrEmail(
@@ -81,6 +92,15 @@ public class AuthService {
         if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
             throw new BadCredentialsException("Invalid username/email or password");
         }
+
+        // Move the hash to the configured cost; a busy hashing pool just leaves it for next time
+        if (passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            try {
+                rehash(user.getId(), user.getPasswordHash(), passwordEncoder.encode(request.getPassword()));
+            } catch (BusinessException e) {
+                log.debug("Skipped rehashing the password of {}: {}", user.getUsername(), e.getMessage());
+            }
+        }
         
         // Generate tokens
         String accessToken = jwtService.generateAccessToken(user);
@@ -89,9 +109,8 @@ public class AuthService {
         // Set refresh token in HttpOnly cookie
         setRefreshTokenCookie(response, refreshToken);
         
-        // Update last login
-        user.setLastLoginAt(java.time.LocalDateTime.now());
-        userRepository.save(user);
+        // Written behind in batches, without touching the row's version
+        userActivityService.recordLogin(user.getId());
         
         log.info("User logged in: {}", user.getUsername());
         
@@ -105,24 +124,21 @@ public class AuthService {
         }
         
         // Validate refresh token
-        if (!jwtService.validateToken(refreshToken)) {
+        VerifiedToken token = jwtService.verify(refreshToken);
+        if (token == null) {
             throw new BadCredentialsException("Invalid refresh token");
         }
         
         // Check if it's a refresh token
-        if (!jwtService.isRefreshToken(refreshToken)) {
+        if (!token.refresh()) {
             throw new BadCredentialsException("Invalid token type");
         }
         
-        // Extract user info
-        String username = jwtService.extractUsername(refreshToken);
-        Long tokenVersion = jwtService.extractTokenVersion(refreshToken);
-        
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsername(token.username())
                 .orElseThrow(() -> new BadCredentialsException("User not found"));
         
         // Verify token version
-        if (!tokenVersion.equals(user.getTokenVersion())) {
+        if (!token.tokenVersion().equals(user.getTokenVersion())) {
             throw new BadCredentialsException("Token has been revoked");
         }
         
@@ -138,10 +154,19 @@ public class AuthService {
         return buildAuthResponse(user, newAccessToken);
     }
 
+    public AuthResponse.UserInfo getUserInfo(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        return toUserInfo(user);
+    }
+
     @Transactional
-    public void logout(User user, HttpServletResponse response) {
+    public void logout(Long userId, HttpServletResponse response) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+
         // Increment token version to invalidate all existing tokens
-        user.incrementTokenVersion();
+        tokenVersionService.revoke(user);
         userRepository.save(user);
         
         // Clear refresh token cookie
@@ -150,6 +175,13 @@ public class AuthService {
         log.info("User logged out: {}", user.getUsername());
     }
 
+    // Skipped if the password changed while the new hash was computed
+    private void rehash(Long userId, String oldHash, String newHash) {
+        transactionTemplate.executeWithoutResult(status -> userRepository.findById(userId)
+                .filter(user -> oldHash.equals(user.getPasswordHash()))
+                .ifPresent(user -> user.setPasswordHash(newHash)));
+    }
+
     private void setRefreshTokenCookie(HttpServletResponse response, String refreshToken) {
         Cookie cookie = new Cookie(jwtProperties.getCookie().getName(), refreshToken);
         cookie.setHttpOnly(true);
@@ -173,14 +205,18 @@ public class AuthService {
                 .accessToken(accessToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtProperties.getAccessTokenExpiration() / 1000) // seconds
-                .user(AuthResponse.UserInfo.builder()
-                        .id(user.getId())
-                        .username(user.getUsername())
-                        .email(user.getEmail())
-                        .fullName(user.getFullName())
-                        .role(user.getRole().name())
-                        .points(user.getPoints())
-                        .build())
+                .user(toUserInfo(user))
+                .build();
+    }
+
+    private AuthResponse.UserInfo toUserInfo(User user) {
+        return AuthResponse.UserInfo.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .fullName(user.getFullName())
+                .role(user.getRole().name())
+                .points(pointsLedgerService.getBalance(user.getId()))
                 .build();
     }
 }
@@ -3,31 +3,61 @@ package com.cinema.auth.service;
 import com.cinema.auth.config.JwtProperties;
 import com.cinema.user.entity.User;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs. A token is parsed and signature-checked once by
+ * {@link #verify(String)}; the resulting claims are cached under the token's
+ * digest until the token expires, so repeat requests with the same bearer token
+ * skip the HMAC and JSON work entirely.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JwtService {
 
     private final JwtProperties jwtProperties;
+    private final MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache cache;
+    private Counter cachedCounter;
+    private Counter verifiedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        // JwtParser is immutable and thread-safe
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        cache = new VerifiedTokenCache(jwtProperties.getVerificationCacheSize());
+        Gauge.builder("jwt.verification.cache.size", cache, VerifiedTokenCache::size).register(meterRegistry);
+        cachedCounter = Counter.builder("jwt.verifications").tag("outcome", "cached").register(meterRegistry);
+        verifiedCounter = Counter.builder("jwt.verifications").tag("outcome", "verified").register(meterRegistry);
+        rejectedCounter = Counter.builder("jwt.verifications").tag("outcome", "rejected").register(meterRegistry);
+    }
 
     public String generateAccessToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getId());
         claims.put("role", user.getRole().name());
         claims.put("tokenVersion", user.getTokenVersion());
-        
+
         return buildToken(claims, user.getUsername(), jwtProperties.getAccessTokenExpiration());
     }
 
@@ -36,7 +66,7 @@ public class JwtService {
         claims.put("userId", user.getId());
         claims.put("tokenVersion", user.getTokenVersion());
         claims.put("type", "refresh");
-        
+
         return buildToken(claims, user.getUsername(), jwtProperties.getRefreshTokenExpiration());
     }
 
@@ -46,87 +76,61 @@ public class JwtService {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
+                .signWith(signingKey, Jwts.SIG.HS512)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
-    }
-
-    public Long extractTokenVersion(String token) {
-        return extractClaim(token, claims -> claims.get("tokenVersion", Long.class));
-    }
-
-    public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
-    }
-
-    public boolean isRefreshToken(String token) {
-        String type = extractClaim(token, claims -> claims.get("type", String.class));
-        return "refresh".equals(type);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    /**
+     * Returns the claims of a token with a valid signature that has not expired,
+     * or null for any other token.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        Instant now = Instant.now();
+        String digest = VerifiedTokenCache.digest(token);
+        VerifiedToken cached = cache.get(digest, now);
+        if (cached != null) {
+            cachedCounter.increment();
+            return cached;
+        }
 
-    public boolean isTokenValid(String token, User user) {
+        VerifiedToken verified;
         try {
-            final String username = extractUsername(token);
-            final Long tokenVersion = extractTokenVersion(token);
-            
-            return username.equals(user.getUsername()) 
-                    && !isTokenExpired(token)
-                    && tokenVersion.equals(user.getTokenVersion());
-        } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            return false;
+            verified = toVerifiedToken(parser.parseSignedClaims(token).getPayload());
+        } catch (ExpiredJwtException e) {
+            log.debug("JWT token is expired: {}", e.getMessage());
+            rejectedCounter.increment();
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            rejectedCounter.increment();
+            return null;
         }
+        if (verified.username() == null || verified.tokenVersion() == null || verified.isExpired(now)) {
+            rejectedCounter.increment();
+            return null;
+        }
+        cache.put(digest, verified, now);
+        verifiedCounter.increment();
+        return verified;
     }
 
-    public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtProperties.getSecret().getBytes(java.nio.charset.StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public boolean isTokenValid(VerifiedToken token, User user) {
+        return token.username().equals(user.getUsername())
+                && token.tokenVersion().equals(user.getTokenVersion())
+                && !token.isExpired(Instant.now());
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("role", String.class),
+                claims.get("tokenVersion", Long.class),
+                "refresh".equals(claims.get("type", String.class)),
+                expiration != null ? expiration.toInstant() : Instant.EPOCH);
     }
 }
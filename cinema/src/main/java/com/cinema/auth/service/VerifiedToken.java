@@ -0,0 +1,21 @@
+package com.cinema.auth.service;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature has been verified. Parsed once per token and
+ * shared by every check made on it.
+ */
+public record VerifiedToken(
+        String username,
+        Long userId,
+        String role,
+        Long tokenVersion,
+        boolean refresh,
+        Instant expiresAt
+) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,69 @@
+package com.cinema.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Verified tokens keyed by the SHA-256 of the token, so the cache never holds the
+ * bearer tokens themselves. Reads take no lock. An entry is dropped on the first
+ * read after its token expires, and a full cache first sweeps expired entries
+ * and then evicts arbitrary ones; a miss only costs one verification.
+ */
+class VerifiedTokenCache {
+
+    private final ConcurrentMap<String, VerifiedToken> tokens = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    VerifiedToken get(String digest, Instant now) {
+        VerifiedToken token = tokens.get(digest);
+        if (token != null && token.isExpired(now)) {
+            tokens.remove(digest, token);
+            return null;
+        }
+        return token;
+    }
+
+    void put(String digest, VerifiedToken token, Instant now) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (tokens.size() >= maxSize) {
+            evict(now);
+        }
+        tokens.put(digest, token);
+    }
+
+    int size() {
+        return tokens.size();
+    }
+
+    private void evict(Instant now) {
+        tokens.values().removeIf(token -> token.isExpired(now));
+        // Leave some headroom so a full cache does not sweep on every miss
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<String> digests = tokens.keySet().iterator();
+        while (tokens.size() > target && digests.hasNext()) {
+            digests.next();
+            digests.remove();
+        }
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
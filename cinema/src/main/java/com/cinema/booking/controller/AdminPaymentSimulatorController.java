@@ -0,0 +1,30 @@
+package com.cinema.booking.controller;
+
+import com.cinema.booking.dto.PaymentStormReport;
+import com.cinema.booking.dto.PaymentStormRequest;
+import com.cinema.booking.service.PaymentGatewaySimulator;
+import com.cinema.shared.dto.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/payments/simulator")
+@Profile("dev")
+@RequiredArgsConstructor
+@Tag(name = "Admin Payment Simulator", description = "Development payment gateway simulator")
+public class AdminPaymentSimulatorController {
+
+    private final PaymentGatewaySimulator paymentGatewaySimulator;
+
+    @PostMapping("/storm")
+    @Operation(summary = "Replay a storm of signed, duplicated gateway callbacks and report ack latency")
+    public ResponseEntity<ApiResponse<PaymentStormReport>> storm(@Valid @RequestBody PaymentStormRequest request) {
+        PaymentStormReport report = paymentGatewaySimulator.storm(request);
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+}
@@ -0,0 +1,104 @@
+package com.cinema.booking.controller;
+
+import com.cinema.booking.dto.BookingHistoryItem;
+import com.cinema.booking.dto.BookingResponse;
+import com.cinema.booking.dto.CreateBookingRequest;
+import com.cinema.booking.dto.CreatePaymentRequest;
+import com.cinema.booking.dto.PaymentResponse;
+import com.cinema.booking.service.BookingHistoryService;
+import com.cinema.booking.service.BookingService;
+import com.cinema.booking.service.PaymentService;
+import com.cinema.booking.service.TicketService;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.dto.ApiResponse;
+import com.cinema.shared.dto.CursorPage;
+import com.cinema.shared.security.AuthenticatedUser;
+import com.cinema.show.service.WaitingRoomService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/bookings")
+@RequiredArgsConstructor
+@Tag(name = "Booking", description = "Booking APIs")
+public class BookingController {
+
+    private final BookingService bookingService;
+    private final BookingHistoryService bookingHistoryService;
+    private final WaitingRoomService waitingRoomService;
+    private final PaymentService paymentService;
+    private final TicketService ticketService;
+    private final AppProperties appProperties;
+
+    @PostMapping
+    @Operation(summary = "Create a pending booking from the seats held by the current user")
+    public ResponseEntity<ApiResponse<BookingResponse>> createBooking(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestHeader(value = WaitingRoomService.ADMISSION_HEADER, required = false) String admissionToken,
+            @Valid @RequestBody CreateBookingRequest request) {
+        waitingRoomService.checkAdmission(request.getShowId(), user.id(), admissionToken);
+        BookingResponse booking = bookingService.createBooking(user.id(), request);
+        return ResponseEntity.ok(ApiResponse.success(booking, "Booking created successfully"));
+    }
+
+    @GetMapping
+    @Operation(summary = "List the bookings of the current user, newest first, one cursor page at a time")
+    public ResponseEntity<ApiResponse<CursorPage<BookingHistoryItem>>> getBookingHistory(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<BookingHistoryItem> page = bookingHistoryService.getHistory(user.id(), cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a booking of the current user")
+    public ResponseEntity<ApiResponse<BookingResponse>> getBooking(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable Long id) {
+        BookingResponse booking = bookingService.getBooking(user.id(), id);
+        return ResponseEntity.ok(ApiResponse.success(booking));
+    }
+
+    @GetMapping(value = "/{id}/ticket", produces = MediaType.IMAGE_PNG_VALUE)
+    @Operation(summary = "Get the QR ticket of a confirmed booking of the current user")
+    public ResponseEntity<byte[]> getTicket(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable Long id,
+            WebRequest request) {
+        TicketService.Ticket ticket = ticketService.getTicket(user.id(), id);
+        CacheControl cacheControl = CacheControl
+                .maxAge(appProperties.getTicket().getBrowserCacheHours(), TimeUnit.HOURS)
+                .cachePrivate();
+        String eTag = "\"" + ticket.ref() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.IMAGE_PNG)
+                .body(ticket.png());
+    }
+
+    @PostMapping("/{id}/payments")
+    @Operation(summary = "Start paying a pending booking of the current user")
+    public ResponseEntity<ApiResponse<PaymentResponse>> createPayment(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable Long id,
+            @Valid @RequestBody CreatePaymentRequest request) {
+        PaymentResponse payment = paymentService.createPayment(user.id(), id, request);
+        return ResponseEntity.ok(ApiResponse.success(payment, "Payment created successfully"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.cinema.booking.controller;
+
+import com.cinema.booking.dto.PaymentCallbackRequest;
+import com.cinema.booking.entity.Payment.PaymentMethod;
+import com.cinema.booking.service.PaymentCallbackService;
+import com.cinema.shared.dto.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/payments/callback")
+@RequiredArgsConstructor
+@Tag(name = "Payment Callback", description = "Payment gateway callback APIs")
+public class PaymentCallbackController {
+
+    private final PaymentCallbackService paymentCallbackService;
+
+    @PostMapping("/{method}")
+    @Operation(summary = "Receive a signed payment gateway callback; applied asynchronously")
+    public ResponseEntity<ApiResponse<Void>> receiveCallback(
+            @PathVariable PaymentMethod method,
+            @Valid @RequestBody PaymentCallbackRequest callback) {
+        PaymentCallbackService.Outcome outcome = paymentCallbackService.accept(method, callback);
+        return ResponseEntity.ok(ApiResponse.success(outcome == PaymentCallbackService.Outcome.DUPLICATE
+                ? "Callback already received"
+                : "Callback received"));
+    }
+}
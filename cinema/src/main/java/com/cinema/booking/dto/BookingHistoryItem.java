@@ -0,0 +1,33 @@
+package com.cinema.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingHistoryItem {
+    private Long bookingId;
+    private String bookingCode;
+    private String status;
+    private BigDecimal finalAmount;
+    private LocalDateTime createdAt;
+    private Long showId;
+    private LocalDate showDate;
+    private LocalTime startTime;
+    private Long movieId;
+    private String movieTitle;
+    private String posterUrl;
+    private String cinemaName;
+    private String hallName;
+    private Integer seatCount;
+    private String seatLabels;
+}
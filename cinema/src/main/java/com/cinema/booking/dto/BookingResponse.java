@@ -0,0 +1,36 @@
+package com.cinema.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingResponse {
+    private Long id;
+    private String bookingCode;
+    private Long showId;
+    private String status;
+    private BigDecimal totalAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal finalAmount;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private List<SeatItem> seats;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SeatItem {
+        private Long showSeatId;
+        private BigDecimal price;
+    }
+}
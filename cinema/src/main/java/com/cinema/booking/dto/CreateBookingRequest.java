@@ -0,0 +1,23 @@
+package com.cinema.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateBookingRequest {
+
+    @NotNull(message = "Show is required")
+    private Long showId;
+
+    @NotEmpty(message = "At least one seat is required")
+    private List<Long> showSeatIds;
+}
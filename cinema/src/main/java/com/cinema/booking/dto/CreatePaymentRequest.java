@@ -0,0 +1,18 @@
+package com.cinema.booking.dto;
+
+import com.cinema.booking.entity.Payment.PaymentMethod;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreatePaymentRequest {
+
+    @NotNull(message = "Payment method is required")
+    private PaymentMethod paymentMethod;
+}
@@ -0,0 +1,48 @@
+package com.cinema.booking.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Gateway callback, normalized across gateways. {@code signature} is the hex
+ * HMAC-SHA256 of {@code bookingId|paymentId|transactionId|amount|status} under the
+ * gateway's secret (see PaymentSignature).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentCallbackRequest {
+
+    public static final String STATUS_SUCCESS = "SUCCESS";
+
+    @NotNull
+    private Long bookingId;
+
+    @NotNull
+    private Long paymentId;
+
+    @NotBlank
+    private String transactionId;
+
+    @NotNull
+    private BigDecimal amount;
+
+    @NotBlank
+    private String status;
+
+    private String message;
+
+    @NotBlank
+    private String signature;
+
+    public boolean isSuccess() {
+        return STATUS_SUCCESS.equals(status);
+    }
+}
@@ -0,0 +1,24 @@
+package com.cinema.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentResponse {
+    private Long id;
+    private Long bookingId;
+    private String paymentMethod;
+    private BigDecimal amount;
+    private String status;
+    private String transactionId;
+    private LocalDateTime createdAt;
+    private LocalDateTime paidAt;
+}
@@ -0,0 +1,21 @@
+package com.cinema.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStormReport {
+    private int callbacks;
+    private int acknowledged;
+    private int rejected;
+    private long elapsedMillis;
+    private long callbacksPerSecond;
+    private double p50AckMillis;
+    private double p99AckMillis;
+    private double maxAckMillis;
+}
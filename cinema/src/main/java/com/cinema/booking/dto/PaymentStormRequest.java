@@ -0,0 +1,43 @@
+package com.cinema.booking.dto;
+
+import com.cinema.booking.entity.Payment.PaymentMethod;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStormRequest {
+
+    @NotNull
+    @Builder.Default
+    private PaymentMethod paymentMethod = PaymentMethod.VNPAY;
+
+    // Real payments to settle; when empty, callbacks target made-up payments and only exercise ingestion
+    @Builder.Default
+    private List<Long> paymentIds = new ArrayList<>();
+
+    @Min(1)
+    @Max(1_000_000)
+    @Builder.Default
+    private int transactions = 1000;
+
+    @Min(1)
+    @Max(100)
+    @Builder.Default
+    private int deliveriesPerTransaction = 3;
+
+    @Min(1)
+    @Max(1000)
+    @Builder.Default
+    private int concurrency = 64;
+}
@@ -21,9 +21,11 @@ import java.util.List;
 public class Booking extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookingIdGenerator")
+    @SequenceGenerator(name = "bookingIdGenerator", sequenceName = "bookings_id_seq", allocationSize = 50)
     private Long id;
 
+    // Assigned by BookingCodeGenerator before insert
     @Column(name = "booking_code", nullable = false, unique = true, length = 20)
     private String bookingCode;
 
@@ -58,8 +60,9 @@ public class Booking extends BaseEntity {
     @Builder.Default
     private BookingStatus status = BookingStatus.PENDING;
 
-    @Column(name = "qr_code", columnDefinition = "TEXT")
-    private String qrCode;
+    // Content hash of the rendered ticket in object storage, see TicketService
+    @Column(name = "ticket_ref", length = 32)
+    private String ticketRef;
 
     @Column(name = "expires_at")
     private LocalDateTime expiresAt;
@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class BookingSeat {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookingSeatIdGenerator")
+    @SequenceGenerator(name = "bookingSeatIdGenerator", sequenceName = "booking_seats_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class Payment extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "paymentIdGenerator")
+    @SequenceGenerator(name = "paymentIdGenerator", sequenceName = "payments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
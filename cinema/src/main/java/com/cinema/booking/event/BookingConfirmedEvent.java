@@ -0,0 +1,21 @@
+package com.cinema.booking.event;
+
+import com.cinema.shared.outbox.OutboxEvent;
+
+import java.util.List;
+
+public record BookingConfirmedEvent(Long bookingId, String bookingCode, Long userId, Long showId,
+                                    List<Long> showSeatIds) implements OutboxEvent {
+
+    public static final String TOPIC = "cinema.booking-events";
+
+    @Override
+    public String outboxTopic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String outboxKey() {
+        return bookingId.toString();
+    }
+}
@@ -0,0 +1,4 @@
+package com.cinema.booking.event;
+
+public record BookingCreatedEvent(Long bookingId, Long userId, Long showId) {
+}
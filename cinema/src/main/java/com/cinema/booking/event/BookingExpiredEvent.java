@@ -0,0 +1,19 @@
+package com.cinema.booking.event;
+
+import com.cinema.shared.outbox.OutboxEvent;
+
+import java.util.List;
+
+public record BookingExpiredEvent(Long bookingId, Long userId, Long showId, List<Long> showSeatIds)
+        implements OutboxEvent {
+
+    @Override
+    public String outboxTopic() {
+        return BookingConfirmedEvent.TOPIC;
+    }
+
+    @Override
+    public String outboxKey() {
+        return bookingId.toString();
+    }
+}
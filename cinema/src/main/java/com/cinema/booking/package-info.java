@@ -1,5 +1,5 @@
 @org.springframework.modulith.ApplicationModule(
     displayName = "Booking Module",
-    allowedDependencies = {"user", "show"}
+    allowedDependencies = {"user", "show", "storage"}
 )
 package com.cinema.booking;
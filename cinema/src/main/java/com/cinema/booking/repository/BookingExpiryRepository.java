@@ -0,0 +1,92 @@
+package com.cinema.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based expiry of PENDING bookings. Due bookings are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, so concurrent sweepers on other nodes (and a
+ * payment confirming the same booking) take disjoint rows instead of waiting.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingExpiryRepository {
+
+    // One round trip: claim a chunk through idx_bookings_expires_at, expire it and unlock its seats
+    private static final String EXPIRE_DUE = """
+            WITH due AS (
+                SELECT id
+                FROM bookings
+                WHERE status = 'PENDING' AND expires_at <= ? AND deleted = FALSE
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), expired AS (
+                UPDATE bookings b
+                SET status = 'EXPIRED', cancelled_at = ?, version = b.version + 1, updated_by = 'system'
+                FROM due
+                WHERE b.id = due.id
+                RETURNING b.id, b.user_id, b.show_id, b.expires_at
+            ), released AS (
+                UPDATE show_seats ss
+                SET status = 'AVAILABLE', locked_by = NULL, locked_at = NULL, version = ss.version + 1
+                FROM booking_seats bs
+                JOIN expired e ON e.id = bs.booking_id
+                WHERE ss.id = bs.show_seat_id AND ss.status = 'LOCKED'
+                RETURNING ss.id
+            )
+            SELECT e.id, e.user_id, e.show_id, e.expires_at, bs.show_seat_id, r.id IS NOT NULL AS released
+            FROM expired e
+            JOIN booking_seats bs ON bs.booking_id = e.id
+            LEFT JOIN released r ON r.id = bs.show_seat_id
+            ORDER BY e.id
+            """;
+
+    private static final String FIND_BACKLOG = """
+            SELECT COUNT(*) AS backlog, MIN(expires_at) AS oldest
+            FROM bookings
+            WHERE status = 'PENDING' AND expires_at <= ? AND deleted = FALSE
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ExpiredBooking(Long id, Long userId, Long showId, LocalDateTime expiresAt,
+                                 List<Long> showSeatIds, List<Long> releasedShowSeatIds) {
+    }
+
+    public record Backlog(long size, LocalDateTime oldestExpiresAt) {
+    }
+
+    public List<ExpiredBooking> expireDue(LocalDateTime now, int limit) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        Map<Long, ExpiredBooking> expired = new LinkedHashMap<>();
+        jdbcTemplate.query(EXPIRE_DUE, rs -> {
+            long userId = rs.getLong("user_id");
+            long showId = rs.getLong("show_id");
+            LocalDateTime expiresAt = rs.getTimestamp("expires_at").toLocalDateTime();
+            ExpiredBooking booking = expired.computeIfAbsent(rs.getLong("id"), id ->
+                    new ExpiredBooking(id, userId, showId, expiresAt, new ArrayList<>(), new ArrayList<>()));
+            long showSeatId = rs.getLong("show_seat_id");
+            booking.showSeatIds().add(showSeatId);
+            if (rs.getBoolean("released")) {
+                booking.releasedShowSeatIds().add(showSeatId);
+            }
+        }, timestamp, limit, timestamp);
+        return List.copyOf(expired.values());
+    }
+
+    public Backlog findBacklog(LocalDateTime now) {
+        return jdbcTemplate.queryForObject(FIND_BACKLOG, (rs, rowNum) -> {
+            Timestamp oldest = rs.getTimestamp("oldest");
+            return new Backlog(rs.getLong("backlog"), oldest != null ? oldest.toLocalDateTime() : null);
+        }, Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,103 @@
+package com.cinema.booking.repository;
+
+import com.cinema.booking.dto.BookingHistoryItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The booking_history read model. Rows are rebuilt from the normalized tables with
+ * one INSERT ... SELECT per booking and read back with keyset pagination, so a page
+ * is a single range scan of idx_booking_history_user_keyset.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingHistoryRepository {
+
+    private static final String REFRESH = """
+            INSERT INTO booking_history (booking_id, user_id, created_at, booking_code, status, final_amount,
+                                         show_id, show_date, start_time, movie_id, movie_title, poster_url,
+                                         cinema_name, hall_name, seat_count, seat_labels, updated_at)
+            SELECT b.id, b.user_id, b.created_at, b.booking_code, b.status, b.final_amount,
+                   s.id, s.show_date, s.start_time, m.id, m.title, m.poster_url,
+                   c.name, h.name, COUNT(bs.id),
+                   string_agg(st.row_name || st.seat_number, ', ' ORDER BY st.row_name, st.seat_number),
+                   CURRENT_TIMESTAMP
+            FROM bookings b
+            JOIN shows s ON s.id = b.show_id
+            JOIN movies m ON m.id = s.movie_id
+            JOIN halls h ON h.id = s.hall_id
+            JOIN cinemas c ON c.id = h.cinema_id
+            JOIN booking_seats bs ON bs.booking_id = b.id
+            JOIN show_seats ss ON ss.id = bs.show_seat_id
+            JOIN seats st ON st.id = ss.seat_id
+            WHERE b.id = ?
+            GROUP BY b.id, s.id, m.id, h.id, c.id
+            ON CONFLICT (booking_id) DO UPDATE
+            SET status = EXCLUDED.status,
+                final_amount = EXCLUDED.final_amount,
+                seat_count = EXCLUDED.seat_count,
+                seat_labels = EXCLUDED.seat_labels,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String SELECT_COLUMNS = """
+            SELECT booking_id, booking_code, status, final_amount, created_at, show_id, show_date, start_time,
+                   movie_id, movie_title, poster_url, cinema_name, hall_name, seat_count, seat_labels
+            FROM booking_history
+            """;
+
+    private static final RowMapper<BookingHistoryItem> ROW_MAPPER = (rs, rowNum) -> BookingHistoryItem.builder()
+            .bookingId(rs.getLong("booking_id"))
+            .bookingCode(rs.getString("booking_code"))
+            .status(rs.getString("status"))
+            .finalAmount(rs.getBigDecimal("final_amount"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .showId(rs.getLong("show_id"))
+            .showDate(rs.getDate("show_date").toLocalDate())
+            .startTime(rs.getTime("start_time").toLocalTime())
+            .movieId(rs.getLong("movie_id"))
+            .movieTitle(rs.getString("movie_title"))
+            .posterUrl(rs.getString("poster_url"))
+            .cinemaName(rs.getString("cinema_name"))
+            .hallName(rs.getString("hall_name"))
+            .seatCount(rs.getInt("seat_count"))
+            .seatLabels(rs.getString("seat_labels"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int refresh(Long bookingId) {
+        return jdbcTemplate.update(REFRESH, bookingId);
+    }
+
+    public int updateStatus(Long bookingId, String status) {
+        return jdbcTemplate.update(
+                "UPDATE booking_history SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE booking_id = ?",
+                status, bookingId);
+    }
+
+    public List<BookingHistoryItem> findFirstPage(Long userId, int limit) {
+        return jdbcTemplate.query(SELECT_COLUMNS + """
+                        WHERE user_id = ?
+                        ORDER BY created_at DESC, booking_id DESC
+                        LIMIT ?
+                        """,
+                ROW_MAPPER, userId, limit);
+    }
+
+    // The row comparison keeps the whole predicate on the index, unlike OFFSET
+    public List<BookingHistoryItem> findPageBefore(Long userId, LocalDateTime createdAt, Long bookingId, int limit) {
+        return jdbcTemplate.query(SELECT_COLUMNS + """
+                        WHERE user_id = ? AND (created_at, booking_id) < (?, ?)
+                        ORDER BY created_at DESC, booking_id DESC
+                        LIMIT ?
+                        """,
+                ROW_MAPPER, userId, Timestamp.valueOf(createdAt), bookingId, limit);
+    }
+}
@@ -0,0 +1,34 @@
+package com.cinema.booking.repository;
+
+import com.cinema.booking.entity.Booking;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    Optional<Booking> findByIdAndUserId(Long id, Long userId);
+
+    // Also keeps the expiry sweeper (SKIP LOCKED) off the booking while it is being paid
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT bs.showSeat.id FROM BookingSeat bs WHERE bs.booking.id = :bookingId")
+    List<Long> findShowSeatIds(@Param("bookingId") Long bookingId);
+
+    // Bulk update, so storing a ticket does not bump the booking's version
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b SET b.ticketRef = :ticketRef WHERE b.id = :id")
+    int updateTicketRef(@Param("id") Long id, @Param("ticketRef") String ticketRef);
+}
@@ -0,0 +1,104 @@
+package com.cinema.booking.repository;
+
+import com.cinema.booking.dto.PaymentCallbackRequest;
+import com.cinema.booking.entity.Payment.PaymentMethod;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Durable inbox of verified payment callbacks. The unique (method, transaction id)
+ * constraint deduplicates gateway redeliveries, and a row stays pending until the
+ * transaction that applies it commits.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentCallbackInboxRepository {
+
+    private static final String INSERT = """
+            INSERT INTO payment_callback_inbox
+                (payment_method, transaction_id, booking_id, payment_id, amount, status, message)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (payment_method, transaction_id) DO NOTHING
+            RETURNING id
+            """;
+
+    // Skips a row another lane or node is applying right now; it is either applied or retried later
+    private static final String LOCK_PENDING = """
+            SELECT payment_method, transaction_id, booking_id, payment_id, amount, status, message
+            FROM payment_callback_inbox
+            WHERE id = ? AND applied_at IS NULL
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String FIND_PENDING = """
+            SELECT id, payment_method, booking_id
+            FROM payment_callback_inbox
+            WHERE applied_at IS NULL AND received_at < ? AND attempts < ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Entry(PaymentMethod method, PaymentCallbackRequest callback) {
+    }
+
+    public record Pending(Long id, PaymentMethod method, Long bookingId) {
+    }
+
+    /**
+     * Stores a callback, returning its id, or empty if the transaction was already received.
+     */
+    public Optional<Long> insert(PaymentMethod method, PaymentCallbackRequest callback) {
+        List<Long> ids = jdbcTemplate.queryForList(INSERT, Long.class,
+                method.name(), callback.getTransactionId(), callback.getBookingId(), callback.getPaymentId(),
+                callback.getAmount(), callback.getStatus(), callback.getMessage());
+        return ids.stream().findFirst();
+    }
+
+    public Optional<Entry> lockPending(Long id) {
+        return jdbcTemplate.query(LOCK_PENDING, (rs, rowNum) -> toEntry(rs), id).stream().findFirst();
+    }
+
+    public void markApplied(Long id) {
+        jdbcTemplate.update("UPDATE payment_callback_inbox SET applied_at = CURRENT_TIMESTAMP WHERE id = ?", id);
+    }
+
+    public void recordFailure(Long id, String error) {
+        jdbcTemplate.update("""
+                UPDATE payment_callback_inbox SET attempts = attempts + 1, last_error = ?
+                WHERE id = ?
+                """, error, id);
+    }
+
+    public List<Pending> findPending(LocalDateTime receivedBefore, int maxAttempts, int limit) {
+        return jdbcTemplate.query(FIND_PENDING,
+                (rs, rowNum) -> new Pending(rs.getLong("id"),
+                        PaymentMethod.valueOf(rs.getString("payment_method")), rs.getLong("booking_id")),
+                Timestamp.valueOf(receivedBefore), maxAttempts, limit);
+    }
+
+    public int deleteAppliedBefore(LocalDateTime appliedBefore) {
+        return jdbcTemplate.update("DELETE FROM payment_callback_inbox WHERE applied_at < ?",
+                Timestamp.valueOf(appliedBefore));
+    }
+
+    private static Entry toEntry(ResultSet rs) throws SQLException {
+        return new Entry(PaymentMethod.valueOf(rs.getString("payment_method")), PaymentCallbackRequest.builder()
+                .bookingId(rs.getLong("booking_id"))
+                .paymentId(rs.getLong("payment_id"))
+                .transactionId(rs.getString("transaction_id"))
+                .amount(rs.getBigDecimal("amount"))
+                .status(rs.getString("status"))
+                .message(rs.getString("message"))
+                .build());
+    }
+}
@@ -0,0 +1,215 @@
+package com.cinema.booking.service;
+
+import com.cinema.shared.config.AppProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assigns booking codes in memory. A code is 17 characters: {@code BK}, the
+ * date as {@code yyMMdd}, eight Crockford base32 characters packing the second of
+ * the day (17 bits), the node id (10 bits) and a per-second counter (13 bits), and
+ * a Luhn mod 32 check character that catches any single mistyped character and
+ * most swapped neighbours.
+ *
+ * <p>Node ids are leased from Redis unless {@code app.booking.node-id} is set. A
+ * node stops issuing under a lease it could not renew within the lease TTL, since
+ * another node may hold the id by then. When a node issues more than 8192 codes in
+ * one second it borrows the next second, so codes stay unique without locking; a
+ * restarted node starts a few seconds ahead so it does not reuse seconds its
+ * previous run borrowed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingCodeGenerator {
+
+    static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    static final int NODE_BITS = 10;
+    static final int COUNTER_BITS = 13;
+    static final int MAX_NODES = 1 << NODE_BITS;
+
+    private static final String PREFIX = "BK";
+    private static final int BODY_LENGTH = 8;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyMMdd");
+
+    private static final String NODE_SEQUENCE_KEY = "booking-code:node-seq";
+    private static final String NODE_LEASE_KEY = "booking-code:node:";
+    private static final Duration LEASE_TTL = Duration.ofSeconds(60);
+    static final long RESTART_MARGIN_SECONDS = 5;
+    private static final RedisScript<Long> RENEW_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/lease-renew.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties appProperties;
+
+    private final String leaseToken = UUID.randomUUID().toString();
+    private final AtomicLong state = new AtomicLong(
+            (Instant.now().getEpochSecond() + RESTART_MARGIN_SECONDS) << COUNTER_BITS);
+    private volatile int nodeId = -1;
+    // When the leased node id must be given up unless renewed, on the System.nanoTime() scale
+    private volatile long leaseDeadlineNanos;
+
+    public String next() {
+        int node = nodeId();
+        long now = Instant.now().getEpochSecond();
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long second = current >>> COUNTER_BITS;
+            long counter = current & COUNTER_MASK;
+            if (now > second) {
+                next = now << COUNTER_BITS;
+            } else if (counter < COUNTER_MASK) {
+                next = current + 1;
+            } else {
+                next = (second + 1) << COUNTER_BITS;
+            }
+        } while (!state.compareAndSet(current, next));
+
+        return format(next >>> COUNTER_BITS, node, next & COUNTER_MASK, zone());
+    }
+
+    static String format(long epochSecond, int node, long counter, ZoneId zone) {
+        LocalDate date = Instant.ofEpochSecond(epochSecond).atZone(zone).toLocalDate();
+        long secondOfDay = epochSecond - date.atStartOfDay(zone).toEpochSecond();
+        long value = (secondOfDay << (NODE_BITS + COUNTER_BITS)) | ((long) node << COUNTER_BITS) | counter;
+
+        char[] body = new char[BODY_LENGTH];
+        for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+            body[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        String payload = DATE_FORMAT.format(date) + new String(body);
+        return PREFIX + payload + ALPHABET.charAt(checkValue(payload));
+    }
+
+    /**
+     * Whether a code has the expected shape and check character, so mistyped codes
+     * can be rejected without a lookup. Lower case and the usual look-alikes
+     * ({@code O}, {@code I}, {@code L}) are accepted.
+     */
+    public static boolean isValid(String code) {
+        if (code == null || code.length() != PREFIX.length() + 6 + BODY_LENGTH + 1
+                || !code.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            return false;
+        }
+        String payload = normalize(code.substring(PREFIX.length()));
+        if (payload == null) {
+            return false;
+        }
+        int sum = 0;
+        int factor = 1;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(payload.charAt(i));
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / 32 + addend % 32;
+        }
+        return sum % 32 == 0;
+    }
+
+    @Scheduled(fixedDelay = 20_000)
+    public void renewLease() {
+        int node = nodeId;
+        if (node < 0 || appProperties.getBooking().getNodeId() >= 0) {
+            return;
+        }
+        // Taken before the call, so the deadline never outlives the lease in Redis
+        long renewedAt = System.nanoTime();
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(NODE_LEASE_KEY + node),
+                    leaseToken, Long.toString(LEASE_TTL.toMillis()));
+            if (renewed == null || renewed == 0) {
+                log.warn("Lost booking code node lease {}, acquiring a new one", node);
+                nodeId = -1;
+            } else {
+                leaseDeadlineNanos = renewedAt + LEASE_TTL.toNanos();
+            }
+        } catch (Exception e) {
+            log.warn("Could not renew booking code node lease {}: {}", node, e.getMessage());
+        }
+    }
+
+    private int nodeId() {
+        int node = nodeId;
+        if (node >= 0 && !leaseExpired()) {
+            return node;
+        }
+        synchronized (this) {
+            if (nodeId >= 0 && leaseExpired()) {
+                log.warn("Booking code node lease {} was not renewed in time, acquiring a new one", nodeId);
+                nodeId = -1;
+            }
+            if (nodeId < 0) {
+                int configured = appProperties.getBooking().getNodeId();
+                nodeId = configured >= 0 ? configured % MAX_NODES : acquireLease();
+                log.info("Issuing booking codes as node {}", nodeId);
+            }
+            return nodeId;
+        }
+    }
+
+    private boolean leaseExpired() {
+        return appProperties.getBooking().getNodeId() < 0 && System.nanoTime() - leaseDeadlineNanos >= 0;
+    }
+
+    private int acquireLease() {
+        long acquiredAt = System.nanoTime();
+        for (int attempt = 0; attempt < MAX_NODES; attempt++) {
+            Long sequence = redisTemplate.opsForValue().increment(NODE_SEQUENCE_KEY);
+            int candidate = (int) Math.floorMod(sequence, (long) MAX_NODES);
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(NODE_LEASE_KEY + candidate, leaseToken, LEASE_TTL))) {
+                leaseDeadlineNanos = acquiredAt + LEASE_TTL.toNanos();
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("All " + MAX_NODES + " booking code node ids are leased");
+    }
+
+    private ZoneId zone() {
+        return ZoneId.of(appProperties.getBooking().getCodeTimeZone());
+    }
+
+    private static int checkValue(String payload) {
+        int sum = 0;
+        int factor = 2;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(payload.charAt(i));
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / 32 + addend % 32;
+        }
+        return (32 - sum % 32) % 32;
+    }
+
+    private static String normalize(String payload) {
+        StringBuilder normalized = new StringBuilder(payload.length());
+        for (char c : payload.toUpperCase().toCharArray()) {
+            char mapped = switch (c) {
+                case 'O' -> '0';
+                case 'I', 'L' -> '1';
+                default -> c;
+            };
+            if (ALPHABET.indexOf(mapped) < 0) {
+                return null;
+            }
+            normalized.append(mapped);
+        }
+        return normalized.toString();
+    }
+}
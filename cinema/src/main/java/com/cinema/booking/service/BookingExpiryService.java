@@ -0,0 +1,153 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.event.BookingExpiredEvent;
+import com.cinema.booking.repository.BookingExpiryRepository;
+import com.cinema.booking.repository.BookingExpiryRepository.ExpiredBooking;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.timer.ExpiryWheel;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.SeatStatusChangedEvent;
+import com.cinema.show.event.ShowSeatsChangedEvent;
+import com.cinema.show.service.SeatHoldService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires PENDING bookings whose payment window has passed. Every node sweeps on a
+ * fixed delay and claims due bookings in chunks with {@code FOR UPDATE SKIP LOCKED},
+ * so nodes share the backlog instead of processing it twice or queueing behind one
+ * another. Bookings created on this node are also registered in a timing wheel,
+ * which starts a sweep as soon as one of them is due.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryService {
+
+    private final BookingExpiryRepository bookingExpiryRepository;
+    private final SeatHoldService seatHoldService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final ExpiryWheel<Long> wheel = new ExpiryWheel<>("bookings", bookingIds -> sweep());
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestDueSeconds = new AtomicLong();
+    private Counter expiredCounter;
+    private Timer lagTimer;
+    private Timer sweepTimer;
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("booking.expiry.backlog", backlog, AtomicLong::get)
+                .description("PENDING bookings past their expiry at the last sweep")
+                .register(meterRegistry);
+        Gauge.builder("booking.expiry.oldest.due.seconds", oldestDueSeconds, AtomicLong::get)
+                .description("How long the oldest due PENDING booking had been waiting at the last sweep")
+                .register(meterRegistry);
+        expiredCounter = Counter.builder("booking.expiry.expired").register(meterRegistry);
+        lagTimer = Timer.builder("booking.expiry.lag")
+                .description("Time from a booking's expiry to the sweep that expired it")
+                .register(meterRegistry);
+        sweepTimer = Timer.builder("booking.expiry.sweep").register(meterRegistry);
+        wheel.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        wheel.stop();
+    }
+
+    public void register(Long bookingId, LocalDateTime expiresAt) {
+        wheel.schedule(bookingId, expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.expiry-sweep-millis:5000}")
+    public void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sweepTimer.record(this::expireDue);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private void expireDue() {
+        int batchSize = appProperties.getBooking().getExpiryBatchSize();
+        try {
+            recordBacklog(LocalDateTime.now());
+            int total = 0;
+            List<ExpiredBooking> expired;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                expired = transactionTemplate.execute(status -> expireBatch(now, batchSize));
+                if (expired == null) {
+                    break;
+                }
+                expired.forEach(booking -> afterExpire(booking, now));
+                total += expired.size();
+            } while (expired.size() >= batchSize);
+
+            if (total > 0) {
+                log.info("Expired {} pending bookings", total);
+            }
+        } catch (Exception e) {
+            log.warn("Booking expiry sweep failed: {}", e.getMessage());
+        }
+    }
+
+    // Expiry events are published inside the transaction, so the outbox records them with it
+    private List<ExpiredBooking> expireBatch(LocalDateTime now, int batchSize) {
+        List<ExpiredBooking> expired = bookingExpiryRepository.expireDue(now, batchSize);
+        for (ExpiredBooking booking : expired) {
+            if (!booking.releasedShowSeatIds().isEmpty()) {
+                eventPublisher.publishEvent(new ShowSeatsChangedEvent(
+                        booking.showId(), List.copyOf(booking.releasedShowSeatIds()), ShowSeatStatus.AVAILABLE));
+            }
+            eventPublisher.publishEvent(new BookingExpiredEvent(
+                    booking.id(), booking.userId(), booking.showId(), List.copyOf(booking.showSeatIds())));
+        }
+        return expired;
+    }
+
+    // Runs after commit: the inventory and the Redis holds must never run ahead of the database
+    private void afterExpire(ExpiredBooking booking, LocalDateTime now) {
+        expiredCounter.increment();
+        lagTimer.record(Duration.between(booking.expiresAt(), now));
+        booking.releasedShowSeatIds().forEach(showSeatId -> eventPublisher.publishEvent(
+                new SeatStatusChangedEvent(booking.showId(), showSeatId, ShowSeatStatus.AVAILABLE)));
+        try {
+            seatHoldService.release(booking.showId(), booking.userId(), booking.showSeatIds());
+        } catch (Exception e) {
+            log.warn("Could not release holds of expired booking {}: {}", booking.id(), e.getMessage());
+        }
+    }
+
+    private void recordBacklog(LocalDateTime now) {
+        BookingExpiryRepository.Backlog current = bookingExpiryRepository.findBacklog(now);
+        backlog.set(current.size());
+        oldestDueSeconds.set(current.oldestExpiresAt() == null ? 0
+                : Duration.between(current.oldestExpiresAt(), now).toSeconds());
+    }
+}
@@ -0,0 +1,41 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.entity.Booking.BookingStatus;
+import com.cinema.booking.event.BookingConfirmedEvent;
+import com.cinema.booking.event.BookingCreatedEvent;
+import com.cinema.booking.event.BookingExpiredEvent;
+import com.cinema.booking.repository.BookingHistoryRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps booking_history in step with the booking lifecycle. The listeners run in
+ * the publisher's transaction, so a user sees a booking in their history as soon
+ * as the booking itself commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingHistoryProjector {
+
+    private final BookingHistoryRepository bookingHistoryRepository;
+    private final EntityManager entityManager;
+
+    @EventListener
+    public void onBookingCreated(BookingCreatedEvent event) {
+        // The projection is built by SQL from the booking rows, which are still pending in the session
+        entityManager.flush();
+        bookingHistoryRepository.refresh(event.bookingId());
+    }
+
+    @EventListener
+    public void onBookingConfirmed(BookingConfirmedEvent event) {
+        bookingHistoryRepository.updateStatus(event.bookingId(), BookingStatus.CONFIRMED.name());
+    }
+
+    @EventListener
+    public void onBookingExpired(BookingExpiredEvent event) {
+        bookingHistoryRepository.updateStatus(event.bookingId(), BookingStatus.EXPIRED.name());
+    }
+}
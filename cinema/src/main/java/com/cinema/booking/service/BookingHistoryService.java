@@ -0,0 +1,66 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.BookingHistoryItem;
+import com.cinema.booking.repository.BookingHistoryRepository;
+import com.cinema.shared.dto.CursorPage;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class BookingHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final BookingHistoryRepository bookingHistoryRepository;
+
+    record Cursor(LocalDateTime createdAt, Long bookingId) {
+    }
+
+    public CursorPage<BookingHistoryItem> getHistory(Long userId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // One extra row tells whether another page follows
+        List<BookingHistoryItem> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = bookingHistoryRepository.findFirstPage(userId, size + 1);
+        } else {
+            Cursor after = decodeCursor(cursor);
+            rows = bookingHistoryRepository.findPageBefore(userId, after.createdAt(), after.bookingId(), size + 1);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<BookingHistoryItem> items = hasMore ? rows.subList(0, size) : rows;
+        BookingHistoryItem last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return CursorPage.<BookingHistoryItem>builder()
+                .items(List.copyOf(items))
+                .nextCursor(hasMore ? encodeCursor(new Cursor(last.getCreatedAt(), last.getBookingId())) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    static String encodeCursor(Cursor cursor) {
+        String value = cursor.createdAt() + "|" + cursor.bookingId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Invalid cursor");
+        }
+    }
+}
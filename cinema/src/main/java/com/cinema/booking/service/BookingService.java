@@ -0,0 +1,160 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.BookingResponse;
+import com.cinema.booking.dto.CreateBookingRequest;
+import com.cinema.booking.entity.Booking;
+import com.cinema.booking.entity.BookingSeat;
+import com.cinema.booking.event.BookingCreatedEvent;
+import com.cinema.booking.repository.BookingRepository;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.dto.SeatConflict;
+import com.cinema.show.entity.ShowSeat;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.ShowSeatsChangedEvent;
+import com.cinema.show.repository.ShowRepository;
+import com.cinema.show.repository.ShowSeatRepository;
+import com.cinema.show.service.SeatHoldService;
+import com.cinema.user.entity.User;
+import com.cinema.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class BookingService {
+
+    private final BookingRepository bookingRepository;
+    private final ShowRepository showRepository;
+    private final ShowSeatRepository showSeatRepository;
+    private final UserRepository userRepository;
+    private final SeatHoldService seatHoldService;
+    private final BookingExpiryService bookingExpiryService;
+    private final BookingCodeGenerator bookingCodeGenerator;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Converts the user's Redis seat holds into a PENDING booking. The holds are
+     * extended to the payment timeout so they keep protecting the seats until the
+     * booking is paid or expires.
+     */
+    @Transactional
+    public BookingResponse createBooking(Long userId, CreateBookingRequest request) {
+        List<Long> seatIds = List.copyOf(new LinkedHashSet<>(request.getShowSeatIds()));
+        recordCheckoutTime(seatIds.size());
+        Duration paymentTimeout = Duration.ofMinutes(appProperties.getBooking().getPaymentTimeoutMinutes());
+        int maxSeats = appProperties.getBooking().getMaxSeatsPerBooking();
+        if (seatIds.size() > maxSeats) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "A booking can contain at most " + maxSeats + " seats");
+        }
+
+        seatHoldService.extend(request.getShowId(), userId, seatIds, paymentTimeout);
+
+        List<ShowSeat> showSeats = showSeatRepository.findAllForUpdate(request.getShowId(), seatIds);
+        if (showSeats.size() != seatIds.size()) {
+            throw new BusinessException(ErrorCode.SEAT_NOT_FOUND);
+        }
+        List<SeatConflict> conflicts = showSeats.stream()
+                .filter(showSeat -> !showSeat.isAvailable())
+                .map(showSeat -> SeatConflict.of(showSeat.getId(), showSeat.isSold()
+                        ? ErrorCode.SEAT_ALREADY_SOLD
+                        : ErrorCode.SEAT_ALREADY_LOCKED))
+                .toList();
+        if (!conflicts.isEmpty()) {
+            throw new BusinessException(conflicts.get(0).code() == ErrorCode.SEAT_ALREADY_SOLD.getCode()
+                    ? ErrorCode.SEAT_ALREADY_SOLD
+                    : ErrorCode.SEAT_ALREADY_LOCKED, conflicts);
+        }
+
+        User user = userRepository.getReferenceById(userId);
+        BigDecimal totalAmount = showSeats.stream()
+                .map(ShowSeat::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Booking booking = Booking.builder()
+                .bookingCode(bookingCodeGenerator.next())
+                .user(user)
+                .show(showRepository.getReferenceById(request.getShowId()))
+                .totalAmount(totalAmount)
+                .finalAmount(totalAmount)
+                .expiresAt(LocalDateTime.now().plus(paymentTimeout))
+                .build();
+
+        for (ShowSeat showSeat : showSeats) {
+            showSeat.lock(user);
+            booking.addBookingSeat(BookingSeat.builder()
+                    .showSeat(showSeat)
+                    .price(showSeat.getPrice())
+                    .build());
+        }
+
+        booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new ShowSeatsChangedEvent(request.getShowId(), seatIds, ShowSeatStatus.LOCKED));
+        eventPublisher.publishEvent(new BookingCreatedEvent(booking.getId(), userId, request.getShowId()));
+        bookingExpiryService.register(booking.getId(), booking.getExpiresAt());
+        log.info("User {} created booking {} for show {} with {} seats",
+                userId, booking.getId(), request.getShowId(), seatIds.size());
+        return toBookingResponse(booking);
+    }
+
+    // Times the whole checkout transaction, commit included, by number of seats
+    private void recordCheckoutTime(int seats) {
+        long startedAt = System.nanoTime();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                Timer.builder("booking.checkout")
+                        .tag("seats", Integer.toString(seats))
+                        .tag("outcome", status == STATUS_COMMITTED ? "committed" : "rolled_back")
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    public BookingResponse getBooking(Long userId, Long bookingId) {
+        Booking booking = bookingRepository.findByIdAndUserId(bookingId, userId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.BOOKING_NOT_FOUND));
+        return toBookingResponse(booking);
+    }
+
+    private BookingResponse toBookingResponse(Booking booking) {
+        return BookingResponse.builder()
+                .id(booking.getId())
+                .bookingCode(booking.getBookingCode())
+                .showId(booking.getShow().getId())
+                .status(booking.getStatus().name())
+                .totalAmount(booking.getTotalAmount())
+                .discountAmount(booking.getDiscountAmount())
+                .finalAmount(booking.getFinalAmount())
+                .expiresAt(booking.getExpiresAt())
+                .createdAt(booking.getCreatedAt())
+                .seats(booking.getBookingSeats().stream()
+                        .map(bookingSeat -> BookingResponse.SeatItem.builder()
+                                .showSeatId(bookingSeat.getShowSeat().getId())
+                                .price(bookingSeat.getPrice())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.PaymentCallbackRequest;
+import com.cinema.booking.entity.Payment.PaymentMethod;
+import com.cinema.booking.repository.PaymentCallbackInboxRepository;
+import com.cinema.booking.repository.PaymentCallbackInboxRepository.Pending;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front stage of payment callbacks. A callback is verified and stored in the
+ * payment_callback_inbox table, whose unique transaction id deduplicates gateway
+ * redeliveries, before the gateway gets its acknowledgement. It is then queued on
+ * a lane chosen by booking id. Each lane is a single worker thread, so callbacks
+ * of one booking are applied in arrival order while different bookings proceed in
+ * parallel. A row is marked applied in the transaction that applies it; rows left
+ * pending by a crash, a shutdown or a failure are re-queued by a sweep.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentCallbackService {
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    public enum Outcome {
+        ACCEPTED, DUPLICATE
+    }
+
+    private final PaymentService paymentService;
+    private final PaymentCallbackInboxRepository inboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor[] lanes;
+
+    @PostConstruct
+    void start() {
+        AppProperties.Payment payment = appProperties.getPayment();
+        lanes = new ThreadPoolExecutor[payment.getCallbackLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "payment-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(payment.getLaneCapacity()), runnable -> new Thread(runnable, name));
+        }
+        Gauge.builder("payment.callback.queued", this, service -> service.queued())
+                .description("Accepted payment callbacks waiting to be applied")
+                .register(meterRegistry);
+    }
+
+    // Lets queued callbacks finish; anything left stays pending in the inbox for the next sweep
+    @PreDestroy
+    void stop() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public Outcome accept(PaymentMethod method, PaymentCallbackRequest callback) {
+        long startedAt = System.nanoTime();
+        String result = "rejected";
+        try {
+            String secret = appProperties.getPayment().getSecrets().get(method.name());
+            if (!PaymentSignature.verify(secret, callback)) {
+                throw new BusinessException(ErrorCode.PAYMENT_INVALID_SIGNATURE);
+            }
+
+            Long id = inboxRepository.insert(method, callback).orElse(null);
+            if (id == null) {
+                result = "duplicate";
+                return Outcome.DUPLICATE;
+            }
+            enqueue(id, method, callback.getBookingId());
+            result = "accepted";
+            return Outcome.ACCEPTED;
+        } finally {
+            meterRegistry.timer("payment.callback.ack", "method", method.name(), "result", result)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Also runs at startup, picking up callbacks stored before a crash or shutdown.
+    // Recent rows are left to the node that received them.
+    @Scheduled(fixedDelayString = "${app.payment.callback-sweep-millis:30000}")
+    public void requeuePending() {
+        AppProperties.Payment payment = appProperties.getPayment();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (Pending pending : inboxRepository.findPending(
+                    now.minusSeconds(payment.getCallbackGraceSeconds()), payment.getCallbackMaxAttempts(),
+                    SWEEP_BATCH_SIZE)) {
+                enqueue(pending.id(), pending.method(), pending.bookingId());
+            }
+            int deleted = inboxRepository.deleteAppliedBefore(now.minusHours(payment.getInboxRetentionHours()));
+            if (deleted > 0) {
+                log.debug("Deleted {} applied payment callbacks", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to sweep the payment callback inbox: {}", e.getMessage());
+        }
+    }
+
+    private void enqueue(Long id, PaymentMethod method, Long bookingId) {
+        if (!queued.add(id)) {
+            return;
+        }
+        try {
+            lanes[Math.floorMod(bookingId, lanes.length)].execute(() -> {
+                try {
+                    apply(id, method);
+                } finally {
+                    queued.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Stored already, so the sweep applies it once the lane drains
+            queued.remove(id);
+            log.warn("Payment callback lane is full, callback {} waits for the sweep", id);
+        }
+    }
+
+    void apply(Long id, PaymentMethod method) {
+        try {
+            Boolean applied = transactionTemplate.execute(status -> inboxRepository.lockPending(id)
+                    .map(entry -> {
+                        paymentService.applyCallback(entry.method(), entry.callback());
+                        inboxRepository.markApplied(id);
+                        return true;
+                    })
+                    .orElse(false));
+            if (Boolean.TRUE.equals(applied)) {
+                meterRegistry.counter("payment.callback.applied", "method", method.name()).increment();
+            }
+        } catch (Exception e) {
+            // Stays pending; the sweep retries it until it runs out of attempts
+            log.error("Could not apply {} callback {}: {}", method, id, e.getMessage());
+            meterRegistry.counter("payment.callback.failed", "method", method.name()).increment();
+            try {
+                inboxRepository.recordFailure(id, e.getMessage());
+            } catch (Exception ignored) {
+                // Retried without counting the attempt
+            }
+        }
+    }
+
+    private int queued() {
+        return Arrays.stream(lanes).mapToInt(lane -> lane.getQueue().size()).sum();
+    }
+}
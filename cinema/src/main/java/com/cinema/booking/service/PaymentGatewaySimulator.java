@@ -0,0 +1,168 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.PaymentCallbackRequest;
+import com.cinema.booking.dto.PaymentStormReport;
+import com.cinema.booking.dto.PaymentStormRequest;
+import com.cinema.booking.entity.Payment;
+import com.cinema.booking.repository.PaymentRepository;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Development stand-in for the payment gateways. Replays a storm of signed
+ * callbacks, every transaction delivered several times in shuffled order, against
+ * this application's callback endpoint over HTTP and reports throughput and
+ * acknowledgement latency as the gateway would see them.
+ */
+@Service
+@Profile("dev")
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentGatewaySimulator {
+
+    private static final int MAX_CALLBACKS = 1_000_000;
+
+    private final PaymentRepository paymentRepository;
+    private final AppProperties appProperties;
+    private final ObjectMapper objectMapper;
+
+    private record Delivery(Payment.PaymentMethod method, String body) {
+    }
+
+    public PaymentStormReport storm(PaymentStormRequest request) {
+        long callbacks = (long) request.getTransactions() * request.getDeliveriesPerTransaction();
+        if (callbacks > MAX_CALLBACKS) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "A storm can send at most " + MAX_CALLBACKS + " callbacks");
+        }
+        List<Delivery> deliveries = buildDeliveries(request);
+        Collections.shuffle(deliveries);
+
+        long[] latencies = new long[deliveries.size()];
+        AtomicInteger acknowledged = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(request.getConcurrency());
+        String baseUrl = appProperties.getPayment().getCallbackBaseUrl() + "/payments/callback/";
+        long startedAt = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            for (int i = 0; i < deliveries.size(); i++) {
+                Delivery delivery = deliveries.get(i);
+                int index = i;
+                inFlight.acquireUninterruptibly();
+                executor.execute(() -> {
+                    long sentAt = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder()
+                                        .uri(URI.create(baseUrl + delivery.method()))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString(delivery.body()))
+                                        .build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            acknowledged.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        log.debug("Simulated callback failed: {}", e.getMessage());
+                    } finally {
+                        latencies[index] = System.nanoTime() - sentAt;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        Arrays.sort(latencies);
+        PaymentStormReport report = PaymentStormReport.builder()
+                .callbacks(deliveries.size())
+                .acknowledged(acknowledged.get())
+                .rejected(deliveries.size() - acknowledged.get())
+                .elapsedMillis(elapsedMillis)
+                .callbacksPerSecond(deliveries.size() * 1000L / elapsedMillis)
+                .p50AckMillis(percentileMillis(latencies, 0.50))
+                .p99AckMillis(percentileMillis(latencies, 0.99))
+                .maxAckMillis(percentileMillis(latencies, 1.0))
+                .build();
+        log.info("Payment callback storm: {}", report);
+        return report;
+    }
+
+    private List<Delivery> buildDeliveries(PaymentStormRequest request) {
+        List<Payment> payments = paymentRepository.findAllById(request.getPaymentIds());
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < request.getTransactions(); i++) {
+            PaymentCallbackRequest callback;
+            Payment.PaymentMethod method;
+            if (i < payments.size()) {
+                Payment payment = payments.get(i);
+                method = payment.getPaymentMethod();
+                callback = callback(payment.getBooking().getId(), payment.getId(), payment.getAmount(), run, i);
+            } else {
+                // Unknown payments still go through verification, deduplication and the lanes
+                method = request.getPaymentMethod();
+                callback = callback(-1L - i, -1L - i, BigDecimal.valueOf(100_000), run, i);
+            }
+            String secret = appProperties.getPayment().getSecrets().get(method.name());
+            if (secret == null) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR, "No callback secret configured for " + method);
+            }
+            callback.setSignature(PaymentSignature.sign(secret, callback));
+            String body = toJson(callback);
+            for (int delivery = 0; delivery < request.getDeliveriesPerTransaction(); delivery++) {
+                deliveries.add(new Delivery(method, body));
+            }
+        }
+        return deliveries;
+    }
+
+    private static PaymentCallbackRequest callback(Long bookingId, Long paymentId, BigDecimal amount,
+                                                   String run, int index) {
+        return PaymentCallbackRequest.builder()
+                .bookingId(bookingId)
+                .paymentId(paymentId)
+                .transactionId("SIM-" + run + "-" + index)
+                .amount(amount)
+                .status(PaymentCallbackRequest.STATUS_SUCCESS)
+                .build();
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize simulated callback", e);
+        }
+    }
+}
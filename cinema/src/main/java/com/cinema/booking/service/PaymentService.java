@@ -0,0 +1,145 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.CreatePaymentRequest;
+import com.cinema.booking.dto.PaymentCallbackRequest;
+import com.cinema.booking.dto.PaymentResponse;
+import com.cinema.booking.entity.Booking;
+import com.cinema.booking.entity.BookingSeat;
+import com.cinema.booking.entity.Payment;
+import com.cinema.booking.entity.Payment.PaymentMethod;
+import com.cinema.booking.entity.Payment.PaymentStatus;
+import com.cinema.booking.event.BookingConfirmedEvent;
+import com.cinema.booking.repository.BookingRepository;
+import com.cinema.booking.repository.PaymentRepository;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.entity.ShowSeat;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.ShowSeatsChangedEvent;
+import com.cinema.show.repository.ShowSeatRepository;
+import com.cinema.show.service.SeatHoldService;
+import com.cinema.user.service.PointsLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PaymentService {
+
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final ShowSeatRepository showSeatRepository;
+    private final SeatHoldService seatHoldService;
+    private final PointsLedgerService pointsLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public PaymentResponse createPayment(Long userId, Long bookingId, CreatePaymentRequest request) {
+        Booking booking = bookingRepository.findByIdAndUserId(bookingId, userId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.BOOKING_NOT_FOUND));
+        switch (booking.getStatus()) {
+            case CONFIRMED -> throw new BusinessException(ErrorCode.PAYMENT_ALREADY_COMPLETED);
+            case CANCELLED -> throw new BusinessException(ErrorCode.BOOKING_ALREADY_CANCELLED);
+            case EXPIRED -> throw new BusinessException(ErrorCode.BOOKING_PAYMENT_TIMEOUT);
+            default -> {
+            }
+        }
+
+        Payment payment = Payment.builder()
+                .booking(booking)
+                .paymentMethod(request.getPaymentMethod())
+                .amount(booking.getFinalAmount())
+                .build();
+        booking.getPayments().add(payment);
+        payment = paymentRepository.save(payment);
+        log.info("Created {} payment {} for booking {}", request.getPaymentMethod(), payment.getId(), bookingId);
+        return toPaymentResponse(payment);
+    }
+
+    /**
+     * Applies a verified gateway callback. Callbacks of one booking are applied one
+     * at a time by PaymentCallbackService; the row locks cover other nodes and the
+     * expiry sweeper. Callbacks for settled payments are ignored.
+     */
+    @Transactional
+    public void applyCallback(PaymentMethod method, PaymentCallbackRequest callback) {
+        Payment payment = paymentRepository.findByIdForUpdate(callback.getPaymentId()).orElse(null);
+        if (payment == null || payment.getPaymentMethod() != method
+                || !payment.getBooking().getId().equals(callback.getBookingId())) {
+            log.debug("Ignoring {} callback for unknown payment {}", method, callback.getPaymentId());
+            return;
+        }
+        if (payment.getStatus() != PaymentStatus.PENDING && payment.getStatus() != PaymentStatus.PROCESSING) {
+            log.debug("Ignoring callback for settled payment {}", payment.getId());
+            return;
+        }
+
+        payment.setCallbackData(callback.getStatus() + (callback.getMessage() != null ? ": " + callback.getMessage() : ""));
+        if (payment.getAmount().compareTo(callback.getAmount()) != 0) {
+            log.warn("Payment {} was called back with amount {} instead of {}",
+                    payment.getId(), callback.getAmount(), payment.getAmount());
+            payment.fail("Amount mismatch");
+            return;
+        }
+        if (!callback.isSuccess()) {
+            payment.fail(callback.getMessage() != null ? callback.getMessage() : "Declined by gateway");
+            return;
+        }
+
+        Booking booking = bookingRepository.findByIdForUpdate(callback.getBookingId())
+                .orElseThrow(() -> new BusinessException(ErrorCode.BOOKING_NOT_FOUND));
+        payment.complete(callback.getTransactionId());
+        if (!booking.isPending()) {
+            log.warn("Payment {} completed for {} booking {}, refund required",
+                    payment.getId(), booking.getStatus(), booking.getId());
+            return;
+        }
+
+        List<Long> showSeatIds = booking.getBookingSeats().stream()
+                .map(bookingSeat -> bookingSeat.getShowSeat().getId())
+                .toList();
+        // Loads all seats in one query instead of one per lazy reference
+        showSeatRepository.findAllById(showSeatIds);
+        booking.confirm();
+        booking.setPointsEarned(pointsLedgerService.earnForBooking(
+                booking.getUser().getId(), booking.getId(), booking.getFinalAmount()));
+        booking.getBookingSeats().stream()
+                .map(BookingSeat::getShowSeat)
+                .forEach(ShowSeat::sell);
+
+        Long showId = booking.getShow().getId();
+        Long userId = booking.getUser().getId();
+        eventPublisher.publishEvent(new ShowSeatsChangedEvent(showId, showSeatIds, ShowSeatStatus.SOLD));
+        eventPublisher.publishEvent(new BookingConfirmedEvent(
+                booking.getId(), booking.getBookingCode(), booking.getUser().getId(), showId, showSeatIds));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatHoldService.markSold(showId, userId, showSeatIds);
+            }
+        });
+        log.info("Booking {} confirmed by {} transaction {}", booking.getId(), method, callback.getTransactionId());
+    }
+
+    private PaymentResponse toPaymentResponse(Payment payment) {
+        return PaymentResponse.builder()
+                .id(payment.getId())
+                .bookingId(payment.getBooking().getId())
+                .paymentMethod(payment.getPaymentMethod().name())
+                .amount(payment.getAmount())
+                .status(payment.getStatus().name())
+                .transactionId(payment.getTransactionId())
+                .createdAt(payment.getCreatedAt())
+                .paidAt(payment.getPaidAt())
+                .build();
+    }
+}
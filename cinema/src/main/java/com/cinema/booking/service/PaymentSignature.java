@@ -0,0 +1,47 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.PaymentCallbackRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Signs and verifies payment callbacks with HMAC-SHA256 over
+ * {@code bookingId|paymentId|transactionId|amount|status}.
+ */
+public final class PaymentSignature {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private PaymentSignature() {
+    }
+
+    public static String sign(String secret, PaymentCallbackRequest callback) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return HexFormat.of().formatHex(mac.doFinal(payload(callback)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign payment callback", e);
+        }
+    }
+
+    public static boolean verify(String secret, PaymentCallbackRequest callback) {
+        if (secret == null || callback.getSignature() == null) {
+            return false;
+        }
+        byte[] expected = sign(secret, callback).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = callback.getSignature().toLowerCase().getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private static byte[] payload(PaymentCallbackRequest callback) {
+        return (callback.getBookingId() + "|" + callback.getPaymentId() + "|" + callback.getTransactionId()
+                + "|" + callback.getAmount().stripTrailingZeros().toPlainString() + "|" + callback.getStatus())
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+package com.cinema.booking.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds and renders ticket QR codes. The payload is
+ * {@code CT1.bookingCode.showId.seat-seat-....signature}, signed with HMAC-SHA256
+ * so a gate can check it offline. Rendering is deterministic, so the same booking
+ * always produces the same PNG and therefore the same content-addressed object.
+ */
+public final class TicketRenderer {
+
+    private static final String VERSION = "CT1";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 12;
+    private static final int REF_LENGTH = 32;
+
+    private TicketRenderer() {
+    }
+
+    public static String payload(String secret, String bookingCode, Long showId, Collection<Long> showSeatIds) {
+        String seats = showSeatIds.stream().sorted().map(String::valueOf).collect(Collectors.joining("-"));
+        String body = VERSION + '.' + bookingCode + '.' + showId + '.' + seats;
+        return body + '.' + sign(secret, body);
+    }
+
+    public static boolean verify(String secret, String payload) {
+        int dot = payload.lastIndexOf('.');
+        if (secret == null || dot < 0 || !payload.startsWith(VERSION + '.')) {
+            return false;
+        }
+        byte[] expected = sign(secret, payload.substring(0, dot)).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = payload.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    public static byte[] render(String payload, int size) {
+        try {
+            BitMatrix matrix = new QRCodeWriter().encode(payload, BarcodeFormat.QR_CODE, size, size, Map.of(
+                    EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+                    EncodeHintType.MARGIN, 2));
+            BufferedImage image = new BufferedImage(matrix.getWidth(), matrix.getHeight(), BufferedImage.TYPE_BYTE_BINARY);
+            for (int y = 0; y < matrix.getHeight(); y++) {
+                for (int x = 0; x < matrix.getWidth(); x++) {
+                    image.setRGB(x, y, matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (WriterException | IOException e) {
+            throw new IllegalStateException("Could not render ticket QR code", e);
+        }
+    }
+
+    // First 128 bits of the SHA-256 of the image, as hex
+    public static String ref(byte[] png) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(png);
+            return HexFormat.of().formatHex(digest).substring(0, REF_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String objectName(String ref) {
+        return "tickets/" + ref.substring(0, 2) + "/" + ref + ".png";
+    }
+
+    private static String sign(String secret, String body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            byte[] signature = Arrays.copyOf(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)), SIGNATURE_BYTES);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign ticket", e);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.entity.Booking;
+import com.cinema.booking.event.BookingConfirmedEvent;
+import com.cinema.booking.repository.BookingRepository;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.storage.service.StorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders ticket QR codes off the confirmation path. Confirming a booking only
+ * queues a render after commit; the PNG goes to object storage under its content
+ * hash and the booking keeps that hash as {@code ticketRef}. Reads are served from
+ * a byte-bounded LRU cache, then storage, and a ticket that was never rendered
+ * (queue full, node restarted) is rendered on first view. Renders are
+ * deterministic, so a render racing another one writes the same object and ref.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketService {
+
+    public record Ticket(String ref, byte[] png) {
+    }
+
+    private final BookingRepository bookingRepository;
+    private final StorageService storageService;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final TicketCache cache = new TicketCache();
+    private ThreadPoolExecutor renderers;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void start() {
+        AppProperties.Ticket ticket = appProperties.getTicket();
+        AtomicInteger threads = new AtomicInteger();
+        renderers = new ThreadPoolExecutor(ticket.getRenderThreads(), ticket.getRenderThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(ticket.getRenderQueueCapacity()),
+                runnable -> new Thread(runnable, "ticket-render-" + threads.getAndIncrement()));
+        Gauge.builder("ticket.render.queued", renderers, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("ticket.cache.bytes", cache, TicketCache::bytes)
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("ticket.render.dropped").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        // Queued renders are not needed for correctness, they are redone on first view
+        renderers.shutdownNow();
+    }
+
+    @EventListener
+    public void onBookingConfirmed(BookingConfirmedEvent event) {
+        Runnable task = () -> submit(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    public Ticket getTicket(Long userId, Long bookingId) {
+        Booking booking = bookingRepository.findByIdAndUserId(bookingId, userId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.BOOKING_NOT_FOUND));
+        if (!booking.isConfirmed()) {
+            throw new BusinessException(ErrorCode.BOOKING_NOT_CONFIRMED);
+        }
+
+        String ref = booking.getTicketRef();
+        if (ref != null) {
+            byte[] png = cache.get(ref);
+            if (png != null) {
+                countRead("cache");
+                return new Ticket(ref, png);
+            }
+            Optional<byte[]> stored = storageService.findObject(TicketRenderer.objectName(ref));
+            if (stored.isPresent()) {
+                countRead("storage");
+                cache.put(ref, stored.get());
+                return new Ticket(ref, stored.get());
+            }
+            log.warn("Ticket {} of booking {} is missing from storage, rendering it again", ref, bookingId);
+        }
+        countRead("render");
+        return render(booking.getId(), booking.getBookingCode(), booking.getShow().getId(),
+                bookingRepository.findShowSeatIds(booking.getId()), "lazy");
+    }
+
+    private void submit(BookingConfirmedEvent event) {
+        try {
+            renderers.execute(() -> {
+                try {
+                    render(event.bookingId(), event.bookingCode(), event.showId(), event.showSeatIds(), "async");
+                } catch (Exception e) {
+                    log.warn("Could not render ticket of booking {}: {}", event.bookingId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+            log.debug("Ticket render queue is full, booking {} is rendered on first view", event.bookingId());
+        }
+    }
+
+    private Ticket render(Long bookingId, String bookingCode, Long showId, Collection<Long> showSeatIds,
+                          String trigger) {
+        long startedAt = System.nanoTime();
+        AppProperties.Ticket properties = appProperties.getTicket();
+        String payload = TicketRenderer.payload(properties.getSigningSecret(), bookingCode, showId, showSeatIds);
+        byte[] png = TicketRenderer.render(payload, properties.getQrSizePixels());
+        String ref = TicketRenderer.ref(png);
+
+        storageService.putObject(TicketRenderer.objectName(ref), png, MediaType.IMAGE_PNG_VALUE);
+        bookingRepository.updateTicketRef(bookingId, ref);
+        cache.put(ref, png);
+
+        Timer.builder("ticket.render")
+                .tag("trigger", trigger)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return new Ticket(ref, png);
+    }
+
+    private void countRead(String source) {
+        Counter.builder("ticket.read").tag("source", source).register(meterRegistry).increment();
+    }
+
+    private final class TicketCache {
+
+        private final Map<String, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+        private long bytes;
+
+        synchronized byte[] get(String ref) {
+            return entries.get(ref);
+        }
+
+        synchronized void put(String ref, byte[] png) {
+            long maxBytes = appProperties.getTicket().getCacheMaxBytes();
+            if (png.length > maxBytes) {
+                return;
+            }
+            byte[] previous = entries.put(ref, png);
+            bytes += png.length - (previous == null ? 0 : previous.length);
+            Iterator<byte[]> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.cinema.shared.entity.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
+
 @Entity
 @Table(name = "seats", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"hall_id", "row_name", "seat_number"})
@@ -39,8 +41,15 @@ public class Seat extends BaseEntity {
     @Builder.Default
     private SeatStatus status = SeatStatus.ACTIVE;
 
+    @Getter
+    @RequiredArgsConstructor
     public enum SeatType {
-        NORMAL, VIP, COUPLE
+        NORMAL(BigDecimal.ONE),
+        VIP(new BigDecimal("1.5")),
+        COUPLE(new BigDecimal("2.0"));
+
+        // Applied to the show's base price
+        private final BigDecimal priceMultiplier;
     }
 
     public enum SeatStatus {
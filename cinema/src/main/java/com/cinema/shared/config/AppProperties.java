@@ -0,0 +1,223 @@
+package com.cinema.shared.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app")
+@Getter
+@Setter
+public class AppProperties {
+
+    private Cors cors = new Cors();
+    private SeatLock seatLock = new SeatLock();
+    private SeatInventory seatInventory = new SeatInventory();
+    private Booking booking = new Booking();
+    private Points points = new Points();
+    private SeatStream seatStream = new SeatStream();
+    private WaitingRoom waitingRoom = new WaitingRoom();
+    private SeatFinder seatFinder = new SeatFinder();
+    private Payment payment = new Payment();
+    private Outbox outbox = new Outbox();
+    private Ticket ticket = new Ticket();
+    private Idempotency idempotency = new Idempotency();
+    private TokenVersion tokenVersion = new TokenVersion();
+    private PasswordHashing passwordHashing = new PasswordHashing();
+    private RateLimit rateLimit = new RateLimit();
+    private UserActivity userActivity = new UserActivity();
+    private PointsImport pointsImport = new PointsImport();
+
+    @Getter
+    @Setter
+    public static class Cors {
+        private List<String> allowedOrigins = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class SeatLock {
+        private int timeoutSeconds = 300;
+    }
+
+    @Getter
+    @Setter
+    public static class SeatInventory {
+        private long resyncMillis = 60_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Booking {
+        private int paymentTimeoutMinutes = 15;
+        private int maxSeatsPerBooking = 10;
+        // Booking code node id; -1 leases one from Redis
+        private int nodeId = -1;
+        private String codeTimeZone = "Asia/Ho_Chi_Minh";
+        private long expirySweepMillis = 5000;
+        private int expiryBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Points {
+        private int conversionRate = 1000;
+        private long compactionMillis = 60_000;
+        // Transaction ids folded per compaction step
+        private int compactionBatchSize = 50_000;
+    }
+
+    @Getter
+    @Setter
+    public static class SeatStream {
+        private long frameMillis = 100;
+        private int heartbeatSeconds = 15;
+        private int timeoutMinutes = 30;
+        private int maxQueuedFrames = 32;
+    }
+
+    @Getter
+    @Setter
+    public static class WaitingRoom {
+        private String tokenSecret;
+        private int admissionTtlMinutes = 15;
+        private long stateCacheMillis = 2000;
+    }
+
+    @Getter
+    @Setter
+    public static class SeatFinder {
+        private SweetSpot sweetSpot = new SweetSpot();
+        // Per-hall overrides keyed by hall id
+        private Map<Long, SweetSpot> halls = new HashMap<>();
+        private double orphanPenalty = 0.05;
+
+        public SweetSpot forHall(Long hallId) {
+            return halls.getOrDefault(hallId, sweetSpot);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class SweetSpot {
+        private double rowPosition = 0.65;
+        private double columnPosition = 0.5;
+        private double rowWeight = 1.0;
+        private double columnWeight = 1.2;
+    }
+
+    @Getter
+    @Setter
+    public static class Payment {
+        // Callback signing secrets keyed by payment method
+        private Map<String, String> secrets = new HashMap<>();
+        private int callbackLanes = 8;
+        private int laneCapacity = 10_000;
+        // Applied callbacks are kept this long to recognise gateway redeliveries
+        private int inboxRetentionHours = 24;
+        private long callbackSweepMillis = 30_000;
+        // Pending callbacks younger than this are left to the node that received them
+        private int callbackGraceSeconds = 60;
+        private int callbackMaxAttempts = 10;
+        // Where the dev gateway simulator delivers its callbacks
+        private String callbackBaseUrl = "http://localhost:8080/api";
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        private long pollMillis = 200;
+        private int batchSize = 500;
+        private int sendTimeoutSeconds = 15;
+        private long maxBackoffMillis = 30_000;
+        private int lingerMillis = 10;
+        private int batchBytes = 131_072;
+        private String compression = "lz4";
+        private int retentionDays = 7;
+    }
+
+    @Getter
+    @Setter
+    public static class Ticket {
+        // Signs the QR payload so gates can check a ticket without a lookup
+        private String signingSecret;
+        private int qrSizePixels = 320;
+        private int renderThreads = 2;
+        private int renderQueueCapacity = 1_000;
+        private long cacheMaxBytes = 16L * 1024 * 1024;
+        private int browserCacheHours = 24;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        // POST endpoints that honour Idempotency-Key, relative to the context path
+        private List<String> paths = new ArrayList<>(List.of("/bookings", "/bookings/*/payments"));
+        private int ttlHours = 24;
+        // Bounds how long a crashed first request keeps its key
+        private int inFlightTtlSeconds = 60;
+        private int waitTimeoutSeconds = 10;
+        private int maxRequestBytes = 16_384;
+        private int maxResponseBytes = 65_536;
+    }
+
+    @Getter
+    @Setter
+    public static class TokenVersion {
+        private int nearCacheSize = 100_000;
+        // How long a node trusts its own copy without hearing of a revoke
+        private int nearCacheTtlSeconds = 30;
+        private int redisTtlMinutes = 60;
+    }
+
+    @Getter
+    @Setter
+    public static class PasswordHashing {
+        // Hashes at another cost are rehashed on the next successful login
+        private int bcryptCost = 12;
+        // 0 uses one thread per core
+        private int threads = 0;
+        private int queueCapacity = 200;
+        private int waitTimeoutSeconds = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+        // Limits themselves are declared with @RateLimit on the handler methods
+        private boolean enabled = true;
+        private int localBucketsMaxSize = 100_000;
+        // Addresses or CIDR ranges of load balancers whose X-Forwarded-For is believed
+        private List<String> trustedProxies = new ArrayList<>(List.of(
+                "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "127.0.0.0/8", "::1/128"));
+    }
+
+    @Getter
+    @Setter
+    public static class UserActivity {
+        // Activity newer than one interval is lost if the node dies
+        private long flushMillis = 10_000;
+        // Users beyond this many are dropped until the next flush
+        private int maxPendingUsers = 100_000;
+        private int batchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class PointsImport {
+        // Must be shared by all nodes for another node to resume a job
+        private String spoolDir = System.getProperty("java.io.tmpdir") + "/points-imports";
+        private long maxUploadBytes = 512L * 1024 * 1024;
+        private int chunkSize = 5_000;
+        private int maxPointsPerRow = 1_000_000;
+        // A job whose node stops renewing this is picked up by the resume sweep
+        private int leaseSeconds = 120;
+        private long resumeMillis = 60_000;
+    }
+}
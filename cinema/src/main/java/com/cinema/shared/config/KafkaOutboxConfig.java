@@ -0,0 +1,41 @@
+package com.cinema.shared.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
+
+@Configuration
+public class KafkaOutboxConfig {
+
+    /**
+     * Producer for the outbox relay. Payloads are already JSON, so values are sent as
+     * strings. Idempotence keeps per-partition order through retries; linger, batch
+     * size and compression let one relay batch travel in a few requests.
+     */
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate(KafkaProperties kafkaProperties,
+                                                             AppProperties appProperties) {
+        AppProperties.Outbox outbox = appProperties.getOutbox();
+        Map<String, Object> properties = kafkaProperties.buildProducerProperties(null);
+        properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        properties.put(ProducerConfig.ACKS_CONFIG, "all");
+        properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        properties.put(ProducerConfig.LINGER_MS_CONFIG, outbox.getLingerMillis());
+        properties.put(ProducerConfig.BATCH_SIZE_CONFIG, outbox.getBatchBytes());
+        properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, outbox.getCompression());
+        int sendTimeoutMillis = outbox.getSendTimeoutSeconds() * 1000;
+        properties.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, sendTimeoutMillis);
+        properties.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, sendTimeoutMillis);
+        properties.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, sendTimeoutMillis + outbox.getLingerMillis());
+        properties.remove(ProducerConfig.RETRIES_CONFIG);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(properties));
+    }
+}
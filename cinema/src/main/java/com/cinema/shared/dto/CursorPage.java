@@ -0,0 +1,26 @@
+package com.cinema.shared.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. {@code nextCursor} is opaque to clients and
+ * is null on the last page. {@code estimatedTotal} is the planner's row estimate,
+ * present only when asked for, since an exact count would scan every match.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long estimatedTotal;
+}
@@ -20,6 +20,7 @@ public enum ErrorCode {
     USER_EMAIL_EXISTS(2002, "Email already registered", HttpStatus.CONFLICT),
     USER_USERNAME_EXISTS(2003, "Username already taken", HttpStatus.CONFLICT),
     USER_INSUFFICIENT_POINTS(2004, "Insufficient loyalty points", HttpStatus.BAD_REQUEST),
+    POINTS_IMPORT_NOT_FOUND(2005, "Points import not found", HttpStatus.NOT_FOUND),
 
     // Movie (3xxx)
     MOVIE_NOT_FOUND(3001, "Movie not found", HttpStatus.NOT_FOUND),
@@ -30,6 +31,8 @@ public enum ErrorCode {
     SHOW_ALREADY_STARTED(4002, "Show has already started", HttpStatus.BAD_REQUEST),
     SHOW_CANCELLED(4003, "Show has been cancelled", HttpStatus.BAD_REQUEST),
     SHOW_FULL(4004, "Show is fully booked", HttpStatus.BAD_REQUEST),
+    WAITING_ROOM_ADMISSION_REQUIRED(4005, "A valid waiting room admission is required for this show", HttpStatus.FORBIDDEN),
+    SHOW_SCHEDULE_CONFLICT(4006, "Show overlaps another show in the same hall", HttpStatus.CONFLICT),
 
     // Seat (5xxx)
     SEAT_NOT_FOUND(5001, "Seat not found", HttpStatus.NOT_FOUND),
@@ -37,6 +40,8 @@ public enum ErrorCode {
     SEAT_ALREADY_SOLD(5003, "Seat has already been sold", HttpStatus.CONFLICT),
     SEAT_LOCK_EXPIRED(5004, "Seat lock has expired", HttpStatus.BAD_REQUEST),
     SEAT_NOT_LOCKED_BY_USER(5005, "Seat is not locked by this user", HttpStatus.BAD_REQUEST),
+    SEAT_BLOCK_NOT_AVAILABLE(5006, "No block of adjacent seats is available", HttpStatus.CONFLICT),
+    SEAT_BLOCKED(5007, "Seat is not available for sale", HttpStatus.CONFLICT),
 
     // Booking (6xxx)
     BOOKING_NOT_FOUND(6001, "Booking not found", HttpStatus.NOT_FOUND),
@@ -44,6 +49,7 @@ public enum ErrorCode {
     BOOKING_CANNOT_CANCEL(6003, "Booking cannot be cancelled", HttpStatus.BAD_REQUEST),
     BOOKING_PAYMENT_TIMEOUT(6004, "Payment timeout", HttpStatus.REQUEST_TIMEOUT),
     BOOKING_NO_SEATS(6005, "No seats selected", HttpStatus.BAD_REQUEST),
+    BOOKING_NOT_CONFIRMED(6006, "Booking is not confirmed", HttpStatus.BAD_REQUEST),
 
     // Payment (7xxx)
     PAYMENT_NOT_FOUND(7001, "Payment not found", HttpStatus.NOT_FOUND),
@@ -63,6 +69,8 @@ public enum ErrorCode {
     RESOURCE_NOT_FOUND(9005, "Resource not found", HttpStatus.NOT_FOUND),
     DUPLICATE_RESOURCE(9006, "Resource already exists", HttpStatus.CONFLICT),
     INVALID_STATE(9007, "Invalid state for this operation", HttpStatus.CONFLICT),
+    IDEMPOTENCY_KEY_REUSED(9008, "Idempotency key was already used for a different request", HttpStatus.UNPROCESSABLE_ENTITY),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS(9009, "A request with this idempotency key is still in progress", HttpStatus.CONFLICT),
 
     // System (10xxx)
     INTERNAL_ERROR(10001, "Internal server error", HttpStatus.INTERNAL_SERVER_ERROR),
@@ -0,0 +1,294 @@
+package com.cinema.shared.idempotency;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.dto.ErrorResponse;
+import com.cinema.shared.exception.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Makes the configured POST endpoints safe to retry with an {@code Idempotency-Key}
+ * header. The first request with a key runs and its response is stored in Redis
+ * under the user and key; retries get that response back byte for byte. A retry
+ * that arrives while the first request is still running waits for it, on a local
+ * latch when both are on this node and by polling Redis otherwise. Reusing a key
+ * for a different request is rejected.
+ *
+ * <p>Runs after the security filter chain, so the user is known. Server errors are
+ * not stored, so the client can retry them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9_\\-.:]{8,100}");
+    private static final long POLL_MILLIS = 50;
+
+    private final IdempotencyStore idempotencyStore;
+    private final AppProperties appProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentMap<String, CountDownLatch> running = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return appProperties.getIdempotency().getPaths().stream()
+                .noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String idempotencyKey = request.getHeader(HEADER);
+        if (!VALID_KEY.matcher(idempotencyKey).matches()) {
+            writeError(request, response, ErrorCode.VALIDATION_ERROR,
+                    HEADER + " must be 8 to 100 letters, digits or -_.:");
+            return;
+        }
+        AppProperties.Idempotency properties = appProperties.getIdempotency();
+        if (request.getContentLengthLong() > properties.getMaxRequestBytes()) {
+            writeError(request, response, ErrorCode.VALIDATION_ERROR, "Request body is too large");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(properties.getMaxRequestBytes() + 1);
+        if (body.length > properties.getMaxRequestBytes()) {
+            writeError(request, response, ErrorCode.VALIDATION_ERROR, "Request body is too large");
+            return;
+        }
+        String key = IdempotencyStore.key(authentication.getName(), idempotencyKey);
+        String fingerprint = fingerprint(request, body);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getWaitTimeoutSeconds());
+
+        while (true) {
+            String claim = idempotencyStore.tryClaim(key, fingerprint);
+            if (claim != null) {
+                execute(new CachedBodyRequest(request, body), response, filterChain, key, claim, fingerprint);
+                return;
+            }
+            IdempotencyStore.Entry entry = idempotencyStore.find(key);
+            if (entry == null) {
+                // The first request failed and released the key in between; claim it again
+                continue;
+            }
+            if (!entry.fingerprint().equals(fingerprint)) {
+                count("reused");
+                writeError(request, response, ErrorCode.IDEMPOTENCY_KEY_REUSED, null);
+                return;
+            }
+            if (entry.isCompleted()) {
+                count("replayed");
+                replay(entry, response);
+                return;
+            }
+            if (System.nanoTime() >= deadline) {
+                count("timed_out");
+                writeError(request, response, ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS, null);
+                return;
+            }
+            awaitRunning(key);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, String claim, String fingerprint) throws ServletException, IOException {
+        CountDownLatch done = new CountDownLatch(1);
+        running.put(key, done);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            byte[] content = wrapper.getContentAsByteArray();
+            if (wrapper.getStatus() < 500 && content.length <= appProperties.getIdempotency().getMaxResponseBytes()) {
+                stored = idempotencyStore.complete(key, claim, new IdempotencyStore.Entry(
+                        fingerprint, wrapper.getStatus(), wrapper.getContentType(), content));
+                if (!stored) {
+                    // Ran past the in-flight TTL and a retry holds the key now; leave its entry alone
+                    log.warn("Idempotency key {} was claimed again before its first request finished", key);
+                    count("claim_lost");
+                }
+            } else if (wrapper.getStatus() < 500) {
+                log.warn("Response for idempotency key {} is too large to store ({} bytes)", key, content.length);
+            }
+            count("executed");
+        } finally {
+            if (!stored) {
+                idempotencyStore.release(key, claim);
+            }
+            running.remove(key, done);
+            done.countDown();
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void awaitRunning(String key) {
+        CountDownLatch local = running.get(key);
+        try {
+            if (local != null) {
+                local.await(POLL_MILLIS * 10, TimeUnit.MILLISECONDS);
+            } else {
+                Thread.sleep(POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void replay(IdempotencyStore.Entry entry, HttpServletResponse response) throws IOException {
+        response.setStatus(entry.status());
+        if (entry.contentType() != null) {
+            response.setContentType(entry.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(entry.body().length);
+        response.getOutputStream().write(entry.body());
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            ErrorCode errorCode, String message) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .code(errorCode.getCode())
+                .message(message != null ? message : errorCode.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(errorCode.getHttpStatus().value());
+        response.setContentType("application/json");
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private void count(String outcome) {
+        Counter.builder("idempotency.requests").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    // Same key with a different method, path or body is a client bug, not a retry
+    static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already in memory, so all of it is available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.cinema.shared.idempotency;
+
+import com.cinema.shared.config.AppProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis side of idempotency keys. A key holds either an in-flight marker or the
+ * stored response of the first request, both with the fingerprint of that request:
+ * {@code P|fingerprint|claim} or {@code D|fingerprint|status|contentType|base64(body)}.
+ * The claim is a token of the request holding the marker. Completing or releasing
+ * a key checks it, so a request that outlived its marker cannot overwrite the
+ * entry of a retry that claimed the key after it.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:";
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/idempotency-complete.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/idempotency-release.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties appProperties;
+
+    /**
+     * Either the request is still running ({@code status == 0}) or it completed with
+     * the given response.
+     */
+    public record Entry(String fingerprint, int status, String contentType, byte[] body) {
+
+        public boolean isCompleted() {
+            return status > 0;
+        }
+    }
+
+    public static String key(String principal, String idempotencyKey) {
+        return KEY_PREFIX + principal + ':' + idempotencyKey;
+    }
+
+    /**
+     * Marks the key as in flight and returns the claim to complete or release it
+     * with, or null if the key is taken.
+     */
+    public String tryClaim(String key, String fingerprint) {
+        Duration ttl = Duration.ofSeconds(appProperties.getIdempotency().getInFlightTtlSeconds());
+        String claim = claim(fingerprint, UUID.randomUUID().toString());
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, claim, ttl)) ? claim : null;
+    }
+
+    public Entry find(String key) {
+        String value = redisTemplate.opsForValue().get(key);
+        return value == null ? null : decode(value);
+    }
+
+    /**
+     * Stores the response unless the key no longer holds the claim; returns whether it did.
+     */
+    public boolean complete(String key, String claim, Entry entry) {
+        long ttlSeconds = Duration.ofHours(appProperties.getIdempotency().getTtlHours()).toSeconds();
+        Long stored = redisTemplate.execute(COMPLETE_SCRIPT, List.of(key), claim, encode(entry),
+                Long.toString(ttlSeconds));
+        return stored != null && stored == 1;
+    }
+
+    public void release(String key, String claim) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key), claim);
+    }
+
+    static String claim(String fingerprint, String token) {
+        return "P|" + fingerprint + '|' + token;
+    }
+
+    static String encode(Entry entry) {
+        return "D|" + entry.fingerprint() + '|' + entry.status() + '|'
+                + (entry.contentType() == null ? "" : entry.contentType()) + '|'
+                + Base64.getEncoder().encodeToString(entry.body());
+    }
+
+    static Entry decode(String value) {
+        String[] parts = value.split("\\|", 5);
+        if ("P".equals(parts[0])) {
+            return new Entry(parts[1], 0, null, null);
+        }
+        return new Entry(parts[1], Integer.parseInt(parts[2]), parts[3].isEmpty() ? null : parts[3],
+                Base64.getDecoder().decode(parts[4]));
+    }
+}
@@ -0,0 +1,13 @@
+package com.cinema.shared.outbox;
+
+/**
+ * Domain event that is relayed to Kafka. Publishing one inside a transaction stores
+ * it in event_publication with that transaction; OutboxRelay sends it afterwards.
+ * Events with the same key keep their order.
+ */
+public interface OutboxEvent {
+
+    String outboxTopic();
+
+    String outboxKey();
+}
@@ -0,0 +1,215 @@
+package com.cinema.shared.outbox;
+
+import com.cinema.shared.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays outbox events from event_publication to Kafka in publication order. Within
+ * a batch, records of different keys are in flight together, but a key's next
+ * record is only sent once the previous one was acknowledged. Once a record fails,
+ * the key's later records are not sent and stay pending, so a key never skips
+ * ahead of a failure. The acknowledged records are marked complete with one UPDATE.
+ *
+ * <p>Only one node relays at a time (transaction-scoped advisory lock). After a
+ * failed batch the relay backs off exponentially and then resumes from the oldest
+ * pending record, which is how it catches up after a Kafka outage. Delivery is at
+ * least once; consumers deduplicate by the {@code event-id} header.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    static final String EVENT_ID_HEADER = "event-id";
+    static final String EVENT_TYPE_HEADER = "event-type";
+
+    // Upper bound for one run, so a large backlog does not starve the scheduler
+    private static final long MAX_RUN_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private Counter relayedCounter;
+    private Counter failedCounter;
+    private Timer batchTimer;
+    private int consecutiveFailures;
+    private long retryAtMillis;
+
+    private record BatchResult(int size, int completed, boolean failed) {
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest outbox event not yet relayed")
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet relayed")
+                .register(meterRegistry);
+        relayedCounter = Counter.builder("outbox.relayed").register(meterRegistry);
+        failedCounter = Counter.builder("outbox.failed").register(meterRegistry);
+        batchTimer = Timer.builder("outbox.batch").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-millis:200}")
+    public void relay() {
+        if (System.currentTimeMillis() < retryAtMillis) {
+            return;
+        }
+        int batchSize = appProperties.getOutbox().getBatchSize();
+        long startedAt = System.nanoTime();
+        try {
+            BatchResult result;
+            do {
+                result = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch(batchSize)));
+            } while (result != null && !result.failed() && result.size() == batchSize
+                    && System.nanoTime() - startedAt < MAX_RUN_NANOS);
+
+            if (result != null && result.failed()) {
+                backOff(null);
+            } else {
+                consecutiveFailures = 0;
+            }
+        } catch (Exception e) {
+            backOff(e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    public void refreshBacklog() {
+        try {
+            OutboxRepository.Backlog backlog = outboxRepository.findBacklog();
+            pending.set(backlog.size());
+            lagSeconds.set(backlog.oldestPublicationDate() == null ? 0
+                    : Duration.between(backlog.oldestPublicationDate(), Instant.now()).toSeconds());
+        } catch (Exception e) {
+            log.debug("Could not measure outbox backlog: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeCompleted() {
+        int deleted = outboxRepository.deleteCompletedBefore(
+                Instant.now().minus(Duration.ofDays(appProperties.getOutbox().getRetentionDays())));
+        if (deleted > 0) {
+            log.info("Purged {} relayed outbox events", deleted);
+        }
+    }
+
+    private BatchResult relayBatch(int batchSize) {
+        if (!outboxRepository.tryLockRelay()) {
+            return new BatchResult(0, 0, false);
+        }
+        List<OutboxRepository.OutboxRecord> records = outboxRepository.findPending(batchSize);
+        if (records.isEmpty()) {
+            lagSeconds.set(0);
+            pending.set(0);
+            return new BatchResult(0, 0, false);
+        }
+        lagSeconds.set(Duration.between(records.get(0).publicationDate(), Instant.now()).toSeconds());
+
+        Map<String, ArrayDeque<OutboxRepository.OutboxRecord>> byKey = new LinkedHashMap<>();
+        for (OutboxRepository.OutboxRecord record : records) {
+            byKey.computeIfAbsent(record.topic() + '/' + record.key(), key -> new ArrayDeque<>()).add(record);
+        }
+
+        // Each round sends the oldest unsent record of every key and waits for all of them
+        List<UUID> completed = new ArrayList<>(records.size());
+        boolean failed = false;
+        while (!byKey.isEmpty()) {
+            Map<String, CompletableFuture<SendResult<String, String>>> sends = new LinkedHashMap<>();
+            for (Map.Entry<String, ArrayDeque<OutboxRepository.OutboxRecord>> entry : byKey.entrySet()) {
+                CompletableFuture<SendResult<String, String>> sent = send(entry.getValue().peek());
+                sends.put(entry.getKey(), sent);
+                // A send that fails on the spot (e.g. no metadata) would fail the same way for the rest
+                if (sent.isCompletedExceptionally()) {
+                    break;
+                }
+            }
+            // Rounds wait for their acks anyway, so do not also wait out the linger
+            outboxKafkaTemplate.flush();
+
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos(appProperties.getOutbox().getSendTimeoutSeconds());
+            Iterator<Map.Entry<String, ArrayDeque<OutboxRepository.OutboxRecord>>> keys = byKey.entrySet().iterator();
+            while (keys.hasNext()) {
+                Map.Entry<String, ArrayDeque<OutboxRepository.OutboxRecord>> entry = keys.next();
+                OutboxRepository.OutboxRecord record = entry.getValue().peek();
+                try {
+                    CompletableFuture<SendResult<String, String>> sent = sends.get(entry.getKey());
+                    if (sent == null) {
+                        throw new IllegalStateException("Not sent");
+                    }
+                    sent.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    completed.add(entry.getValue().poll().id());
+                    if (entry.getValue().isEmpty()) {
+                        keys.remove();
+                    }
+                } catch (Exception e) {
+                    // The key's later records stay pending behind this one
+                    log.debug("Could not relay outbox event {}: {}", record.id(), e.getMessage());
+                    failed = true;
+                    keys.remove();
+                }
+            }
+        }
+
+        outboxRepository.markCompleted(completed);
+        relayedCounter.increment(completed.size());
+        failedCounter.increment(records.size() - completed.size());
+        return new BatchResult(records.size(), completed.size(), failed);
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxRepository.OutboxRecord record) {
+        ProducerRecord<String, String> message =
+                new ProducerRecord<>(record.topic(), record.key(), record.payload());
+        message.headers().add(EVENT_ID_HEADER, record.id().toString().getBytes(StandardCharsets.UTF_8));
+        message.headers().add(EVENT_TYPE_HEADER, record.eventType().getBytes(StandardCharsets.UTF_8));
+        try {
+            return outboxKafkaTemplate.send(message);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void backOff(Exception e) {
+        consecutiveFailures++;
+        long pollMillis = appProperties.getOutbox().getPollMillis();
+        long delay = Math.min(appProperties.getOutbox().getMaxBackoffMillis(),
+                pollMillis << Math.min(consecutiveFailures, 16));
+        retryAtMillis = System.currentTimeMillis() + delay;
+        log.warn("Outbox relay failed {} time(s) in a row, retrying in {} ms{}",
+                consecutiveFailures, delay, e != null ? ": " + e.getMessage() : "");
+    }
+}
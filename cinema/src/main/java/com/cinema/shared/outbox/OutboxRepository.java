@@ -0,0 +1,95 @@
+package com.cinema.shared.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    static final String LISTENER_ID = "kafka-outbox";
+
+    // Serializes relays across nodes for the rest of the transaction, which keeps per-key order
+    private static final long RELAY_LOCK = 0x6f7574626f78L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record OutboxRecord(UUID id, String eventType, String payload, String topic, String key,
+                               Instant publicationDate) {
+    }
+
+    public record Backlog(long size, Instant oldestPublicationDate) {
+    }
+
+    public void insert(String eventType, String payload, String topic, String key) {
+        jdbcTemplate.update("""
+                        INSERT INTO event_publication (id, listener_id, event_type, serialized_event,
+                                                       publication_date, outbox_topic, outbox_key)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)
+                        """,
+                UUID.randomUUID(), LISTENER_ID, eventType, payload, Timestamp.from(Instant.now()), topic, key);
+    }
+
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK));
+    }
+
+    public List<OutboxRecord> findPending(int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, event_type, serialized_event, outbox_topic, outbox_key, publication_date
+                        FROM event_publication
+                        WHERE outbox_topic IS NOT NULL AND completion_date IS NULL
+                        ORDER BY publication_date, id
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new OutboxRecord(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("event_type"),
+                        rs.getString("serialized_event"),
+                        rs.getString("outbox_topic"),
+                        rs.getString("outbox_key"),
+                        rs.getTimestamp("publication_date").toInstant()),
+                limit);
+    }
+
+    public int markCompleted(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE event_publication SET completion_date = ? WHERE id = ANY(?)");
+            statement.setTimestamp(1, Timestamp.from(Instant.now()));
+            statement.setArray(2, connection.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        });
+    }
+
+    public Backlog findBacklog() {
+        return jdbcTemplate.queryForObject("""
+                        SELECT COUNT(*) AS backlog, MIN(publication_date) AS oldest
+                        FROM event_publication
+                        WHERE outbox_topic IS NOT NULL AND completion_date IS NULL
+                        """,
+                (rs, rowNum) -> {
+                    Timestamp oldest = rs.getTimestamp("oldest");
+                    return new Backlog(rs.getLong("backlog"), oldest != null ? oldest.toInstant() : null);
+                });
+    }
+
+    public int deleteCompletedBefore(Instant before) {
+        return jdbcTemplate.update("""
+                        DELETE FROM event_publication
+                        WHERE outbox_topic IS NOT NULL AND completion_date < ?
+                        """,
+                Timestamp.from(before));
+    }
+}
@@ -0,0 +1,29 @@
+package com.cinema.shared.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores outbox events as they are published. The listener runs synchronously on
+ * the publishing thread, so the row commits or rolls back with the business change.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onOutboxEvent(OutboxEvent event) {
+        try {
+            outboxRepository.insert(event.getClass().getName(), objectMapper.writeValueAsString(event),
+                    event.outboxTopic(), event.outboxKey());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event " + event.getClass().getName(), e);
+        }
+    }
+}
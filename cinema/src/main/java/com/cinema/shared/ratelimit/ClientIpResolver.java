@@ -0,0 +1,80 @@
+package com.cinema.shared.ratelimit;
+
+import com.cinema.shared.config.AppProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Address of the client behind the configured trusted proxies. X-Forwarded-For
+ * is read from the right, skipping hops that are trusted proxies, so a client
+ * cannot choose its address by sending the header itself. Requests that do not
+ * come from a trusted proxy use the socket address.
+ */
+@Component
+class ClientIpResolver {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    ClientIpResolver(AppProperties appProperties) {
+        this.trustedProxies = appProperties.getRateLimit().getTrustedProxies().stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    String resolve(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!isTrusted(address)) {
+            return address;
+        }
+        List<String> hops = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(FORWARDED_FOR))) {
+            for (String hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            address = hops.get(i);
+            if (!isTrusted(address)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    // Only IP literals are matched, so a forged hop never triggers a DNS lookup
+    private boolean isTrusted(String address) {
+        if (!isIpLiteral(address)) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            if (proxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIpLiteral(String address) {
+        if (address.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+                return false;
+            }
+        }
+        return address.indexOf(':') >= 0 || address.indexOf('.') >= 0;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cinema.shared.ratelimit;
+
+/**
+ * Per-node token bucket holding a rule's full limit and refilling it over one
+ * window. One node alone cannot exceed the shared limit without emptying its
+ * bucket, so a request the bucket rejects would be rejected by Redis as well.
+ * With several nodes sharing the traffic the bucket rarely empties, so a Redis
+ * rejection blocks it until the shared window has room again.
+ */
+class LocalTokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+    private long blockedUntil;
+
+    LocalTokenBucket(int limit, long windowNanos, long nowNanos) {
+        this.capacity = limit;
+        this.tokensPerNano = limit / (double) windowNanos;
+        this.tokens = limit;
+        this.refilledAt = nowNanos;
+        this.blockedUntil = nowNanos;
+    }
+
+    /**
+     * Takes a token and returns 0, or returns the nanos until one is available.
+     */
+    synchronized long tryAcquire(long nowNanos) {
+        if (blockedUntil - nowNanos > 0) {
+            return blockedUntil - nowNanos;
+        }
+        tokens = Math.min(capacity, tokens + (nowNanos - refilledAt) * tokensPerNano);
+        refilledAt = nowNanos;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    /**
+     * Rejects every request until the given time.
+     */
+    synchronized void blockUntil(long untilNanos) {
+        if (untilNanos - blockedUntil > 0) {
+            blockedUntil = untilNanos;
+        }
+    }
+}
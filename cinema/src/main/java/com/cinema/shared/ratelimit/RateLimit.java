@@ -0,0 +1,40 @@
+package com.cinema.shared.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits calls to a handler method to {@code limit} per sliding window of
+ * {@code windowSeconds}, counted per {@link Key}. Repeat the annotation to apply
+ * several limits; a request must pass all of them. Rules with the same name share
+ * their counts, so give them the same limit and window.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(RateLimits.class)
+public @interface RateLimit {
+
+    /**
+     * Rule name, used in Redis keys and metrics.
+     */
+    String name();
+
+    Key key();
+
+    int limit();
+
+    int windowSeconds();
+
+    enum Key {
+        /** The authenticated user, or the client IP for anonymous requests. */
+        USER,
+        IP,
+        /** The {@code showId} path variable; requests without one are not limited. */
+        SHOW
+    }
+}
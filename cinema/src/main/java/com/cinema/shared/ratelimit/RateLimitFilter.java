@@ -0,0 +1,145 @@
+package com.cinema.shared.ratelimit;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.dto.ErrorResponse;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.shared.security.AuthenticatedUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Enforces the {@link RateLimit} annotations of the handler a request maps to.
+ * Sits in the security filter chain after authentication, so limits keyed by
+ * user see the caller, and rejected requests never reach a controller. A
+ * rejection is a 429 with {@code Retry-After} in seconds.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ClientIpResolver clientIpResolver;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final AppProperties appProperties;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<Method, List<RateLimit>> rules = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           ClientIpResolver clientIpResolver,
+                           @Lazy @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                           AppProperties appProperties,
+                           ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.clientIpResolver = clientIpResolver;
+        this.handlerMapping = handlerMapping;
+        this.appProperties = appProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !appProperties.getRateLimit().isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        for (RateLimit rule : rulesOf(request)) {
+            String key = key(rule, request);
+            if (key == null) {
+                continue;
+            }
+            RateLimiter.Decision decision = rateLimiter.tryAcquire(rule, key);
+            if (!decision.allowed()) {
+                log.debug("Rate limit {} rejected {}", rule.name(), key);
+                reject(request, response, decision.retryAfterMillis());
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private List<RateLimit> rulesOf(HttpServletRequest request) {
+        HandlerExecutionChain chain;
+        // Handler lookup needs the parsed path that DispatcherServlet would otherwise set up later
+        RequestPath previousPath = (RequestPath) request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE);
+        ServletRequestPathUtils.parseAndCache(request);
+        try {
+            chain = handlerMapping.getHandler(request);
+        } catch (Exception e) {
+            return List.of();
+        } finally {
+            ServletRequestPathUtils.setParsedRequestPath(previousPath, request);
+        }
+        if (chain == null || !(chain.getHandler() instanceof HandlerMethod handlerMethod)) {
+            return List.of();
+        }
+        return rules.computeIfAbsent(handlerMethod.getMethod(), method ->
+                List.copyOf(AnnotatedElementUtils.findMergedRepeatableAnnotations(method, RateLimit.class)));
+    }
+
+    private String key(RateLimit rule, HttpServletRequest request) {
+        return switch (rule.key()) {
+            case USER -> {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                yield authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                        ? "user:" + user.id()
+                        : "ip:" + clientIpResolver.resolve(request);
+            }
+            case IP -> "ip:" + clientIpResolver.resolve(request);
+            case SHOW -> {
+                @SuppressWarnings("unchecked")
+                Map<String, String> variables = (Map<String, String>)
+                        request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                String showId = variables != null ? variables.get("showId") : null;
+                yield showId != null ? "show:" + showId : null;
+            }
+        };
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterMillis)
+            throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .code(ErrorCode.RATE_LIMIT_EXCEEDED.getCode())
+                .message(ErrorCode.RATE_LIMIT_EXCEEDED.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(ErrorCode.RATE_LIMIT_EXCEEDED.getHttpStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (retryAfterMillis + 999) / 1000)));
+        response.setContentType("application/json");
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,117 @@
+package com.cinema.shared.ratelimit;
+
+import com.cinema.shared.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sliding-window rate limits shared by all nodes through Redis. Each node first
+ * checks a local token bucket per rule and key, which turns away a client that
+ * is far over its limit without a round trip, and remembers a rejection from
+ * Redis until its retry time so a client refused once is not checked remotely
+ * again meanwhile. If Redis is unreachable only the local buckets apply.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SLIDING_WINDOW_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/rate-limit-sliding-window.lua"), List.class);
+
+    public record Decision(boolean allowed, long retryAfterMillis) {
+
+        static final Decision ALLOWED = new Decision(true, 0);
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, LocalTokenBucket> localBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public Decision tryAcquire(RateLimit rule, String key) {
+        String bucketKey = rule.name() + ':' + key;
+        long windowMillis = TimeUnit.SECONDS.toMillis(rule.windowSeconds());
+
+        long nowNanos = System.nanoTime();
+        LocalTokenBucket bucket = localBucket(bucketKey, rule, nowNanos);
+        long localWaitNanos = bucket.tryAcquire(nowNanos);
+        if (localWaitNanos > 0) {
+            rejected(rule, "local");
+            return new Decision(false, TimeUnit.NANOSECONDS.toMillis(localWaitNanos) + 1);
+        }
+
+        long now = System.currentTimeMillis();
+        long window = now / windowMillis;
+        long elapsed = now % windowMillis;
+        // Hash tag keeps both windows of a key on one cluster slot
+        String redisKey = KEY_PREFIX + '{' + bucketKey + "}:";
+        try {
+            List<?> result = redisTemplate.execute(SLIDING_WINDOW_SCRIPT,
+                    List.of(redisKey + window, redisKey + (window - 1)),
+                    Integer.toString(rule.limit()),
+                    Double.toString(1 - elapsed / (double) windowMillis),
+                    Long.toString(2 * windowMillis));
+            if (result == null || ((Number) result.get(0)).longValue() == 1) {
+                return Decision.ALLOWED;
+            }
+            rejected(rule, "redis");
+            long retryAfterMillis = retryAfterMillis(rule.limit(), windowMillis, elapsed,
+                    ((Number) result.get(1)).longValue(), ((Number) result.get(2)).longValue());
+            bucket.blockUntil(nowNanos + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis));
+            return new Decision(false, retryAfterMillis);
+        } catch (Exception e) {
+            log.debug("Rate limit {} checked locally only: {}", rule.name(), e.getMessage());
+            return Decision.ALLOWED;
+        }
+    }
+
+    /**
+     * Time until the sliding window has room for one more request, assuming no
+     * other requests arrive meanwhile.
+     */
+    static long retryAfterMillis(long limit, long windowMillis, long elapsed, long previous, long current) {
+        if (current + 1 > limit) {
+            // Wait for the next window, where the current count decays as the previous one
+            return windowMillis - elapsed + (long) Math.ceil(windowMillis * (1 - (limit - 1) / (double) current));
+        }
+        double weightNeeded = (limit - 1 - current) / (double) previous;
+        return Math.max(1, (long) Math.ceil(windowMillis * (1 - weightNeeded)) - elapsed);
+    }
+
+    private LocalTokenBucket localBucket(String bucketKey, RateLimit rule, long nowNanos) {
+        LocalTokenBucket bucket = localBuckets.get(bucketKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (localBuckets.size() >= appProperties.getRateLimit().getLocalBucketsMaxSize()) {
+            // A fresh bucket is full, so dropping buckets only forgets past bursts
+            localBuckets.clear();
+        }
+        return localBuckets.computeIfAbsent(bucketKey, ignored ->
+                new LocalTokenBucket(rule.limit(), TimeUnit.SECONDS.toNanos(rule.windowSeconds()), nowNanos));
+    }
+
+    private void rejected(RateLimit rule, String source) {
+        rejectedCounters.computeIfAbsent(rule.name() + ':' + source, ignored -> Counter.builder("rate_limit.rejected")
+                .tag("rule", rule.name())
+                .tag("source", source)
+                .register(meterRegistry)).increment();
+    }
+}
@@ -0,0 +1,15 @@
+package com.cinema.shared.security;
+
+import java.security.Principal;
+
+/**
+ * The principal of an authenticated request, built from verified token claims
+ * without loading the user. Controllers that need more than the id load it.
+ */
+public record AuthenticatedUser(Long id, String username, String role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,86 @@
+package com.cinema.shared.timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Drives a {@link HierarchicalTimingWheel} with one-second ticks on its own thread
+ * and hands every tick's due entries to {@code handler} as a single batch.
+ */
+@Slf4j
+public class ExpiryWheel<T> {
+
+    private static final long TICK_MILLIS = 1000;
+
+    private final String name;
+    private final Clock clock;
+    private final Consumer<List<T>> handler;
+    private final HierarchicalTimingWheel<T> wheel;
+    private ScheduledExecutorService ticker;
+
+    public ExpiryWheel(String name, Consumer<List<T>> handler) {
+        this(name, Clock.systemUTC(), handler);
+    }
+
+    public ExpiryWheel(String name, Clock clock, Consumer<List<T>> handler) {
+        this.name = name;
+        this.clock = clock;
+        this.handler = handler;
+        this.wheel = new HierarchicalTimingWheel<>(toTick(clock.instant()));
+    }
+
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "expiry-wheel-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        log.info("Expiry wheel '{}' started", name);
+    }
+
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Registers an entry to be handed to the handler on the first tick at or after
+     * {@code deadline}. Deadlines are rounded up to the next whole second.
+     */
+    public void schedule(T item, Instant deadline) {
+        wheel.add(item, toTick(deadline.plusMillis(TICK_MILLIS - 1)));
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    void tick() {
+        try {
+            List<T> due = wheel.advance(toTick(clock.instant()));
+            if (!due.isEmpty()) {
+                log.debug("Expiry wheel '{}' firing {} entries", name, due.size());
+                handler.accept(due);
+            }
+        } catch (Exception e) {
+            log.error("Expiry wheel '{}' handler failed: {}", name, e.getMessage(), e);
+        }
+    }
+
+    private static long toTick(Instant instant) {
+        return instant.toEpochMilli() / TICK_MILLIS;
+    }
+}
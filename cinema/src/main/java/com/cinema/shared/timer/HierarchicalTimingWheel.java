@@ -0,0 +1,113 @@
+package com.cinema.shared.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel with one-tick resolution. Level {@code n} has 64 slots
+ * of 64^n ticks each; entries are cascaded to the level below when their slot comes
+ * round, so adding and advancing cost O(1) regardless of how many entries are pending.
+ * Four levels cover 64^4 ticks (about 194 days at one second per tick); entries
+ * beyond that wait in an overflow list that is re-examined once per top-level slot.
+ *
+ * <p>The wheel is passive: callers drive it with {@link #advance(long)}.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final List<Entry<T>>[][] wheels;
+    private List<Entry<T>> overflow = new ArrayList<>();
+    private List<Entry<T>> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long startTick) {
+        this.currentTick = startTick;
+        this.wheels = new List[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new ArrayList<>();
+            }
+        }
+    }
+
+    public synchronized void add(T item, long deadlineTick) {
+        place(new Entry<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Advances the wheel up to {@code nowTick} and returns every entry whose
+     * deadline has been reached, including entries added with a past deadline.
+     */
+    public synchronized List<T> advance(long nowTick) {
+        while (currentTick < nowTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (BITS * level)) & MASK));
+                }
+            }
+            List<Entry<T>> slot = wheels[0][(int) (currentTick & MASK)];
+            if (!slot.isEmpty()) {
+                due.addAll(slot);
+                slot.clear();
+            }
+        }
+
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        List<T> items = new ArrayList<>(due.size());
+        for (Entry<T> entry : due) {
+            items.add(entry.item());
+        }
+        size -= due.size();
+        due = new ArrayList<>();
+        return items;
+    }
+
+    public synchronized long currentTick() {
+        return currentTick;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade(int level, int slotIndex) {
+        List<Entry<T>> slot = wheels[level][slotIndex];
+        if (!slot.isEmpty()) {
+            wheels[level][slotIndex] = new ArrayList<>();
+            slot.forEach(this::place);
+        }
+        if (level == LEVELS - 1 && slotIndex == 0 && !overflow.isEmpty()) {
+            List<Entry<T>> pending = overflow;
+            overflow = new ArrayList<>();
+            pending.forEach(this::place);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                wheels[level][(int) ((entry.deadlineTick() >>> (BITS * level)) & MASK)].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.cinema.show.controller;
+
+import com.cinema.shared.dto.ApiResponse;
+import com.cinema.show.dto.BulkScheduleRequest;
+import com.cinema.show.dto.BulkScheduleResponse;
+import com.cinema.show.service.ShowScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/shows")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Show Management", description = "Admin APIs for show scheduling")
+public class AdminShowController {
+
+    private final ShowScheduleService showScheduleService;
+
+    @PostMapping("/schedule")
+    @Operation(summary = "Create shows and their seats for halls, date ranges and time slots in bulk")
+    public ResponseEntity<ApiResponse<BulkScheduleResponse>> schedule(
+            @Valid @RequestBody BulkScheduleRequest request) {
+        BulkScheduleResponse result = showScheduleService.schedule(request);
+        return ResponseEntity.ok(ApiResponse.success(result, "Shows scheduled successfully"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.cinema.show.controller;
+
+import com.cinema.shared.dto.ApiResponse;
+import com.cinema.show.dto.WaitingRoomAdminResponse;
+import com.cinema.show.dto.WaitingRoomConfigRequest;
+import com.cinema.show.service.WaitingRoomService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/shows/{showId}/waiting-room")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Waiting Room", description = "Admin APIs for show waiting rooms")
+public class AdminWaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    @GetMapping
+    @Operation(summary = "Get waiting room rate and queue length")
+    public ResponseEntity<ApiResponse<WaitingRoomAdminResponse>> getRoom(@PathVariable Long showId) {
+        return ResponseEntity.ok(ApiResponse.success(waitingRoomService.getRoom(showId)));
+    }
+
+    @PutMapping
+    @Operation(summary = "Open the waiting room or change its admission rate")
+    public ResponseEntity<ApiResponse<WaitingRoomAdminResponse>> configure(
+            @PathVariable Long showId,
+            @Valid @RequestBody WaitingRoomConfigRequest request) {
+        WaitingRoomAdminResponse room = waitingRoomService.configure(showId, request.getAdmissionsPerMinute());
+        return ResponseEntity.ok(ApiResponse.success(room, "Waiting room updated"));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Close the waiting room")
+    public ResponseEntity<ApiResponse<Void>> close(@PathVariable Long showId) {
+        waitingRoomService.close(showId);
+        return ResponseEntity.ok(ApiResponse.success("Waiting room closed"));
+    }
+}
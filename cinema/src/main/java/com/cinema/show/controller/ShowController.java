@@ -0,0 +1,170 @@
+package com.cinema.show.controller;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import com.cinema.shared.dto.ApiResponse;
+import com.cinema.shared.ratelimit.RateLimit;
+import com.cinema.shared.security.AuthenticatedUser;
+import com.cinema.show.dto.BestSeatsRequest;
+import com.cinema.show.dto.BestSeatsResponse;
+import com.cinema.show.dto.CompactSeatLayoutResponse;
+import com.cinema.show.dto.CompactSeatStatusResponse;
+import com.cinema.show.dto.SeatHoldRequest;
+import com.cinema.show.dto.SeatHoldResponse;
+import com.cinema.show.dto.SeatMapResponse;
+import com.cinema.show.dto.ShowAvailabilityResponse;
+import com.cinema.show.dto.ShowListingResponse;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.service.BestSeatService;
+import com.cinema.show.service.CompactSeatMapService;
+import com.cinema.show.service.SeatHoldService;
+import com.cinema.show.service.SeatInventoryService;
+import com.cinema.show.service.ShowListingService;
+import com.cinema.show.service.WaitingRoomService;
+import com.cinema.show.stream.SeatMapStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/shows")
+@RequiredArgsConstructor
+@Tag(name = "Show", description = "Show seat map and availability APIs")
+public class ShowController {
+
+    private final SeatInventoryService seatInventoryService;
+    private final SeatHoldService seatHoldService;
+    private final ShowListingService showListingService;
+    private final SeatMapStreamService seatMapStreamService;
+    private final WaitingRoomService waitingRoomService;
+    private final BestSeatService bestSeatService;
+    private final CompactSeatMapService compactSeatMapService;
+
+    @GetMapping
+    @Operation(summary = "List shows of a cinema on a date with seats left")
+    public ResponseEntity<ApiResponse<List<ShowListingResponse>>> getShows(
+            @RequestParam Long cinemaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<ShowListingResponse> shows = showListingService.getShowsWithAvailability(cinemaId, date);
+        return ResponseEntity.ok(ApiResponse.success(shows));
+    }
+
+    @GetMapping("/{showId}/seats")
+    @Operation(summary = "Get seat map of a show")
+    public ResponseEntity<ApiResponse<SeatMapResponse>> getSeatMap(@PathVariable Long showId) {
+        SeatMapResponse seatMap = seatInventoryService.getSeatMap(showId);
+        return ResponseEntity.ok(ApiResponse.success(seatMap));
+    }
+
+    @GetMapping("/{showId}/seats/layout")
+    @Operation(summary = "Get the static seat layout of a show; immutable when requested with its version")
+    public ResponseEntity<ApiResponse<CompactSeatLayoutResponse>> getSeatLayout(
+            @PathVariable Long showId,
+            @RequestParam(value = "v", required = false) String layoutVersion,
+            WebRequest request) {
+        ShowSeatInventory inventory = compactSeatMapService.getInventory(showId);
+        CacheControl cacheControl = inventory.getLayoutVersion().equals(layoutVersion)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache();
+        String eTag = CompactSeatMapService.layoutETag(inventory);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .body(ApiResponse.success(compactSeatMapService.getLayout(inventory)));
+    }
+
+    @GetMapping("/{showId}/seats/status")
+    @Operation(summary = "Get run-length encoded seat statuses of a show; revalidate with If-None-Match")
+    public ResponseEntity<ApiResponse<CompactSeatStatusResponse>> getSeatStatus(
+            @PathVariable Long showId,
+            WebRequest request) {
+        ShowSeatInventory inventory = compactSeatMapService.getInventory(showId);
+        CompactSeatStatusResponse status = compactSeatMapService.getStatus(inventory);
+        String eTag = compactSeatMapService.statusETag(status);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success(status));
+    }
+
+    @GetMapping(value = "/{showId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the seat map of a show: a snapshot event, then delta events")
+    public SseEmitter streamSeatMap(@PathVariable Long showId) {
+        return seatMapStreamService.subscribe(showId);
+    }
+
+    @GetMapping("/{showId}/seats/best")
+    @Operation(summary = "Find the best block of adjacent available seats")
+    public ResponseEntity<ApiResponse<BestSeatsResponse>> findBestSeats(
+            @PathVariable Long showId,
+            @RequestParam int quantity,
+            @RequestParam(required = false) SeatType seatType) {
+        BestSeatsResponse seats = bestSeatService.findBestSeats(showId, quantity, seatType);
+        return ResponseEntity.ok(ApiResponse.success(seats));
+    }
+
+    @PostMapping("/{showId}/seats/best/hold")
+    @Operation(summary = "Find the best block of adjacent available seats and hold it")
+    @RateLimit(name = "seat-hold-user", key = RateLimit.Key.USER, limit = 30, windowSeconds = 60)
+    @RateLimit(name = "seat-hold-show", key = RateLimit.Key.SHOW, limit = 300, windowSeconds = 1)
+    public ResponseEntity<ApiResponse<BestSeatsResponse>> holdBestSeats(
+            @PathVariable Long showId,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestHeader(value = WaitingRoomService.ADMISSION_HEADER, required = false) String admissionToken,
+            @Valid @RequestBody BestSeatsRequest request) {
+        waitingRoomService.checkAdmission(showId, user.id(), admissionToken);
+        BestSeatsResponse seats = bestSeatService.holdBestSeats(
+                showId, user.id(), request.getQuantity(), request.getSeatType());
+        return ResponseEntity.ok(ApiResponse.success(seats, "Seats held successfully"));
+    }
+
+    @GetMapping("/{showId}/availability")
+    @Operation(summary = "Get seat availability counts of a show")
+    public ResponseEntity<ApiResponse<ShowAvailabilityResponse>> getAvailability(@PathVariable Long showId) {
+        ShowAvailabilityResponse availability = seatInventoryService.getAvailability(showId);
+        return ResponseEntity.ok(ApiResponse.success(availability));
+    }
+
+    @PostMapping("/{showId}/holds")
+    @Operation(summary = "Hold seats of a show for the current user (all or nothing)")
+    @RateLimit(name = "seat-hold-user", key = RateLimit.Key.USER, limit = 30, windowSeconds = 60)
+    @RateLimit(name = "seat-hold-show", key = RateLimit.Key.SHOW, limit = 300, windowSeconds = 1)
+    public ResponseEntity<ApiResponse<SeatHoldResponse>> holdSeats(
+            @PathVariable Long showId,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestHeader(value = WaitingRoomService.ADMISSION_HEADER, required = false) String admissionToken,
+            @Valid @RequestBody SeatHoldRequest request) {
+        waitingRoomService.checkAdmission(showId, user.id(), admissionToken);
+        SeatHoldResponse hold = seatHoldService.hold(showId, user.id(), request.getShowSeatIds());
+        return ResponseEntity.ok(ApiResponse.success(hold, "Seats held successfully"));
+    }
+
+    @DeleteMapping("/{showId}/holds")
+    @Operation(summary = "Release seats held by the current user")
+    public ResponseEntity<ApiResponse<List<Long>>> releaseSeats(
+            @PathVariable Long showId,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @Valid @RequestBody SeatHoldRequest request) {
+        List<Long> released = seatHoldService.release(showId, user.id(), request.getShowSeatIds());
+        return ResponseEntity.ok(ApiResponse.success(released, "Seats released successfully"));
+    }
+}
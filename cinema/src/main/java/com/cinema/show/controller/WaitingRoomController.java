@@ -0,0 +1,39 @@
+package com.cinema.show.controller;
+
+import com.cinema.shared.dto.ApiResponse;
+import com.cinema.shared.security.AuthenticatedUser;
+import com.cinema.show.dto.WaitingRoomStatusResponse;
+import com.cinema.show.service.WaitingRoomService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/shows/{showId}/waiting-room")
+@RequiredArgsConstructor
+@Tag(name = "Waiting Room", description = "Queue for shows with high demand")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    @PostMapping
+    @Operation(summary = "Join the waiting room of a show")
+    public ResponseEntity<ApiResponse<WaitingRoomStatusResponse>> join(
+            @PathVariable Long showId,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        WaitingRoomStatusResponse status = waitingRoomService.join(showId, user.id());
+        return ResponseEntity.ok(ApiResponse.success(status));
+    }
+
+    @GetMapping
+    @Operation(summary = "Get queue position, ETA and, once admitted, the admission token")
+    public ResponseEntity<ApiResponse<WaitingRoomStatusResponse>> getStatus(
+            @PathVariable Long showId,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        WaitingRoomStatusResponse status = waitingRoomService.getStatus(showId, user.id());
+        return ResponseEntity.ok(ApiResponse.success(status));
+    }
+}
@@ -0,0 +1,22 @@
+package com.cinema.show.dto;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestSeatsRequest {
+
+    @Min(value = 1, message = "At least one seat is required")
+    @Max(value = 50, message = "At most 50 seats can be searched")
+    private int quantity;
+
+    private SeatType seatType;
+}
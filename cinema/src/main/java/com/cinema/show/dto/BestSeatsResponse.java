@@ -0,0 +1,25 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestSeatsResponse {
+    private Long showId;
+    private String rowName;
+    private List<SeatMapResponse.SeatInfo> seats;
+    private BigDecimal totalPrice;
+    private double score;
+    private long version;
+    private boolean held;
+    private LocalDateTime holdExpiresAt;
+}
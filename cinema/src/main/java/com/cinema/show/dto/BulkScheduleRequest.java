@@ -0,0 +1,51 @@
+package com.cinema.show.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkScheduleRequest {
+
+    @NotEmpty(message = "At least one schedule entry is required")
+    private List<@Valid ScheduleEntry> entries;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScheduleEntry {
+
+        @NotNull(message = "Movie is required")
+        private Long movieId;
+
+        @NotNull(message = "Hall is required")
+        private Long hallId;
+
+        @NotNull(message = "Start date is required")
+        private LocalDate startDate;
+
+        @NotNull(message = "End date is required")
+        private LocalDate endDate;
+
+        @NotEmpty(message = "At least one time slot is required")
+        private List<@NotNull LocalTime> timeSlots;
+
+        @NotNull(message = "Base price is required")
+        @DecimalMin(value = "0.01", message = "Base price must be positive")
+        private BigDecimal basePrice;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkScheduleResponse {
+    private int showsCreated;
+    private int showSeatsCreated;
+    private long elapsedMillis;
+    private long showsPerSecond;
+    private long showSeatsPerSecond;
+    private List<Long> showIds;
+}
@@ -0,0 +1,30 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Static part of a show's seat map, indexed by ordinal ({@code row * seatsPerRow + seatNumber - 1}).
+ * {@code seatTypes} has one character per ordinal: {@code N} normal, {@code V} VIP,
+ * {@code C} couple, {@code .} no seat, lower case when the seat cannot be sold.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactSeatLayoutResponse {
+    private Long showId;
+    private Long hallId;
+    private String layoutVersion;
+    private List<String> rowNames;
+    private int seatsPerRow;
+    private long[] showSeatIds;
+    private String seatTypes;
+    private List<BigDecimal> priceLevels;
+    private int[] priceIndexes;
+}
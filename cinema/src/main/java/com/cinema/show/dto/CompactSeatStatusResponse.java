@@ -0,0 +1,25 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Seat statuses of a show, run-length encoded in ordinal order (see SeatStatusCodec).
+ * {@code epoch} and {@code version} together identify the state on one node; both
+ * only grow. {@code sequence} is the last cluster-wide transition this node has
+ * applied, or -1 while unknown; the node's own transitions may be ahead of it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactSeatStatusResponse {
+    private Long showId;
+    private String layoutVersion;
+    private long epoch;
+    private long version;
+    private long sequence;
+    private String status;
+}
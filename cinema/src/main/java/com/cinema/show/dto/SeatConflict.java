@@ -0,0 +1,10 @@
+package com.cinema.show.dto;
+
+import com.cinema.shared.exception.ErrorCode;
+
+public record SeatConflict(Long showSeatId, int code, String message) {
+
+    public static SeatConflict of(Long showSeatId, ErrorCode errorCode) {
+        return new SeatConflict(showSeatId, errorCode.getCode(), errorCode.getMessage());
+    }
+}
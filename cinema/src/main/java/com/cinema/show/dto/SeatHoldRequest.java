@@ -0,0 +1,19 @@
+package com.cinema.show.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldRequest {
+
+    @NotEmpty(message = "At least one seat is required")
+    private List<Long> showSeatIds;
+}
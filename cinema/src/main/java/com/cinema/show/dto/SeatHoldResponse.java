@@ -0,0 +1,19 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldResponse {
+    private Long showId;
+    private List<Long> showSeatIds;
+    private LocalDateTime expiresAt;
+}
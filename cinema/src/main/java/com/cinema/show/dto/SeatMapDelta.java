@@ -0,0 +1,14 @@
+package com.cinema.show.dto;
+
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+
+import java.util.List;
+
+/**
+ * Seats that changed status between two versions of a show's seat map.
+ */
+public record SeatMapDelta(Long showId, long fromVersion, long version, List<SeatChange> changes) {
+
+    public record SeatChange(int ordinal, ShowSeatStatus status) {
+    }
+}
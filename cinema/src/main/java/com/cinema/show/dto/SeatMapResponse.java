@@ -0,0 +1,39 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapResponse {
+    private Long showId;
+    private Long hallId;
+    private int rows;
+    private int seatsPerRow;
+    private long version;
+    private long availableSeats;
+    private long lockedSeats;
+    private long soldSeats;
+    private List<SeatInfo> seats;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SeatInfo {
+        private Long showSeatId;
+        private int ordinal;
+        private String rowName;
+        private int seatNumber;
+        private String seatType;
+        private BigDecimal price;
+        private String status;
+    }
+}
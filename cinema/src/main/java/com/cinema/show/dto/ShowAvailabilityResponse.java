@@ -0,0 +1,19 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowAvailabilityResponse {
+    private Long showId;
+    private long totalSeats;
+    private long availableSeats;
+    private long lockedSeats;
+    private long soldSeats;
+    private long version;
+}
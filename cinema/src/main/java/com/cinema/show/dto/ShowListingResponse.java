@@ -0,0 +1,33 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowListingResponse {
+    private Long showId;
+    private Long movieId;
+    private String movieTitle;
+    private String posterUrl;
+    private Integer duration;
+    private Long hallId;
+    private String hallName;
+    private LocalDate showDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private BigDecimal basePrice;
+    private String status;
+    private long totalSeats;
+    private long availableSeats;
+    private long lockedSeats;
+    private long soldSeats;
+}
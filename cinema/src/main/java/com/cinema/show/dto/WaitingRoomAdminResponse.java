@@ -0,0 +1,19 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomAdminResponse {
+    private Long showId;
+    private boolean enabled;
+    private int admissionsPerMinute;
+    private long ticketsIssued;
+    private long admitted;
+    private long waiting;
+}
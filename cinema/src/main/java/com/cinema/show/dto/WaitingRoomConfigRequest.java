@@ -0,0 +1,19 @@
+package com.cinema.show.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomConfigRequest {
+
+    @Min(value = 1, message = "At least one admission per minute is required")
+    @Max(value = 100000, message = "At most 100000 admissions per minute")
+    private int admissionsPerMinute;
+}
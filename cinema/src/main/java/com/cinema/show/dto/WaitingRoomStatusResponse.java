@@ -0,0 +1,24 @@
+package com.cinema.show.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomStatusResponse {
+    private Long showId;
+    private boolean enabled;
+    private boolean queued;
+    private boolean admitted;
+    private long position;
+    private long etaSeconds;
+    private int pollAfterSeconds;
+    private String admissionToken;
+    private LocalDateTime admissionExpiresAt;
+}
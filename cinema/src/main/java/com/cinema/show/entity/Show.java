@@ -61,10 +61,4 @@ public class Show extends BaseEntity {
     public boolean isBookable() {
         return status == ShowStatus.SCHEDULED;
     }
-
-    public long getAvailableSeatsCount() {
-        return showSeats.stream()
-            .filter(ss -> ss.getStatus() == ShowSeat.ShowSeatStatus.AVAILABLE)
-            .count();
-    }
 }
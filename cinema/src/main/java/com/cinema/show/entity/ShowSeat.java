@@ -2,6 +2,7 @@ package com.cinema.show.entity;
 
 import com.cinema.cinema.entity.Seat;
 import com.cinema.shared.entity.BaseEntity;
+import com.cinema.show.inventory.ShowSeatInventoryListener;
 import com.cinema.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -10,6 +11,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ShowSeatInventoryListener.class)
 @Table(name = "show_seats", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"show_id", "seat_id"})
 })
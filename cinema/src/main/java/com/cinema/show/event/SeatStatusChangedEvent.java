@@ -0,0 +1,6 @@
+package com.cinema.show.event;
+
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+
+public record SeatStatusChangedEvent(Long showId, Long showSeatId, ShowSeatStatus status) {
+}
@@ -0,0 +1,27 @@
+package com.cinema.show.event;
+
+import com.cinema.shared.outbox.OutboxEvent;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+
+import java.util.List;
+
+/**
+ * Seats of one show that moved to {@code status} in the publishing transaction.
+ * Unlike {@link SeatStatusChangedEvent} it is stored with the transaction and
+ * relayed to Kafka, keyed by show.
+ */
+public record ShowSeatsChangedEvent(Long showId, List<Long> showSeatIds, ShowSeatStatus status)
+        implements OutboxEvent {
+
+    public static final String TOPIC = "cinema.seat-events";
+
+    @Override
+    public String outboxTopic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String outboxKey() {
+        return showId.toString();
+    }
+}
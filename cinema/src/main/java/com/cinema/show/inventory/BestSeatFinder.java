@@ -0,0 +1,117 @@
+package com.cinema.show.inventory;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+
+import java.util.Optional;
+
+/**
+ * Finds the best block of adjacent available seats in one row of a show. Works
+ * directly on an inventory snapshot, so a search over a typical hall touches a
+ * few hundred bits and allocates only the winning block.
+ *
+ * <p>Blocks never include BROKEN or INACTIVE seats, never span a gap in the row
+ * and never take one half of a COUPLE seat without the other.
+ */
+public final class BestSeatFinder {
+
+    private BestSeatFinder() {
+    }
+
+    /**
+     * Position of the best seats as fractions of the hall (row 0 is nearest the
+     * screen) and the weight of the distance from it along each axis.
+     * {@code orphanPenalty} is added for every single seat a block would strand.
+     */
+    public record Scoring(double rowPosition, double columnPosition,
+                          double rowWeight, double columnWeight, double orphanPenalty) {
+    }
+
+    public record Block(int[] ordinals, double score) {
+    }
+
+    public static Optional<Block> find(ShowSeatInventory inventory, ShowSeatInventory.Snapshot snapshot,
+                                       int quantity, SeatType seatType, Scoring scoring) {
+        int rows = inventory.getRows();
+        int seatsPerRow = inventory.getSeatsPerRow();
+        if (quantity <= 0 || quantity > seatsPerRow) {
+            return Optional.empty();
+        }
+        long[] available = snapshot.bits(ShowSeatStatus.AVAILABLE);
+
+        int bestStart = -1;
+        double bestScore = Double.MAX_VALUE;
+        for (int row = 0; row < rows; row++) {
+            double rowDistance = rows == 1 ? 0 : Math.abs((double) row / (rows - 1) - scoring.rowPosition());
+            double rowScore = scoring.rowWeight() * rowDistance;
+            if (rowScore >= bestScore) {
+                continue;
+            }
+
+            int rowStart = row * seatsPerRow;
+            int rowEnd = rowStart + seatsPerRow;
+            int run = 0;
+            for (int ordinal = rowStart; ordinal < rowEnd; ordinal++) {
+                if (!isCandidate(inventory, available, ordinal, seatType)) {
+                    run = 0;
+                    continue;
+                }
+                run++;
+                if (run < quantity) {
+                    continue;
+                }
+                int start = ordinal - quantity + 1;
+                if (splitsCouple(inventory, start, ordinal)) {
+                    continue;
+                }
+
+                double center = (start + ordinal) / 2.0 - rowStart;
+                double columnDistance = seatsPerRow == 1 ? 0
+                        : Math.abs(center / (seatsPerRow - 1) - scoring.columnPosition());
+                double score = rowScore + scoring.columnWeight() * columnDistance;
+                if (strandsSingleSeat(inventory, available, start - 1, rowStart, rowEnd, seatType, -1)) {
+                    score += scoring.orphanPenalty();
+                }
+                if (strandsSingleSeat(inventory, available, ordinal + 1, rowStart, rowEnd, seatType, 1)) {
+                    score += scoring.orphanPenalty();
+                }
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestStart = start;
+                }
+            }
+        }
+
+        if (bestStart < 0) {
+            return Optional.empty();
+        }
+        int[] ordinals = new int[quantity];
+        for (int i = 0; i < quantity; i++) {
+            ordinals[i] = bestStart + i;
+        }
+        return Optional.of(new Block(ordinals, bestScore));
+    }
+
+    private static boolean isCandidate(ShowSeatInventory inventory, long[] available, int ordinal, SeatType seatType) {
+        return ShowSeatInventory.isSet(available, ordinal)
+                && inventory.hasSeat(ordinal)
+                && !inventory.isBlocked(ordinal)
+                && (seatType == null || inventory.getSeatType(ordinal) == seatType);
+    }
+
+    private static boolean splitsCouple(ShowSeatInventory inventory, int first, int last) {
+        int firstPartner = inventory.getCouplePartner(first);
+        int lastPartner = inventory.getCouplePartner(last);
+        return (firstPartner >= 0 && firstPartner < first) || (lastPartner > last);
+    }
+
+    // True when the seat next to a block is the only candidate left between the block and a gap
+    private static boolean strandsSingleSeat(ShowSeatInventory inventory, long[] available, int ordinal,
+                                             int rowStart, int rowEnd, SeatType seatType, int direction) {
+        if (ordinal < rowStart || ordinal >= rowEnd || !isCandidate(inventory, available, ordinal, seatType)) {
+            return false;
+        }
+        int beyond = ordinal + direction;
+        return beyond < rowStart || beyond >= rowEnd || !isCandidate(inventory, available, beyond, seatType);
+    }
+}
@@ -0,0 +1,55 @@
+package com.cinema.show.inventory;
+
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+
+/**
+ * Run-length encodes seat statuses in ordinal order: {@code A} available,
+ * {@code L} locked, {@code S} sold, {@code .} no seat at that position. Each run
+ * is written as its length followed by the code, the length omitted when it is 1,
+ * e.g. {@code "12A2L.S"}. A typical hall encodes to a few dozen characters.
+ */
+public final class SeatStatusCodec {
+
+    private SeatStatusCodec() {
+    }
+
+    public static String encode(ShowSeatInventory inventory, ShowSeatInventory.Snapshot snapshot) {
+        int capacity = inventory.getCapacity();
+        StringBuilder encoded = new StringBuilder();
+        char current = 0;
+        int run = 0;
+        for (int ordinal = 0; ordinal < capacity; ordinal++) {
+            char code = inventory.hasSeat(ordinal) ? code(snapshot.statusAt(ordinal)) : '.';
+            if (code == current) {
+                run++;
+                continue;
+            }
+            appendRun(encoded, current, run);
+            current = code;
+            run = 1;
+        }
+        appendRun(encoded, current, run);
+        return encoded.toString();
+    }
+
+    public static char code(ShowSeatStatus status) {
+        if (status == null) {
+            return '.';
+        }
+        return switch (status) {
+            case AVAILABLE -> 'A';
+            case LOCKED -> 'L';
+            case SOLD -> 'S';
+        };
+    }
+
+    private static void appendRun(StringBuilder encoded, char code, int run) {
+        if (run == 0) {
+            return;
+        }
+        if (run > 1) {
+            encoded.append(run);
+        }
+        encoded.append(code);
+    }
+}
@@ -0,0 +1,447 @@
+package com.cinema.show.inventory;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import com.cinema.show.entity.Show.ShowStatus;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.repository.ShowRepository.InventoryHeader;
+import com.cinema.show.repository.ShowSeatRepository.SeatStateRow;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Seat state of a single show kept as one bitset per {@link ShowSeatStatus}.
+ * Bits are indexed by seat ordinal ({@code rowIndex * seatsPerRow + seatNumber - 1}),
+ * so counting or snapshotting a show costs O(seats / 64) and never touches Hibernate.
+ * The static part of the layout (labels, types, prices) is loaded once with the state.
+ */
+public final class ShowSeatInventory {
+
+    private static final ShowSeatStatus[] STATUSES = ShowSeatStatus.values();
+    private static final AtomicLong LAST_EPOCH = new AtomicLong();
+    private static final SeatType[] SEAT_TYPES = SeatType.values();
+
+    private final Long showId;
+    private final Long hallId;
+    private final LocalDate showDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final ShowStatus status;
+    private final int rows;
+    private final int seatsPerRow;
+    private final String[] rowNames;
+
+    // Layout by ordinal, 0 / null where the hall has no sellable seat
+    private final long[] showSeatIds;
+    private final byte[] seatTypes;
+    private final BigDecimal[] prices;
+    // Seats whose physical seat is BROKEN or INACTIVE; shown on the map but never offered
+    private final long[] blocked;
+    // Ordinal of the other half of a COUPLE seat, -1 for every other seat
+    private final int[] couplePartners;
+
+    // showSeatId -> ordinal lookup, filled once after loading
+    private long[] sortedShowSeatIds;
+    private int[] ordinalsBySortedId;
+
+    private final long[] present;
+    private final long[][] states;
+    private long version;
+
+    // Distinguishes loads of the same show, so (epoch, version) never repeats for different states
+    private final long epoch = nextEpoch();
+    private String layoutVersion;
+    // Position in the show's cluster-wide transition sequence, -1 while unknown
+    private final AtomicLong sequence = new AtomicLong(-1);
+
+    private final StampedLock lock = new StampedLock();
+
+    private static final Comparator<String> ROW_ORDER =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    private ShowSeatInventory(InventoryHeader header, String[] rowNames, int seatsPerRow) {
+        this.showId = header.getShowId();
+        this.hallId = header.getHallId();
+        this.showDate = header.getShowDate();
+        this.startTime = header.getStartTime();
+        this.endTime = header.getEndTime();
+        this.status = ShowStatus.valueOf(header.getStatus());
+        this.rowNames = rowNames;
+        this.rows = rowNames.length;
+        this.seatsPerRow = seatsPerRow;
+
+        int capacity = rows * seatsPerRow;
+        int words = wordCount(capacity);
+        this.showSeatIds = new long[capacity];
+        this.seatTypes = new byte[capacity];
+        this.prices = new BigDecimal[capacity];
+        this.present = new long[words];
+        this.blocked = new long[words];
+        this.couplePartners = new int[capacity];
+        this.states = new long[STATUSES.length][words];
+    }
+
+    public static ShowSeatInventory load(InventoryHeader header, List<SeatStateRow> seats) {
+        // Rows are ordered A, B, ..., Z, AA, ... regardless of how the hall was created
+        String[] rowNames = seats.stream()
+                .map(SeatStateRow::getRowName)
+                .distinct()
+                .sorted(ROW_ORDER)
+                .toArray(String[]::new);
+        int maxSeatNumber = seats.stream().mapToInt(SeatStateRow::getSeatNumber).max().orElse(0);
+        int seatsPerRow = Math.max(header.getSeatsPerRow() != null ? header.getSeatsPerRow() : 0, maxSeatNumber);
+
+        ShowSeatInventory inventory = new ShowSeatInventory(header, rowNames, seatsPerRow);
+        for (SeatStateRow seat : seats) {
+            int rowIndex = Arrays.binarySearch(rowNames, seat.getRowName(), ROW_ORDER);
+            int ordinal = rowIndex * seatsPerRow + seat.getSeatNumber() - 1;
+            inventory.showSeatIds[ordinal] = seat.getShowSeatId();
+            inventory.seatTypes[ordinal] = (byte) SeatType.valueOf(seat.getSeatType()).ordinal();
+            inventory.prices[ordinal] = seat.getPrice();
+            setBit(inventory.present, ordinal);
+            if (seat.getSeatStatus() != null && !"ACTIVE".equals(seat.getSeatStatus())) {
+                setBit(inventory.blocked, ordinal);
+            }
+            setBit(inventory.states[ShowSeatStatus.valueOf(seat.getStatus()).ordinal()], ordinal);
+        }
+        inventory.indexShowSeatIds();
+        inventory.pairCoupleSeats();
+        inventory.layoutVersion = inventory.hashLayout();
+        return inventory;
+    }
+
+    public Long getShowId() {
+        return showId;
+    }
+
+    public Long getHallId() {
+        return hallId;
+    }
+
+    public LocalDate getShowDate() {
+        return showDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public ShowStatus getStatus() {
+        return status;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Digest of everything that is fixed once loaded: rows, seat ids, types, prices
+     * and blocked seats. Equal versions mean an identical layout.
+     */
+    public String getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    /**
+     * Last cluster-wide transition sequence number reflected in this inventory.
+     * Transitions made on this node are applied before they come back through
+     * the relay, so the seat states can be ahead of it.
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    public void startSequenceAt(long value) {
+        sequence.set(value);
+    }
+
+    /**
+     * Records the sequence number of a relayed transition. Returns false when it
+     * skips past the next expected number, meaning a transition was missed, or
+     * restarts at 1 because the counter was lost.
+     */
+    public boolean advanceSequence(long value) {
+        while (true) {
+            long current = sequence.get();
+            if (current >= 0 && value != current + 1) {
+                return value <= current && !(value == 1 && current > 1);
+            }
+            if (sequence.compareAndSet(current, value)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean isBookable() {
+        return status == ShowStatus.SCHEDULED;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int getCapacity() {
+        return rows * seatsPerRow;
+    }
+
+    public List<String> getRowNames() {
+        return List.of(rowNames);
+    }
+
+    public String getRowName(int ordinal) {
+        return rowNames[ordinal / seatsPerRow];
+    }
+
+    public int getSeatNumber(int ordinal) {
+        return ordinal % seatsPerRow + 1;
+    }
+
+    public boolean hasSeat(int ordinal) {
+        return ordinal >= 0 && ordinal < showSeatIds.length && showSeatIds[ordinal] != 0;
+    }
+
+    public long getShowSeatId(int ordinal) {
+        return showSeatIds[ordinal];
+    }
+
+    public SeatType getSeatType(int ordinal) {
+        return SEAT_TYPES[seatTypes[ordinal]];
+    }
+
+    public BigDecimal getPrice(int ordinal) {
+        return prices[ordinal];
+    }
+
+    public boolean isBlocked(int ordinal) {
+        return isSet(blocked, ordinal);
+    }
+
+    public int getCouplePartner(int ordinal) {
+        return couplePartners[ordinal];
+    }
+
+    /**
+     * Returns the ordinal of a show seat, or -1 if it does not belong to this show.
+     */
+    public int ordinalOf(long showSeatId) {
+        int index = Arrays.binarySearch(sortedShowSeatIds, showSeatId);
+        return index >= 0 ? ordinalsBySortedId[index] : -1;
+    }
+
+    /**
+     * Moves a seat into {@code status}. Idempotent: returns false when the seat
+     * was already in that state, in which case the version is left untouched.
+     */
+    public boolean apply(int ordinal, ShowSeatStatus status) {
+        if (!hasSeat(ordinal)) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (isSet(states[status.ordinal()], ordinal)) {
+                return false;
+            }
+            for (long[] state : states) {
+                clearBit(state, ordinal);
+            }
+            setBit(states[status.ordinal()], ordinal);
+            version++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long stamp = lock.tryOptimisticRead();
+        Snapshot snapshot = copy();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                snapshot = copy();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return snapshot;
+    }
+
+    public long count(ShowSeatStatus status) {
+        return snapshot().count(status);
+    }
+
+    private Snapshot copy() {
+        long[][] copies = new long[states.length][];
+        for (int s = 0; s < states.length; s++) {
+            copies[s] = states[s].clone();
+        }
+        return new Snapshot(version, copies);
+    }
+
+    /**
+     * Immutable copy of the per-status bitsets at a given inventory version.
+     */
+    public record Snapshot(long version, long[][] states) {
+
+        public boolean is(int ordinal, ShowSeatStatus status) {
+            return isSet(states[status.ordinal()], ordinal);
+        }
+
+        public ShowSeatStatus statusAt(int ordinal) {
+            for (ShowSeatStatus status : STATUSES) {
+                if (isSet(states[status.ordinal()], ordinal)) {
+                    return status;
+                }
+            }
+            return null;
+        }
+
+        public long count(ShowSeatStatus status) {
+            long count = 0;
+            for (long word : states[status.ordinal()]) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        public long[] bits(ShowSeatStatus status) {
+            return states[status.ordinal()];
+        }
+
+        /**
+         * Ordinals whose status differs from {@code previous}, in ascending order.
+         * Both snapshots must come from the same inventory.
+         */
+        public int[] changedSince(Snapshot previous) {
+            int words = states[0].length;
+            int[] changed = new int[0];
+            int size = 0;
+            for (int word = 0; word < words; word++) {
+                long diff = 0;
+                for (int s = 0; s < states.length; s++) {
+                    diff |= states[s][word] ^ previous.states[s][word];
+                }
+                while (diff != 0) {
+                    if (size == changed.length) {
+                        changed = Arrays.copyOf(changed, Math.max(8, size * 2));
+                    }
+                    changed[size++] = (word << 6) + Long.numberOfTrailingZeros(diff);
+                    diff &= diff - 1;
+                }
+            }
+            return Arrays.copyOf(changed, size);
+        }
+    }
+
+    static int wordCount(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    static boolean isSet(long[] words, int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static void setBit(long[] words, int bit) {
+        words[bit >>> 6] |= 1L << bit;
+    }
+
+    private static void clearBit(long[] words, int bit) {
+        words[bit >>> 6] &= ~(1L << bit);
+    }
+
+    private String hashLayout() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((String.join(",", rowNames) + "/" + seatsPerRow).getBytes(StandardCharsets.UTF_8));
+            for (int ordinal = 0; ordinal < showSeatIds.length; ordinal++) {
+                long id = showSeatIds[ordinal];
+                for (int shift = 0; shift < 64; shift += 8) {
+                    digest.update((byte) (id >>> shift));
+                }
+                digest.update(seatTypes[ordinal]);
+                digest.update((byte) (isSet(blocked, ordinal) ? 1 : 0));
+                if (prices[ordinal] != null) {
+                    digest.update(prices[ordinal].toPlainString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Epochs follow wall-clock milliseconds so they keep increasing across restarts
+    private static long nextEpoch() {
+        long now = System.currentTimeMillis();
+        return LAST_EPOCH.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    // Adjacent COUPLE seats of a row form pairs from the left: (1, 2), (3, 4), ...
+    private void pairCoupleSeats() {
+        Arrays.fill(couplePartners, -1);
+        int coupleOrdinal = SeatType.COUPLE.ordinal();
+        for (int row = 0; row < rows; row++) {
+            int pending = -1;
+            for (int ordinal = row * seatsPerRow; ordinal < (row + 1) * seatsPerRow; ordinal++) {
+                if (!hasSeat(ordinal) || seatTypes[ordinal] != coupleOrdinal) {
+                    pending = -1;
+                } else if (pending < 0) {
+                    pending = ordinal;
+                } else {
+                    couplePartners[pending] = ordinal;
+                    couplePartners[ordinal] = pending;
+                    pending = -1;
+                }
+            }
+        }
+    }
+
+    private void indexShowSeatIds() {
+        int[] ordinals = new int[countBits(present)];
+        int n = 0;
+        for (int ordinal = 0; ordinal < showSeatIds.length; ordinal++) {
+            if (showSeatIds[ordinal] != 0) {
+                ordinals[n++] = ordinal;
+            }
+        }
+        long[] ids = new long[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = ordinals[i];
+        }
+        Arrays.sort(order, Comparator.comparingLong(ordinal -> showSeatIds[ordinal]));
+        int[] sortedOrdinals = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedOrdinals[i] = order[i];
+            ids[i] = showSeatIds[order[i]];
+        }
+        this.sortedShowSeatIds = ids;
+        this.ordinalsBySortedId = sortedOrdinals;
+    }
+
+    private static int countBits(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
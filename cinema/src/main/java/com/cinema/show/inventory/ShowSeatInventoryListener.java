@@ -0,0 +1,40 @@
+package com.cinema.show.inventory;
+
+import com.cinema.show.entity.ShowSeat;
+import com.cinema.show.event.SeatStatusChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Forwards committed {@link ShowSeat} status transitions to the in-memory inventory.
+ * Events are published after commit so a rolled back lock never reaches readers.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShowSeatInventoryListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onStatusChange(ShowSeat showSeat) {
+        SeatStatusChangedEvent event = new SeatStatusChangedEvent(
+                showSeat.getShow().getId(), showSeat.getId(), showSeat.getStatus());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(event);
+                }
+            });
+        } else {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
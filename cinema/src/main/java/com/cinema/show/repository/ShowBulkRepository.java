@@ -0,0 +1,71 @@
+package com.cinema.show.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Set-based inserts for show scheduling. Columns are bound as arrays and expanded
+ * with {@code unnest}, so a whole schedule is one statement and one round trip
+ * regardless of its size.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShowBulkRepository {
+
+    private static final String INSERT_SHOWS = """
+            INSERT INTO shows (movie_id, hall_id, show_date, start_time, end_time, base_price, status,
+                               version, created_by, updated_by)
+            SELECT slot.movie_id, slot.hall_id, slot.show_date, slot.start_time, slot.end_time, slot.base_price,
+                   'SCHEDULED', 0, ?, ?
+            FROM unnest(?::bigint[], ?::bigint[], ?::date[], ?::time[], ?::time[], ?::numeric[])
+                 AS slot(movie_id, hall_id, show_date, start_time, end_time, base_price)
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewShow(Long movieId, Long hallId, LocalDate showDate,
+                          LocalTime startTime, LocalTime endTime, BigDecimal basePrice) {
+    }
+
+    public List<Long> insertShows(List<NewShow> shows, String auditor) {
+        int size = shows.size();
+        Long[] movieIds = new Long[size];
+        Long[] hallIds = new Long[size];
+        Date[] dates = new Date[size];
+        Time[] startTimes = new Time[size];
+        Time[] endTimes = new Time[size];
+        BigDecimal[] prices = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            NewShow show = shows.get(i);
+            movieIds[i] = show.movieId();
+            hallIds[i] = show.hallId();
+            dates[i] = Date.valueOf(show.showDate());
+            startTimes[i] = Time.valueOf(show.startTime());
+            endTimes[i] = Time.valueOf(show.endTime());
+            prices[i] = show.basePrice();
+        }
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SHOWS);
+            statement.setString(1, auditor);
+            statement.setString(2, auditor);
+            statement.setArray(3, connection.createArrayOf("bigint", movieIds));
+            statement.setArray(4, connection.createArrayOf("bigint", hallIds));
+            statement.setArray(5, connection.createArrayOf("date", dates));
+            statement.setArray(6, connection.createArrayOf("time", startTimes));
+            statement.setArray(7, connection.createArrayOf("time", endTimes));
+            statement.setArray(8, connection.createArrayOf("numeric", prices));
+            return statement;
+        }, (resultSet, rowNum) -> resultSet.getLong(1));
+    }
+}
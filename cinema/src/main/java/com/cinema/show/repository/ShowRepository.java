@@ -0,0 +1,174 @@
+package com.cinema.show.repository;
+
+import com.cinema.show.entity.Show;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ShowRepository extends JpaRepository<Show, Long> {
+
+    interface InventoryHeader {
+        Long getShowId();
+        Long getHallId();
+        Integer getTotalRows();
+        Integer getSeatsPerRow();
+        String getStatus();
+        LocalDate getShowDate();
+        LocalTime getStartTime();
+        LocalTime getEndTime();
+    }
+
+    interface MovieScheduleInfo {
+        Long getId();
+        Integer getDuration();
+        String getStatus();
+    }
+
+    interface ScheduledSlot {
+        Long getHallId();
+        LocalDate getShowDate();
+        LocalTime getStartTime();
+        LocalTime getEndTime();
+    }
+
+    interface SeatCounterRow {
+        Long getShowId();
+        Integer getAvailableSeats();
+        Integer getLockedSeats();
+        Integer getSoldSeats();
+    }
+
+    interface ShowAvailabilityRow {
+        Long getShowId();
+        Long getMovieId();
+        String getMovieTitle();
+        String getPosterUrl();
+        Integer getDuration();
+        Long getHallId();
+        String getHallName();
+        LocalDate getShowDate();
+        LocalTime getStartTime();
+        LocalTime getEndTime();
+        BigDecimal getBasePrice();
+        String getStatus();
+        Integer getAvailableSeats();
+        Integer getLockedSeats();
+        Integer getSoldSeats();
+    }
+
+    @Query(value = """
+            SELECT s.id AS showId, h.id AS hallId, h.total_rows AS totalRows, h.seats_per_row AS seatsPerRow,
+                   s.status AS status, s.show_date AS showDate, s.start_time AS startTime, s.end_time AS endTime
+            FROM shows s
+            JOIN halls h ON h.id = s.hall_id
+            WHERE s.id = :showId AND s.deleted = false
+            """, nativeQuery = true)
+    Optional<InventoryHeader> findInventoryHeader(@Param("showId") Long showId);
+
+    @Query(value = """
+            SELECT s.id AS showId, m.id AS movieId, m.title AS movieTitle, m.poster_url AS posterUrl,
+                   m.duration AS duration, h.id AS hallId, h.name AS hallName,
+                   s.show_date AS showDate, s.start_time AS startTime, s.end_time AS endTime,
+                   s.base_price AS basePrice, s.status AS status,
+                   COALESCE(c.available_seats, 0) AS availableSeats,
+                   COALESCE(c.locked_seats, 0) AS lockedSeats,
+                   COALESCE(c.sold_seats, 0) AS soldSeats
+            FROM shows s
+            JOIN halls h ON h.id = s.hall_id
+            JOIN movies m ON m.id = s.movie_id
+            LEFT JOIN show_seat_counters c ON c.show_id = s.id
+            WHERE h.cinema_id = :cinemaId AND s.show_date = :showDate
+              AND s.deleted = false AND h.deleted = false AND m.deleted = false
+            ORDER BY s.start_time, h.name
+            """, nativeQuery = true)
+    List<ShowAvailabilityRow> findShowsWithAvailability(@Param("cinemaId") Long cinemaId,
+                                                        @Param("showDate") LocalDate showDate);
+
+    @Query(value = """
+            SELECT s.id FROM shows s
+            WHERE s.show_date >= :fromDate AND s.deleted = false AND s.id > :afterId
+            ORDER BY s.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findShowIdsFrom(@Param("fromDate") LocalDate fromDate,
+                               @Param("afterId") Long afterId,
+                               @Param("limit") int limit);
+
+    // Locks the counter rows first so seat transitions committing meanwhile queue behind the recount
+    @Query(value = """
+            SELECT show_id FROM show_seat_counters
+            WHERE show_id IN (:showIds)
+            ORDER BY show_id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockSeatCounters(@Param("showIds") Collection<Long> showIds);
+
+    @Query(value = """
+            SELECT show_id AS showId, available_seats AS availableSeats,
+                   locked_seats AS lockedSeats, sold_seats AS soldSeats
+            FROM show_seat_counters
+            WHERE show_id IN (:showIds)
+            """, nativeQuery = true)
+    List<SeatCounterRow> findSeatCounters(@Param("showIds") Collection<Long> showIds);
+
+    /**
+     * Re-derives the counters of the given shows from show_seats (an index-only
+     * scan of idx_show_seats_availability) and returns how many had drifted.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO show_seat_counters (show_id, available_seats, locked_seats, sold_seats)
+            SELECT s.id,
+                   COUNT(ss.id) FILTER (WHERE ss.status = 'AVAILABLE'),
+                   COUNT(ss.id) FILTER (WHERE ss.status = 'LOCKED'),
+                   COUNT(ss.id) FILTER (WHERE ss.status = 'SOLD')
+            FROM shows s
+            LEFT JOIN show_seats ss ON ss.show_id = s.id AND ss.deleted = false
+            WHERE s.id IN (:showIds)
+            GROUP BY s.id
+            ON CONFLICT (show_id) DO UPDATE SET
+                available_seats = EXCLUDED.available_seats,
+                locked_seats = EXCLUDED.locked_seats,
+                sold_seats = EXCLUDED.sold_seats,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE (show_seat_counters.available_seats, show_seat_counters.locked_seats, show_seat_counters.sold_seats)
+                IS DISTINCT FROM (EXCLUDED.available_seats, EXCLUDED.locked_seats, EXCLUDED.sold_seats)
+            """, nativeQuery = true)
+    int reconcileSeatCounters(@Param("showIds") Collection<Long> showIds);
+
+    @Query(value = """
+            SELECT m.id AS id, m.duration AS duration, m.status AS status
+            FROM movies m
+            WHERE m.id IN (:movieIds) AND m.deleted = false
+            """, nativeQuery = true)
+    List<MovieScheduleInfo> findMovieScheduleInfo(@Param("movieIds") Collection<Long> movieIds);
+
+    // Locks the halls in id order, so schedules for the same hall check for overlaps one after another
+    @Query(value = """
+            SELECT h.id FROM halls h
+            WHERE h.id IN (:hallIds) AND h.status = 'ACTIVE' AND h.deleted = false
+            ORDER BY h.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockActiveHalls(@Param("hallIds") Collection<Long> hallIds);
+
+    @Query(value = """
+            SELECT s.hall_id AS hallId, s.show_date AS showDate, s.start_time AS startTime, s.end_time AS endTime
+            FROM shows s
+            WHERE s.hall_id IN (:hallIds) AND s.show_date BETWEEN :fromDate AND :toDate
+              AND s.status <> 'CANCELLED' AND s.deleted = false
+            """, nativeQuery = true)
+    List<ScheduledSlot> findScheduledSlots(@Param("hallIds") Collection<Long> hallIds,
+                                           @Param("fromDate") LocalDate fromDate,
+                                           @Param("toDate") LocalDate toDate);
+}
@@ -0,0 +1,65 @@
+package com.cinema.show.repository;
+
+import com.cinema.show.entity.ShowSeat;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ShowSeatRepository extends JpaRepository<ShowSeat, Long> {
+
+    interface SeatStateRow {
+        Long getShowSeatId();
+        String getRowName();
+        Integer getSeatNumber();
+        String getSeatType();
+        BigDecimal getPrice();
+        String getStatus();
+        String getSeatStatus();
+    }
+
+    @Query(value = """
+            SELECT ss.id AS showSeatId, st.row_name AS rowName, st.seat_number AS seatNumber,
+                   st.seat_type AS seatType, ss.price AS price, ss.status AS status,
+                   st.status AS seatStatus
+            FROM show_seats ss
+            JOIN seats st ON st.id = ss.seat_id
+            WHERE ss.show_id = :showId AND ss.deleted = false
+            """, nativeQuery = true)
+    List<SeatStateRow> findSeatStates(@Param("showId") Long showId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ss FROM ShowSeat ss WHERE ss.show.id = :showId AND ss.id IN :ids ORDER BY ss.id")
+    List<ShowSeat> findAllForUpdate(@Param("showId") Long showId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Creates the seats of the given shows from the active seats of their halls in
+     * a single statement, pricing each seat as base price times its type multiplier.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO show_seats (show_id, seat_id, price, status)
+            SELECT s.id, st.id,
+                   ROUND(s.base_price * CASE st.seat_type
+                                            WHEN 'VIP' THEN :vipMultiplier
+                                            WHEN 'COUPLE' THEN :coupleMultiplier
+                                            ELSE :normalMultiplier END, 2),
+                   'AVAILABLE'
+            FROM shows s
+            JOIN seats st ON st.hall_id = s.hall_id AND st.status = 'ACTIVE' AND st.deleted = false
+            WHERE s.id IN (:showIds)
+            ORDER BY s.id, st.id
+            """, nativeQuery = true)
+    int insertShowSeats(@Param("showIds") Collection<Long> showIds,
+                        @Param("normalMultiplier") BigDecimal normalMultiplier,
+                        @Param("vipMultiplier") BigDecimal vipMultiplier,
+                        @Param("coupleMultiplier") BigDecimal coupleMultiplier);
+}
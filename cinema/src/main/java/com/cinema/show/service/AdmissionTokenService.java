@@ -0,0 +1,68 @@
+package com.cinema.show.service;
+
+import com.cinema.shared.config.AppProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and verifies waiting room admissions: {@code base64(showId:userId:expiry).base64(hmac)}.
+ * Verification is a single HMAC over a few bytes and needs neither Redis nor the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdmissionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final AppProperties appProperties;
+
+    public String issue(Long showId, Long userId, Instant expiresAt) {
+        byte[] payload = (showId + ":" + userId + ":" + expiresAt.getEpochSecond()).getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public boolean verify(String token, Long showId, Long userId) {
+        if (token == null) {
+            return false;
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return false;
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return false;
+            }
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split(":");
+            return parts.length == 3
+                    && parts[0].equals(showId.toString())
+                    && parts[1].equals(userId.toString())
+                    && Long.parseLong(parts[2]) > Instant.now().getEpochSecond();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(
+                    appProperties.getWaitingRoom().getTokenSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign admission token", e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.cinema.show.service;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.dto.BestSeatsResponse;
+import com.cinema.show.dto.SeatConflict;
+import com.cinema.show.dto.SeatHoldResponse;
+import com.cinema.show.dto.SeatMapResponse;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.inventory.BestSeatFinder;
+import com.cinema.show.inventory.ShowSeatInventory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BestSeatService {
+
+    private static final int MAX_HOLD_ATTEMPTS = 3;
+    private static final int MAX_QUANTITY = 50;
+
+    private final SeatInventoryService seatInventoryService;
+    private final SeatHoldService seatHoldService;
+    private final AppProperties appProperties;
+
+    public BestSeatsResponse findBestSeats(Long showId, int quantity, SeatType seatType) {
+        ShowSeatInventory inventory = seatInventoryService.getInventory(showId);
+        ShowSeatInventory.Snapshot snapshot = inventory.snapshot();
+        BestSeatFinder.Block block = find(inventory, snapshot, quantity, seatType);
+        return toResponse(inventory, snapshot, block).build();
+    }
+
+    /**
+     * Finds the best block and holds it in the same call. If another customer wins
+     * one of the seats in between, the search is repeated without those seats.
+     */
+    public BestSeatsResponse holdBestSeats(Long showId, Long userId, int quantity, SeatType seatType) {
+        ShowSeatInventory inventory = seatInventoryService.getInventory(showId);
+        ShowSeatInventory.Snapshot snapshot = inventory.snapshot();
+        List<Object> lostSeats = new ArrayList<>();
+
+        for (int attempt = 1; ; attempt++) {
+            BestSeatFinder.Block block = find(inventory, snapshot, quantity, seatType);
+            List<Long> seatIds = Arrays.stream(block.ordinals())
+                    .mapToObj(inventory::getShowSeatId)
+                    .toList();
+            try {
+                SeatHoldResponse hold = seatHoldService.hold(showId, userId, seatIds);
+                return toResponse(inventory, snapshot, block)
+                        .held(true)
+                        .holdExpiresAt(hold.getExpiresAt())
+                        .build();
+            } catch (BusinessException e) {
+                boolean lostRace = e.getErrorCode() == ErrorCode.SEAT_ALREADY_LOCKED
+                        || e.getErrorCode() == ErrorCode.SEAT_ALREADY_SOLD;
+                if (!lostRace || attempt >= MAX_HOLD_ATTEMPTS || !(e.getDetails() instanceof List<?> conflicts)) {
+                    throw e;
+                }
+                log.debug("Best seats of show {} were taken concurrently, searching again", showId);
+                lostSeats.addAll(conflicts);
+                snapshot = withoutSeats(inventory, inventory.snapshot(), lostSeats);
+            }
+        }
+    }
+
+    private BestSeatFinder.Block find(ShowSeatInventory inventory, ShowSeatInventory.Snapshot snapshot,
+                                      int quantity, SeatType seatType) {
+        if (quantity < 1 || quantity > MAX_QUANTITY) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "Quantity must be between 1 and " + MAX_QUANTITY);
+        }
+        AppProperties.SeatFinder finder = appProperties.getSeatFinder();
+        AppProperties.SweetSpot sweetSpot = finder.forHall(inventory.getHallId());
+        BestSeatFinder.Scoring scoring = new BestSeatFinder.Scoring(
+                sweetSpot.getRowPosition(), sweetSpot.getColumnPosition(),
+                sweetSpot.getRowWeight(), sweetSpot.getColumnWeight(), finder.getOrphanPenalty());
+        return BestSeatFinder.find(inventory, snapshot, quantity, seatType, scoring)
+                .orElseThrow(() -> new BusinessException(ErrorCode.SEAT_BLOCK_NOT_AVAILABLE));
+    }
+
+    // Treats seats that lost a race as unavailable even if this node has not seen the change yet
+    private static ShowSeatInventory.Snapshot withoutSeats(ShowSeatInventory inventory,
+                                                           ShowSeatInventory.Snapshot snapshot,
+                                                           List<?> conflicts) {
+        long[][] states = snapshot.states().clone();
+        long[] available = states[ShowSeatStatus.AVAILABLE.ordinal()].clone();
+        for (Object conflict : conflicts) {
+            if (conflict instanceof SeatConflict seatConflict) {
+                int ordinal = inventory.ordinalOf(seatConflict.showSeatId());
+                if (ordinal >= 0) {
+                    available[ordinal >>> 6] &= ~(1L << ordinal);
+                }
+            }
+        }
+        states[ShowSeatStatus.AVAILABLE.ordinal()] = available;
+        return new ShowSeatInventory.Snapshot(snapshot.version(), states);
+    }
+
+    private static BestSeatsResponse.BestSeatsResponseBuilder toResponse(ShowSeatInventory inventory,
+                                                                       ShowSeatInventory.Snapshot snapshot,
+                                                                       BestSeatFinder.Block block) {
+        List<SeatMapResponse.SeatInfo> seats = new ArrayList<>(block.ordinals().length);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int ordinal : block.ordinals()) {
+            seats.add(SeatMapResponse.SeatInfo.builder()
+                    .showSeatId(inventory.getShowSeatId(ordinal))
+                    .ordinal(ordinal)
+                    .rowName(inventory.getRowName(ordinal))
+                    .seatNumber(inventory.getSeatNumber(ordinal))
+                    .seatType(inventory.getSeatType(ordinal).name())
+                    .price(inventory.getPrice(ordinal))
+                    .status(ShowSeatStatus.AVAILABLE.name())
+                    .build());
+            total = total.add(inventory.getPrice(ordinal));
+        }
+        return BestSeatsResponse.builder()
+                .showId(inventory.getShowId())
+                .rowName(inventory.getRowName(block.ordinals()[0]))
+                .seats(seats)
+                .totalPrice(total)
+                .score(block.score())
+                .version(snapshot.version());
+    }
+}
@@ -0,0 +1,162 @@
+package com.cinema.show.service;
+
+import com.cinema.show.dto.CompactSeatLayoutResponse;
+import com.cinema.show.dto.CompactSeatStatusResponse;
+import com.cinema.show.inventory.SeatStatusCodec;
+import com.cinema.show.inventory.ShowSeatInventory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serves the seat map in two parts: a layout that never changes for a given
+ * layout version, and a run-length encoded status string per inventory version.
+ * Both are built from the in-memory inventory and cached until it changes, so
+ * revalidating either one does not touch the database once the show is loaded.
+ */
+@Service
+@RequiredArgsConstructor
+public class CompactSeatMapService {
+
+    private final SeatInventoryService seatInventoryService;
+
+    private final ConcurrentMap<Long, CachedLayout> layouts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, CachedStatus> statuses = new ConcurrentHashMap<>();
+
+    private record CachedLayout(ShowSeatInventory inventory, CompactSeatLayoutResponse layout) {
+    }
+
+    private record CachedStatus(ShowSeatInventory inventory, long version, long sequence,
+                                CompactSeatStatusResponse status, String eTag) {
+    }
+
+    public ShowSeatInventory getInventory(Long showId) {
+        ShowSeatInventory inventory = seatInventoryService.findLoadedInventory(showId);
+        return inventory != null ? inventory : seatInventoryService.getInventory(showId);
+    }
+
+    public static String layoutETag(ShowSeatInventory inventory) {
+        return "\"L-" + inventory.getLayoutVersion() + "\"";
+    }
+
+    /**
+     * Identifies a status by its content, so nodes serving the same seat statuses
+     * agree and a change always yields a new tag. The transition sequence cannot
+     * serve: this node applies its own transitions before they come back through
+     * the relay, so the statuses change while the sequence stays.
+     */
+    public String statusETag(CompactSeatStatusResponse status) {
+        CachedStatus cached = statuses.get(status.getShowId());
+        return cached != null && cached.status() == status ? cached.eTag() : contentETag(status);
+    }
+
+    public CompactSeatLayoutResponse getLayout(ShowSeatInventory inventory) {
+        CachedLayout cached = layouts.get(inventory.getShowId());
+        if (cached == null || cached.inventory() != inventory) {
+            cached = new CachedLayout(inventory, buildLayout(inventory));
+            layouts.put(inventory.getShowId(), cached);
+        }
+        return cached.layout();
+    }
+
+    public CompactSeatStatusResponse getStatus(ShowSeatInventory inventory) {
+        // Sequence first: the snapshot then holds at least every transition it counts
+        long sequence = inventory.getSequence();
+        ShowSeatInventory.Snapshot snapshot = inventory.snapshot();
+        CachedStatus cached = statuses.get(inventory.getShowId());
+        if (cached == null || cached.inventory() != inventory || cached.version() != snapshot.version()
+                || cached.sequence() != sequence) {
+            CompactSeatStatusResponse status = CompactSeatStatusResponse.builder()
+                    .showId(inventory.getShowId())
+                    .layoutVersion(inventory.getLayoutVersion())
+                    .epoch(inventory.getEpoch())
+                    .version(snapshot.version())
+                    .sequence(sequence)
+                    .status(SeatStatusCodec.encode(inventory, snapshot))
+                    .build();
+            cached = new CachedStatus(inventory, snapshot.version(), sequence, status, contentETag(status));
+            statuses.put(inventory.getShowId(), cached);
+        }
+        return cached.status();
+    }
+
+    // Drops entries of inventories that were evicted or reloaded since they were cached
+    @Scheduled(cron = "0 */15 * * * *")
+    public void evictStale() {
+        layouts.values().removeIf(cached ->
+                seatInventoryService.findLoadedInventory(cached.inventory().getShowId()) != cached.inventory());
+        statuses.values().removeIf(cached ->
+                seatInventoryService.findLoadedInventory(cached.inventory().getShowId()) != cached.inventory());
+    }
+
+    private static String contentETag(CompactSeatStatusResponse status) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((status.getLayoutVersion() + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(status.getStatus().getBytes(StandardCharsets.US_ASCII));
+            return "\"S-" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CompactSeatLayoutResponse buildLayout(ShowSeatInventory inventory) {
+        int capacity = inventory.getCapacity();
+        long[] showSeatIds = new long[capacity];
+        StringBuilder seatTypes = new StringBuilder(capacity);
+        List<BigDecimal> priceLevels = new ArrayList<>();
+        int[] priceIndexes = new int[capacity];
+        Arrays.fill(priceIndexes, -1);
+
+        for (int ordinal = 0; ordinal < capacity; ordinal++) {
+            if (!inventory.hasSeat(ordinal)) {
+                seatTypes.append('.');
+                continue;
+            }
+            showSeatIds[ordinal] = inventory.getShowSeatId(ordinal);
+            char type = inventory.getSeatType(ordinal).name().charAt(0);
+            seatTypes.append(inventory.isBlocked(ordinal) ? Character.toLowerCase(type) : type);
+
+            BigDecimal price = inventory.getPrice(ordinal);
+            int level = indexOf(priceLevels, price);
+            if (level < 0) {
+                level = priceLevels.size();
+                priceLevels.add(price);
+            }
+            priceIndexes[ordinal] = level;
+        }
+
+        return CompactSeatLayoutResponse.builder()
+                .showId(inventory.getShowId())
+                .hallId(inventory.getHallId())
+                .layoutVersion(inventory.getLayoutVersion())
+                .rowNames(inventory.getRowNames())
+                .seatsPerRow(inventory.getSeatsPerRow())
+                .showSeatIds(showSeatIds)
+                .seatTypes(seatTypes.toString())
+                .priceLevels(priceLevels)
+                .priceIndexes(priceIndexes)
+                .build();
+    }
+
+    // A show has a handful of price levels, so a linear scan beats hashing BigDecimals
+    private static int indexOf(List<BigDecimal> priceLevels, BigDecimal price) {
+        for (int i = 0; i < priceLevels.size(); i++) {
+            if (priceLevels.get(i).compareTo(price) == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
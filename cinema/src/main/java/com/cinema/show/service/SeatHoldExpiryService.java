@@ -0,0 +1,91 @@
+package com.cinema.show.service;
+
+import com.cinema.shared.timer.ExpiryWheel;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.SeatStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Puts seats back on sale once their Redis hold lapses. Redis drops the key on its
+ * own; this service only has to tell the inventory, so every hold deadline is
+ * registered in a timing wheel and checked in one script call per show when due.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatHoldExpiryService {
+
+    private static final RedisScript<List> EXPIRED_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-hold-expired.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private ExpiryWheel<HoldDeadline> wheel;
+
+    record HoldDeadline(Long showId, Long showSeatId) {
+    }
+
+    @PostConstruct
+    void start() {
+        wheel = new ExpiryWheel<>("seat-holds", this::releaseExpired);
+        wheel.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        wheel.stop();
+    }
+
+    public void register(Long showId, List<Long> showSeatIds, Instant deadline) {
+        showSeatIds.forEach(seatId -> wheel.schedule(new HoldDeadline(showId, seatId), deadline));
+    }
+
+    public int pending() {
+        return wheel.pending();
+    }
+
+    void releaseExpired(List<HoldDeadline> due) {
+        Map<Long, List<Long>> byShow = due.stream().collect(Collectors.groupingBy(
+                HoldDeadline::showId, Collectors.mapping(HoldDeadline::showSeatId, Collectors.toList())));
+
+        byShow.forEach((showId, seatIds) -> {
+            List<Long> distinctSeatIds = seatIds.stream().distinct().toList();
+            try {
+                List<String> keys = new ArrayList<>();
+                keys.add(SeatHoldService.soldKey(showId));
+                keys.add(SeatHoldService.holdIndexKey(showId));
+                distinctSeatIds.forEach(seatId -> keys.add(SeatHoldService.holdKey(showId, seatId)));
+                Object[] args = distinctSeatIds.stream().map(String::valueOf).toArray();
+
+                List<?> expired = redisTemplate.execute(EXPIRED_SCRIPT, keys, args);
+                if (expired == null) {
+                    return;
+                }
+                for (Object seatId : expired) {
+                    eventPublisher.publishEvent(new SeatStatusChangedEvent(
+                            showId, Long.valueOf(String.valueOf(seatId)), ShowSeatStatus.AVAILABLE));
+                }
+                log.debug("Released {} expired holds for show {}", expired.size(), showId);
+            } catch (Exception e) {
+                // Retry on a later tick rather than leaving the seats locked in memory
+                log.warn("Could not check expired holds for show {}: {}", showId, e.getMessage());
+                register(showId, distinctSeatIds, Instant.now().plusSeconds(5));
+            }
+        });
+    }
+}
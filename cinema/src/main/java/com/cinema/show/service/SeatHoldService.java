@@ -0,0 +1,293 @@
+package com.cinema.show.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.dto.SeatConflict;
+import com.cinema.show.dto.SeatHoldResponse;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.SeatStatusChangedEvent;
+import com.cinema.show.inventory.ShowSeatInventory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Seat holds live in Redis, one key per seat with the owner's user id as value and
+ * the seat lock timeout as TTL. Every multi-seat operation runs as a single Lua
+ * script so a selection is held entirely or not at all; Postgres is only written
+ * once a hold is converted into a booking.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatHoldService {
+
+    private static final RedisScript<List> ACQUIRE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-hold-acquire.lua"), List.class);
+    private static final RedisScript<List> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-hold-release.lua"), List.class);
+    private static final RedisScript<List> EXTEND_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-hold-extend.lua"), List.class);
+    private static final RedisScript<Long> RESTORE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-hold-restore.lua"), Long.class);
+    private static final RedisScript<Long> SELL_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-hold-sell.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SeatInventoryService seatInventoryService;
+    private final SeatHoldExpiryService seatHoldExpiryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppProperties appProperties;
+
+    public SeatHoldResponse hold(Long showId, Long userId, List<Long> showSeatIds) {
+        List<Long> seatIds = distinct(showSeatIds);
+        int maxSeats = appProperties.getBooking().getMaxSeatsPerBooking();
+        if (seatIds.isEmpty()) {
+            throw new BusinessException(ErrorCode.BOOKING_NO_SEATS);
+        }
+        if (seatIds.size() > maxSeats) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "A booking can contain at most " + maxSeats + " seats");
+        }
+
+        ShowSeatInventory inventory = seatInventoryService.getInventory(showId);
+        checkBookable(inventory);
+
+        // Seats already sold in the local inventory fail without a Redis round trip
+        ShowSeatInventory.Snapshot snapshot = inventory.snapshot();
+        List<SeatConflict> conflicts = new ArrayList<>();
+        for (Long seatId : seatIds) {
+            int ordinal = inventory.ordinalOf(seatId);
+            if (ordinal < 0) {
+                throw new BusinessException(ErrorCode.SEAT_NOT_FOUND, List.of(seatId));
+            }
+            if (inventory.isBlocked(ordinal)) {
+                throw new BusinessException(ErrorCode.SEAT_BLOCKED, List.of(seatId));
+            }
+            if (snapshot.is(ordinal, ShowSeatStatus.SOLD)) {
+                conflicts.add(SeatConflict.of(seatId, ErrorCode.SEAT_ALREADY_SOLD));
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw conflictException(conflicts);
+        }
+
+        long ttlMillis = Duration.ofSeconds(appProperties.getSeatLock().getTimeoutSeconds()).toMillis();
+        List<String> keys = new ArrayList<>();
+        keys.add(soldKey(showId));
+        keys.add(ownerKey(showId, userId));
+        keys.add(holdIndexKey(showId));
+        seatIds.forEach(seatId -> keys.add(holdKey(showId, seatId)));
+        List<String> args = new ArrayList<>(List.of(
+                userId.toString(), Long.toString(ttlMillis), Integer.toString(maxSeats)));
+        seatIds.forEach(seatId -> args.add(seatId.toString()));
+
+        List<?> result = redisTemplate.execute(ACQUIRE_SCRIPT, keys, args.toArray());
+        String outcome = result == null || result.isEmpty() ? "" : String.valueOf(result.get(0));
+        switch (outcome) {
+            case "OK" -> {
+            }
+            case "LIMIT" -> throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "You can hold at most " + maxSeats + " seats for a show");
+            case "CONFLICT" -> throw conflictException(result.subList(1, result.size()).stream()
+                    .map(String::valueOf)
+                    .map(SeatHoldService::toConflict)
+                    .toList());
+            default -> throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "Seat hold failed");
+        }
+
+        Instant expiresAt = Instant.now().plusMillis(ttlMillis);
+        seatHoldExpiryService.register(showId, seatIds, expiresAt);
+        seatIds.forEach(seatId -> publish(showId, seatId, ShowSeatStatus.LOCKED));
+        log.debug("User {} held seats {} for show {}", userId, seatIds, showId);
+
+        return SeatHoldResponse.builder()
+                .showId(showId)
+                .showSeatIds(seatIds)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .build();
+    }
+
+    public List<Long> release(Long showId, Long userId, List<Long> showSeatIds) {
+        List<Long> seatIds = distinct(showSeatIds);
+        if (seatIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> keys = new ArrayList<>();
+        keys.add(ownerKey(showId, userId));
+        keys.add(holdIndexKey(showId));
+        seatIds.forEach(seatId -> keys.add(holdKey(showId, seatId)));
+        List<String> args = new ArrayList<>();
+        args.add(userId.toString());
+        seatIds.forEach(seatId -> args.add(seatId.toString()));
+
+        List<?> result = redisTemplate.execute(RELEASE_SCRIPT, keys, args.toArray());
+        List<Long> released = result == null ? List.of() : result.stream()
+                .map(value -> Long.valueOf(String.valueOf(value)))
+                .toList();
+        released.forEach(seatId -> publish(showId, seatId, ShowSeatStatus.AVAILABLE));
+        return released;
+    }
+
+    /**
+     * Verifies that every seat is still held by the user and extends the holds
+     * to {@code ttl}, typically the payment timeout of the booking being created.
+     * Called inside a transaction, the holds go back to their previous expiry if
+     * it rolls back, so a failed checkout does not keep seats for the payment timeout.
+     */
+    public void extend(Long showId, Long userId, List<Long> showSeatIds, Duration ttl) {
+        List<Long> seatIds = distinct(showSeatIds);
+        List<String> keys = new ArrayList<>();
+        keys.add(ownerKey(showId, userId));
+        keys.add(holdIndexKey(showId));
+        seatIds.forEach(seatId -> keys.add(holdKey(showId, seatId)));
+        List<String> args = new ArrayList<>(List.of(userId.toString(), Long.toString(ttl.toMillis())));
+        seatIds.forEach(seatId -> args.add(seatId.toString()));
+
+        List<?> result = redisTemplate.execute(EXTEND_SCRIPT, keys, args.toArray());
+        if (result == null) {
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "Seat hold failed");
+        }
+        if (!"OK".equals(String.valueOf(result.get(0)))) {
+            List<SeatConflict> conflicts = result.stream()
+                    .map(value -> SeatConflict.of(Long.valueOf(String.valueOf(value)), ErrorCode.SEAT_NOT_LOCKED_BY_USER))
+                    .toList();
+            throw new BusinessException(ErrorCode.SEAT_NOT_LOCKED_BY_USER, conflicts);
+        }
+        seatHoldExpiryService.register(showId, seatIds, Instant.now().plus(ttl));
+
+        if (seatIds.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<Long> previousExpiries = result.subList(1, result.size()).stream()
+                .map(value -> Long.valueOf(String.valueOf(value)))
+                .toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    restore(showId, userId, seatIds, previousExpiries);
+                }
+            }
+        });
+    }
+
+    private void restore(Long showId, Long userId, List<Long> seatIds, List<Long> expiries) {
+        List<String> keys = new ArrayList<>();
+        keys.add(ownerKey(showId, userId));
+        keys.add(holdIndexKey(showId));
+        seatIds.forEach(seatId -> keys.add(holdKey(showId, seatId)));
+        List<String> args = new ArrayList<>();
+        args.add(userId.toString());
+        for (int i = 0; i < seatIds.size(); i++) {
+            args.add(seatIds.get(i).toString());
+            args.add(expiries.get(i).toString());
+        }
+        try {
+            redisTemplate.execute(RESTORE_SCRIPT, keys, args.toArray());
+            for (int i = 0; i < seatIds.size(); i++) {
+                seatHoldExpiryService.register(showId, List.of(seatIds.get(i)), Instant.ofEpochMilli(expiries.get(i)));
+            }
+        } catch (Exception e) {
+            // The holds keep the payment timeout; they still lapse on their own
+            log.warn("Could not restore seat holds of user {} for show {}: {}", userId, showId, e.getMessage());
+        }
+    }
+
+    public void markSold(Long showId, Long userId, List<Long> showSeatIds) {
+        List<Long> seatIds = distinct(showSeatIds);
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        keys.add(soldKey(showId));
+        keys.add(ownerKey(showId, userId));
+        keys.add(holdIndexKey(showId));
+        seatIds.forEach(seatId -> keys.add(holdKey(showId, seatId)));
+        List<String> args = new ArrayList<>();
+        args.add(Long.toString(soldKeyTtl(showId).toSeconds()));
+        seatIds.forEach(seatId -> args.add(seatId.toString()));
+
+        redisTemplate.execute(SELL_SCRIPT, keys, args.toArray());
+    }
+
+    private void checkBookable(ShowSeatInventory inventory) {
+        switch (inventory.getStatus()) {
+            case CANCELLED -> throw new BusinessException(ErrorCode.SHOW_CANCELLED);
+            case ONGOING, COMPLETED -> throw new BusinessException(ErrorCode.SHOW_ALREADY_STARTED);
+            default -> {
+                if (!inventory.getShowDate().atTime(inventory.getStartTime()).isAfter(LocalDateTime.now())) {
+                    throw new BusinessException(ErrorCode.SHOW_ALREADY_STARTED);
+                }
+            }
+        }
+    }
+
+    private Duration soldKeyTtl(Long showId) {
+        ShowSeatInventory inventory = seatInventoryService.getInventory(showId);
+        Duration untilEnd = Duration.between(LocalDateTime.now(),
+                inventory.getShowDate().atTime(inventory.getEndTime()));
+        return untilEnd.isNegative() ? Duration.ofHours(1) : untilEnd.plusHours(1);
+    }
+
+    private void publish(Long showId, Long showSeatId, ShowSeatStatus status) {
+        eventPublisher.publishEvent(new SeatStatusChangedEvent(showId, showSeatId, status));
+    }
+
+    private static BusinessException conflictException(List<SeatConflict> conflicts) {
+        boolean anySold = conflicts.stream()
+                .anyMatch(conflict -> conflict.code() == ErrorCode.SEAT_ALREADY_SOLD.getCode());
+        return new BusinessException(anySold ? ErrorCode.SEAT_ALREADY_SOLD : ErrorCode.SEAT_ALREADY_LOCKED, conflicts);
+    }
+
+    private static SeatConflict toConflict(String value) {
+        int separator = value.indexOf(':');
+        Long seatId = Long.valueOf(value.substring(0, separator));
+        return SeatConflict.of(seatId, "SOLD".equals(value.substring(separator + 1))
+                ? ErrorCode.SEAT_ALREADY_SOLD
+                : ErrorCode.SEAT_ALREADY_LOCKED);
+    }
+
+    private static List<Long> distinct(List<Long> showSeatIds) {
+        return showSeatIds == null ? List.of() : List.copyOf(new LinkedHashSet<>(showSeatIds));
+    }
+
+    // All keys of a show share the {showId} hash tag so scripts stay on one cluster slot
+    static String holdKeyPrefix(Long showId) {
+        return "seat-hold:{" + showId + "}:";
+    }
+
+    static String holdKey(Long showId, Long showSeatId) {
+        return holdKeyPrefix(showId) + showSeatId;
+    }
+
+    // Sorted set of the user's held seats scored by hold expiry, so lapsed holds
+    // can be dropped without touching keys the script was not given
+    static String ownerKey(Long showId, Long userId) {
+        return "seat-holds-of:{" + showId + "}:" + userId;
+    }
+
+    // Every live hold of a show scored by its expiry, so a load reads them in one call
+    static String holdIndexKey(Long showId) {
+        return "seat-holds:{" + showId + "}";
+    }
+
+    static String soldKey(Long showId) {
+        return "seat-sold:{" + showId + "}";
+    }
+}
@@ -0,0 +1,366 @@
+package com.cinema.show.service;
+
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.dto.SeatMapResponse;
+import com.cinema.show.dto.ShowAvailabilityResponse;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.SeatStatusChangedEvent;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.repository.ShowRepository;
+import com.cinema.show.repository.ShowSeatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Authoritative read model for seat state. Each show is loaded from show_seats
+ * once, on first access, and afterwards kept current from seat status events,
+ * with a periodic check against show_seat_counters as a backstop.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventoryService {
+
+    private static final RedisScript<List> HOLD_INDEX_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-hold-index.lua"), List.class);
+
+    private final ShowRepository showRepository;
+    private final ShowSeatRepository showSeatRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final SeatHoldExpiryService seatHoldExpiryService;
+
+    private final ConcurrentMap<Long, ShowSeatInventory> inventories = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, PendingLoad> loading = new ConcurrentHashMap<>();
+    private final Set<Long> drifted = ConcurrentHashMap.newKeySet();
+
+    // A null status only carries the sequence number of a transition this node already applied
+    private record Transition(Long showSeatId, ShowSeatStatus status, long sequence) {
+    }
+
+    /**
+     * A show being loaded. Transitions arriving while its state is read are kept
+     * and replayed in order, so one committing between the read and the publish
+     * is not lost; waiting callers share the result.
+     */
+    private final class PendingLoad {
+        private final CompletableFuture<ShowSeatInventory> result = new CompletableFuture<>();
+        private final List<Transition> buffered = new ArrayList<>();
+        private boolean published;
+        private boolean discarded;
+
+        synchronized boolean buffer(Long showSeatId, ShowSeatStatus status, long sequence) {
+            if (published) {
+                return false;
+            }
+            buffered.add(new Transition(showSeatId, status, sequence));
+            return true;
+        }
+
+        synchronized void discard() {
+            discarded = true;
+        }
+
+        synchronized void publish(ShowSeatInventory inventory) {
+            for (Transition transition : buffered) {
+                int ordinal = inventory.ordinalOf(transition.showSeatId());
+                if (ordinal < 0 || transition.sequence() >= 0 && !inventory.advanceSequence(transition.sequence())) {
+                    discarded = true;
+                    break;
+                }
+                if (transition.status() != null) {
+                    inventory.apply(ordinal, transition.status());
+                }
+            }
+            // An evicted load still answers its callers but is not kept
+            if (!discarded) {
+                inventories.put(inventory.getShowId(), inventory);
+            }
+            published = true;
+        }
+
+        ShowSeatInventory await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    public ShowSeatInventory getInventory(Long showId) {
+        ShowSeatInventory inventory = inventories.get(showId);
+        if (inventory != null) {
+            return inventory;
+        }
+        PendingLoad pending = new PendingLoad();
+        PendingLoad current = loading.putIfAbsent(showId, pending);
+        if (current != null) {
+            return current.await();
+        }
+        // Loaded outside the map so the database and Redis reads never block other shows
+        try {
+            inventory = inventories.get(showId);
+            if (inventory == null) {
+                inventory = load(showId);
+                pending.publish(inventory);
+            }
+            pending.result.complete(inventory);
+            return inventory;
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(showId, pending);
+        }
+    }
+
+    /**
+     * Returns the inventory of a show only if it is already in memory.
+     */
+    public ShowSeatInventory findLoadedInventory(Long showId) {
+        return inventories.get(showId);
+    }
+
+    public SeatMapResponse getSeatMap(Long showId) {
+        ShowSeatInventory inventory = getInventory(showId);
+        return getSeatMap(inventory, inventory.snapshot());
+    }
+
+    public SeatMapResponse getSeatMap(ShowSeatInventory inventory, ShowSeatInventory.Snapshot snapshot) {
+        List<SeatMapResponse.SeatInfo> seats = new ArrayList<>();
+        for (int ordinal = 0; ordinal < inventory.getCapacity(); ordinal++) {
+            if (!inventory.hasSeat(ordinal)) {
+                continue;
+            }
+            seats.add(SeatMapResponse.SeatInfo.builder()
+                    .showSeatId(inventory.getShowSeatId(ordinal))
+                    .ordinal(ordinal)
+                    .rowName(inventory.getRowName(ordinal))
+                    .seatNumber(inventory.getSeatNumber(ordinal))
+                    .seatType(inventory.getSeatType(ordinal).name())
+                    .price(inventory.getPrice(ordinal))
+                    .status(snapshot.statusAt(ordinal).name())
+                    .build());
+        }
+
+        return SeatMapResponse.builder()
+                .showId(inventory.getShowId())
+                .hallId(inventory.getHallId())
+                .rows(inventory.getRows())
+                .seatsPerRow(inventory.getSeatsPerRow())
+                .version(snapshot.version())
+                .availableSeats(snapshot.count(ShowSeatStatus.AVAILABLE))
+                .lockedSeats(snapshot.count(ShowSeatStatus.LOCKED))
+                .soldSeats(snapshot.count(ShowSeatStatus.SOLD))
+                .seats(seats)
+                .build();
+    }
+
+    public ShowAvailabilityResponse getAvailability(Long showId) {
+        ShowSeatInventory.Snapshot snapshot = getInventory(showId).snapshot();
+        long available = snapshot.count(ShowSeatStatus.AVAILABLE);
+        long locked = snapshot.count(ShowSeatStatus.LOCKED);
+        long sold = snapshot.count(ShowSeatStatus.SOLD);
+        return ShowAvailabilityResponse.builder()
+                .showId(showId)
+                .totalSeats(available + locked + sold)
+                .availableSeats(available)
+                .lockedSeats(locked)
+                .soldSeats(sold)
+                .version(snapshot.version())
+                .build();
+    }
+
+    public long getAvailableSeatsCount(Long showId) {
+        return getInventory(showId).count(ShowSeatStatus.AVAILABLE);
+    }
+
+    /**
+     * Applies a seat transition to a loaded show. Transitions of a show being
+     * loaded are buffered and replayed onto it before it is published; shows
+     * that are not in memory are skipped and read the committed state when loaded.
+     */
+    public boolean applyStatus(Long showId, Long showSeatId, ShowSeatStatus status) {
+        return apply(showId, showSeatId, status, -1);
+    }
+
+    /**
+     * Applies a transition relayed between nodes, in the order of its show's
+     * sequence. A null status records the sequence number of a transition this
+     * node published itself. A number skipping ahead means a relayed transition
+     * was lost, and the show is reloaded.
+     */
+    public void applyRelayed(Long showId, Long showSeatId, ShowSeatStatus status, long sequence) {
+        apply(showId, showSeatId, status, sequence);
+    }
+
+    private boolean apply(Long showId, Long showSeatId, ShowSeatStatus status, long sequence) {
+        PendingLoad pending = loading.get(showId);
+        if (pending != null && pending.buffer(showSeatId, status, sequence)) {
+            return true;
+        }
+        ShowSeatInventory inventory = inventories.get(showId);
+        if (inventory == null) {
+            return false;
+        }
+        int ordinal = inventory.ordinalOf(showSeatId);
+        if (ordinal < 0) {
+            log.warn("Show seat {} is not part of show {} inventory, reloading", showSeatId, showId);
+            evict(showId);
+            return false;
+        }
+        if (sequence >= 0 && !inventory.advanceSequence(sequence)) {
+            log.warn("Missed seat transitions of show {} (got {} after {}), reloading",
+                    showId, sequence, inventory.getSequence());
+            evict(showId);
+            return false;
+        }
+        return status != null && inventory.apply(ordinal, status);
+    }
+
+    @EventListener
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        applyStatus(event.showId(), event.showSeatId(), event.status());
+    }
+
+    public void evict(Long showId) {
+        PendingLoad pending = loading.get(showId);
+        if (pending != null) {
+            pending.discard();
+        }
+        inventories.remove(showId);
+    }
+
+    /**
+     * Drops every loaded show, e.g. after relayed transitions may have been
+     * missed while this node was not subscribed.
+     */
+    public void evictAll() {
+        loading.values().forEach(PendingLoad::discard);
+        inventories.clear();
+        drifted.clear();
+    }
+
+    /**
+     * Compares loaded shows with show_seat_counters and reloads those that
+     * disagree twice in a row, so a transition that was lost or applied out of
+     * order does not leave the inventory wrong until the show ends. Holds only
+     * live in Redis, so locked and available seats are compared as one figure.
+     */
+    @Scheduled(fixedDelayString = "${app.seat-inventory.resync-millis:60000}")
+    public void resyncWithCounters() {
+        List<Long> showIds = List.copyOf(inventories.keySet());
+        if (showIds.isEmpty()) {
+            return;
+        }
+        try {
+            for (ShowRepository.SeatCounterRow counters : showRepository.findSeatCounters(showIds)) {
+                Long showId = counters.getShowId();
+                ShowSeatInventory inventory = inventories.get(showId);
+                if (inventory == null) {
+                    continue;
+                }
+                ShowSeatInventory.Snapshot snapshot = inventory.snapshot();
+                boolean consistent = snapshot.count(ShowSeatStatus.SOLD) == counters.getSoldSeats()
+                        && snapshot.count(ShowSeatStatus.AVAILABLE) + snapshot.count(ShowSeatStatus.LOCKED)
+                        == counters.getAvailableSeats() + counters.getLockedSeats();
+                if (consistent) {
+                    drifted.remove(showId);
+                } else if (!drifted.add(showId)) {
+                    log.warn("Seat inventory of show {} drifted from its counters, reloading", showId);
+                    drifted.remove(showId);
+                    evict(showId);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not resync seat inventories: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 */15 * * * *")
+    public void evictFinishedShows() {
+        LocalDateTime now = LocalDateTime.now();
+        int before = inventories.size();
+        inventories.values().removeIf(inventory ->
+                !inventory.getShowDate().atTime(inventory.getEndTime()).isAfter(now));
+        drifted.retainAll(inventories.keySet());
+        if (inventories.size() < before) {
+            log.debug("Evicted {} finished show inventories", before - inventories.size());
+        }
+    }
+
+    private ShowSeatInventory load(Long showId) {
+        ShowRepository.InventoryHeader header = showRepository.findInventoryHeader(showId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.SHOW_NOT_FOUND));
+        // Read first: every transition numbered up to here is already in the state read below
+        long sequence = readSequence(showId);
+        ShowSeatInventory inventory = ShowSeatInventory.load(header, showSeatRepository.findSeatStates(showId));
+        inventory.startSequenceAt(sequence);
+        overlayHolds(inventory);
+        log.debug("Loaded seat inventory for show {} ({} x {})",
+                showId, inventory.getRows(), inventory.getSeatsPerRow());
+        return inventory;
+    }
+
+    private long readSequence(Long showId) {
+        try {
+            String value = redisTemplate.opsForValue().get(sequenceKey(showId));
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (Exception e) {
+            // Unknown: the first relayed transition becomes the starting point
+            log.warn("Could not read transition sequence of show {}: {}", showId, e.getMessage());
+            return -1;
+        }
+    }
+
+    // Holds only exist in Redis, so a freshly loaded show picks them up from its hold index
+    private void overlayHolds(ShowSeatInventory inventory) {
+        Long showId = inventory.getShowId();
+        try {
+            List<?> holds = redisTemplate.execute(HOLD_INDEX_SCRIPT, List.of(SeatHoldService.holdIndexKey(showId)));
+            if (holds == null || holds.size() < 3) {
+                return;
+            }
+            long now = Long.parseLong(String.valueOf(holds.get(0)));
+            Instant localNow = Instant.now();
+            ShowSeatInventory.Snapshot snapshot = inventory.snapshot();
+            for (int i = 1; i + 1 < holds.size(); i += 2) {
+                Long showSeatId = Long.valueOf(String.valueOf(holds.get(i)));
+                long ttlMillis = (long) Double.parseDouble(String.valueOf(holds.get(i + 1))) - now;
+                int ordinal = inventory.ordinalOf(showSeatId);
+                if (ttlMillis > 0 && ordinal >= 0
+                        && snapshot.is(ordinal, ShowSeatStatus.AVAILABLE)) {
+                    inventory.apply(ordinal, ShowSeatStatus.LOCKED);
+                    seatHoldExpiryService.register(showId, List.of(showSeatId), localNow.plusMillis(ttlMillis));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not load seat holds of show {} from Redis: {}", showId, e.getMessage());
+        }
+    }
+
+    // Shares the {showId} hash tag with the show's hold keys
+    public static String sequenceKey(Long showId) {
+        return "seat-status-seq:{" + showId + "}";
+    }
+}
@@ -0,0 +1,63 @@
+package com.cinema.show.service;
+
+import com.cinema.show.dto.ShowListingResponse;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.repository.ShowRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ShowListingService {
+
+    private final ShowRepository showRepository;
+    private final SeatInventoryService seatInventoryService;
+
+    /**
+     * Lists the shows of a cinema on a date with their seat counts in one query
+     * against show_seat_counters. Shows whose inventory is already in memory use
+     * its counts instead, which also reflect seats held in Redis.
+     */
+    public List<ShowListingResponse> getShowsWithAvailability(Long cinemaId, LocalDate date) {
+        return showRepository.findShowsWithAvailability(cinemaId, date).stream()
+                .map(this::toListingResponse)
+                .toList();
+    }
+
+    private ShowListingResponse toListingResponse(ShowRepository.ShowAvailabilityRow row) {
+        long available = row.getAvailableSeats();
+        long locked = row.getLockedSeats();
+        long sold = row.getSoldSeats();
+
+        ShowSeatInventory inventory = seatInventoryService.findLoadedInventory(row.getShowId());
+        if (inventory != null) {
+            ShowSeatInventory.Snapshot snapshot = inventory.snapshot();
+            available = snapshot.count(ShowSeatStatus.AVAILABLE);
+            locked = snapshot.count(ShowSeatStatus.LOCKED);
+            sold = snapshot.count(ShowSeatStatus.SOLD);
+        }
+
+        return ShowListingResponse.builder()
+                .showId(row.getShowId())
+                .movieId(row.getMovieId())
+                .movieTitle(row.getMovieTitle())
+                .posterUrl(row.getPosterUrl())
+                .duration(row.getDuration())
+                .hallId(row.getHallId())
+                .hallName(row.getHallName())
+                .showDate(row.getShowDate())
+                .startTime(row.getStartTime())
+                .endTime(row.getEndTime())
+                .basePrice(row.getBasePrice())
+                .status(row.getStatus())
+                .totalSeats(available + locked + sold)
+                .availableSeats(available)
+                .lockedSeats(locked)
+                .soldSeats(sold)
+                .build();
+    }
+}
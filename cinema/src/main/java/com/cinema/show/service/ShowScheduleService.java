@@ -0,0 +1,145 @@
+package com.cinema.show.service;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.dto.BulkScheduleRequest;
+import com.cinema.show.dto.BulkScheduleResponse;
+import com.cinema.show.repository.ShowBulkRepository;
+import com.cinema.show.repository.ShowBulkRepository.NewShow;
+import com.cinema.show.repository.ShowRepository;
+import com.cinema.show.repository.ShowSeatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates shows and their seats in bulk: one INSERT for all shows of a schedule
+ * and one INSERT ... SELECT for all of their seats. The halls are locked before
+ * their existing shows are read, so a concurrent schedule for the same hall waits
+ * and then sees the shows this one inserted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShowScheduleService {
+
+    private static final int MAX_DAYS_PER_ENTRY = 31;
+    private static final int MAX_SHOWS_PER_REQUEST = 10_000;
+
+    private final ShowRepository showRepository;
+    private final ShowSeatRepository showSeatRepository;
+    private final ShowBulkRepository showBulkRepository;
+    private final AuditorAware<String> auditorProvider;
+
+    private record Slot(Long hallId, LocalDate date, LocalTime start, LocalTime end) {
+    }
+
+    @Transactional
+    public BulkScheduleResponse schedule(BulkScheduleRequest request) {
+        long startedAt = System.nanoTime();
+        List<BulkScheduleRequest.ScheduleEntry> entries = request.getEntries();
+
+        Set<Long> movieIds = entries.stream().map(BulkScheduleRequest.ScheduleEntry::getMovieId).collect(Collectors.toSet());
+        Map<Long, ShowRepository.MovieScheduleInfo> movies = showRepository.findMovieScheduleInfo(movieIds).stream()
+                .collect(Collectors.toMap(ShowRepository.MovieScheduleInfo::getId, Function.identity()));
+        Set<Long> hallIds = entries.stream().map(BulkScheduleRequest.ScheduleEntry::getHallId).collect(Collectors.toSet());
+        Set<Long> activeHallIds = Set.copyOf(showRepository.lockActiveHalls(hallIds));
+
+        List<NewShow> shows = new ArrayList<>();
+        for (BulkScheduleRequest.ScheduleEntry entry : entries) {
+            ShowRepository.MovieScheduleInfo movie = movies.get(entry.getMovieId());
+            if (movie == null) {
+                throw new BusinessException(ErrorCode.MOVIE_NOT_FOUND, List.of(entry.getMovieId()));
+            }
+            if ("ENDED".equals(movie.getStatus())) {
+                throw new BusinessException(ErrorCode.MOVIE_NOT_SHOWING, List.of(entry.getMovieId()));
+            }
+            if (!activeHallIds.contains(entry.getHallId())) {
+                throw new BusinessException(ErrorCode.HALL_NOT_FOUND, List.of(entry.getHallId()));
+            }
+            if (entry.getEndDate().isBefore(entry.getStartDate())
+                    || ChronoUnit.DAYS.between(entry.getStartDate(), entry.getEndDate()) >= MAX_DAYS_PER_ENTRY) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                        "Date range must be ordered and span at most " + MAX_DAYS_PER_ENTRY + " days");
+            }
+
+            for (LocalDate date = entry.getStartDate(); !date.isAfter(entry.getEndDate()); date = date.plusDays(1)) {
+                for (LocalTime start : entry.getTimeSlots()) {
+                    LocalTime end = start.plusMinutes(movie.getDuration());
+                    if (!end.isAfter(start)) {
+                        throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                                "Show at " + start + " would end after midnight");
+                    }
+                    shows.add(new NewShow(entry.getMovieId(), entry.getHallId(), date, start, end, entry.getBasePrice()));
+                }
+            }
+            if (shows.size() > MAX_SHOWS_PER_REQUEST) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                        "A schedule can create at most " + MAX_SHOWS_PER_REQUEST + " shows");
+            }
+        }
+
+        checkOverlaps(shows, hallIds);
+
+        String auditor = auditorProvider.getCurrentAuditor().orElse("system");
+        List<Long> showIds = showBulkRepository.insertShows(shows, auditor);
+        int seats = showSeatRepository.insertShowSeats(showIds,
+                SeatType.NORMAL.getPriceMultiplier(),
+                SeatType.VIP.getPriceMultiplier(),
+                SeatType.COUPLE.getPriceMultiplier());
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("Scheduled {} shows with {} seats in {} ms", showIds.size(), seats, elapsedMillis);
+        return BulkScheduleResponse.builder()
+                .showsCreated(showIds.size())
+                .showSeatsCreated(seats)
+                .elapsedMillis(elapsedMillis)
+                .showsPerSecond(showIds.size() * 1000L / elapsedMillis)
+                .showSeatsPerSecond(seats * 1000L / elapsedMillis)
+                .showIds(showIds)
+                .build();
+    }
+
+    private void checkOverlaps(List<NewShow> shows, Set<Long> hallIds) {
+        LocalDate from = shows.stream().map(NewShow::showDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = shows.stream().map(NewShow::showDate).max(Comparator.naturalOrder()).orElseThrow();
+
+        Map<String, List<Slot>> slotsByHallDate = new HashMap<>();
+        for (ShowRepository.ScheduledSlot existing : showRepository.findScheduledSlots(hallIds, from, to)) {
+            Slot slot = new Slot(existing.getHallId(), existing.getShowDate(), existing.getStartTime(), existing.getEndTime());
+            slotsByHallDate.computeIfAbsent(slot.hallId() + "/" + slot.date(), key -> new ArrayList<>()).add(slot);
+        }
+        for (NewShow show : shows) {
+            Slot slot = new Slot(show.hallId(), show.showDate(), show.startTime(), show.endTime());
+            slotsByHallDate.computeIfAbsent(slot.hallId() + "/" + slot.date(), key -> new ArrayList<>()).add(slot);
+        }
+
+        for (List<Slot> slots : slotsByHallDate.values()) {
+            slots.sort(Comparator.comparing(Slot::start));
+            for (int i = 1; i < slots.size(); i++) {
+                Slot previous = slots.get(i - 1);
+                Slot current = slots.get(i);
+                if (current.start().isBefore(previous.end())) {
+                    throw new BusinessException(ErrorCode.SHOW_SCHEDULE_CONFLICT,
+                            "Hall " + current.hallId() + " has overlapping shows on " + current.date()
+                                    + " at " + previous.start() + " and " + current.start());
+                }
+            }
+        }
+    }
+}
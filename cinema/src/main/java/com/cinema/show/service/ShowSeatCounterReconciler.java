@@ -0,0 +1,56 @@
+package com.cinema.show.service;
+
+import com.cinema.show.repository.ShowRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Re-derives show_seat_counters from show_seats for current and upcoming shows,
+ * in small batches so each transaction only holds a few counter rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShowSeatCounterReconciler {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final ShowRepository showRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "0 */10 * * * *")
+    public void reconcile() {
+        LocalDate fromDate = LocalDate.now().minusDays(1);
+        long afterId = 0;
+        int checked = 0;
+        int drifted = 0;
+
+        List<Long> showIds;
+        do {
+            showIds = showRepository.findShowIdsFrom(fromDate, afterId, BATCH_SIZE);
+            if (showIds.isEmpty()) {
+                break;
+            }
+            List<Long> batch = showIds;
+            Integer fixed = transactionTemplate.execute(status -> {
+                showRepository.lockSeatCounters(batch);
+                return showRepository.reconcileSeatCounters(batch);
+            });
+            drifted += fixed == null ? 0 : fixed;
+            checked += batch.size();
+            afterId = batch.get(batch.size() - 1);
+        } while (showIds.size() == BATCH_SIZE);
+
+        if (drifted > 0) {
+            log.warn("Reconciled seat counters of {} shows out of {} checked", drifted, checked);
+        } else {
+            log.debug("Seat counters of {} shows are consistent", checked);
+        }
+    }
+}
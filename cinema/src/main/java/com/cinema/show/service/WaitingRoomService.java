@@ -0,0 +1,195 @@
+package com.cinema.show.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.dto.WaitingRoomAdminResponse;
+import com.cinema.show.dto.WaitingRoomStatusResponse;
+import com.cinema.show.inventory.ShowSeatInventory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Opt-in waiting room per show. Users take a FIFO ticket kept in Redis and are
+ * admitted at a configurable rate; admitted users receive a signed admission token
+ * that the seat hold and booking endpoints require while the room is open.
+ * Polling the queue is one script call and never touches the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitingRoomService {
+
+    public static final String ADMISSION_HEADER = "X-Admission-Token";
+
+    private static final RedisScript<List> ENTER_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/waiting-room-enter.lua"), List.class);
+    private static final RedisScript<Long> CONFIGURE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/waiting-room-configure.lua"), Long.class);
+
+    private static final int MIN_POLL_SECONDS = 2;
+    private static final int MAX_POLL_SECONDS = 30;
+
+    private final StringRedisTemplate redisTemplate;
+    private final SeatInventoryService seatInventoryService;
+    private final AdmissionTokenService admissionTokenService;
+    private final AppProperties appProperties;
+
+    // showId -> whether the room is open, re-read from Redis after stateCacheMillis
+    private final ConcurrentMap<Long, RoomState> roomStates = new ConcurrentHashMap<>();
+
+    private record RoomState(boolean enabled, long readAtMillis) {
+    }
+
+    public WaitingRoomStatusResponse join(Long showId, Long userId) {
+        return enter(showId, userId, true);
+    }
+
+    public WaitingRoomStatusResponse getStatus(Long showId, Long userId) {
+        return enter(showId, userId, false);
+    }
+
+    /**
+     * Rejects seat holds and bookings for a show with an open waiting room unless
+     * the request carries a valid admission for that user and show.
+     */
+    public void checkAdmission(Long showId, Long userId, String admissionToken) {
+        if (!isEnabled(showId)) {
+            return;
+        }
+        if (!admissionTokenService.verify(admissionToken, showId, userId)) {
+            throw new BusinessException(ErrorCode.WAITING_ROOM_ADMISSION_REQUIRED);
+        }
+    }
+
+    public boolean isEnabled(Long showId) {
+        long now = System.currentTimeMillis();
+        RoomState state = roomStates.get(showId);
+        if (state == null || now - state.readAtMillis() > appProperties.getWaitingRoom().getStateCacheMillis()) {
+            state = new RoomState(Boolean.TRUE.equals(redisTemplate.hasKey(roomKey(showId))), now);
+            roomStates.put(showId, state);
+        }
+        return state.enabled();
+    }
+
+    public WaitingRoomAdminResponse configure(Long showId, int admissionsPerMinute) {
+        ShowSeatInventory inventory = seatInventoryService.getInventory(showId);
+        Duration untilEnd = Duration.between(LocalDateTime.now(),
+                inventory.getShowDate().atTime(inventory.getEndTime()));
+        if (untilEnd.isNegative()) {
+            throw new BusinessException(ErrorCode.SHOW_ALREADY_STARTED);
+        }
+        long ttlSeconds = untilEnd.plusHours(1).toSeconds();
+
+        redisTemplate.execute(CONFIGURE_SCRIPT, keys(showId),
+                Integer.toString(admissionsPerMinute), Long.toString(ttlSeconds));
+        roomStates.put(showId, new RoomState(true, System.currentTimeMillis()));
+        log.info("Waiting room of show {} admits {} users per minute", showId, admissionsPerMinute);
+        return getRoom(showId);
+    }
+
+    public void close(Long showId) {
+        redisTemplate.delete(keys(showId));
+        roomStates.put(showId, new RoomState(false, System.currentTimeMillis()));
+        log.info("Waiting room of show {} closed", showId);
+    }
+
+    public WaitingRoomAdminResponse getRoom(Long showId) {
+        List<Object> room = redisTemplate.opsForHash().multiGet(roomKey(showId), List.of("rate", "baseSeq", "baseMs"));
+        String tail = redisTemplate.opsForValue().get(sequenceKey(showId));
+        long issued = tail == null ? 0 : Long.parseLong(tail);
+        if (room.get(0) == null) {
+            return WaitingRoomAdminResponse.builder().showId(showId).enabled(false).ticketsIssued(issued).build();
+        }
+
+        int rate = Integer.parseInt(room.get(0).toString());
+        long baseSeq = room.get(1) == null ? 0 : Long.parseLong(room.get(1).toString());
+        long baseMs = room.get(2) == null ? System.currentTimeMillis() : Long.parseLong(room.get(2).toString());
+        long admitted = Math.min(issued, baseSeq + (System.currentTimeMillis() - baseMs) * rate / 60_000);
+        return WaitingRoomAdminResponse.builder()
+                .showId(showId)
+                .enabled(true)
+                .admissionsPerMinute(rate)
+                .ticketsIssued(issued)
+                .admitted(admitted)
+                .waiting(issued - admitted)
+                .build();
+    }
+
+    private WaitingRoomStatusResponse enter(Long showId, Long userId, boolean join) {
+        long admissionTtlMillis = Duration.ofMinutes(appProperties.getWaitingRoom().getAdmissionTtlMinutes()).toMillis();
+        List<?> result = redisTemplate.execute(ENTER_SCRIPT, keys(showId),
+                userId.toString(), join ? "1" : "0", Long.toString(admissionTtlMillis));
+
+        if (result == null || result.isEmpty()) {
+            roomStates.put(showId, new RoomState(false, System.currentTimeMillis()));
+            return WaitingRoomStatusResponse.builder().showId(showId).enabled(false).build();
+        }
+
+        long ticket = toLong(result.get(0));
+        long admitted = toLong(result.get(1));
+        long rate = toLong(result.get(2));
+        long admittedAt = toLong(result.get(3));
+        long now = toLong(result.get(4));
+
+        WaitingRoomStatusResponse.WaitingRoomStatusResponseBuilder status = WaitingRoomStatusResponse.builder()
+                .showId(showId)
+                .enabled(true)
+                .queued(ticket > 0);
+        if (ticket <= 0) {
+            return status.pollAfterSeconds(MIN_POLL_SECONDS).build();
+        }
+
+        if (admittedAt >= 0) {
+            Instant expiresAt = Instant.ofEpochMilli(admittedAt + admissionTtlMillis);
+            if (expiresAt.toEpochMilli() <= now) {
+                // Lapsed; joining again takes a new ticket
+                return status.queued(false).pollAfterSeconds(MIN_POLL_SECONDS).build();
+            }
+            return status
+                    .admitted(true)
+                    .admissionToken(admissionTokenService.issue(showId, userId, expiresAt))
+                    .admissionExpiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                    .build();
+        }
+
+        long position = ticket - admitted;
+        long etaSeconds = (position * 60 + rate - 1) / rate;
+        // Far back in the queue polls rarely, near the front polls often
+        int pollAfter = (int) Math.max(MIN_POLL_SECONDS, Math.min(MAX_POLL_SECONDS, etaSeconds / 4));
+        return status
+                .position(position)
+                .etaSeconds(etaSeconds)
+                .pollAfterSeconds(pollAfter)
+                .build();
+    }
+
+    private static long toLong(Object value) {
+        return Long.parseLong(String.valueOf(value));
+    }
+
+    private static List<String> keys(Long showId) {
+        return List.of(roomKey(showId), sequenceKey(showId),
+                "waiting-room:{" + showId + "}:tickets", "waiting-room:{" + showId + "}:admitted");
+    }
+
+    private static String roomKey(Long showId) {
+        return "waiting-room:{" + showId + "}";
+    }
+
+    private static String sequenceKey(Long showId) {
+        return "waiting-room:{" + showId + "}:seq";
+    }
+}
@@ -0,0 +1,334 @@
+package com.cinema.show.stream;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.show.dto.SeatMapDelta;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.service.SeatInventoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes seat maps to SSE subscribers. A subscriber first gets a full snapshot and
+ * then one delta frame per frame interval in which the show's inventory changed,
+ * so any number of transitions within a frame costs a single serialized event that
+ * is shared by every subscriber of the show.
+ *
+ * <p>Each subscriber drains its own bounded queue on a virtual thread. A subscriber
+ * that falls too far behind has its backlog replaced by a fresh snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatMapStreamService {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("ping").build();
+
+    private final SeatInventoryService seatInventoryService;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+
+    private final ConcurrentMap<Long, ShowStream> streams = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService ticker;
+    private long lastHeartbeatMillis;
+
+    @PostConstruct
+    void start() {
+        long frameMillis = appProperties.getSeatStream().getFrameMillis();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-map-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::flush, frameMillis, frameMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+        streams.values().forEach(ShowStream::close);
+        streams.clear();
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Long showId) {
+        ShowSeatInventory inventory = seatInventoryService.getInventory(showId);
+        SseEmitter emitter = new SseEmitter(
+                Duration.ofMinutes(appProperties.getSeatStream().getTimeoutMinutes()).toMillis());
+
+        while (true) {
+            ShowStream stream = streams.computeIfAbsent(showId, ShowStream::new);
+            Subscriber subscriber = new Subscriber(stream, emitter);
+            if (stream.add(subscriber, inventory)) {
+                emitter.onCompletion(() -> stream.remove(subscriber));
+                emitter.onTimeout(() -> stream.remove(subscriber));
+                emitter.onError(e -> stream.remove(subscriber));
+                return emitter;
+            }
+            // The stream was closed after its last subscriber left; start a new one
+            streams.remove(showId, stream);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return streams.values().stream().mapToInt(ShowStream::size).sum();
+    }
+
+    void flush() {
+        long now = System.currentTimeMillis();
+        boolean heartbeat = now - lastHeartbeatMillis >= appProperties.getSeatStream().getHeartbeatSeconds() * 1000L;
+        if (heartbeat) {
+            lastHeartbeatMillis = now;
+        }
+        for (ShowStream stream : streams.values()) {
+            try {
+                if (!stream.flush(heartbeat)) {
+                    streams.remove(stream.showId, stream);
+                }
+            } catch (Exception e) {
+                log.warn("Seat map stream of show {} failed: {}", stream.showId, e.getMessage());
+                stream.close();
+                streams.remove(stream.showId, stream);
+            }
+        }
+    }
+
+    private final class ShowStream {
+
+        private final Long showId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private ShowSeatInventory inventory;
+        private ShowSeatInventory.Snapshot base;
+        private Set<DataWithMediaType> snapshotFrame;
+        private boolean closed;
+        private final AtomicBoolean reloading = new AtomicBoolean();
+
+        ShowStream(Long showId) {
+            this.showId = showId;
+        }
+
+        synchronized boolean add(Subscriber subscriber, ShowSeatInventory current) {
+            if (closed) {
+                return false;
+            }
+            if (base == null) {
+                rebase(current);
+            }
+            subscribers.add(subscriber);
+            // The snapshot is the base of the next delta, so nothing falls in between
+            subscriber.enqueue(snapshotFrame());
+            return true;
+        }
+
+        void remove(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+        }
+
+        int size() {
+            return subscribers.size();
+        }
+
+        synchronized boolean flush(boolean heartbeat) {
+            if (subscribers.isEmpty()) {
+                closed = true;
+                return false;
+            }
+
+            Set<DataWithMediaType> frame = null;
+            ShowSeatInventory current = seatInventoryService.findLoadedInventory(showId);
+            if (current == null) {
+                // Evicted: reload off the ticker, subscribers keep their state until it is back
+                reload();
+                if (heartbeat) {
+                    subscribers.forEach(subscriber -> subscriber.enqueue(HEARTBEAT));
+                }
+                return true;
+            }
+            if (current != inventory) {
+                // Reloaded inventories restart their versions, so resend everything
+                rebase(current);
+                frame = snapshotFrame();
+            } else {
+                ShowSeatInventory.Snapshot next = current.snapshot();
+                if (next.version() != base.version()) {
+                    frame = deltaFrame(next);
+                    base = next;
+                    snapshotFrame = null;
+                }
+            }
+
+            if (frame != null) {
+                for (Subscriber subscriber : subscribers) {
+                    if (!subscriber.enqueue(frame)) {
+                        subscriber.resync(snapshotFrame());
+                    }
+                }
+            } else if (heartbeat) {
+                subscribers.forEach(subscriber -> subscriber.enqueue(HEARTBEAT));
+            }
+            return true;
+        }
+
+        synchronized void close() {
+            closed = true;
+            subscribers.forEach(Subscriber::close);
+            subscribers.clear();
+        }
+
+        private void reload() {
+            if (reloading.compareAndSet(false, true)) {
+                senders.execute(() -> {
+                    try {
+                        seatInventoryService.getInventory(showId);
+                    } catch (Exception e) {
+                        log.warn("Could not reload seat inventory of show {}: {}", showId, e.getMessage());
+                    } finally {
+                        reloading.set(false);
+                    }
+                });
+            }
+        }
+
+        private void rebase(ShowSeatInventory current) {
+            inventory = current;
+            base = current.snapshot();
+            snapshotFrame = null;
+        }
+
+        private Set<DataWithMediaType> snapshotFrame() {
+            if (snapshotFrame == null) {
+                snapshotFrame = SseEmitter.event()
+                        .name("snapshot")
+                        .id(Long.toString(base.version()))
+                        .data(toJson(seatInventoryService.getSeatMap(inventory, base)), MediaType.APPLICATION_JSON)
+                        .build();
+            }
+            return snapshotFrame;
+        }
+
+        private Set<DataWithMediaType> deltaFrame(ShowSeatInventory.Snapshot next) {
+            int[] changed = next.changedSince(base);
+            List<SeatMapDelta.SeatChange> changes = new ArrayList<>(changed.length);
+            for (int ordinal : changed) {
+                changes.add(new SeatMapDelta.SeatChange(ordinal, next.statusAt(ordinal)));
+            }
+            SeatMapDelta delta = new SeatMapDelta(showId, base.version(), next.version(), changes);
+            return SseEmitter.event()
+                    .name("delta")
+                    .id(Long.toString(next.version()))
+                    .data(toJson(delta), MediaType.APPLICATION_JSON)
+                    .build();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final ShowStream stream;
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(ShowStream stream, SseEmitter emitter) {
+            this.stream = stream;
+            this.emitter = emitter;
+        }
+
+        // Called with the stream lock held, so frames are queued in stream order
+        boolean enqueue(Set<DataWithMediaType> frame) {
+            if (closed) {
+                return true;
+            }
+            if (queued.get() >= appProperties.getSeatStream().getMaxQueuedFrames()) {
+                return false;
+            }
+            queued.incrementAndGet();
+            queue.add(frame);
+            scheduleDrain();
+            return true;
+        }
+
+        void resync(Set<DataWithMediaType> snapshot) {
+            while (queue.poll() != null) {
+                queued.decrementAndGet();
+            }
+            queued.incrementAndGet();
+            queue.add(snapshot);
+            scheduleDrain();
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // Already completed by the container
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (Exception e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> frame = queue.poll();
+                if (frame == null) {
+                    draining.set(false);
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                queued.decrementAndGet();
+                try {
+                    emitter.send(frame);
+                } catch (Exception e) {
+                    log.debug("Dropping seat map subscriber of show {}: {}", stream.showId, e.getMessage());
+                    stream.remove(this);
+                    close();
+                    return;
+                }
+            }
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize seat map frame", e);
+        }
+    }
+}
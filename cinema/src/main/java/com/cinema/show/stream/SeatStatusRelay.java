@@ -0,0 +1,128 @@
+package com.cinema.show.stream;
+
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.SeatStatusChangedEvent;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.service.SeatInventoryService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Shares seat transitions between nodes over Redis pub/sub. Local transitions are
+ * numbered in a per-show sequence and published as
+ * {@code node:show:showSeat:status:sequence}; every node follows the sequence of
+ * the shows it has loaded and applies the transitions of other nodes, from where
+ * they reach its seat map streams. A skipped number, or a re-subscription after
+ * the connection dropped, means messages were lost and reloads the affected shows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatStatusRelay implements MessageListener, SubscriptionListener {
+
+    static final String CHANNEL = "seat-status";
+    private static final Duration SEQUENCE_TTL = Duration.ofDays(2);
+    // Beyond this, other nodes fall back to the seat counter resync
+    private static final int MAX_UNSENT = 10_000;
+
+    private static final RedisScript<Long> PUBLISH_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-status-publish.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SeatInventoryService seatInventoryService;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Queue<SeatStatusChangedEvent> unsent = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @EventListener
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        if (!send(event) && unsent.size() < MAX_UNSENT) {
+            unsent.add(event);
+        }
+    }
+
+    /**
+     * Retries transitions that could not be published, with the seat's current
+     * local status so a late retry never rolls other nodes back.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void resendUnsent() {
+        SeatStatusChangedEvent event;
+        int attempts = unsent.size();
+        while (attempts-- > 0 && (event = unsent.poll()) != null) {
+            if (!send(current(event))) {
+                unsent.add(event);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 5) {
+            return;
+        }
+        try {
+            // Own transitions were applied when they happened; only their number is new
+            ShowSeatStatus status = nodeId.equals(parts[0]) ? null : ShowSeatStatus.valueOf(parts[3]);
+            seatInventoryService.applyRelayed(
+                    Long.valueOf(parts[1]), Long.valueOf(parts[2]), status, Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed seat status message: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        // Anything published while this node was not subscribed is gone
+        log.info("Subscribed to seat transitions, reloading seat inventories");
+        seatInventoryService.evictAll();
+    }
+
+    private boolean send(SeatStatusChangedEvent event) {
+        try {
+            String message = nodeId + ':' + event.showId() + ':' + event.showSeatId() + ':' + event.status().name();
+            redisTemplate.execute(PUBLISH_SCRIPT, List.of(SeatInventoryService.sequenceKey(event.showId())),
+                    CHANNEL, message, Long.toString(SEQUENCE_TTL.toSeconds()));
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not relay status of show seat {}: {}", event.showSeatId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private SeatStatusChangedEvent current(SeatStatusChangedEvent event) {
+        ShowSeatInventory inventory = seatInventoryService.findLoadedInventory(event.showId());
+        int ordinal = inventory == null ? -1 : inventory.ordinalOf(event.showSeatId());
+        if (ordinal < 0) {
+            return event;
+        }
+        return new SeatStatusChangedEvent(event.showId(), event.showSeatId(), inventory.snapshot().statusAt(ordinal));
+    }
+}
@@ -5,13 +5,16 @@ import com.cinema.shared.exception.ErrorCode;
 import com.cinema.storage.config.MinioProperties;
 import com.cinema.storage.dto.FileUploadResponse;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -73,6 +76,41 @@ public class StorageService {
         return uploadFile(file, folder);
     }
 
+    public void putObject(String objectName, byte[] content, String contentType) {
+        try (InputStream inputStream = new ByteArrayInputStream(content)) {
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(properties.getBucketName())
+                            .object(objectName)
+                            .stream(inputStream, content.length, -1)
+                            .contentType(contentType)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("Failed to store object {}: {}", objectName, e.getMessage());
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR, "Failed to store file");
+        }
+    }
+
+    public Optional<byte[]> findObject(String objectName) {
+        try (InputStream inputStream = minioClient.getObject(
+                GetObjectArgs.builder()
+                        .bucket(properties.getBucketName())
+                        .object(objectName)
+                        .build())) {
+            return Optional.of(inputStream.readAllBytes());
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            log.error("Failed to read object {}: {}", objectName, e.getMessage());
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR, "Failed to read file");
+        } catch (Exception e) {
+            log.error("Failed to read object {}: {}", objectName, e.getMessage());
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR, "Failed to read file");
+        }
+    }
+
     public void deleteFile(String fileName) {
         try {
             minioClient.removeObject(
@@ -0,0 +1,64 @@
+package com.cinema.user.controller;
+
+import com.cinema.shared.dto.ApiResponse;
+import com.cinema.shared.security.AuthenticatedUser;
+import com.cinema.user.dto.PointsImportResponse;
+import com.cinema.user.service.PointsImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/admin/points-imports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Points Imports", description = "Admin APIs for bulk loyalty-points grants")
+public class AdminPointsImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final PointsImportService pointsImportService;
+
+    @PostMapping(consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    @Operation(summary = "Grant points in bulk from a CSV (user,points,reason) or NDJSON (userId or email, points, reason) body")
+    public ResponseEntity<ApiResponse<PointsImportResponse>> startImport(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            HttpServletRequest request) throws IOException {
+        PointsImportResponse job = pointsImportService.startImport(
+                request.getInputStream(), request.getContentType(), user.username());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job, "Points import started"));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get the progress of a points import")
+    public ResponseEntity<ApiResponse<PointsImportResponse>> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(pointsImportService.getImport(id)));
+    }
+
+    @GetMapping(value = "/{id}/rejections", produces = TEXT_CSV)
+    @Operation(summary = "Download the rejected rows of a points import as CSV")
+    public ResponseEntity<StreamingResponseBody> getRejections(@PathVariable Long id) {
+        pointsImportService.getImport(id);
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            pointsImportService.writeRejections(id, writer);
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"points-import-" + id + "-rejections.csv\"")
+                .body(body);
+    }
+}
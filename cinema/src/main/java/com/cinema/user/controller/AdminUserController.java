@@ -1,16 +1,15 @@
 package com.cinema.user.controller;
 
 import com.cinema.shared.dto.ApiResponse;
+import com.cinema.shared.dto.CursorPage;
 import com.cinema.user.dto.AdminUpdateUserRequest;
 import com.cinema.user.dto.UserResponse;
+import com.cinema.user.service.UserSearchService;
 import com.cinema.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,12 +22,19 @@ import org.springframework.web.bind.annotation.*;
 public class AdminUserController {
 
     private final UserService userService;
+    private final UserSearchService userSearchService;
 
     @GetMapping
-    @Operation(summary = "Get all users with pagination")
-    public ResponseEntity<ApiResponse<Page<UserResponse>>> getAllUsers(
-            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
-        Page<UserResponse> users = userService.getAllUsers(pageable);
+    @Operation(summary = "Search users, newest first, with cursor pagination")
+    public ResponseEntity<ApiResponse<CursorPage<UserResponse>>> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean deleted,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<UserResponse> users = userSearchService.searchUsers(q, role, status, deleted, cursor, size, includeTotal);
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
@@ -1,10 +1,10 @@
 package com.cinema.user.controller;
 
 import com.cinema.shared.dto.ApiResponse;
+import com.cinema.shared.security.AuthenticatedUser;
 import com.cinema.user.dto.ChangePasswordRequest;
 import com.cinema.user.dto.UpdateProfileRequest;
 import com.cinema.user.dto.UserResponse;
-import com.cinema.user.entity.User;
 import com.cinema.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,33 +28,33 @@ public class UserController {
 
     @GetMapping("/me")
     @Operation(summary = "Get current user profile")
-    public ResponseEntity<ApiResponse<UserResponse>> getMyProfile(@AuthenticationPrincipal User user) {
-        UserResponse response = userService.getUserById(user.getId());
+    public ResponseEntity<ApiResponse<UserResponse>> getMyProfile(@AuthenticationPrincipal AuthenticatedUser user) {
+        UserResponse response = userService.getUserById(user.id());
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @PutMapping("/me")
     @Operation(summary = "Update current user profile")
     public ResponseEntity<ApiResponse<UserResponse>> updateMyProfile(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @Valid @RequestBody UpdateProfileRequest request) {
-        UserResponse response = userService.updateProfile(user.getId(), request);
+        UserResponse response = userService.updateProfile(user.id(), request);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @PostMapping("/me/change-password")
     @Operation(summary = "Change current user password")
     public ResponseEntity<ApiResponse<Void>> changePassword(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @Valid @RequestBody ChangePasswordRequest request) {
-        userService.changePassword(user.getId(), request);
+        userService.changePassword(user.id(), request);
         return ResponseEntity.ok(ApiResponse.success("Password changed successfully"));
     }
 
     @GetMapping("/me/points")
     @Operation(summary = "Get current user loyalty points")
-    public ResponseEntity<ApiResponse<UserResponse>> getMyPoints(@AuthenticationPrincipal User user) {
-        UserResponse response = userService.getUserById(user.getId());
+    public ResponseEntity<ApiResponse<UserResponse>> getMyPoints(@AuthenticationPrincipal AuthenticatedUser user) {
+        UserResponse response = userService.getUserById(user.id());
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
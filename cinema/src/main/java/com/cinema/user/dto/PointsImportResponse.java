@@ -0,0 +1,29 @@
+package com.cinema.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsImportResponse {
+    private Long id;
+    private String format;
+    private String status;
+    private long totalLines;
+    private long linesDone;
+    private long processedRows;
+    private long grantedRows;
+    private long rejectedRows;
+    private long pointsGranted;
+    private String error;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
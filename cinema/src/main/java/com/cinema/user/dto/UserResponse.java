@@ -22,5 +22,6 @@ public class UserResponse {
     private String role;
     private String status;
     private LocalDateTime lastLoginAt;
+    private LocalDateTime lastSeenAt;
     private LocalDateTime createdAt;
 }
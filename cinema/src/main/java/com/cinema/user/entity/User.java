@@ -37,10 +37,6 @@ public class User extends BaseEntity {
     @Column(name = "avatar_url", length = 500)
     private String avatarUrl;
 
-    @Column(nullable = false)
-    @Builder.Default
-    private Integer points = 0;
-
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     @Builder.Default
@@ -51,9 +47,13 @@ public class User extends BaseEntity {
     @Builder.Default
     private UserStatus status = UserStatus.ACTIVE;
 
-    @Column(name = "last_login_at")
+    // Written behind by UserActivityService; read-only here so entity saves never move them back
+    @Column(name = "last_login_at", insertable = false, updatable = false)
     private LocalDateTime lastLoginAt;
 
+    @Column(name = "last_seen_at", insertable = false, updatable = false)
+    private LocalDateTime lastSeenAt;
+
     @Column(name = "token_version", nullable = false)
     @Builder.Default
     private Long tokenVersion = 0L;
@@ -66,18 +66,6 @@ public class User extends BaseEntity {
         ACTIVE, INACTIVE, BANNED
     }
 
-    public void addPoints(int points) {
-        this.points += points;
-    }
-
-    public boolean deductPoints(int points) {
-        if (this.points >= points) {
-            this.points -= points;
-            return true;
-        }
-        return false;
-    }
-
     public void incrementTokenVersion() {
         this.tokenVersion++;
     }
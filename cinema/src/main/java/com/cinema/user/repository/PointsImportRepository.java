@@ -0,0 +1,198 @@
+package com.cinema.user.repository;
+
+import com.cinema.user.dto.PointsImportResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Points import jobs and their rejected rows. Progress and rejections of a chunk
+ * are written in the chunk's transaction, together with its ledger entries.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PointsImportRepository {
+
+    public record Job(Long id, String format, String spoolPath, String status, long linesDone) {
+    }
+
+    public record Rejection(long lineNumber, String reason, String rawLine) {
+    }
+
+    private static final String SELECT_RESPONSE = """
+            SELECT id, format, status, total_lines, lines_done, processed_rows, granted_rows, rejected_rows, points_granted, error,
+                   created_by, created_at, started_at, finished_at
+            FROM points_import_jobs
+            """;
+
+    private static final RowMapper<PointsImportResponse> RESPONSE_MAPPER = (rs, rowNum) -> PointsImportResponse.builder()
+            .id(rs.getLong("id"))
+            .format(rs.getString("format"))
+            .status(rs.getString("status"))
+            .totalLines(rs.getLong("total_lines"))
+            .linesDone(rs.getLong("lines_done"))
+            .processedRows(rs.getLong("processed_rows"))
+            .grantedRows(rs.getLong("granted_rows"))
+            .rejectedRows(rs.getLong("rejected_rows"))
+            .pointsGranted(rs.getLong("points_granted"))
+            .error(rs.getString("error"))
+            .createdBy(rs.getString("created_by"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+            .finishedAt(toLocalDateTime(rs.getTimestamp("finished_at")))
+            .build();
+
+    private static final RowMapper<Job> JOB_MAPPER = (rs, rowNum) -> new Job(
+            rs.getLong("id"), rs.getString("format"), rs.getString("spool_path"), rs.getString("status"),
+            rs.getLong("lines_done"));
+
+    // Users that exist and are not deleted, by id or by email, for each line of a chunk
+    private static final String RESOLVE_USERS = """
+            SELECT i.line_number, u.id
+            FROM unnest(?::bigint[], ?::bigint[]) AS i(line_number, user_id)
+            JOIN users u ON u.id = i.user_id AND u.deleted = FALSE
+            UNION ALL
+            SELECT i.line_number, u.id
+            FROM unnest(?::bigint[], ?::varchar[]) AS i(line_number, email)
+            JOIN users u ON u.email = i.email AND u.deleted = FALSE
+            """;
+
+    private static final String INSERT_REJECTIONS = """
+            INSERT INTO points_import_rejections (job_id, line_number, reason, raw_line)
+            SELECT ?, r.line_number, r.reason, r.raw_line
+            FROM unnest(?::bigint[], ?::varchar[], ?::varchar[]) AS r(line_number, reason, raw_line)
+            ON CONFLICT (job_id, line_number) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Long createJob(String format, String spoolPath, long totalLines, String createdBy) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO points_import_jobs (format, spool_path, total_lines, created_by)
+                        VALUES (?, ?, ?, ?)
+                        RETURNING id
+                        """,
+                Long.class, format, spoolPath, totalLines, createdBy);
+    }
+
+    public Optional<PointsImportResponse> findResponse(Long jobId) {
+        return jdbcTemplate.query(SELECT_RESPONSE + " WHERE id = ?", RESPONSE_MAPPER, jobId).stream().findFirst();
+    }
+
+    public List<Job> findUnfinished() {
+        return jdbcTemplate.query("""
+                        SELECT id, format, spool_path, status, lines_done
+                        FROM points_import_jobs
+                        WHERE status IN ('PENDING', 'RUNNING')
+                        ORDER BY id
+                        """,
+                JOB_MAPPER);
+    }
+
+    /**
+     * Takes the job if nobody holds an unexpired lease on it, and returns it.
+     */
+    public Optional<Job> claim(Long jobId, int leaseSeconds) {
+        return jdbcTemplate.query("""
+                        UPDATE points_import_jobs
+                        SET status = 'RUNNING',
+                            lease_until = CURRENT_TIMESTAMP + make_interval(secs => ?),
+                            started_at = COALESCE(started_at, CURRENT_TIMESTAMP)
+                        WHERE id = ? AND status IN ('PENDING', 'RUNNING')
+                          AND (lease_until IS NULL OR lease_until < CURRENT_TIMESTAMP)
+                        RETURNING id, format, spool_path, status, lines_done
+                        """,
+                JOB_MAPPER, leaseSeconds, jobId).stream().findFirst();
+    }
+
+    /**
+     * Records a chunk as applied and renews the lease. Returns false if the job
+     * moved past {@code fromLine} meanwhile, in which case the caller must roll
+     * back the chunk.
+     */
+    public boolean advance(Long jobId, long fromLine, long toLine, long processed, long granted, long rejected,
+                           long points, int leaseSeconds) {
+        return jdbcTemplate.update("""
+                        UPDATE points_import_jobs
+                        SET lines_done = ?,
+                            processed_rows = processed_rows + ?,
+                            granted_rows = granted_rows + ?,
+                            rejected_rows = rejected_rows + ?,
+                            points_granted = points_granted + ?,
+                            lease_until = CURRENT_TIMESTAMP + make_interval(secs => ?)
+                        WHERE id = ? AND lines_done = ? AND status = 'RUNNING'
+                        """,
+                toLine, processed, granted, rejected, points, leaseSeconds, jobId, fromLine) > 0;
+    }
+
+    public void finish(Long jobId, String status, String error) {
+        jdbcTemplate.update("""
+                        UPDATE points_import_jobs
+                        SET status = ?, error = ?, lease_until = NULL, finished_at = CURRENT_TIMESTAMP
+                        WHERE id = ?
+                        """,
+                status, error, jobId);
+    }
+
+    /**
+     * Maps each line number to the id of the user it names. Lines naming no
+     * live user are absent.
+     */
+    public Map<Long, Long> resolveUsers(Long[] idLines, Long[] userIds, Long[] emailLines, String[] emails) {
+        Map<Long, Long> users = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(RESOLVE_USERS);
+            statement.setArray(1, connection.createArrayOf("bigint", idLines));
+            statement.setArray(2, connection.createArrayOf("bigint", userIds));
+            statement.setArray(3, connection.createArrayOf("bigint", emailLines));
+            statement.setArray(4, connection.createArrayOf("varchar", emails));
+            return statement;
+        }, rs -> {
+            users.put(rs.getLong(1), rs.getLong(2));
+        });
+        return users;
+    }
+
+    public void insertRejections(Long jobId, List<Rejection> rejections) {
+        if (rejections.isEmpty()) {
+            return;
+        }
+        Long[] lines = rejections.stream().map(Rejection::lineNumber).toArray(Long[]::new);
+        String[] reasons = rejections.stream().map(Rejection::reason).toArray(String[]::new);
+        String[] rawLines = rejections.stream().map(Rejection::rawLine).toArray(String[]::new);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_REJECTIONS);
+            statement.setLong(1, jobId);
+            statement.setArray(2, connection.createArrayOf("bigint", lines));
+            statement.setArray(3, connection.createArrayOf("varchar", reasons));
+            statement.setArray(4, connection.createArrayOf("varchar", rawLines));
+            return statement;
+        });
+    }
+
+    public List<Rejection> findRejectionsAfter(Long jobId, long afterLine, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT line_number, reason, raw_line
+                        FROM points_import_rejections
+                        WHERE job_id = ? AND line_number > ?
+                        ORDER BY line_number
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new Rejection(rs.getLong("line_number"), rs.getString("reason"),
+                        rs.getString("raw_line")),
+                jobId, afterLine, limit);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,189 @@
+package com.cinema.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loyalty points ledger. A balance is the compacted snapshot in points_balances
+ * plus the user's entries written by transactions from the snapshot's
+ * {@code folded_xact_id} on, which is a short range of idx_points_ledger_user_xact_id
+ * between compactions. Entries from before V22 have no transaction id and are all
+ * folded.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PointsLedgerRepository {
+
+    // Only one node compacts at a time (transaction-scoped advisory lock)
+    private static final long COMPACTION_LOCK = 0x706f696e7473L;
+
+    private static final String BALANCE = """
+            COALESCE(b.balance, 0) + COALESCE((
+                SELECT SUM(l.delta)
+                FROM points_ledger l
+                WHERE l.user_id = u.user_id AND l.xact_id >= COALESCE(b.folded_xact_id, 0)
+            ), 0)
+            """;
+
+    private static final String APPEND = """
+            INSERT INTO points_ledger (user_id, delta, entry_type, reference)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (user_id, entry_type, reference) WHERE reference IS NOT NULL DO NOTHING
+            """;
+
+    // Inserts the entry only if the balance stays non-negative; callers hold lockBalance
+    private static final String APPEND_IF_COVERED = """
+            INSERT INTO points_ledger (user_id, delta, entry_type, reference)
+            SELECT u.user_id, ?, ?, ?
+            FROM (SELECT ?::bigint AS user_id) u
+            LEFT JOIN points_balances b ON b.user_id = u.user_id
+            WHERE %s + ? >= 0
+            ON CONFLICT (user_id, entry_type, reference) WHERE reference IS NOT NULL DO NOTHING
+            """.formatted(BALANCE);
+
+    // One statement per chunk of credits, however many rows it holds
+    private static final String APPEND_ALL = """
+            INSERT INTO points_ledger (user_id, delta, entry_type, reference, note)
+            SELECT e.user_id, e.delta, ?, e.reference, e.note
+            FROM unnest(?::bigint[], ?::integer[], ?::varchar[], ?::varchar[]) AS e(user_id, delta, reference, note)
+            ON CONFLICT (user_id, entry_type, reference) WHERE reference IS NOT NULL DO NOTHING
+            """;
+
+    // Callers have folded every entry below the range already
+    private static final String COMPACT = """
+            WITH tail AS (
+                SELECT l.user_id, SUM(l.delta) AS delta
+                FROM points_ledger l
+                LEFT JOIN points_balances b ON b.user_id = l.user_id
+                WHERE l.xact_id >= ? AND l.xact_id < ? AND l.xact_id >= COALESCE(b.folded_xact_id, 0)
+                GROUP BY l.user_id
+            )
+            INSERT INTO points_balances (user_id, balance, folded_xact_id, updated_at)
+            SELECT user_id, delta, ?, CURRENT_TIMESTAMP
+            FROM tail
+            ON CONFLICT (user_id) DO UPDATE
+            SET balance = points_balances.balance + EXCLUDED.balance,
+                folded_xact_id = EXCLUDED.folded_xact_id,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends an entry without reading or locking anything. Returns false when an
+     * entry with the same type and reference already exists.
+     */
+    public boolean append(Long userId, int delta, String entryType, String reference) {
+        return jdbcTemplate.update(APPEND, userId, delta, entryType, reference) > 0;
+    }
+
+    /**
+     * Appends many credits in one statement and returns how many were new. The
+     * arrays are parallel, one element per entry.
+     */
+    public int appendAll(String entryType, Long[] userIds, Integer[] deltas, String[] references, String[] notes) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPEND_ALL);
+            statement.setString(1, entryType);
+            statement.setArray(2, connection.createArrayOf("bigint", userIds));
+            statement.setArray(3, connection.createArrayOf("integer", deltas));
+            statement.setArray(4, connection.createArrayOf("varchar", references));
+            statement.setArray(5, connection.createArrayOf("varchar", notes));
+            return statement;
+        });
+    }
+
+    public boolean appendIfCovered(Long userId, int delta, String entryType, String reference) {
+        return jdbcTemplate.update(APPEND_IF_COVERED, delta, entryType, reference, userId, delta) > 0;
+    }
+
+    /**
+     * Serializes debits of one user for the rest of the transaction. Credits do not
+     * take this lock, so they never wait on it.
+     */
+    public void lockBalance(Long userId) {
+        jdbcTemplate.update("INSERT INTO points_balances (user_id) VALUES (?) ON CONFLICT (user_id) DO NOTHING", userId);
+        jdbcTemplate.queryForList("SELECT user_id FROM points_balances WHERE user_id = ? FOR UPDATE", userId);
+    }
+
+    public boolean exists(Long userId, String entryType, String reference) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                        SELECT EXISTS (SELECT 1 FROM points_ledger WHERE user_id = ? AND entry_type = ? AND reference = ?)
+                        """,
+                Boolean.class, userId, entryType, reference));
+    }
+
+    public int findBalance(Long userId) {
+        Integer balance = jdbcTemplate.queryForObject("""
+                        SELECT %s
+                        FROM (SELECT ?::bigint AS user_id) u
+                        LEFT JOIN points_balances b ON b.user_id = u.user_id
+                        """.formatted(BALANCE),
+                Integer.class, userId);
+        return balance != null ? balance : 0;
+    }
+
+    public Map<Long, Integer> findBalances(Collection<Long> userIds) {
+        Map<Long, Integer> balances = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return balances;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    SELECT u.user_id, %s AS balance
+                    FROM unnest(?) AS u(user_id)
+                    LEFT JOIN points_balances b ON b.user_id = u.user_id
+                    """.formatted(BALANCE));
+            statement.setArray(1, connection.createArrayOf("bigint", userIds.toArray()));
+            return statement;
+        }, rs -> {
+            balances.put(rs.getLong("user_id"), rs.getInt("balance"));
+        });
+        return balances;
+    }
+
+    public boolean tryLockCompaction() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, COMPACTION_LOCK));
+    }
+
+    /**
+     * Oldest transaction id still running. Every transaction below it has committed
+     * or rolled back, so no entry with a lower xact_id can appear any more.
+     */
+    public long findCompactionHorizon() {
+        Long horizon = jdbcTemplate.queryForObject(
+                "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+        return horizon != null ? horizon : 0;
+    }
+
+    /**
+     * Lowest xact_id in {@code [from, to)}, so compaction can skip ranges without entries.
+     */
+    public Long findNextXactId(long from, long to) {
+        List<Long> ids = jdbcTemplate.queryForList("""
+                        SELECT xact_id FROM points_ledger
+                        WHERE xact_id >= ? AND xact_id < ?
+                        ORDER BY xact_id
+                        LIMIT 1
+                        """,
+                Long.class, from, to);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Folds the entries written by transactions in {@code [fromXactId, toXactId)} into
+     * the balances and returns how many balances moved. Entries already folded are
+     * skipped, so a range can be compacted again safely.
+     */
+    public int compact(long fromXactId, long toXactId) {
+        return jdbcTemplate.update(COMPACT, fromXactId, toXactId, toXactId);
+    }
+}
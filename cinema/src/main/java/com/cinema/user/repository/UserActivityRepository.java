@@ -0,0 +1,44 @@
+package com.cinema.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes the activity columns of users without going through the entity, so
+ * neither version nor updated_at changes. Timestamps only move forward, which
+ * makes flushes from several nodes safe in any order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserActivityRepository {
+
+    public record Activity(Long userId, LocalDateTime lastLoginAt, LocalDateTime lastSeenAt) {
+    }
+
+    // GREATEST ignores NULLs, so a missing timestamp leaves the column as it is
+    private static final String UPDATE = """
+            UPDATE users
+            SET last_login_at = GREATEST(last_login_at, ?),
+                last_seen_at = GREATEST(last_seen_at, ?)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void updateActivity(List<Activity> activities) {
+        jdbcTemplate.batchUpdate(UPDATE, activities, activities.size(), (statement, activity) -> {
+            statement.setTimestamp(1, toTimestamp(activity.lastLoginAt()));
+            statement.setTimestamp(2, toTimestamp(activity.lastSeenAt()));
+            statement.setLong(3, activity.userId());
+        });
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+}
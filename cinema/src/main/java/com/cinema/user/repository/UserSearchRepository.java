@@ -0,0 +1,107 @@
+package com.cinema.user.repository;
+
+import com.cinema.user.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admin user search with keyset pagination over id, newest first. The search
+ * term is matched with ILIKE against the trigram indexes of V19, and role,
+ * status and deleted filters are served by the partial keyset indexes of V19
+ * and V24, so no page needs OFFSET or a count.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserSearchRepository {
+
+    /**
+     * @param pattern ILIKE pattern, already escaped, or null for no search
+     */
+    public record Filter(String pattern, String role, String status, boolean deleted) {
+    }
+
+    private static final String SELECT_COLUMNS = """
+            SELECT id, username, email, full_name, phone_number, avatar_url, role, status,
+                   last_login_at, last_seen_at, created_at
+            FROM users
+            """;
+
+    private static final RowMapper<UserResponse> ROW_MAPPER = (rs, rowNum) -> UserResponse.builder()
+            .id(rs.getLong("id"))
+            .username(rs.getString("username"))
+            .email(rs.getString("email"))
+            .fullName(rs.getString("full_name"))
+            .phoneNumber(rs.getString("phone_number"))
+            .avatarUrl(rs.getString("avatar_url"))
+            .role(rs.getString("role"))
+            .status(rs.getString("status"))
+            .lastLoginAt(toLocalDateTime(rs.getTimestamp("last_login_at")))
+            .lastSeenAt(toLocalDateTime(rs.getTimestamp("last_seen_at")))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public List<UserResponse> findPage(Filter filter, Long beforeId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(where(filter, args));
+        if (beforeId != null) {
+            sql.append(" AND id < ?");
+            args.add(beforeId);
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * The planner's estimate of the matching rows. Costs one EXPLAIN, not a scan,
+     * and can be off by a wide margin for rare search terms.
+     */
+    public long estimateCount(Filter filter) {
+        List<Object> args = new ArrayList<>();
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (FORMAT JSON) SELECT 1 FROM users" + where(filter, args), String.class, args.toArray());
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected EXPLAIN output", e);
+        }
+    }
+
+    private static String where(Filter filter, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE deleted = ?");
+        args.add(filter.deleted());
+        if (filter.role() != null) {
+            where.append(" AND role = ?");
+            args.add(filter.role());
+        }
+        if (filter.status() != null) {
+            where.append(" AND status = ?");
+            args.add(filter.status());
+        }
+        if (filter.pattern() != null) {
+            where.append(" AND (email ILIKE ? OR username ILIKE ? OR full_name ILIKE ? OR phone_number ILIKE ?)");
+            for (int i = 0; i < 4; i++) {
+                args.add(filter.pattern());
+            }
+        }
+        return where.toString();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.cinema.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses one line of a points import. CSV lines are {@code user,points,reason}
+ * with an optional header; NDJSON lines are objects with {@code userId} or
+ * {@code email}, {@code points} and {@code reason}. In CSV the user column is an
+ * id if it is all digits and an email otherwise. A line that cannot be applied
+ * throws {@link IllegalArgumentException} with the rejection reason.
+ */
+final class PointsImportParser {
+
+    enum Format {
+        CSV, NDJSON
+    }
+
+    record Row(long lineNumber, Long userId, String email, int points, String reason) {
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int MAX_REASON_LENGTH = 255;
+    private static final int MAX_EMAIL_LENGTH = 255;
+
+    private PointsImportParser() {
+    }
+
+    static boolean isHeader(Format format, long lineNumber, String line) {
+        if (format != Format.CSV || lineNumber != 1) {
+            return false;
+        }
+        List<String> fields = splitCsv(line);
+        return fields.size() >= 2 && fields.get(1).strip().equalsIgnoreCase("points");
+    }
+
+    static Row parse(Format format, long lineNumber, String line, int maxPoints) {
+        return switch (format) {
+            case CSV -> parseCsv(lineNumber, line, maxPoints);
+            case NDJSON -> parseJson(lineNumber, line, maxPoints);
+        };
+    }
+
+    private static Row parseCsv(long lineNumber, String line, int maxPoints) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 2 || fields.size() > 3) {
+            throw new IllegalArgumentException("Expected user,points,reason");
+        }
+        String user = fields.get(0).strip();
+        boolean isId = !user.isEmpty() && user.chars().allMatch(Character::isDigit);
+        return row(lineNumber, isId ? parseId(user) : null, isId ? null : user,
+                fields.get(1).strip(), fields.size() == 3 ? fields.get(2) : null, maxPoints);
+    }
+
+    private static Row parseJson(long lineNumber, String line, int maxPoints) {
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        JsonNode userId = node.path("userId");
+        if (!userId.isMissingNode() && !userId.isNull() && !userId.canConvertToLong()) {
+            throw new IllegalArgumentException("Invalid userId");
+        }
+        JsonNode points = node.path("points");
+        return row(lineNumber,
+                userId.canConvertToLong() ? userId.asLong() : null,
+                node.path("email").isTextual() ? node.path("email").asText() : null,
+                points.isIntegralNumber() || points.isTextual() ? points.asText() : "",
+                node.path("reason").isTextual() ? node.path("reason").asText() : null,
+                maxPoints);
+    }
+
+    private static Row row(long lineNumber, Long userId, String email, String points, String reason, int maxPoints) {
+        if (userId == null && (email == null || email.isBlank())) {
+            throw new IllegalArgumentException("Missing user");
+        }
+        if (userId == null && (email.length() > MAX_EMAIL_LENGTH || email.indexOf('@') < 1)) {
+            throw new IllegalArgumentException("Invalid email");
+        }
+        int value;
+        try {
+            value = Integer.parseInt(points);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid points");
+        }
+        if (value <= 0 || value > maxPoints) {
+            throw new IllegalArgumentException("Points must be between 1 and " + maxPoints);
+        }
+        String note = reason == null || reason.isBlank() ? null : reason.strip();
+        if (note != null && note.length() > MAX_REASON_LENGTH) {
+            throw new IllegalArgumentException("Reason is longer than " + MAX_REASON_LENGTH + " characters");
+        }
+        return new Row(lineNumber, userId, userId == null ? email.strip() : null, value, note);
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid user id");
+        }
+    }
+
+    // RFC 4180 fields: quoted fields may contain commas and doubled quotes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,311 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.user.dto.PointsImportResponse;
+import com.cinema.user.repository.PointsImportRepository;
+import com.cinema.user.repository.PointsImportRepository.Job;
+import com.cinema.user.repository.PointsImportRepository.Rejection;
+import com.cinema.user.service.PointsImportParser.Format;
+import com.cinema.user.service.PointsImportParser.Row;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk loyalty-points grants from an uploaded CSV or NDJSON file. The upload is
+ * streamed to a spool file and applied in chunks, each chunk one transaction
+ * holding a single ledger insert, its rejected rows and the job's progress. A
+ * job interrupted by a crash resumes after the last committed chunk once its
+ * lease expires; ledger references ({@code import:<job>:<line>}) make a chunk
+ * applied twice a no-op.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PointsImportService {
+
+    private static final int MAX_RAW_LINE_LENGTH = 500;
+    private static final int REJECTIONS_PAGE_SIZE = 5_000;
+
+    private final PointsImportRepository pointsImportRepository;
+    private final PointsLedgerService pointsLedgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+    private ExecutorService worker;
+    private Counter grantedCounter;
+    private Counter rejectedCounter;
+
+    record Line(long number, String text) {
+    }
+
+    private record ChunkResult(long processed, long granted, long rejected, long points) {
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+
+    @PostConstruct
+    void start() {
+        // One job at a time; chunks are already set-based, more jobs would only contend on the ledger
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "points-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        grantedCounter = Counter.builder("points_import.rows").tag("outcome", "granted").register(meterRegistry);
+        rejectedCounter = Counter.builder("points_import.rows").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        // The current chunk rolls back; the job resumes from the last committed one
+        worker.shutdownNow();
+    }
+
+    public PointsImportResponse startImport(InputStream body, String contentType, String createdBy) {
+        AppProperties.PointsImport properties = appProperties.getPointsImport();
+        Format format = contentType != null && contentType.contains("json") ? Format.NDJSON : Format.CSV;
+        Path file;
+        long totalLines;
+        try {
+            Path dir = Path.of(properties.getSpoolDir());
+            Files.createDirectories(dir);
+            file = Files.createTempFile(dir, "points-import-", "." + format.name().toLowerCase());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                totalLines = spool(body, out, properties.getMaxUploadBytes());
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        } catch (IOException e) {
+            log.error("Failed to spool points import: {}", e.getMessage());
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR, "Failed to store the upload");
+        }
+
+        Long jobId = pointsImportRepository.createJob(format.name(), file.toString(), totalLines, createdBy);
+        log.info("Points import {} queued by {}: {} lines", jobId, createdBy, totalLines);
+        submit(jobId);
+        return getImport(jobId);
+    }
+
+    public PointsImportResponse getImport(Long jobId) {
+        return pointsImportRepository.findResponse(jobId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.POINTS_IMPORT_NOT_FOUND));
+    }
+
+    /**
+     * Writes the rejected rows of a job as CSV, a page at a time.
+     */
+    public void writeRejections(Long jobId, Writer writer) throws IOException {
+        writer.write("line,reason,raw\n");
+        long after = 0;
+        List<Rejection> page;
+        do {
+            page = pointsImportRepository.findRejectionsAfter(jobId, after, REJECTIONS_PAGE_SIZE);
+            for (Rejection rejection : page) {
+                writer.write(rejection.lineNumber() + "," + csvField(rejection.reason()) + ","
+                        + csvField(rejection.rawLine()) + "\n");
+                after = rejection.lineNumber();
+            }
+        } while (page.size() == REJECTIONS_PAGE_SIZE);
+        writer.flush();
+    }
+
+    // Also runs at startup. Picks up jobs whose node died, if their upload is
+    // visible here; jobs with a live lease are skipped by the claim.
+    @Scheduled(fixedDelayString = "${app.points-import.resume-millis:60000}")
+    public void resumeUnfinished() {
+        try {
+            pointsImportRepository.findUnfinished().stream()
+                    .filter(job -> Files.exists(Path.of(job.spoolPath())))
+                    .forEach(job -> submit(job.id()));
+        } catch (Exception e) {
+            log.warn("Failed to look for unfinished points imports: {}", e.getMessage());
+        }
+    }
+
+    private void submit(Long jobId) {
+        if (active.add(jobId)) {
+            worker.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    active.remove(jobId);
+                }
+            });
+        }
+    }
+
+    void run(Long jobId) {
+        AppProperties.PointsImport properties = appProperties.getPointsImport();
+        Job job = pointsImportRepository.claim(jobId, properties.getLeaseSeconds()).orElse(null);
+        if (job == null) {
+            return;
+        }
+        Path file = Path.of(job.spoolPath());
+        if (!Files.exists(file)) {
+            pointsImportRepository.finish(jobId, "FAILED", "Upload is no longer available");
+            return;
+        }
+        Format format = Format.valueOf(job.format());
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            while (lineNumber < job.linesDone() && reader.readLine() != null) {
+                lineNumber++;
+            }
+            if (job.linesDone() > 0) {
+                log.info("Points import {} resuming after line {}", jobId, job.linesDone());
+            }
+            List<Line> chunk = new ArrayList<>(properties.getChunkSize());
+            long fromLine = lineNumber;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (!text.isBlank()) {
+                    chunk.add(new Line(lineNumber, text));
+                }
+                if (chunk.size() == properties.getChunkSize()) {
+                    applyChunk(jobId, format, fromLine, lineNumber, chunk);
+                    chunk.clear();
+                    fromLine = lineNumber;
+                }
+            }
+            if (!chunk.isEmpty() || fromLine < lineNumber) {
+                applyChunk(jobId, format, fromLine, lineNumber, chunk);
+            }
+            pointsImportRepository.finish(jobId, "COMPLETED", null);
+            Files.deleteIfExists(file);
+            log.info("Points import {} completed", jobId);
+        } catch (LeaseLostException e) {
+            log.info("Points import {} was taken over by another node", jobId);
+        } catch (DataAccessException | TransactionException e) {
+            // Left running; the resume sweep retries from the last chunk once the lease expires
+            log.warn("Points import {} paused on a database error: {}", jobId, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.error("Points import {} failed: {}", jobId, e.getMessage(), e);
+            pointsImportRepository.finish(jobId, "FAILED", e.getMessage());
+        }
+    }
+
+    void applyChunk(Long jobId, Format format, long fromLine, long toLine, List<Line> lines) {
+        AppProperties.PointsImport properties = appProperties.getPointsImport();
+        List<Row> rows = new ArrayList<>(lines.size());
+        Map<Long, String> texts = new HashMap<>();
+        List<Rejection> invalid = new ArrayList<>();
+        for (Line line : lines) {
+            if (PointsImportParser.isHeader(format, line.number(), line.text())) {
+                continue;
+            }
+            try {
+                rows.add(PointsImportParser.parse(format, line.number(), line.text(), properties.getMaxPointsPerRow()));
+                texts.put(line.number(), line.text());
+            } catch (IllegalArgumentException e) {
+                invalid.add(rejection(line.number(), e.getMessage(), line.text()));
+            }
+        }
+
+        ChunkResult result = transactionTemplate.execute(status -> {
+            Map<Long, Long> users = resolveUsers(rows);
+            List<PointsLedgerService.Grant> grants = new ArrayList<>(rows.size());
+            List<Rejection> rejections = new ArrayList<>(invalid);
+            long points = 0;
+            for (Row row : rows) {
+                Long userId = users.get(row.lineNumber());
+                if (userId == null) {
+                    rejections.add(rejection(row.lineNumber(), "Unknown user", texts.get(row.lineNumber())));
+                } else {
+                    grants.add(new PointsLedgerService.Grant(userId, row.points(),
+                            "import:" + jobId + ":" + row.lineNumber(), row.reason()));
+                    points += row.points();
+                }
+            }
+            pointsLedgerService.grantAll(grants);
+            pointsImportRepository.insertRejections(jobId, rejections);
+            ChunkResult chunk = new ChunkResult(rows.size() + invalid.size(), grants.size(), rejections.size(), points);
+            if (!pointsImportRepository.advance(jobId, fromLine, toLine, chunk.processed(), chunk.granted(),
+                    chunk.rejected(), chunk.points(), properties.getLeaseSeconds())) {
+                throw new LeaseLostException();
+            }
+            return chunk;
+        });
+        grantedCounter.increment(result.granted());
+        rejectedCounter.increment(result.rejected());
+    }
+
+    private Map<Long, Long> resolveUsers(List<Row> rows) {
+        List<Row> byId = rows.stream().filter(row -> row.userId() != null).toList();
+        List<Row> byEmail = rows.stream().filter(row -> row.userId() == null).toList();
+        return pointsImportRepository.resolveUsers(
+                byId.stream().map(Row::lineNumber).toArray(Long[]::new),
+                byId.stream().map(Row::userId).toArray(Long[]::new),
+                byEmail.stream().map(Row::lineNumber).toArray(Long[]::new),
+                byEmail.stream().map(Row::email).toArray(String[]::new));
+    }
+
+    // Copies the upload and counts its lines, without holding more than a buffer in memory
+    static long spool(InputStream in, OutputStream out, long maxBytes) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long bytes = 0;
+        long lines = 0;
+        byte last = '\n';
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bytes += read;
+            if (bytes > maxBytes) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Upload exceeds " + maxBytes + " bytes");
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+            last = buffer[read - 1];
+            out.write(buffer, 0, read);
+        }
+        return last == '\n' ? lines : lines + 1;
+    }
+
+    private static Rejection rejection(long lineNumber, String reason, String rawLine) {
+        String raw = rawLine != null && rawLine.length() > MAX_RAW_LINE_LENGTH
+                ? rawLine.substring(0, MAX_RAW_LINE_LENGTH)
+                : rawLine;
+        return new Rejection(lineNumber, reason, raw);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
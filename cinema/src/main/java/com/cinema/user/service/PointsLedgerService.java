@@ -0,0 +1,172 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.user.repository.PointsLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loyalty points on an append-only ledger. Credits are single inserts that take no
+ * locks, so concurrent bookings and admin grants for a user never collide. Debits
+ * lock the user's balance row and insert only if the balance covers them. A
+ * scheduled compaction folds old entries into points_balances so a balance read
+ * only sums the few entries since the last compaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PointsLedgerService {
+
+    public enum EntryType {
+        BOOKING_EARN, REDEEM, ADMIN_ADJUST, EXPIRY, CAMPAIGN
+    }
+
+    public record Grant(Long userId, int points, String reference, String note) {
+    }
+
+    private final PointsLedgerRepository pointsLedgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties appProperties;
+
+    // Entries of transactions below this id are folded for every user; restarts begin with one full pass
+    private volatile long compactedThrough;
+
+    public int getBalance(Long userId) {
+        return pointsLedgerRepository.findBalance(userId);
+    }
+
+    public Map<Long, Integer> getBalances(Collection<Long> userIds) {
+        return pointsLedgerRepository.findBalances(userIds);
+    }
+
+    /**
+     * Credits the points earned by a booking, once per booking, and returns them.
+     */
+    @Transactional
+    public int earnForBooking(Long userId, Long bookingId, BigDecimal amount) {
+        int points = amount.divide(BigDecimal.valueOf(appProperties.getPoints().getConversionRate()), 0, RoundingMode.DOWN)
+                .intValue();
+        if (points <= 0 || !pointsLedgerRepository.append(userId, points, EntryType.BOOKING_EARN.name(),
+                "booking:" + bookingId)) {
+            return 0;
+        }
+        return points;
+    }
+
+    /**
+     * Credits campaign grants in one insert. Grants whose reference was already
+     * credited are skipped, so a chunk can be applied again safely.
+     */
+    @Transactional
+    public int grantAll(List<Grant> grants) {
+        if (grants.isEmpty()) {
+            return 0;
+        }
+        Long[] userIds = new Long[grants.size()];
+        Integer[] points = new Integer[grants.size()];
+        String[] references = new String[grants.size()];
+        String[] notes = new String[grants.size()];
+        for (int i = 0; i < grants.size(); i++) {
+            Grant grant = grants.get(i);
+            if (grant.points() <= 0) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Points must be positive");
+            }
+            userIds[i] = grant.userId();
+            points[i] = grant.points();
+            references[i] = grant.reference();
+            notes[i] = grant.note();
+        }
+        return pointsLedgerRepository.appendAll(EntryType.CAMPAIGN.name(), userIds, points, references, notes);
+    }
+
+    /**
+     * Debits points if the balance covers them. Redeeming again with the same
+     * reference is a no-op.
+     */
+    @Transactional
+    public void redeem(Long userId, int points, String reference) {
+        debit(userId, points, EntryType.REDEEM, reference);
+    }
+
+    @Transactional
+    public void adjust(Long userId, int delta, String reference) {
+        if (delta > 0) {
+            pointsLedgerRepository.append(userId, delta, EntryType.ADMIN_ADJUST.name(), reference);
+        } else if (delta < 0) {
+            debit(userId, -delta, EntryType.ADMIN_ADJUST, reference);
+        }
+    }
+
+    /**
+     * Records the difference between the current balance and {@code target} as an
+     * adjustment.
+     */
+    @Transactional
+    public void adjustTo(Long userId, int target) {
+        if (target < 0) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Points cannot be negative");
+        }
+        pointsLedgerRepository.lockBalance(userId);
+        int delta = target - pointsLedgerRepository.findBalance(userId);
+        if (delta != 0) {
+            pointsLedgerRepository.append(userId, delta, EntryType.ADMIN_ADJUST.name(), null);
+        }
+    }
+
+    private void debit(Long userId, int points, EntryType entryType, String reference) {
+        if (points <= 0) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Points must be positive");
+        }
+        pointsLedgerRepository.lockBalance(userId);
+        if (reference != null && pointsLedgerRepository.exists(userId, entryType.name(), reference)) {
+            return;
+        }
+        if (!pointsLedgerRepository.appendIfCovered(userId, -points, entryType.name(), reference)) {
+            throw new BusinessException(ErrorCode.USER_INSUFFICIENT_POINTS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.points.compaction-millis:60000}")
+    public void compact() {
+        AppProperties.Points properties = appProperties.getPoints();
+        try {
+            // Entries of still-running transactions may commit later, so stop below the oldest one
+            long horizon = pointsLedgerRepository.findCompactionHorizon();
+            // Each transaction id range is its own short transaction, so a long backlog never holds locks for long
+            while (compactedThrough < horizon) {
+                Long next = pointsLedgerRepository.findNextXactId(compactedThrough, horizon);
+                if (next == null) {
+                    compactedThrough = horizon;
+                    return;
+                }
+                long from = next;
+                long to = Math.min(horizon, from + properties.getCompactionBatchSize());
+                Boolean compacted = transactionTemplate.execute(status -> {
+                    if (!pointsLedgerRepository.tryLockCompaction()) {
+                        return false;
+                    }
+                    pointsLedgerRepository.compact(from, to);
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(compacted)) {
+                    return;
+                }
+                compactedThrough = to;
+            }
+        } catch (Exception e) {
+            log.warn("Points compaction failed: {}", e.getMessage());
+        }
+    }
+}
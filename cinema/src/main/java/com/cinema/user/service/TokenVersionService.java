@@ -0,0 +1,163 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.user.entity.User;
+import com.cinema.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Current token versions, so requests can be authenticated without loading the
+ * user. Lookups go to a local near-cache, then Redis, then the database. A revoke
+ * raises the version in Redis after commit and publishes it on
+ * {@code token-version}, which updates the near-cache on every node. Versions
+ * only grow, so every write keeps the higher one. If Redis is unreachable, the
+ * near-cache and Redis TTLs bound how long a revoke can go unnoticed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVersionService implements MessageListener {
+
+    static final String CHANNEL = "token-version";
+    private static final String KEY_PREFIX = "token-version:";
+
+    private static final RedisScript<Long> RAISE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/token-version-raise.lua"), Long.class);
+
+    private record Cached(long version, long loadedAtNanos) {
+    }
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Long, Cached> nearCache = new ConcurrentHashMap<>();
+    private Counter localCounter;
+    private Counter redisCounter;
+    private Counter databaseCounter;
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        Gauge.builder("auth.token_version.near_cache.size", nearCache, ConcurrentMap::size).register(meterRegistry);
+        localCounter = Counter.builder("auth.token_version.lookups").tag("source", "local").register(meterRegistry);
+        redisCounter = Counter.builder("auth.token_version.lookups").tag("source", "redis").register(meterRegistry);
+        databaseCounter = Counter.builder("auth.token_version.lookups").tag("source", "database").register(meterRegistry);
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long current = currentVersion(userId);
+        return current != null && current == tokenVersion;
+    }
+
+    /**
+     * Invalidates every token of the user. The caller saves the user; other nodes
+     * learn the new version once the transaction commits.
+     */
+    public void revoke(User user) {
+        user.incrementTokenVersion();
+        Long userId = user.getId();
+        long version = user.getTokenVersion();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userId, version);
+                }
+            });
+        } else {
+            publish(userId, version);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+        try {
+            remember(Long.valueOf(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed token version message: {}", e.getMessage());
+        }
+    }
+
+    private Long currentVersion(Long userId) {
+        AppProperties.TokenVersion properties = appProperties.getTokenVersion();
+        Cached cached = nearCache.get(userId);
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos()
+                < Duration.ofSeconds(properties.getNearCacheTtlSeconds()).toNanos()) {
+            localCounter.increment();
+            return cached.version();
+        }
+
+        String key = KEY_PREFIX + userId;
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            if (value != null) {
+                redisCounter.increment();
+                return remember(userId, Long.parseLong(value));
+            }
+        } catch (Exception e) {
+            log.debug("Token version of user {} not read from Redis: {}", userId, e.getMessage());
+        }
+
+        databaseCounter.increment();
+        Long version = userRepository.findTokenVersionById(userId).orElse(null);
+        if (version == null) {
+            return null;
+        }
+        try {
+            // Only if absent: a revoke that committed after our read must win
+            redisTemplate.opsForValue().setIfAbsent(key, version.toString(),
+                    Duration.ofMinutes(properties.getRedisTtlMinutes()));
+        } catch (Exception e) {
+            log.debug("Token version of user {} not cached in Redis: {}", userId, e.getMessage());
+        }
+        return remember(userId, version);
+    }
+
+    private long remember(Long userId, long version) {
+        AppProperties.TokenVersion properties = appProperties.getTokenVersion();
+        if (nearCache.size() >= properties.getNearCacheSize() && !nearCache.containsKey(userId)) {
+            // Cheaper than LRU bookkeeping on every request; entries reload from Redis
+            nearCache.clear();
+        }
+        Cached fresh = new Cached(version, System.nanoTime());
+        return nearCache.merge(userId, fresh, (existing, loaded) ->
+                new Cached(Math.max(existing.version(), loaded.version()), loaded.loadedAtNanos())).version();
+    }
+
+    private void publish(Long userId, long version) {
+        remember(userId, version);
+        try {
+            redisTemplate.execute(RAISE_SCRIPT, List.of(KEY_PREFIX + userId), Long.toString(version),
+                    Long.toString(Duration.ofMinutes(appProperties.getTokenVersion().getRedisTtlMinutes()).toSeconds()));
+            redisTemplate.convertAndSend(CHANNEL, userId + ":" + version);
+        } catch (Exception e) {
+            // Other nodes may accept old tokens until their cached entries expire
+            log.error("Could not publish token version of user {}: {}", userId, e.getMessage());
+        }
+    }
+}
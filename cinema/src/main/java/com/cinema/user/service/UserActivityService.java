@@ -0,0 +1,112 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.user.repository.UserActivityRepository;
+import com.cinema.user.repository.UserActivityRepository.Activity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Write-behind buffer for last login and last seen. Activity is coalesced per
+ * user in memory and flushed periodically as one batched update, so a busy user
+ * costs one row write per interval instead of one per request. The update skips
+ * the entity and its version, so it never conflicts with a concurrent edit.
+ * A crash loses at most one interval of activity; these fields are advisory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserActivityService {
+
+    private final UserActivityRepository userActivityRepository;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Long, Activity> pending = new ConcurrentHashMap<>();
+    private Counter flushedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("user.activity.pending", pending, ConcurrentMap::size).register(meterRegistry);
+        flushedCounter = Counter.builder("user.activity.flushed").register(meterRegistry);
+        droppedCounter = Counter.builder("user.activity.dropped").register(meterRegistry);
+    }
+
+    public void recordLogin(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        record(new Activity(userId, now, now));
+    }
+
+    public void recordSeen(Long userId) {
+        record(new Activity(userId, null, LocalDateTime.now()));
+    }
+
+    private void record(Activity activity) {
+        if (!pending.containsKey(activity.userId())
+                && pending.size() >= appProperties.getUserActivity().getMaxPendingUsers()) {
+            droppedCounter.increment();
+            return;
+        }
+        pending.merge(activity.userId(), activity, UserActivityService::latest);
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-activity.flush-millis:10000}")
+    public void flush() {
+        List<Activity> batch = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            Activity activity = pending.remove(userId);
+            if (activity != null) {
+                batch.add(activity);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Same row order on every node, so concurrent flushes cannot deadlock
+        batch.sort(Comparator.comparing(Activity::userId));
+        int batchSize = appProperties.getUserActivity().getBatchSize();
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<Activity> chunk = batch.subList(from, Math.min(batch.size(), from + batchSize));
+            try {
+                userActivityRepository.updateActivity(chunk);
+                flushedCounter.increment(chunk.size());
+            } catch (Exception e) {
+                log.warn("User activity flush failed, retrying next interval: {}", e.getMessage());
+                batch.subList(from, batch.size())
+                        .forEach(activity -> pending.merge(activity.userId(), activity, UserActivityService::latest));
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private static Activity latest(Activity a, Activity b) {
+        return new Activity(a.userId(), later(a.lastLoginAt(), b.lastLoginAt()), later(a.lastSeenAt(), b.lastSeenAt()));
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
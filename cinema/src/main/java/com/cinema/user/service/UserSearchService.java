@@ -0,0 +1,89 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.dto.CursorPage;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.user.dto.UserResponse;
+import com.cinema.user.entity.User;
+import com.cinema.user.repository.UserSearchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class UserSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 100;
+    // Shorter terms match as prefixes; a one- or two-letter substring matches almost everyone
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+
+    private final UserSearchRepository userSearchRepository;
+    private final PointsLedgerService pointsLedgerService;
+
+    public CursorPage<UserResponse> searchUsers(String query, String role, String status, boolean deleted,
+                                                String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        UserSearchRepository.Filter filter = new UserSearchRepository.Filter(
+                pattern(query),
+                role != null ? parse(User.UserRole.class, role).name() : null,
+                status != null ? parse(User.UserStatus.class, status).name() : null,
+                deleted);
+        Long beforeId = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        // One extra row tells whether another page follows
+        List<UserResponse> rows = userSearchRepository.findPage(filter, beforeId, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<UserResponse> items = hasMore ? rows.subList(0, size) : rows;
+        Map<Long, Integer> balances = pointsLedgerService.getBalances(items.stream().map(UserResponse::getId).toList());
+        items.forEach(user -> user.setPoints(balances.getOrDefault(user.getId(), 0)));
+
+        return CursorPage.<UserResponse>builder()
+                .items(List.copyOf(items))
+                .nextCursor(hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null)
+                .hasMore(hasMore)
+                .estimatedTotal(includeTotal ? userSearchRepository.estimateCount(filter) : null)
+                .build();
+    }
+
+    static String pattern(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        String term = query.strip();
+        if (term.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "Search term must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        // Backslash is the default LIKE escape in PostgreSQL
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return term.length() < MIN_SUBSTRING_LENGTH ? escaped + "%" : "%" + escaped + "%";
+    }
+
+    static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decodeCursor(String cursor) {
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Invalid cursor");
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+}
@@ -7,11 +7,11 @@ import com.cinema.user.entity.User;
 import com.cinema.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -21,17 +21,20 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PointsLedgerService pointsLedgerService;
+    private final TokenVersionService tokenVersionService;
+    private final TransactionTemplate transactionTemplate;
 
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-        return toUserResponse(user);
+        return toUserResponse(user, pointsLedgerService.getBalance(user.getId()));
     }
 
     public UserResponse getUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-        return toUserResponse(user);
+        return toUserResponse(user, pointsLedgerService.getBalance(user.getId()));
     }
 
     @Transactional
@@ -51,29 +54,36 @@ public class UserService {
 
         user = userRepository.save(user);
         log.info("User {} updated profile", userId);
-        return toUserResponse(user);
+        return toUserResponse(user, pointsLedgerService.getBalance(userId));
     }
 
-    @Transactional
+    // Hashes outside any transaction so no pooled connection waits on the encoder,
+    // then writes in a short one that checks the hash it verified is still current
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePassword(Long userId, ChangePasswordRequest request) {
-        User user = userRepository.findById(userId)
+        String currentHash = userRepository.findById(userId)
+                .map(User::getPasswordHash)
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
 
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPasswordHash())) {
+        if (!passwordEncoder.matches(request.getCurrentPassword(), currentHash)) {
             throw new BusinessException(ErrorCode.AUTH_INVALID_CREDENTIALS, "Current password is incorrect");
         }
-
-        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
-        user.incrementTokenVersion(); // Invalidate all existing tokens
-        userRepository.save(user);
+        String newHash = passwordEncoder.encode(request.getNewPassword());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+            if (!currentHash.equals(user.getPasswordHash())) {
+                throw new BusinessException(ErrorCode.AUTH_INVALID_CREDENTIALS, "Current password is incorrect");
+            }
+            user.setPasswordHash(newHash);
+            tokenVersionService.revoke(user); // Invalidate all existing tokens
+            userRepository.save(user);
+        });
         log.info("User {} changed password", userId);
     }
 
     // Admin methods
-    public Page<UserResponse> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(this::toUserResponse);
-    }
-
     @Transactional
     public UserResponse adminUpdateUser(Long userId, AdminUpdateUserRequest request) {
         User user = userRepository.findById(userId)
@@ -85,42 +95,52 @@ public class UserService {
         if (request.getPhoneNumber() != null) {
             user.setPhoneNumber(request.getPhoneNumber());
         }
+        User.UserRole role = user.getRole();
+        User.UserStatus status = user.getStatus();
         if (request.getRole() != null) {
             user.setRole(User.UserRole.valueOf(request.getRole()));
         }
         if (request.getStatus() != null) {
             user.setStatus(User.UserStatus.valueOf(request.getStatus()));
         }
+        // Tokens carry the role and are not checked against the status, so reissue them
+        if (user.getRole() != role || user.getStatus() != status) {
+            tokenVersionService.revoke(user);
+        }
         if (request.getPoints() != null) {
-            user.setPoints(request.getPoints());
+            pointsLedgerService.adjustTo(userId, request.getPoints());
         }
 
         user = userRepository.save(user);
         log.info("Admin updated user {}", userId);
-        return toUserResponse(user);
+        return toUserResponse(user, pointsLedgerService.getBalance(userId));
     }
 
     @Transactional
     public void addPoints(Long userId, int points) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-        user.addPoints(points);
-        userRepository.save(user);
+        if (points <= 0) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Points must be positive");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND);
+        }
+        pointsLedgerService.adjust(userId, points, null);
         log.info("Added {} points to user {}", points, userId);
     }
 
     @Transactional
     public void deductPoints(Long userId, int points) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-        if (!user.deductPoints(points)) {
-            throw new BusinessException(ErrorCode.USER_INSUFFICIENT_POINTS);
+        if (points <= 0) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Points must be positive");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND);
         }
-        userRepository.save(user);
+        pointsLedgerService.adjust(userId, -points, null);
         log.info("Deducted {} points from user {}", points, userId);
     }
 
-    private UserResponse toUserResponse(User user) {
+    private UserResponse toUserResponse(User user, int points) {
         return UserResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
@@ -128,10 +148,11 @@ public class UserService {
                 .fullName(user.getFullName())
                 .phoneNumber(user.getPhoneNumber())
                 .avatarUrl(user.getAvatarUrl())
-                .points(user.getPoints())
+                .points(points)
                 .role(user.getRole().name())
                 .status(user.getStatus().name())
                 .lastLoginAt(user.getLastLoginAt())
+                .lastSeenAt(user.getLastSeenAt())
                 .createdAt(user.getCreatedAt())
                 .build();
     }
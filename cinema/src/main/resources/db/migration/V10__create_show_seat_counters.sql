@@ -0,0 +1,103 @@
+-- V10__create_show_seat_counters.sql
+-- Denormalized seat counters per show, kept in step with show_seats by statement-level triggers
+
+CREATE TABLE show_seat_counters (
+    show_id BIGINT PRIMARY KEY REFERENCES shows(id) ON DELETE CASCADE,
+    available_seats INTEGER NOT NULL DEFAULT 0,
+    locked_seats INTEGER NOT NULL DEFAULT 0,
+    sold_seats INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE show_seat_counters IS 'AVAILABLE/LOCKED/SOLD seat counts per show, maintained from show_seats';
+
+-- Applies the net change of one statement on show_seats, one counter row per affected show.
+-- Soft-deleted seats are not counted.
+-- Transition tables let a bulk insert of a whole show (or many shows) cost one upsert per show.
+CREATE OR REPLACE FUNCTION apply_show_seat_counters()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO show_seat_counters (show_id, available_seats, locked_seats, sold_seats)
+        SELECT show_id,
+               COUNT(*) FILTER (WHERE status = 'AVAILABLE'),
+               COUNT(*) FILTER (WHERE status = 'LOCKED'),
+               COUNT(*) FILTER (WHERE status = 'SOLD')
+        FROM new_rows
+        WHERE NOT deleted
+        GROUP BY show_id
+        ORDER BY show_id
+        ON CONFLICT (show_id) DO UPDATE SET
+            available_seats = show_seat_counters.available_seats + EXCLUDED.available_seats,
+            locked_seats = show_seat_counters.locked_seats + EXCLUDED.locked_seats,
+            sold_seats = show_seat_counters.sold_seats + EXCLUDED.sold_seats,
+            updated_at = CURRENT_TIMESTAMP;
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE show_seat_counters c SET
+            available_seats = c.available_seats + d.available_delta,
+            locked_seats = c.locked_seats + d.locked_delta,
+            sold_seats = c.sold_seats + d.sold_delta,
+            updated_at = CURRENT_TIMESTAMP
+        FROM (
+            SELECT show_id,
+                   SUM(CASE WHEN status = 'AVAILABLE' THEN delta ELSE 0 END) AS available_delta,
+                   SUM(CASE WHEN status = 'LOCKED' THEN delta ELSE 0 END) AS locked_delta,
+                   SUM(CASE WHEN status = 'SOLD' THEN delta ELSE 0 END) AS sold_delta
+            FROM (
+                SELECT show_id, status, 1 AS delta FROM new_rows WHERE NOT deleted
+                UNION ALL
+                SELECT show_id, status, -1 AS delta FROM old_rows WHERE NOT deleted
+            ) changes
+            GROUP BY show_id
+        ) d
+        WHERE c.show_id = d.show_id
+          AND (d.available_delta <> 0 OR d.locked_delta <> 0 OR d.sold_delta <> 0);
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE show_seat_counters c SET
+            available_seats = c.available_seats - d.available_seats,
+            locked_seats = c.locked_seats - d.locked_seats,
+            sold_seats = c.sold_seats - d.sold_seats,
+            updated_at = CURRENT_TIMESTAMP
+        FROM (
+            SELECT show_id,
+                   COUNT(*) FILTER (WHERE status = 'AVAILABLE') AS available_seats,
+                   COUNT(*) FILTER (WHERE status = 'LOCKED') AS locked_seats,
+                   COUNT(*) FILTER (WHERE status = 'SOLD') AS sold_seats
+            FROM old_rows
+            WHERE NOT deleted
+            GROUP BY show_id
+        ) d
+        WHERE c.show_id = d.show_id;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_show_seat_counters_insert
+AFTER INSERT ON show_seats
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION apply_show_seat_counters();
+
+CREATE TRIGGER trigger_show_seat_counters_update
+AFTER UPDATE ON show_seats
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION apply_show_seat_counters();
+
+CREATE TRIGGER trigger_show_seat_counters_delete
+AFTER DELETE ON show_seats
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION apply_show_seat_counters();
+
+-- Backfill existing shows
+INSERT INTO show_seat_counters (show_id, available_seats, locked_seats, sold_seats)
+SELECT s.id,
+       COUNT(ss.id) FILTER (WHERE ss.status = 'AVAILABLE'),
+       COUNT(ss.id) FILTER (WHERE ss.status = 'LOCKED'),
+       COUNT(ss.id) FILTER (WHERE ss.status = 'SOLD')
+FROM shows s
+LEFT JOIN show_seats ss ON ss.show_id = s.id AND ss.deleted = false
+GROUP BY s.id;
+
+-- Cinema schedule listing: shows of a cinema's halls on a date
+CREATE INDEX IF NOT EXISTS idx_shows_hall_date ON shows(hall_id, show_date);
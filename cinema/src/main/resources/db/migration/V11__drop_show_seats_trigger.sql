@@ -0,0 +1,6 @@
+-- V11__drop_show_seats_trigger.sql
+-- show_seats are created by the show scheduling service with one set-based INSERT per batch
+-- of shows; the per-row trigger issued one INSERT per seat for every show.
+
+DROP TRIGGER IF EXISTS trigger_create_show_seats ON shows;
+DROP FUNCTION IF EXISTS create_show_seats_for_show();
@@ -0,0 +1,19 @@
+-- V12__pooled_booking_sequences.sql
+-- bookings, booking_seats and payments ids are allocated by Hibernate in blocks of 50
+-- (pooled optimizer), so their inserts can be batched. Each nextval() now reserves the
+-- block (value - 49 .. value]; the sequences are moved past every existing id first.
+
+ALTER SEQUENCE bookings_id_seq INCREMENT BY 50;
+SELECT setval('bookings_id_seq',
+        GREATEST((SELECT COALESCE(MAX(id), 0) FROM bookings), (SELECT last_value FROM bookings_id_seq)) + 50,
+        false);
+
+ALTER SEQUENCE booking_seats_id_seq INCREMENT BY 50;
+SELECT setval('booking_seats_id_seq',
+        GREATEST((SELECT COALESCE(MAX(id), 0) FROM booking_seats), (SELECT last_value FROM booking_seats_id_seq)) + 50,
+        false);
+
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+SELECT setval('payments_id_seq',
+        GREATEST((SELECT COALESCE(MAX(id), 0) FROM payments), (SELECT last_value FROM payments_id_seq)) + 50,
+        false);
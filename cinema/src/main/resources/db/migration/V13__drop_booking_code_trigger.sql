@@ -0,0 +1,6 @@
+-- V13__drop_booking_code_trigger.sql
+-- Booking codes are assigned by the application before insert. The trigger drew a second
+-- value from bookings_id_seq for every booking and hid the code until after the insert.
+
+DROP TRIGGER IF EXISTS trigger_generate_booking_code ON bookings;
+DROP FUNCTION IF EXISTS generate_booking_code();
@@ -0,0 +1,11 @@
+-- V14__add_event_publication_outbox_columns.sql
+-- Events bound for Kafka are stored in event_publication alongside Spring Modulith's own
+-- publications, with the topic and message key they are relayed under. The partial index
+-- serves the relay's scan for the oldest incomplete outbox events.
+
+ALTER TABLE event_publication ADD COLUMN IF NOT EXISTS outbox_topic VARCHAR(255);
+ALTER TABLE event_publication ADD COLUMN IF NOT EXISTS outbox_key VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS idx_event_publication_outbox_pending
+    ON event_publication(publication_date, id)
+    WHERE outbox_topic IS NOT NULL AND completion_date IS NULL;
@@ -0,0 +1,3 @@
+-- Ticket images live in object storage; a booking only keeps the content hash of its ticket
+ALTER TABLE bookings DROP COLUMN qr_code;
+ALTER TABLE bookings ADD COLUMN ticket_ref VARCHAR(32);
@@ -0,0 +1,43 @@
+-- Denormalized "my bookings" read model, one row per booking, maintained by BookingHistoryProjector
+CREATE TABLE booking_history (
+    booking_id BIGINT PRIMARY KEY REFERENCES bookings(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    booking_code VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    final_amount DECIMAL(10, 2) NOT NULL,
+    show_id BIGINT NOT NULL,
+    show_date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    movie_id BIGINT NOT NULL,
+    movie_title VARCHAR(255) NOT NULL,
+    poster_url VARCHAR(500),
+    cinema_name VARCHAR(255) NOT NULL,
+    hall_name VARCHAR(100) NOT NULL,
+    seat_count INTEGER NOT NULL,
+    seat_labels TEXT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Keyset pages walk this index backwards from (created_at, booking_id) of the previous page
+CREATE INDEX idx_booking_history_user_keyset ON booking_history(user_id, created_at DESC, booking_id DESC);
+
+COMMENT ON TABLE booking_history IS 'Booking history read model for keyset pagination';
+
+INSERT INTO booking_history (booking_id, user_id, created_at, booking_code, status, final_amount,
+                             show_id, show_date, start_time, movie_id, movie_title, poster_url,
+                             cinema_name, hall_name, seat_count, seat_labels)
+SELECT b.id, b.user_id, b.created_at, b.booking_code, b.status, b.final_amount,
+       s.id, s.show_date, s.start_time, m.id, m.title, m.poster_url,
+       c.name, h.name, COUNT(bs.id),
+       string_agg(st.row_name || st.seat_number, ', ' ORDER BY st.row_name, st.seat_number)
+FROM bookings b
+JOIN shows s ON s.id = b.show_id
+JOIN movies m ON m.id = s.movie_id
+JOIN halls h ON h.id = s.hall_id
+JOIN cinemas c ON c.id = h.cinema_id
+JOIN booking_seats bs ON bs.booking_id = b.id
+JOIN show_seats ss ON ss.id = bs.show_seat_id
+JOIN seats st ON st.id = ss.seat_id
+WHERE b.deleted = FALSE
+GROUP BY b.id, s.id, m.id, h.id, c.id;
@@ -0,0 +1,46 @@
+-- Loyalty points as an append-only ledger; accruals are plain inserts that never touch the users row
+CREATE TABLE points_ledger (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    delta INTEGER NOT NULL,
+    entry_type VARCHAR(20) NOT NULL,
+    reference VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT points_ledger_delta_non_zero CHECK (delta <> 0),
+    CONSTRAINT points_ledger_entry_type_valid CHECK (entry_type IN ('BOOKING_EARN', 'REDEEM', 'ADMIN_ADJUST', 'EXPIRY'))
+);
+
+-- Balance reads sum a user's entries after the snapshot's last_entry_id
+CREATE INDEX idx_points_ledger_user_id ON points_ledger(user_id, id);
+CREATE INDEX idx_points_ledger_created_at ON points_ledger(created_at);
+-- Makes earning points for the same booking twice a no-op
+CREATE UNIQUE INDEX uq_points_ledger_reference ON points_ledger(user_id, entry_type, reference)
+    WHERE reference IS NOT NULL;
+
+-- Compacted balances: balance of all entries up to and including last_entry_id
+CREATE TABLE points_balances (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    balance INTEGER NOT NULL DEFAULT 0,
+    last_entry_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT points_balances_non_negative CHECK (balance >= 0)
+);
+
+COMMENT ON TABLE points_ledger IS 'Append-only loyalty points entries';
+COMMENT ON TABLE points_balances IS 'Periodically compacted loyalty points balances';
+
+-- Opening balances from users.points, already compacted
+INSERT INTO points_ledger (user_id, delta, entry_type, reference)
+SELECT id, points, 'ADMIN_ADJUST', 'opening-balance'
+FROM users
+WHERE points > 0;
+
+INSERT INTO points_balances (user_id, balance, last_entry_id)
+SELECT u.id, COALESCE(l.delta, 0), COALESCE(l.id, 0)
+FROM users u
+LEFT JOIN points_ledger l ON l.user_id = u.id AND l.reference = 'opening-balance';
+
+ALTER TABLE users DROP CONSTRAINT users_points_non_negative;
+ALTER TABLE users DROP COLUMN points;
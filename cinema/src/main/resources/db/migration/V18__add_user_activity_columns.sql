@@ -0,0 +1,17 @@
+-- V18__add_user_activity_columns.sql
+-- last_login_at and last_seen_at are written behind in batches by the application. The
+-- updated_at trigger now fires only when another column is in the SET list, so activity
+-- updates neither bump updated_at nor conflict with the entity's optimistic lock.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_seen_at TIMESTAMP;
+
+COMMENT ON COLUMN users.last_login_at IS 'Last successful login, written behind; may lag by one flush interval';
+COMMENT ON COLUMN users.last_seen_at IS 'Last authenticated request, written behind; may lag by one flush interval';
+
+DROP TRIGGER IF EXISTS trigger_users_updated_at ON users;
+
+CREATE TRIGGER trigger_users_updated_at
+BEFORE UPDATE OF email, username, password_hash, full_name, phone_number, avatar_url, role, status,
+                 token_version, version, updated_at, updated_by, deleted, deleted_at, deleted_by
+ON users
+FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
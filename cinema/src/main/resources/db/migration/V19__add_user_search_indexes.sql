@@ -0,0 +1,19 @@
+-- Admin user search: keyset pages over id, substring search backed by trigram indexes
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ILIKE '%term%' and 'term%' on any of these columns becomes a bitmap scan instead of a full scan
+CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+CREATE INDEX idx_users_username_trgm ON users USING gin (username gin_trgm_ops);
+CREATE INDEX idx_users_full_name_trgm ON users USING gin (full_name gin_trgm_ops);
+CREATE INDEX idx_users_phone_number_trgm ON users USING gin (phone_number gin_trgm_ops);
+
+-- Role and status filters walk these in id order, so a page stops after LIMIT rows
+CREATE INDEX idx_users_role_status_keyset ON users(role, status, id) WHERE deleted = FALSE;
+CREATE INDEX idx_users_status_keyset ON users(status, id) WHERE deleted = FALSE;
+-- Deleted users are few; unfiltered live users are served by the primary key
+CREATE INDEX idx_users_deleted_keyset ON users(role, status, id) WHERE deleted = TRUE;
+
+-- A handful of distinct values each; superseded by the partial indexes above
+DROP INDEX IF EXISTS idx_users_status;
+DROP INDEX IF EXISTS idx_users_deleted;
@@ -0,0 +1,44 @@
+-- Bulk loyalty-points grants from an uploaded CSV/NDJSON file, applied in chunks by PointsImportService
+
+ALTER TABLE points_ledger DROP CONSTRAINT points_ledger_entry_type_valid;
+ALTER TABLE points_ledger ADD CONSTRAINT points_ledger_entry_type_valid
+    CHECK (entry_type IN ('BOOKING_EARN', 'REDEEM', 'ADMIN_ADJUST', 'EXPIRY', 'CAMPAIGN'));
+ALTER TABLE points_ledger ADD COLUMN note VARCHAR(255);
+
+CREATE TABLE points_import_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    format VARCHAR(10) NOT NULL,
+    spool_path VARCHAR(500) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    total_lines BIGINT NOT NULL,
+    -- Physical lines of the file already applied; a resumed job skips this many
+    lines_done BIGINT NOT NULL DEFAULT 0,
+    processed_rows BIGINT NOT NULL DEFAULT 0,
+    granted_rows BIGINT NOT NULL DEFAULT 0,
+    rejected_rows BIGINT NOT NULL DEFAULT 0,
+    points_granted BIGINT NOT NULL DEFAULT 0,
+    -- The node working on the job renews this with every chunk; an expired lease can be taken over
+    lease_until TIMESTAMP,
+    error TEXT,
+    created_by VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+
+    CONSTRAINT points_import_jobs_format_valid CHECK (format IN ('CSV', 'NDJSON')),
+    CONSTRAINT points_import_jobs_status_valid CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX idx_points_import_jobs_unfinished ON points_import_jobs(id) WHERE status IN ('PENDING', 'RUNNING');
+
+CREATE TABLE points_import_rejections (
+    job_id BIGINT NOT NULL REFERENCES points_import_jobs(id) ON DELETE CASCADE,
+    line_number BIGINT NOT NULL,
+    reason VARCHAR(100) NOT NULL,
+    raw_line VARCHAR(500),
+
+    PRIMARY KEY (job_id, line_number)
+);
+
+COMMENT ON TABLE points_import_jobs IS 'Bulk loyalty-points grant jobs and their progress';
+COMMENT ON TABLE points_import_rejections IS 'Rows of a points import that were not applied, and why';
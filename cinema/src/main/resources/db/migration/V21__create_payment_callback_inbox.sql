@@ -0,0 +1,24 @@
+-- Verified payment callbacks, stored before the gateway is acknowledged and applied by PaymentCallbackService
+
+CREATE TABLE payment_callback_inbox (
+    id BIGSERIAL PRIMARY KEY,
+    payment_method VARCHAR(50) NOT NULL,
+    transaction_id VARCHAR(255) NOT NULL,
+    booking_id BIGINT NOT NULL,
+    payment_id BIGINT NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    message TEXT,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    applied_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+
+    -- A gateway redelivering a transaction hits this instead of being applied twice
+    CONSTRAINT uk_payment_callback_inbox_transaction UNIQUE (payment_method, transaction_id)
+);
+
+CREATE INDEX idx_payment_callback_inbox_pending ON payment_callback_inbox(id) WHERE applied_at IS NULL;
+CREATE INDEX idx_payment_callback_inbox_applied_at ON payment_callback_inbox(applied_at) WHERE applied_at IS NOT NULL;
+
+COMMENT ON TABLE payment_callback_inbox IS 'Accepted payment callbacks; unapplied rows are re-queued until applied';
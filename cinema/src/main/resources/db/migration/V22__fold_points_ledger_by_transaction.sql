@@ -0,0 +1,27 @@
+-- Compaction folds ledger entries by the transaction that wrote them instead of by id.
+-- Ids are taken at insert, so a long transaction can commit an id below one already
+-- folded; a transaction id below the oldest running transaction's is always finished.
+
+-- Existing rows keep NULL and are folded below; new rows record their writer
+ALTER TABLE points_ledger ADD COLUMN xact_id BIGINT;
+ALTER TABLE points_ledger ALTER COLUMN xact_id SET DEFAULT pg_current_xact_id()::text::bigint;
+
+-- The ALTER above holds points_ledger exclusively, so every existing entry is visible here
+INSERT INTO points_balances (user_id, balance)
+SELECT l.user_id, SUM(l.delta)
+FROM points_ledger l
+LEFT JOIN points_balances b ON b.user_id = l.user_id
+WHERE l.id > COALESCE(b.last_entry_id, 0)
+GROUP BY l.user_id
+ON CONFLICT (user_id) DO UPDATE
+SET balance = points_balances.balance + EXCLUDED.balance,
+    updated_at = CURRENT_TIMESTAMP;
+
+-- Compacted balances: balance of all entries written by transactions below folded_xact_id
+ALTER TABLE points_balances DROP COLUMN last_entry_id;
+ALTER TABLE points_balances ADD COLUMN folded_xact_id BIGINT NOT NULL DEFAULT 0;
+
+-- Balance reads sum a user's entries from folded_xact_id on; compaction walks xact_id ranges
+DROP INDEX idx_points_ledger_user_id;
+CREATE INDEX idx_points_ledger_user_xact_id ON points_ledger(user_id, xact_id);
+CREATE INDEX idx_points_ledger_xact_id ON points_ledger(xact_id);
@@ -0,0 +1,4 @@
+-- A role filter without a status filter cannot use idx_users_role_status_keyset for its
+-- id order, since status sits between role and id; this one lets such a page stop after
+-- LIMIT rows. The V19 index still serves role and status filtered together.
+CREATE INDEX idx_users_role_keyset ON users(role, id) WHERE deleted = FALSE;
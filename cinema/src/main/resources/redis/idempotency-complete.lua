@@ -0,0 +1,8 @@
+-- Stores the response of a request, but only while the key still holds that request's claim.
+-- KEYS[1] idempotency key
+-- ARGV[1] claim value, ARGV[2] stored response, ARGV[3] ttl seconds
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])
+    return 1
+end
+return 0
@@ -0,0 +1,7 @@
+-- Frees a key for a retry, but only while it still holds the releasing request's claim.
+-- KEYS[1] idempotency key
+-- ARGV[1] claim value
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,8 @@
+-- Extends a lease only if it is still held by the caller.
+-- KEYS[1] lease key
+-- ARGV[1] owner token, ARGV[2] ttl millis
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return 1
+end
+return 0
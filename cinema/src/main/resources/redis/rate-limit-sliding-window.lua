@@ -0,0 +1,15 @@
+-- Sliding-window counter: the previous fixed window counts in proportion to its
+-- overlap with the sliding window. Counts the request only if it is allowed.
+-- KEYS[1] current window key, KEYS[2] previous window key
+-- ARGV[1] limit, ARGV[2] weight of the previous window (0..1), ARGV[3] ttl millis
+-- Returns {allowed, previous count, current count}
+local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+local previous = tonumber(redis.call('GET', KEYS[2]) or '0')
+if previous * tonumber(ARGV[2]) + current + 1 > tonumber(ARGV[1]) then
+    return {0, previous, current}
+end
+current = redis.call('INCR', KEYS[1])
+if current == 1 then
+    redis.call('PEXPIRE', KEYS[1], ARGV[3])
+end
+return {1, previous, current}
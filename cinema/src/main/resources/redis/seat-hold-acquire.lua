@@ -0,0 +1,50 @@
+-- Atomically holds a set of seats for one owner, all or nothing.
+-- KEYS[1] sold seat set, KEYS[2] owner holds (seat id scored by expiry millis),
+-- KEYS[3] show hold index (seat id scored by expiry millis), KEYS[4..n] seat hold keys
+-- ARGV[1] owner, ARGV[2] ttl millis, ARGV[3] max seats per owner, ARGV[4..n] seat ids
+local owner = ARGV[1]
+local ttl = tonumber(ARGV[2])
+local maxSeats = tonumber(ARGV[3])
+
+local conflicts = {}
+for i = 4, #KEYS do
+    local seatId = ARGV[i]
+    if redis.call('SISMEMBER', KEYS[1], seatId) == 1 then
+        table.insert(conflicts, seatId .. ':SOLD')
+    else
+        local holder = redis.call('GET', KEYS[i])
+        if holder and holder ~= owner then
+            table.insert(conflicts, seatId .. ':LOCKED')
+        end
+    end
+end
+if #conflicts > 0 then
+    table.insert(conflicts, 1, 'CONFLICT')
+    return conflicts
+end
+
+-- Drop holds that already expired before counting the owner's holds
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now)
+local requested = 0
+for i = 4, #KEYS do
+    if not redis.call('ZSCORE', KEYS[2], ARGV[i]) then
+        requested = requested + 1
+    end
+end
+if redis.call('ZCARD', KEYS[2]) + requested > maxSeats then
+    return {'LIMIT'}
+end
+
+for i = 4, #KEYS do
+    redis.call('SET', KEYS[i], owner, 'PX', ttl)
+    redis.call('ZADD', KEYS[2], now + ttl, ARGV[i])
+    redis.call('ZADD', KEYS[3], now + ttl, ARGV[i])
+end
+for i = 2, 3 do
+    if redis.call('PTTL', KEYS[i]) < ttl then
+        redis.call('PEXPIRE', KEYS[i], ttl)
+    end
+end
+return {'OK'}
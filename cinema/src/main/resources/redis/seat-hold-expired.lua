@@ -0,0 +1,15 @@
+-- Returns the seats whose hold has lapsed and that were not sold in the meantime,
+-- dropping them from the show's hold index.
+-- KEYS[1] sold seat set, KEYS[2] show hold index, KEYS[3..n] seat hold keys
+-- ARGV[1..n-2] seat ids
+local expired = {}
+for i = 3, #KEYS do
+    local seatId = ARGV[i - 2]
+    if redis.call('EXISTS', KEYS[i]) == 0 then
+        redis.call('ZREM', KEYS[2], seatId)
+        if redis.call('SISMEMBER', KEYS[1], seatId) == 0 then
+            table.insert(expired, seatId)
+        end
+    end
+end
+return expired
@@ -0,0 +1,34 @@
+-- Extends the owner's holds (e.g. while a booking awaits payment), all or nothing.
+-- KEYS[1] owner holds, KEYS[2] show hold index (both seat id scored by expiry millis), KEYS[3..n] seat hold keys
+-- ARGV[1] owner, ARGV[2] ttl millis, ARGV[3..n] seat ids
+-- Returns the seats not held by the owner, or {'OK', previous expiry millis per seat}
+local missing = {}
+for i = 3, #KEYS do
+    if redis.call('GET', KEYS[i]) ~= ARGV[1] then
+        table.insert(missing, ARGV[i])
+    end
+end
+if #missing > 0 then
+    return missing
+end
+local ttl = tonumber(ARGV[2])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local previous = {'OK'}
+for i = 3, #KEYS do
+    local expiresAt = redis.call('ZSCORE', KEYS[1], ARGV[i])
+    if expiresAt then
+        table.insert(previous, math.floor(tonumber(expiresAt)))
+    else
+        table.insert(previous, now + redis.call('PTTL', KEYS[i]))
+    end
+    redis.call('PEXPIRE', KEYS[i], ttl)
+    redis.call('ZADD', KEYS[1], now + ttl, ARGV[i])
+    redis.call('ZADD', KEYS[2], now + ttl, ARGV[i])
+end
+for i = 1, 2 do
+    if redis.call('PTTL', KEYS[i]) < ttl then
+        redis.call('PEXPIRE', KEYS[i], ttl)
+    end
+end
+return previous
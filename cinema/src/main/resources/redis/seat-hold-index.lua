@@ -0,0 +1,13 @@
+-- Lists the live holds of a show, dropping lapsed ones from its index.
+-- KEYS[1] show hold index (seat id scored by expiry millis)
+-- Returns {now millis, seat id, expiry millis, seat id, expiry millis, ...}
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+local holds = {now}
+local entries = redis.call('ZRANGE', KEYS[1], 0, -1, 'WITHSCORES')
+for i = 1, #entries, 2 do
+    table.insert(holds, entries[i])
+    table.insert(holds, entries[i + 1])
+end
+return holds
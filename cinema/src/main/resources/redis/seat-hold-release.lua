@@ -0,0 +1,14 @@
+-- Releases the seats still held by the given owner.
+-- KEYS[1] owner holds, KEYS[2] show hold index, KEYS[3..n] seat hold keys
+-- ARGV[1] owner, ARGV[2..n-1] seat ids
+local released = {}
+for i = 3, #KEYS do
+    local seatId = ARGV[i - 1]
+    if redis.call('GET', KEYS[i]) == ARGV[1] then
+        redis.call('DEL', KEYS[i])
+        redis.call('ZREM', KEYS[2], seatId)
+        table.insert(released, seatId)
+    end
+    redis.call('ZREM', KEYS[1], seatId)
+end
+return released
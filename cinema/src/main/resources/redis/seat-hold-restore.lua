@@ -0,0 +1,16 @@
+-- Puts the owner's holds back to earlier expiries, e.g. when the booking that extended them
+-- rolls back. An expiry in the past drops the hold.
+-- KEYS[1] owner holds, KEYS[2] show hold index, KEYS[3..n] seat hold keys
+-- ARGV[1] owner, then a seat id and its expiry millis per hold key
+local restored = 0
+for i = 3, #KEYS do
+    local seatId = ARGV[2 * (i - 2)]
+    local expiresAt = ARGV[2 * (i - 2) + 1]
+    if redis.call('GET', KEYS[i]) == ARGV[1] then
+        redis.call('PEXPIREAT', KEYS[i], expiresAt)
+        redis.call('ZADD', KEYS[1], expiresAt, seatId)
+        redis.call('ZADD', KEYS[2], expiresAt, seatId)
+        restored = restored + 1
+    end
+end
+return restored
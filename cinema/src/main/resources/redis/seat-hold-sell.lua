@@ -0,0 +1,12 @@
+-- Marks seats as sold and drops their holds.
+-- KEYS[1] sold seat set, KEYS[2] owner holds, KEYS[3] show hold index, KEYS[4..n] seat hold keys
+-- ARGV[1] sold set ttl seconds, ARGV[2..n-2] seat ids
+for i = 4, #KEYS do
+    local seatId = ARGV[i - 2]
+    redis.call('SADD', KEYS[1], seatId)
+    redis.call('ZREM', KEYS[2], seatId)
+    redis.call('ZREM', KEYS[3], seatId)
+    redis.call('DEL', KEYS[i])
+end
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return #KEYS - 3
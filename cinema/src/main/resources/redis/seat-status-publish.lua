@@ -0,0 +1,8 @@
+-- Numbers a seat transition in its show's sequence and publishes it, so receivers
+-- can tell when they missed one.
+-- KEYS[1] show transition sequence
+-- ARGV[1] channel, ARGV[2] message without the sequence, ARGV[3] sequence ttl seconds
+local sequence = redis.call('INCR', KEYS[1])
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+redis.call('PUBLISH', ARGV[1], ARGV[2] .. ':' .. sequence)
+return sequence
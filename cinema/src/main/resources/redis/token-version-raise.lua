@@ -0,0 +1,9 @@
+-- Raises a user's cached token version; never lowers it, so bumps applied out of order are safe.
+-- KEYS[1] token version key
+-- ARGV[1] new version, ARGV[2] ttl seconds
+local current = redis.call('GET', KEYS[1])
+if current == false or tonumber(current) < tonumber(ARGV[1]) then
+    redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2])
+    return 1
+end
+return 0
@@ -0,0 +1,20 @@
+-- Opens a waiting room or changes its rate. The admitted sequence reached at the
+-- old rate becomes the new base so nobody already admitted loses their place.
+-- KEYS[1] room config hash, KEYS[2] ticket sequence, KEYS[3] tickets hash, KEYS[4] admitted-at hash
+-- ARGV[1] admissions per minute, ARGV[2] ttl seconds of the room
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local tail = tonumber(redis.call('GET', KEYS[2])) or 0
+local rate = tonumber(redis.call('HGET', KEYS[1], 'rate'))
+local admitted = tail
+if rate then
+    local baseSeq = tonumber(redis.call('HGET', KEYS[1], 'baseSeq')) or 0
+    local baseMs = tonumber(redis.call('HGET', KEYS[1], 'baseMs')) or now
+    admitted = math.min(tail, baseSeq + math.floor((now - baseMs) * rate / 60000))
+end
+redis.call('HSET', KEYS[1], 'rate', ARGV[1], 'baseSeq', admitted, 'baseMs', now)
+redis.call('SET', KEYS[2], tail)
+for i = 1, #KEYS do
+    redis.call('EXPIRE', KEYS[i], ARGV[2])
+end
+return admitted
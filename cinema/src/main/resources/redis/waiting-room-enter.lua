@@ -0,0 +1,53 @@
+-- Looks up (and optionally takes) a waiting room ticket. Tickets are a per-show
+-- sequence; everyone up to the admitted sequence may enter, and the admitted
+-- sequence advances at the configured rate from (baseSeq, baseMs).
+-- KEYS[1] room config hash, KEYS[2] ticket sequence, KEYS[3] tickets hash, KEYS[4] admitted-at hash
+-- ARGV[1] user id, ARGV[2] '1' to join when not queued, ARGV[3] admission ttl millis
+-- Returns {} when the room is closed, else {ticket or -1, admitted sequence,
+-- admissions per minute, admitted-at millis or -1, now millis}
+local rate = tonumber(redis.call('HGET', KEYS[1], 'rate'))
+if not rate then
+    return {}
+end
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local baseSeq = tonumber(redis.call('HGET', KEYS[1], 'baseSeq')) or 0
+local baseMs = tonumber(redis.call('HGET', KEYS[1], 'baseMs')) or now
+local tail = tonumber(redis.call('GET', KEYS[2])) or 0
+
+local admitted = baseSeq + math.floor((now - baseMs) * rate / 60000)
+if admitted >= tail then
+    -- Nobody is waiting: restart the clock so idle time does not turn into a burst
+    admitted = tail
+    redis.call('HSET', KEYS[1], 'baseSeq', tail, 'baseMs', now)
+end
+
+local ticket = tonumber(redis.call('HGET', KEYS[3], ARGV[1]))
+local admittedAt = tonumber(redis.call('HGET', KEYS[4], ARGV[1]))
+if ticket and admittedAt and ARGV[2] == '1' and now - admittedAt > tonumber(ARGV[3]) then
+    -- Admission lapsed, rejoining goes to the back of the queue
+    redis.call('HDEL', KEYS[4], ARGV[1])
+    ticket = nil
+    admittedAt = nil
+end
+local written = false
+if not ticket and ARGV[2] == '1' then
+    ticket = redis.call('INCR', KEYS[2])
+    redis.call('HSET', KEYS[3], ARGV[1], ticket)
+    written = true
+end
+if ticket and ticket <= admitted and not admittedAt then
+    admittedAt = now
+    redis.call('HSET', KEYS[4], ARGV[1], now)
+    written = true
+end
+if written then
+    -- Queue state lives exactly as long as the room
+    local ttl = redis.call('TTL', KEYS[1])
+    if ttl > 0 then
+        for i = 2, #KEYS do
+            redis.call('EXPIRE', KEYS[i], ttl)
+        end
+    end
+end
+return {ticket or -1, admitted, rate, admittedAt or -1, now}
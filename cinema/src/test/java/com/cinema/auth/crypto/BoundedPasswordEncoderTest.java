@@ -0,0 +1,79 @@
+package com.cinema.auth.crypto;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BoundedPasswordEncoder encoder = encoder(1, 1);
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void hashesAndVerifiesOnThePool() {
+        String hash = encoder.encode("secret-password");
+
+        assertThat(encoder.matches("secret-password", hash)).isTrue();
+        assertThat(encoder.matches("wrong-password", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "verify").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rehashesAnyCostOtherThanTheConfiguredOne() {
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret-password"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret-password"))).isTrue();
+        assertThat(encoder.upgradeEncoding("$2a$12$abcdefghijklmnopqrstuv")).isTrue();
+        assertThat(encoder.upgradeEncoding("plain")).isTrue();
+    }
+
+    @Test
+    void failsFastOnceTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Timer timer = meterRegistry.timer("test");
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.run(timer, () -> {
+            started.countDown();
+            release.await();
+            return true;
+        }));
+        started.await();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.run(timer, () -> true));
+        while (encoder.queued() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> encoder.encode("secret-password"))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.RATE_LIMIT_EXCEEDED);
+        assertThat(meterRegistry.counter("password.hashing.rejected").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get()).isTrue();
+        assertThat(queued.get()).isTrue();
+    }
+
+    private BoundedPasswordEncoder encoder(int threads, int queueCapacity) {
+        AppProperties.PasswordHashing properties = new AppProperties.PasswordHashing();
+        properties.setBcryptCost(4);
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        return new BoundedPasswordEncoder(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.cinema.auth.service;
+
+import com.cinema.auth.config.JwtProperties;
+import com.cinema.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtService jwtService = jwtService(60_000);
+
+    private final User user = User.builder()
+            .id(42L)
+            .username("alice")
+            .role(User.UserRole.CUSTOMER)
+            .tokenVersion(3L)
+            .build();
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromTheCache() {
+        String token = jwtService.generateAccessToken(user);
+
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        assertThat(first).isSameAs(second);
+        assertThat(first.username()).isEqualTo("alice");
+        assertThat(first.userId()).isEqualTo(42L);
+        assertThat(first.role()).isEqualTo("CUSTOMER");
+        assertThat(first.refresh()).isFalse();
+        assertThat(jwtService.isTokenValid(first, user)).isTrue();
+        assertThat(meterRegistry.counter("jwt.verifications", "outcome", "verified").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("jwt.verifications", "outcome", "cached").count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        String token = jwtService.generateAccessToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtService.verify(tampered)).isNull();
+        assertThat(jwtService.verify("not-a-token")).isNull();
+        assertThat(jwtService.verify("")).isNull();
+    }
+
+    @Test
+    void rejectsTokensOfAnOlderVersion() {
+        VerifiedToken token = jwtService.verify(jwtService.generateAccessToken(user));
+        user.incrementTokenVersion();
+
+        assertThat(jwtService.isTokenValid(token, user)).isFalse();
+    }
+
+    @Test
+    void marksRefreshTokens() {
+        assertThat(jwtService.verify(jwtService.generateRefreshToken(user)).refresh()).isTrue();
+    }
+
+    @Test
+    void dropsExpiredEntriesAndStaysBounded() {
+        Instant now = Instant.now();
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("expired", token(now.minusSeconds(1)), now);
+        assertThat(cache.get("expired", now)).isNull();
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("t" + i, token(now.plusSeconds(60)), now);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.get("t49", now)).isNotNull();
+    }
+
+    private static VerifiedToken token(Instant expiresAt) {
+        return new VerifiedToken("alice", 42L, "CUSTOMER", 3L, false, expiresAt);
+    }
+
+    private JwtService jwtService(long expirationMillis) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("cinema-booking-secret-key-must-be-at-least-512-bits-long-for-hs512-algorithm-security");
+        properties.setAccessTokenExpiration(expirationMillis);
+        properties.setRefreshTokenExpiration(expirationMillis);
+        JwtService service = new JwtService(properties, meterRegistry);
+        service.init();
+        return service;
+    }
+}
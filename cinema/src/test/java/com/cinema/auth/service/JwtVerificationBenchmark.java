@@ -0,0 +1,114 @@
+package com.cinema.auth.service;
+
+import com.cinema.auth.config.JwtProperties;
+import com.cinema.user.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-request cost of authenticating a bearer token, without the user lookup.
+ * {@code legacy} repeats what JwtAuthenticationFilter used to do: six parses, each
+ * rebuilding the key and parser. {@code verifyUncached} is one parse and
+ * {@code verifyCached} a digest and map lookup.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.cinema.auth.service.JwtVerificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "cinema-booking-secret-key-must-be-at-least-512-bits-long-for-hs512-algorithm-security";
+
+    private JwtService cached;
+    private JwtService uncached;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = jwtService(10_000);
+        uncached = jwtService(0);
+        user = User.builder()
+                .id(42L)
+                .username("benchmark")
+                .role(User.UserRole.CUSTOMER)
+                .tokenVersion(3L)
+                .build();
+        token = cached.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        if (!legacyParses(token)) {
+            return false;
+        }
+        if ("refresh".equals(legacyClaim(token, claims -> claims.get("type", String.class)))) {
+            return false;
+        }
+        String username = legacyClaim(token, Claims::getSubject);
+        return username.equals(legacyClaim(token, Claims::getSubject))
+                && !legacyClaim(token, Claims::getExpiration).before(new Date())
+                && user.getTokenVersion().equals(legacyClaim(token, claims -> claims.get("tokenVersion", Long.class)));
+    }
+
+    @Benchmark
+    public boolean verifyUncached() {
+        VerifiedToken verified = uncached.verify(token);
+        return verified != null && !verified.refresh() && uncached.isTokenValid(verified, user);
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        VerifiedToken verified = cached.verify(token);
+        return verified != null && !verified.refresh() && cached.isTokenValid(verified, user);
+    }
+
+    private static boolean legacyParses(String token) {
+        return legacyClaim(token, claims -> claims) != null;
+    }
+
+    private static <T> T legacyClaim(String token, Function<Claims, T> resolver) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return resolver.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+    }
+
+    private static JwtService jwtService(int cacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setAccessTokenExpiration(TimeUnit.HOURS.toMillis(1));
+        properties.setVerificationCacheSize(cacheSize);
+        JwtService jwtService = new JwtService(properties, new SimpleMeterRegistry());
+        jwtService.init();
+        return jwtService;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,130 @@
+package com.cinema.booking.repository;
+
+import com.cinema.booking.repository.BookingExpiryRepository.ExpiredBooking;
+import com.cinema.support.TestPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the expiry sweep against Postgres. Bookings here expire in 1999, so a sweep
+ * as of 2000 claims them and nothing other tests leave behind.
+ */
+class BookingExpiryRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private long userId;
+    private long showId;
+    private List<Long> showSeatIds;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = TestPostgres.jdbcTemplate();
+        userId = TestPostgres.insertUser(jdbcTemplate);
+        long hallId = TestPostgres.insertHall(jdbcTemplate, "NORMAL", "NORMAL", "NORMAL", "NORMAL", "NORMAL", "NORMAL");
+        showId = TestPostgres.insertShow(jdbcTemplate, hallId, LocalDate.now().plusDays(1), LocalTime.of(18, 0));
+        showSeatIds = TestPostgres.showSeatIds(jdbcTemplate, showId);
+    }
+
+    @Test
+    void concurrentSweepersExpireDisjointBookings() throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            bookingIds.add(lockedBooking(NOW.minusMinutes(10 - i), showSeatIds.get(i)));
+        }
+
+        List<ExpiredBooking> first;
+        List<ExpiredBooking> second;
+        try (Connection firstConnection = TestPostgres.dataSource().getConnection();
+             Connection secondConnection = TestPostgres.dataSource().getConnection()) {
+            firstConnection.setAutoCommit(false);
+            secondConnection.setAutoCommit(false);
+
+            // The second sweep runs while the first still holds its claim
+            first = repository(firstConnection).expireDue(NOW, 4);
+            second = repository(secondConnection).expireDue(NOW, 10);
+            firstConnection.commit();
+            secondConnection.commit();
+        }
+
+        assertThat(ids(first)).hasSize(4).doesNotContainAnyElementsOf(ids(second));
+        assertThat(Stream.concat(ids(first).stream(), ids(second).stream()))
+                .containsExactlyInAnyOrderElementsOf(bookingIds);
+        assertThat(first).extracting(ExpiredBooking::id).containsExactlyElementsOf(bookingIds.subList(0, 4));
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT DISTINCT status FROM bookings WHERE show_id = ?", String.class, showId))
+                .containsExactly("EXPIRED");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT DISTINCT status FROM show_seats WHERE show_id = ?", String.class, showId))
+                .containsExactly("AVAILABLE");
+    }
+
+    @Test
+    void releasesOnlyTheSeatsThatAreStillLocked() {
+        long bookingId = TestPostgres.insertBooking(jdbcTemplate, userId, showId, NOW.minusMinutes(1),
+                showSeatIds.subList(0, 3));
+        setStatus(showSeatIds.get(0), "LOCKED");
+        setStatus(showSeatIds.get(1), "SOLD");
+        // Another booking locked this seat after the expiring booking lost it
+        setStatus(showSeatIds.get(3), "LOCKED");
+
+        List<ExpiredBooking> expired = new BookingExpiryRepository(jdbcTemplate).expireDue(NOW, 10);
+
+        assertThat(expired).singleElement().satisfies(booking -> {
+            assertThat(booking.id()).isEqualTo(bookingId);
+            assertThat(booking.showSeatIds()).containsExactlyInAnyOrderElementsOf(showSeatIds.subList(0, 3));
+            assertThat(booking.releasedShowSeatIds()).containsExactly(showSeatIds.get(0));
+        });
+        assertThat(status(showSeatIds.get(0))).isEqualTo("AVAILABLE");
+        assertThat(status(showSeatIds.get(1))).isEqualTo("SOLD");
+        assertThat(status(showSeatIds.get(2))).isEqualTo("AVAILABLE");
+        assertThat(status(showSeatIds.get(3))).isEqualTo("LOCKED");
+    }
+
+    @Test
+    void leavesBookingsThatAreNotDueOrNotPending() {
+        long notDue = lockedBooking(NOW.plusMinutes(1), showSeatIds.get(0));
+        long confirmed = lockedBooking(NOW.minusMinutes(1), showSeatIds.get(1));
+        jdbcTemplate.update("UPDATE bookings SET status = 'CONFIRMED' WHERE id = ?", confirmed);
+
+        assertThat(new BookingExpiryRepository(jdbcTemplate).expireDue(NOW, 10)).isEmpty();
+        assertThat(jdbcTemplate.queryForList("SELECT status FROM bookings WHERE id IN (?, ?) ORDER BY id",
+                String.class, notDue, confirmed))
+                .containsExactly("PENDING", "CONFIRMED");
+    }
+
+    private long lockedBooking(LocalDateTime expiresAt, long showSeatId) {
+        setStatus(showSeatId, "LOCKED");
+        return TestPostgres.insertBooking(jdbcTemplate, userId, showId, expiresAt, List.of(showSeatId));
+    }
+
+    private void setStatus(long showSeatId, String status) {
+        jdbcTemplate.update("UPDATE show_seats SET status = ?, locked_by = ? WHERE id = ?",
+                status, "LOCKED".equals(status) ? userId : null, showSeatId);
+    }
+
+    private String status(long showSeatId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM show_seats WHERE id = ?", String.class, showSeatId);
+    }
+
+    private static BookingExpiryRepository repository(Connection connection) {
+        return new BookingExpiryRepository(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+    }
+
+    private static List<Long> ids(List<ExpiredBooking> expired) {
+        return expired.stream().map(ExpiredBooking::id).toList();
+    }
+}
@@ -0,0 +1,210 @@
+package com.cinema.booking.repository;
+
+import com.cinema.support.TestPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database time of an 8-seat checkout against Postgres, by how booking ids are
+ * allocated. Both variants lock the seats and mark them LOCKED in one batch, as
+ * createBooking does, then insert the booking and its seats:
+ * {@code identityIds} one statement per row with its id read back, as Hibernate
+ * sends inserts for GenerationType.IDENTITY, and {@code pooledIds} with ids from
+ * blocks of 50 (one nextval per block) and one batch per table, as it sends them
+ * since V12. The connection uses reWriteBatchedInserts like application.yaml.
+ * Needs Docker.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.cinema.booking.repository.CheckoutIdAllocationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutIdAllocationBenchmark {
+
+    private static final int SEATS = 8;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_BOOKING = """
+            INSERT INTO bookings (booking_code, user_id, show_id, total_amount, final_amount, status, expires_at)
+            VALUES (?, ?, ?, 800000, 800000, 'PENDING', CURRENT_TIMESTAMP + INTERVAL '15 minutes')
+            """;
+    private static final String INSERT_BOOKING_WITH_ID = """
+            INSERT INTO bookings (id, booking_code, user_id, show_id, total_amount, final_amount, status, expires_at)
+            VALUES (?, ?, ?, ?, 800000, 800000, 'PENDING', CURRENT_TIMESTAMP + INTERVAL '15 minutes')
+            """;
+    private static final String INSERT_BOOKING_SEAT =
+            "INSERT INTO booking_seats (booking_id, show_seat_id, price) VALUES (?, ?, 100000)";
+    private static final String INSERT_BOOKING_SEAT_WITH_ID =
+            "INSERT INTO booking_seats (id, booking_id, show_seat_id, price) VALUES (?, ?, ?, 100000)";
+
+    private Connection connection;
+    private long userId;
+    private long showId;
+    private long[] showSeatIds;
+    private final IdBlock bookingIds = new IdBlock("bookings_id_seq");
+    private final IdBlock bookingSeatIds = new IdBlock("booking_seats_id_seq");
+
+    @Setup
+    public void setUp() throws SQLException {
+        JdbcTemplate jdbcTemplate = TestPostgres.jdbcTemplate();
+        userId = TestPostgres.insertUser(jdbcTemplate);
+        long hallId = TestPostgres.insertHall(jdbcTemplate, Collections.nCopies(SEATS, "NORMAL").toArray(String[]::new));
+        showId = TestPostgres.insertShow(jdbcTemplate, hallId, LocalDate.now().plusDays(1), LocalTime.of(18, 0));
+        showSeatIds = jdbcTemplate.queryForList("SELECT id FROM show_seats WHERE show_id = ? ORDER BY id",
+                        Long.class, showId).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        connection = TestPostgres.dataSource().getConnection();
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long identityIds() throws SQLException {
+        lockSeats();
+        long bookingId;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING, new String[]{"id"})) {
+            statement.setString(1, bookingCode());
+            statement.setLong(2, userId);
+            statement.setLong(3, showId);
+            bookingId = insertReturningId(statement);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING_SEAT, new String[]{"id"})) {
+            for (long showSeatId : showSeatIds) {
+                statement.setLong(1, bookingId);
+                statement.setLong(2, showSeatId);
+                insertReturningId(statement);
+            }
+        }
+        connection.commit();
+        return bookingId;
+    }
+
+    @Benchmark
+    public long pooledIds() throws SQLException {
+        lockSeats();
+        long bookingId = bookingIds.next();
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING_WITH_ID)) {
+            statement.setLong(1, bookingId);
+            statement.setString(2, bookingCode());
+            statement.setLong(3, userId);
+            statement.setLong(4, showId);
+            statement.addBatch();
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING_SEAT_WITH_ID)) {
+            for (long showSeatId : showSeatIds) {
+                statement.setLong(1, bookingSeatIds.next());
+                statement.setLong(2, bookingId);
+                statement.setLong(3, showSeatId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+        return bookingId;
+    }
+
+    // findAllForUpdate, then the ShowSeat updates Hibernate batches at flush in both variants
+    private void lockSeats() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id FROM show_seats WHERE show_id = ? AND id = ANY (?) ORDER BY id FOR UPDATE")) {
+            statement.setLong(1, showId);
+            statement.setArray(2, connection.createArrayOf("bigint", toObjects(showSeatIds)));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getLong(1);
+                }
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE show_seats SET status = 'LOCKED', locked_by = ?, locked_at = CURRENT_TIMESTAMP WHERE id = ?")) {
+            for (long showSeatId : showSeatIds) {
+                statement.setLong(1, userId);
+                statement.setLong(2, showSeatId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static long insertReturningId(PreparedStatement statement) throws SQLException {
+        statement.executeUpdate();
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    private static String bookingCode() {
+        return "BM" + Long.toString(System.nanoTime(), 36);
+    }
+
+    private static Long[] toObjects(long[] values) {
+        Long[] objects = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            objects[i] = values[i];
+        }
+        return objects;
+    }
+
+    // Hibernate's pooled optimizer: nextval is the top of the block (value - 49 .. value]
+    private final class IdBlock {
+
+        private final String sequence;
+        private long next;
+        private long last = -1;
+
+        private IdBlock(String sequence) {
+            this.sequence = sequence;
+        }
+
+        long next() throws SQLException {
+            if (next > last) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT nextval(?::regclass)")) {
+                    statement.setString(1, sequence);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                        last = resultSet.getLong(1);
+                    }
+                }
+                next = last - ALLOCATION_SIZE + 1;
+            }
+            return next++;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CheckoutIdAllocationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.cinema.booking.repository;
+
+import com.cinema.support.TestPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs V12 over a database that already holds bookings, as it ran in production.
+ */
+class PooledBookingSequencesTest {
+
+    @Test
+    void movesEverySequencePastTheIdsAlreadyTaken() {
+        DataSource dataSource = TestPostgres.newDatabase();
+        migrateTo(dataSource, "11");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long userId = TestPostgres.insertUser(jdbcTemplate);
+        long hallId = TestPostgres.insertHall(jdbcTemplate, "NORMAL");
+        long showId = TestPostgres.insertShow(jdbcTemplate, hallId, LocalDate.now().plusDays(1), LocalTime.of(18, 0));
+        long showSeatId = jdbcTemplate.queryForObject("SELECT id FROM show_seats WHERE show_id = ?", Long.class, showId);
+        // Ids above what the sequences handed out, as after a restore or a manual fix
+        jdbcTemplate.update("""
+                        INSERT INTO bookings (id, booking_code, user_id, show_id, total_amount, final_amount)
+                        VALUES (1234, 'BK-V12', ?, ?, 100000, 100000)
+                        """,
+                userId, showId);
+        jdbcTemplate.update("INSERT INTO booking_seats (id, booking_id, show_seat_id, price) VALUES (567, 1234, ?, 100000)",
+                showSeatId);
+        jdbcTemplate.update("""
+                INSERT INTO payments (id, booking_id, payment_method, amount) VALUES (89, 1234, 'VNPAY', 100000)
+                """);
+
+        migrateTo(dataSource, "12");
+
+        // Hibernate's pooled optimizer takes nextval as the top of a block of 50
+        assertThat(firstIdOfNextBlock(jdbcTemplate, "bookings_id_seq")).isGreaterThan(1234);
+        assertThat(firstIdOfNextBlock(jdbcTemplate, "booking_seats_id_seq")).isGreaterThan(567);
+        assertThat(firstIdOfNextBlock(jdbcTemplate, "payments_id_seq")).isGreaterThan(89);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = 'bookings_id_seq'", Long.class))
+                .isEqualTo(50);
+    }
+
+    private static long firstIdOfNextBlock(JdbcTemplate jdbcTemplate, String sequence) {
+        return jdbcTemplate.queryForObject("SELECT nextval(?::regclass)", Long.class, sequence) - 49;
+    }
+
+    private static void migrateTo(DataSource dataSource, String version) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .target(version)
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,75 @@
+package com.cinema.booking.service;
+
+import com.cinema.shared.config.AppProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BookingCodeGeneratorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    @Test
+    void formatsDatePrefixedCodesWithValidCheckCharacter() {
+        long second = LocalDateTime.of(2025, 1, 15, 23, 59, 59).atZone(ZONE).toEpochSecond();
+
+        String code = BookingCodeGenerator.format(second, 1023, 8191, ZONE);
+
+        assertThat(code).hasSize(17).startsWith("BK250115");
+        assertThat(BookingCodeGenerator.isValid(code)).isTrue();
+        assertThat(BookingCodeGenerator.isValid(code.toLowerCase())).isTrue();
+    }
+
+    @Test
+    void distinguishesNodesAndCounters() {
+        long second = LocalDateTime.of(2025, 1, 15, 0, 0).atZone(ZONE).toEpochSecond();
+        Set<String> codes = new HashSet<>();
+        for (int node = 0; node < 4; node++) {
+            for (int counter = 0; counter < 100; counter++) {
+                codes.add(BookingCodeGenerator.format(second, node, counter, ZONE));
+            }
+        }
+        assertThat(codes).hasSize(400);
+    }
+
+    @Test
+    void rejectsSingleCharacterTypos() {
+        long second = LocalDateTime.of(2025, 6, 1, 12, 30).atZone(ZONE).toEpochSecond();
+        String code = BookingCodeGenerator.format(second, 7, 42, ZONE);
+
+        for (int position = 2; position < code.length(); position++) {
+            for (char replacement : BookingCodeGenerator.ALPHABET.toCharArray()) {
+                if (replacement == code.charAt(position)) {
+                    continue;
+                }
+                String typo = code.substring(0, position) + replacement + code.substring(position + 1);
+                assertThat(BookingCodeGenerator.isValid(typo)).as(typo).isFalse();
+            }
+        }
+        assertThat(BookingCodeGenerator.isValid("BK123")).isFalse();
+    }
+
+    @Test
+    void startsAheadOfTheClockSoARestartDoesNotReuseBorrowedSeconds() {
+        AppProperties properties = new AppProperties();
+        properties.getBooking().setNodeId(3);
+        long before = Instant.now().getEpochSecond();
+        String code = new BookingCodeGenerator(mock(StringRedisTemplate.class), properties).next();
+        long after = Instant.now().getEpochSecond();
+
+        Set<String> expected = new HashSet<>();
+        for (long second = before; second <= after; second++) {
+            expected.add(BookingCodeGenerator.format(
+                    second + BookingCodeGenerator.RESTART_MARGIN_SECONDS, 3, 1, ZONE));
+        }
+        assertThat(expected).contains(code);
+    }
+}
@@ -0,0 +1,79 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.event.BookingExpiredEvent;
+import com.cinema.booking.repository.BookingExpiryRepository;
+import com.cinema.booking.repository.BookingExpiryRepository.Backlog;
+import com.cinema.booking.repository.BookingExpiryRepository.ExpiredBooking;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.SeatStatusChangedEvent;
+import com.cinema.show.event.ShowSeatsChangedEvent;
+import com.cinema.show.service.SeatHoldService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingExpiryServiceTest {
+
+    private final BookingExpiryRepository repository = mock(BookingExpiryRepository.class);
+    private final SeatHoldService seatHoldService = mock(SeatHoldService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final BookingExpiryService service = new BookingExpiryService(repository, seatHoldService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher, appProperties,
+            new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        service.start();
+        when(repository.findBacklog(any())).thenReturn(new Backlog(0, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void marksOnlyTheReleasedSeatsAvailable() {
+        when(repository.expireDue(any(), anyInt())).thenReturn(List.of(
+                new ExpiredBooking(7L, 3L, 1L, LocalDateTime.now().minusMinutes(1), List.of(10L, 11L), List.of(10L))));
+
+        service.sweep();
+
+        verify(eventPublisher).publishEvent(new ShowSeatsChangedEvent(1L, List.of(10L), ShowSeatStatus.AVAILABLE));
+        verify(eventPublisher).publishEvent(new BookingExpiredEvent(7L, 3L, 1L, List.of(10L, 11L)));
+        verify(eventPublisher).publishEvent(new SeatStatusChangedEvent(1L, 10L, ShowSeatStatus.AVAILABLE));
+        verify(eventPublisher, never()).publishEvent(new SeatStatusChangedEvent(1L, 11L, ShowSeatStatus.AVAILABLE));
+        verify(seatHoldService).release(1L, 3L, List.of(10L, 11L));
+    }
+
+    @Test
+    void sweepsInBatchesUntilABatchComesBackShort() {
+        appProperties.getBooking().setExpiryBatchSize(1);
+        when(repository.expireDue(any(), anyInt())).thenReturn(
+                List.of(new ExpiredBooking(7L, 3L, 1L, LocalDateTime.now(), List.of(10L), List.of())),
+                List.of(new ExpiredBooking(8L, 3L, 1L, LocalDateTime.now(), List.of(11L), List.of())),
+                List.of());
+
+        service.sweep();
+
+        verify(repository, times(3)).expireDue(any(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any(ShowSeatsChangedEvent.class));
+    }
+}
@@ -0,0 +1,51 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.BookingHistoryItem;
+import com.cinema.booking.repository.BookingHistoryRepository;
+import com.cinema.shared.dto.CursorPage;
+import com.cinema.shared.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingHistoryServiceTest {
+
+    private final BookingHistoryRepository repository = mock(BookingHistoryRepository.class);
+    private final BookingHistoryService service = new BookingHistoryService(repository);
+
+    @Test
+    void continuesFromTheLastRowOfThePreviousPage() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 10, 18, 20, 15, 30, 123_456_000);
+        when(repository.findFirstPage(7L, 3)).thenReturn(List.of(item(30L, createdAt.plusMinutes(1)),
+                item(20L, createdAt), item(10L, createdAt.minusMinutes(1))));
+
+        CursorPage<BookingHistoryItem> first = service.getHistory(7L, null, 2);
+
+        assertThat(first.getItems()).extracting(BookingHistoryItem::getBookingId).containsExactly(30L, 20L);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(BookingHistoryService.decodeCursor(first.getNextCursor()))
+                .isEqualTo(new BookingHistoryService.Cursor(createdAt, 20L));
+
+        when(repository.findPageBefore(7L, createdAt, 20L, 3)).thenReturn(List.of(item(10L, createdAt.minusMinutes(1))));
+        CursorPage<BookingHistoryItem> second = service.getHistory(7L, first.getNextCursor(), 2);
+
+        assertThat(second.getItems()).extracting(BookingHistoryItem::getBookingId).containsExactly(10L);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> service.getHistory(7L, "not-a-cursor", 20)).isInstanceOf(BusinessException.class);
+    }
+
+    private static BookingHistoryItem item(Long bookingId, LocalDateTime createdAt) {
+        return BookingHistoryItem.builder().bookingId(bookingId).createdAt(createdAt).build();
+    }
+}
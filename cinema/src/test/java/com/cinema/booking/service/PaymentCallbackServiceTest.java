@@ -0,0 +1,112 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.PaymentCallbackRequest;
+import com.cinema.booking.entity.Payment.PaymentMethod;
+import com.cinema.booking.repository.PaymentCallbackInboxRepository;
+import com.cinema.booking.repository.PaymentCallbackInboxRepository.Entry;
+import com.cinema.booking.repository.PaymentCallbackInboxRepository.Pending;
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PaymentCallbackServiceTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final PaymentCallbackInboxRepository inboxRepository = mock(PaymentCallbackInboxRepository.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final PaymentCallbackService service = new PaymentCallbackService(paymentService, inboxRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), appProperties, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        appProperties.getPayment().getSecrets().put(PaymentMethod.VNPAY.name(), SECRET);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Test
+    void storesTheCallbackBeforeAcknowledgingAndMarksItAppliedWithThePayment() {
+        PaymentCallbackRequest callback = callback("txn-1");
+        when(inboxRepository.insert(PaymentMethod.VNPAY, callback)).thenReturn(Optional.of(5L), Optional.empty());
+        when(inboxRepository.lockPending(5L)).thenReturn(Optional.of(new Entry(PaymentMethod.VNPAY, callback)));
+
+        assertThat(service.accept(PaymentMethod.VNPAY, callback)).isEqualTo(PaymentCallbackService.Outcome.ACCEPTED);
+        assertThat(service.accept(PaymentMethod.VNPAY, callback)).isEqualTo(PaymentCallbackService.Outcome.DUPLICATE);
+
+        verify(inboxRepository, timeout(2000)).markApplied(5L);
+        verify(paymentService).applyCallback(PaymentMethod.VNPAY, callback);
+    }
+
+    @Test
+    void leavesACallbackThatFailedToApplyPendingForTheSweep() {
+        PaymentCallbackRequest callback = callback("txn-2");
+        when(inboxRepository.lockPending(7L)).thenReturn(Optional.of(new Entry(PaymentMethod.VNPAY, callback)));
+        doThrow(new IllegalStateException("deadlock")).when(paymentService).applyCallback(any(), any());
+
+        service.apply(7L, PaymentMethod.VNPAY);
+
+        verify(inboxRepository).recordFailure(7L, "deadlock");
+        verify(inboxRepository, never()).markApplied(any());
+    }
+
+    @Test
+    void requeuesPendingCallbacksFromTheInbox() {
+        PaymentCallbackRequest callback = callback("txn-3");
+        when(inboxRepository.findPending(any(), anyInt(), anyInt()))
+                .thenReturn(List.of(new Pending(9L, PaymentMethod.VNPAY, callback.getBookingId())));
+        when(inboxRepository.lockPending(9L)).thenReturn(Optional.of(new Entry(PaymentMethod.VNPAY, callback)));
+
+        service.requeuePending();
+
+        verify(inboxRepository, timeout(2000)).markApplied(9L);
+    }
+
+    @Test
+    void rejectsUnsignedCallbacksWithoutStoringThem() {
+        PaymentCallbackRequest callback = callback("txn-4");
+        callback.setSignature("00");
+
+        assertThatThrownBy(() -> service.accept(PaymentMethod.VNPAY, callback))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(inboxRepository, paymentService);
+    }
+
+    private static PaymentCallbackRequest callback(String transactionId) {
+        PaymentCallbackRequest callback = PaymentCallbackRequest.builder()
+                .bookingId(1L)
+                .paymentId(2L)
+                .transactionId(transactionId)
+                .amount(new BigDecimal("150000"))
+                .status(PaymentCallbackRequest.STATUS_SUCCESS)
+                .build();
+        callback.setSignature(PaymentSignature.sign(SECRET, callback));
+        return callback;
+    }
+}
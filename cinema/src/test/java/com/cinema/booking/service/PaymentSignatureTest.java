@@ -0,0 +1,50 @@
+package com.cinema.booking.service;
+
+import com.cinema.booking.dto.PaymentCallbackRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentSignatureTest {
+
+    private static final String SECRET = "test-secret";
+
+    @Test
+    void verifiesSignedCallbacksRegardlessOfAmountScale() {
+        PaymentCallbackRequest callback = callback(new BigDecimal("150000.00"));
+        callback.setSignature(PaymentSignature.sign(SECRET, callback));
+
+        callback.setAmount(new BigDecimal("150000"));
+        assertThat(PaymentSignature.verify(SECRET, callback)).isTrue();
+        assertThat(PaymentSignature.verify("other-secret", callback)).isFalse();
+    }
+
+    @Test
+    void rejectsTamperedCallbacks() {
+        PaymentCallbackRequest callback = callback(new BigDecimal("150000"));
+        callback.setSignature(PaymentSignature.sign(SECRET, callback));
+
+        callback.setAmount(new BigDecimal("1"));
+        assertThat(PaymentSignature.verify(SECRET, callback)).isFalse();
+
+        callback.setAmount(new BigDecimal("150000"));
+        callback.setStatus("FAILED");
+        assertThat(PaymentSignature.verify(SECRET, callback)).isFalse();
+
+        callback.setStatus(PaymentCallbackRequest.STATUS_SUCCESS);
+        callback.setSignature(null);
+        assertThat(PaymentSignature.verify(SECRET, callback)).isFalse();
+    }
+
+    private static PaymentCallbackRequest callback(BigDecimal amount) {
+        return PaymentCallbackRequest.builder()
+                .bookingId(1L)
+                .paymentId(2L)
+                .transactionId("TXN-1")
+                .amount(amount)
+                .status(PaymentCallbackRequest.STATUS_SUCCESS)
+                .build();
+    }
+}
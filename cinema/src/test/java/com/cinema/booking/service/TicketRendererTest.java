@@ -0,0 +1,36 @@
+package com.cinema.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketRendererTest {
+
+    private static final String SECRET = "test-secret";
+
+    @Test
+    void signsPayloadsIndependentlyOfSeatOrder() {
+        String payload = TicketRenderer.payload(SECRET, "BK2410180000000A1", 42L, List.of(7L, 3L, 5L));
+
+        assertThat(payload).isEqualTo(TicketRenderer.payload(SECRET, "BK2410180000000A1", 42L, List.of(3L, 5L, 7L)));
+        assertThat(payload).startsWith("CT1.BK2410180000000A1.42.3-5-7.");
+        assertThat(TicketRenderer.verify(SECRET, payload)).isTrue();
+        assertThat(TicketRenderer.verify("other-secret", payload)).isFalse();
+        assertThat(TicketRenderer.verify(SECRET, payload.replace(".42.", ".43."))).isFalse();
+    }
+
+    @Test
+    void rendersTheSameImageAndRefForTheSamePayload() {
+        String payload = TicketRenderer.payload(SECRET, "BK2410180000000A1", 42L, List.of(3L, 5L));
+
+        byte[] first = TicketRenderer.render(payload, 320);
+        byte[] second = TicketRenderer.render(payload, 320);
+
+        assertThat(first).startsWith(0x89, 'P', 'N', 'G').isEqualTo(second);
+        String ref = TicketRenderer.ref(first);
+        assertThat(ref).hasSize(32).isEqualTo(TicketRenderer.ref(second));
+        assertThat(TicketRenderer.objectName(ref)).isEqualTo("tickets/" + ref.substring(0, 2) + "/" + ref + ".png");
+    }
+}
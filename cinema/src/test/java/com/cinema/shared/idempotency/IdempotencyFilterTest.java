@@ -0,0 +1,235 @@
+package com.cinema.shared.idempotency;
+
+import com.cinema.shared.config.AppProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    private static final String KEY = IdempotencyStore.key("alice", "booking-0001");
+    private static final String BODY = "{\"showId\":1,\"seatIds\":[2,3]}";
+
+    private final IdempotencyStore store = mock(IdempotencyStore.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, appProperties,
+            new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void storesTheFirstResponseUnderItsClaim() throws Exception {
+        when(store.tryClaim(eq(KEY), anyString())).thenReturn("claim-1");
+        when(store.complete(eq(KEY), eq("claim-1"), any())).thenReturn(true);
+
+        MockHttpServletResponse response = send(request(BODY), respondWith(201, "{\"id\":7}"));
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":7}");
+        verify(store).complete(eq(KEY), eq("claim-1"), any());
+        verify(store, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void replaysTheStoredResponseWithoutRunningTheRequest() throws Exception {
+        MockHttpServletRequest request = request(BODY);
+        when(store.find(KEY)).thenReturn(completed(fingerprint(request), 201, "{\"id\":7}"));
+
+        MockHttpServletResponse response = send(request, respondWith(500, "unexpected"));
+
+        assertThat(executions).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":7}");
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() throws Exception {
+        when(store.find(KEY)).thenReturn(completed(fingerprint(request("{\"showId\":2}")), 201, "{\"id\":7}"));
+
+        MockHttpServletResponse response = send(request(BODY), respondWith(201, "{\"id\":8}"));
+
+        assertThat(executions).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void waitsForAnInFlightDuplicateAndReplaysItsResponse() throws Exception {
+        AtomicReference<IdempotencyStore.Entry> stored = new AtomicReference<>();
+        when(store.tryClaim(eq(KEY), anyString())).thenReturn("claim-1", (String) null);
+        when(store.complete(eq(KEY), eq("claim-1"), any())).thenAnswer(invocation -> {
+            stored.set(invocation.getArgument(2));
+            return true;
+        });
+        when(store.find(KEY)).thenAnswer(invocation -> stored.get() != null
+                ? stored.get()
+                : new IdempotencyStore.Entry(fingerprint(request(BODY)), 0, null, null));
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request(BODY), (request, response) -> {
+                    started.countDown();
+                    await(finish);
+                    respondWith(201, "{\"id\":7}").doFilter(request, response);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<MockHttpServletResponse> retry = CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request(BODY), respondWith(500, "unexpected"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(retry).isNotDone();
+        finish.countDown();
+
+        MockHttpServletResponse replayed = retry.get(5, TimeUnit.SECONDS);
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(201);
+        assertThat(executions).hasValue(1);
+        assertThat(replayed.getStatus()).isEqualTo(201);
+        assertThat(replayed.getContentAsString()).isEqualTo("{\"id\":7}");
+        assertThat(replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void givesUpOnAnInFlightDuplicateAfterTheWaitTimeout() throws Exception {
+        appProperties.getIdempotency().setWaitTimeoutSeconds(0);
+        MockHttpServletRequest request = request(BODY);
+        when(store.find(KEY)).thenReturn(new IdempotencyStore.Entry(fingerprint(request), 0, null, null));
+
+        MockHttpServletResponse response = send(request, respondWith(201, "{\"id\":7}"));
+
+        assertThat(executions).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void releasesTheClaimWhenTheRequestFailsOnTheServer() throws Exception {
+        when(store.tryClaim(eq(KEY), anyString())).thenReturn("claim-1");
+
+        MockHttpServletResponse response = send(request(BODY), respondWith(503, "{\"error\":true}"));
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        verify(store).release(KEY, "claim-1");
+        verify(store, never()).complete(anyString(), anyString(), any());
+    }
+
+    @Test
+    void servesTheBufferedBodyToAReadListener() throws Exception {
+        when(store.tryClaim(eq(KEY), anyString())).thenReturn("claim-1");
+        when(store.complete(eq(KEY), eq("claim-1"), any())).thenReturn(true);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        send(request(BODY), (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[8];
+                    while (input.isReady() && !input.isFinished()) {
+                        int read = input.read(buffer);
+                        if (read > 0) {
+                            received.write(buffer, 0, read);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            ((HttpServletResponse) response).setStatus(201);
+        });
+
+        assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(allRead).isTrue();
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        try {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, chain);
+            return response;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private FilterChain respondWith(int status, String body) {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType("application/json");
+            response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setContextPath("/api");
+        request.addHeader(IdempotencyFilter.HEADER, "booking-0001");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String fingerprint(MockHttpServletRequest request) {
+        return IdempotencyFilter.fingerprint(request, request.getContentAsByteArray());
+    }
+
+    private static IdempotencyStore.Entry completed(String fingerprint, int status, String body) {
+        return new IdempotencyStore.Entry(fingerprint, status, "application/json",
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
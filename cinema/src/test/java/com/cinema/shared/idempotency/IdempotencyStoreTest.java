@@ -0,0 +1,32 @@
+package com.cinema.shared.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    @Test
+    void storedResponsesRoundTripByteForByte() {
+        byte[] body = "{\"success\":true,\"data\":{\"bookingCode\":\"BK|1\"}}\n".getBytes(StandardCharsets.UTF_8);
+        IdempotencyStore.Entry entry = new IdempotencyStore.Entry("abc123", 200, "application/json;charset=UTF-8", body);
+
+        IdempotencyStore.Entry decoded = IdempotencyStore.decode(IdempotencyStore.encode(entry));
+
+        assertThat(decoded.isCompleted()).isTrue();
+        assertThat(decoded.fingerprint()).isEqualTo("abc123");
+        assertThat(decoded.status()).isEqualTo(200);
+        assertThat(decoded.contentType()).isEqualTo("application/json;charset=UTF-8");
+        assertThat(decoded.body()).isEqualTo(body);
+    }
+
+    @Test
+    void inFlightMarkersCarryOnlyTheFingerprint() {
+        IdempotencyStore.Entry decoded = IdempotencyStore.decode(IdempotencyStore.claim("abc123", "token"));
+
+        assertThat(decoded.isCompleted()).isFalse();
+        assertThat(decoded.fingerprint()).isEqualTo("abc123");
+    }
+}
@@ -0,0 +1,174 @@
+package com.cinema.shared.outbox;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.config.KafkaOutboxConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Relays through a real broker that is paused half way, and checks that the relay
+ * catches up afterwards without reordering events of the same key.
+ */
+class OutboxRelayOutageTest {
+
+    private static final List<String> TOPICS = List.of("test.booking-events", "test.seat-events");
+    private static final int KEYS = 6;
+
+    private static KafkaContainer kafka;
+
+    private final List<OutboxRepository.OutboxRecord> outbox = new CopyOnWriteArrayList<>();
+    private final Set<UUID> completed = ConcurrentHashMap.newKeySet();
+
+    @BeforeAll
+    static void startKafka() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.6.1"));
+        kafka.start();
+    }
+
+    @AfterAll
+    static void stopKafka() {
+        if (kafka != null) {
+            kafka.stop();
+        }
+    }
+
+    @Test
+    void catchesUpInOrderAfterBrokerOutage() throws Exception {
+        OutboxRelay relay = relay();
+
+        publish(120);
+        relayUntilDrained(relay, Duration.ofSeconds(30));
+        assertThat(completed).hasSize(120);
+
+        var docker = DockerClientFactory.instance().client();
+        docker.pauseContainerCmd(kafka.getContainerId()).exec();
+        try {
+            publish(120);
+            for (int i = 0; i < 3; i++) {
+                relay.relay();
+                Thread.sleep(600);
+            }
+            assertThat(completed).hasSizeLessThan(240);
+        } finally {
+            docker.unpauseContainerCmd(kafka.getContainerId()).exec();
+        }
+
+        publish(60);
+        relayUntilDrained(relay, Duration.ofSeconds(90));
+        assertThat(completed).hasSize(300);
+
+        Map<String, List<String>> expected = new HashMap<>();
+        for (OutboxRepository.OutboxRecord record : outbox) {
+            expected.computeIfAbsent(record.topic() + '/' + record.key(), key -> new ArrayList<>())
+                    .add(record.payload());
+        }
+        assertThat(firstOccurrencesByKey(outbox.size())).isEqualTo(expected);
+    }
+
+    private OutboxRelay relay() {
+        AppProperties properties = new AppProperties();
+        properties.getOutbox().setPollMillis(100);
+        properties.getOutbox().setMaxBackoffMillis(500);
+        properties.getOutbox().setSendTimeoutSeconds(2);
+        properties.getOutbox().setBatchSize(50);
+
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setBootstrapServers(List.of(kafka.getBootstrapServers()));
+        KafkaTemplate<String, String> template =
+                new KafkaOutboxConfig().outboxKafkaTemplate(kafkaProperties, properties);
+
+        OutboxRepository repository = mock(OutboxRepository.class);
+        when(repository.tryLockRelay()).thenReturn(true);
+        when(repository.findPending(anyInt())).thenAnswer(invocation -> outbox.stream()
+                .filter(record -> !completed.contains(record.id()))
+                .limit(invocation.<Integer>getArgument(0))
+                .toList());
+        when(repository.markCompleted(anyList())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            completed.addAll(ids);
+            return ids.size();
+        });
+
+        OutboxRelay relay = new OutboxRelay(repository, template,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties, new SimpleMeterRegistry());
+        relay.registerMetrics();
+        return relay;
+    }
+
+    private void publish(int count) {
+        int offset = outbox.size();
+        for (int i = offset; i < offset + count; i++) {
+            outbox.add(new OutboxRepository.OutboxRecord(UUID.randomUUID(), "TestEvent", "{\"seq\":" + i + "}",
+                    TOPICS.get(i % TOPICS.size()), Integer.toString(i % KEYS), Instant.now()));
+        }
+    }
+
+    private void relayUntilDrained(OutboxRelay relay, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (completed.size() < outbox.size() && System.nanoTime() < deadline) {
+            relay.relay();
+            Thread.sleep(100);
+        }
+    }
+
+    // Redelivered duplicates are allowed, so only the first delivery of each event counts
+    private Map<String, List<String>> firstOccurrencesByKey(int events) {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+                ConsumerConfig.GROUP_ID_CONFIG, "outbox-test-" + UUID.randomUUID(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        Map<String, LinkedHashSet<String>> received = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(config)) {
+            consumer.subscribe(TOPICS);
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (seen.size() < events && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(500))) {
+                    seen.add(record.value());
+                    received.computeIfAbsent(record.topic() + '/' + record.key(), key -> new LinkedHashSet<>())
+                            .add(record.value());
+                }
+            }
+        }
+        Map<String, List<String>> result = new HashMap<>();
+        received.forEach((key, values) -> result.put(key, List.copyOf(values)));
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cinema.shared.outbox;
+
+import com.cinema.shared.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxRepository repository = mock(OutboxRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    private final List<String> sent = new ArrayList<>();
+    private final OutboxRelay relay = new OutboxRelay(repository, kafkaTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new AppProperties(),
+            new SimpleMeterRegistry());
+
+    @Test
+    void sendsAKeysNextRecordOnlyAfterThePreviousWasAcknowledged() {
+        OutboxRepository.OutboxRecord a1 = record("a", "a1");
+        OutboxRepository.OutboxRecord b1 = record("b", "b1");
+        OutboxRepository.OutboxRecord a2 = record("a", "a2");
+        OutboxRepository.OutboxRecord b2 = record("b", "b2");
+        OutboxRepository.OutboxRecord b3 = record("b", "b3");
+        relayBatch(List.of(a1, b1, a2, b2, b3), "none");
+
+        assertThat(sent).containsExactly("a1", "b1", "a2", "b2", "b3");
+        verify(repository).markCompleted(List.of(a1.id(), b1.id(), a2.id(), b2.id(), b3.id()));
+    }
+
+    @Test
+    void holdsBackTheRestOfAKeyAfterAFailureWhileOtherKeysGoOn() {
+        OutboxRepository.OutboxRecord a1 = record("a", "a1");
+        OutboxRepository.OutboxRecord b1 = record("b", "b1");
+        OutboxRepository.OutboxRecord a2 = record("a", "a2");
+        OutboxRepository.OutboxRecord b2 = record("b", "b2");
+        relayBatch(List.of(a1, b1, a2, b2), "a1");
+
+        assertThat(sent).containsExactly("a1", "b1", "b2");
+        verify(repository).markCompleted(List.of(b1.id(), b2.id()));
+    }
+
+    // Fails the given payload once the relay has moved on to waiting for acks
+    private void relayBatch(List<OutboxRepository.OutboxRecord> records, String failingPayload) {
+        when(repository.tryLockRelay()).thenReturn(true);
+        when(repository.findPending(anyInt())).thenReturn(records, List.of());
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<String, String> message = invocation.getArgument(0);
+            sent.add(message.value());
+            if (!message.value().equals(failingPayload)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return new CompletableFuture<SendResult<String, String>>().completeAsync(() -> {
+                throw new IllegalStateException("Broker unavailable");
+            }, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+        });
+        relay.registerMetrics();
+
+        relay.relay();
+    }
+
+    private static OutboxRepository.OutboxRecord record(String key, String payload) {
+        return new OutboxRepository.OutboxRecord(UUID.randomUUID(), "TestEvent", payload, "test.events", key,
+                Instant.now());
+    }
+}
@@ -0,0 +1,56 @@
+package com.cinema.shared.ratelimit;
+
+import com.cinema.shared.config.AppProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(properties("10.0.0.0/8", "192.168.1.5"));
+
+    @Test
+    void usesTheForwardedClientBehindATrustedProxy() {
+        assertThat(resolver.resolve(request("10.0.0.7", "203.0.113.9"))).isEqualTo("203.0.113.9");
+        assertThat(resolver.resolve(request("10.0.0.7", "203.0.113.9, 192.168.1.5"))).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    void ignoresAddressesTheClientPrependedItself() {
+        assertThat(resolver.resolve(request("10.0.0.7", "1.2.3.4, 203.0.113.9"))).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    void ignoresTheHeaderFromAnUntrustedPeer() {
+        assertThat(resolver.resolve(request("198.51.100.2", "203.0.113.9"))).isEqualTo("198.51.100.2");
+    }
+
+    @Test
+    void fallsBackToTheProxyWithoutAForwardedAddress() {
+        assertThat(resolver.resolve(request("10.0.0.7", null))).isEqualTo("10.0.0.7");
+        assertThat(resolver.resolve(request("10.0.0.7", "10.0.0.3"))).isEqualTo("10.0.0.3");
+    }
+
+    @Test
+    void treatsAHostNameHopAsTheClient() {
+        assertThat(resolver.resolve(request("10.0.0.7", "localhost"))).isEqualTo("localhost");
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    private static AppProperties properties(String... trustedProxies) {
+        AppProperties properties = new AppProperties();
+        properties.getRateLimit().setTrustedProxies(List.of(trustedProxies));
+        return properties;
+    }
+}
@@ -0,0 +1,133 @@
+package com.cinema.shared.ratelimit;
+
+import com.cinema.shared.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimiterTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(redisTemplate, new AppProperties(), meterRegistry);
+
+    @Test
+    void rejectsLocallyOnceTheNodeAloneIsOverTheLimit() {
+        when(redisTemplate.execute(any(), anyList(), anyString(), anyString(), anyString()))
+                .thenReturn(List.of(1L, 0L, 1L));
+        RateLimit rule = rule(3, 60);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire(rule, "ip:10.0.0.1").allowed()).isTrue();
+        }
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(rule, "ip:10.0.0.1");
+
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterMillis()).isBetween(19_000L, 20_001L);
+        verify(redisTemplate, times(3)).execute(any(), anyList(), anyString(), anyString(), anyString());
+        assertThat(meterRegistry.counter("rate_limit.rejected", "rule", "login", "source", "local").count())
+                .isEqualTo(1);
+        assertThat(rateLimiter.tryAcquire(rule, "ip:10.0.0.2").allowed()).isTrue();
+    }
+
+    @Test
+    void rejectsWhenTheSharedWindowIsFull() {
+        when(redisTemplate.execute(any(), anyList(), anyString(), anyString(), anyString()))
+                .thenReturn(List.of(0L, 5L, 2L));
+
+        assertThat(rateLimiter.tryAcquire(rule(3, 60), "ip:10.0.0.1").allowed()).isFalse();
+        assertThat(meterRegistry.counter("rate_limit.rejected", "rule", "login", "source", "redis").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void remembersASharedRejectionUntilItsRetryTime() {
+        when(redisTemplate.execute(any(), anyList(), anyString(), anyString(), anyString()))
+                .thenReturn(List.of(0L, 0L, 3L));
+        RateLimit rule = rule(3, 60);
+
+        RateLimiter.Decision first = rateLimiter.tryAcquire(rule, "ip:10.0.0.1");
+        RateLimiter.Decision second = rateLimiter.tryAcquire(rule, "ip:10.0.0.1");
+
+        assertThat(first.allowed()).isFalse();
+        assertThat(second.allowed()).isFalse();
+        assertThat(second.retryAfterMillis()).isBetween(1L, first.retryAfterMillis() + 1);
+        verify(redisTemplate, times(1)).execute(any(), anyList(), anyString(), anyString(), anyString());
+        assertThat(meterRegistry.counter("rate_limit.rejected", "rule", "login", "source", "local").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToTheLocalBucketWithoutRedis() {
+        when(redisTemplate.execute(any(), anyList(), anyString(), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertThat(rateLimiter.tryAcquire(rule(1, 60), "ip:10.0.0.1").allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire(rule(1, 60), "ip:10.0.0.1").allowed()).isFalse();
+    }
+
+    @Test
+    void retriesWhenTheWeightedPreviousWindowHasDecayedEnough() {
+        // Limit 10: 8 in the previous window and 5 now leave room once 4 of the 8 count, at mid-window
+        assertThat(RateLimiter.retryAfterMillis(10, 60_000, 15_000, 8, 5)).isEqualTo(15_000);
+        // The current window alone is full: wait for it to end, then until its count has decayed
+        assertThat(RateLimiter.retryAfterMillis(10, 60_000, 15_000, 0, 10)).isEqualTo(45_000 + 6_000);
+    }
+
+    @Test
+    void refillsTheLocalBucketOverTheWindow() {
+        long window = TimeUnit.SECONDS.toNanos(10);
+        LocalTokenBucket bucket = new LocalTokenBucket(2, window, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(window / 2);
+        assertThat(bucket.tryAcquire(window / 2)).isZero();
+
+        bucket.blockUntil(window);
+        assertThat(bucket.tryAcquire(window * 3 / 4)).isEqualTo(window / 4);
+        assertThat(bucket.tryAcquire(window)).isZero();
+    }
+
+    private static RateLimit rule(int limit, int windowSeconds) {
+        return new RateLimit() {
+            @Override
+            public String name() {
+                return "login";
+            }
+
+            @Override
+            public Key key() {
+                return Key.IP;
+            }
+
+            @Override
+            public int limit() {
+                return limit;
+            }
+
+            @Override
+            public int windowSeconds() {
+                return windowSeconds;
+            }
+
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return RateLimit.class;
+            }
+        };
+    }
+}
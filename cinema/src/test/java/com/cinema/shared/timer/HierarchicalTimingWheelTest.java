@@ -0,0 +1,44 @@
+package com.cinema.shared.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesEntriesOnTheirDeadlineAcrossLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000);
+        wheel.add("past", 990);
+        wheel.add("near", 1_005);
+        wheel.add("hold", 1_300);
+        wheel.add("booking", 1_900);
+        wheel.add("far", 1_000 + 64L * 64 * 64 * 64 + 10);
+
+        assertThat(wheel.advance(1_001)).containsExactly("past");
+        assertThat(wheel.advance(1_004)).isEmpty();
+        assertThat(wheel.advance(1_005)).containsExactly("near");
+        assertThat(wheel.advance(1_299)).isEmpty();
+        assertThat(wheel.advance(1_300)).containsExactly("hold");
+
+        List<String> fired = new ArrayList<>(wheel.advance(1_899));
+        assertThat(fired).isEmpty();
+        assertThat(wheel.advance(1_900)).containsExactly("booking");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void batchesEntriesSharingATick() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(0);
+        for (int i = 0; i < 1_000; i++) {
+            wheel.add(i, 4_100);
+        }
+
+        assertThat(wheel.advance(4_099)).isEmpty();
+        assertThat(wheel.advance(4_200)).hasSize(1_000);
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.cinema.show.inventory;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.repository.ShowRepository.InventoryHeader;
+import com.cinema.show.repository.ShowSeatRepository.SeatStateRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BestSeatFinderTest {
+
+    private static final BestSeatFinder.Scoring CENTER = new BestSeatFinder.Scoring(0.5, 0.5, 1.0, 1.0, 0.05);
+
+    @Test
+    void picksCentredBlockInSweetSpotRow() {
+        ShowSeatInventory inventory = hall(5, 10, (row, number) -> "NORMAL", (row, number) -> "ACTIVE");
+
+        BestSeatFinder.Block block = find(inventory, 4, null).orElseThrow();
+
+        // Row C (index 2) is the middle row, seats 4-7 are centred
+        assertThat(block.ordinals()).containsExactly(23, 24, 25, 26);
+    }
+
+    @Test
+    void skipsTakenAndBrokenSeatsAndNeverSpansThem() {
+        ShowSeatInventory inventory = hall(1, 10, (row, number) -> "NORMAL",
+                (row, number) -> number == 6 ? "BROKEN" : "ACTIVE");
+        inventory.apply(3, ShowSeatStatus.SOLD);
+
+        BestSeatFinder.Block block = find(inventory, 3, null).orElseThrow();
+
+        // Seats 5 (ordinal 4) .. 7 would span the broken seat 6; 7-9 is the closest free run
+        assertThat(block.ordinals()).containsExactly(6, 7, 8);
+        assertThat(find(inventory, 5, null)).isEmpty();
+    }
+
+    @Test
+    void keepsCoupleSeatsTogether() {
+        ShowSeatInventory inventory = hall(1, 8, (row, number) -> "COUPLE", (row, number) -> "ACTIVE");
+
+        assertThat(find(inventory, 3, SeatType.COUPLE)).isEmpty();
+        int[] ordinals = find(inventory, 2, SeatType.COUPLE).orElseThrow().ordinals();
+        assertThat(ordinals[0] % 2).isZero();
+        assertThat(inventory.getCouplePartner(ordinals[0])).isEqualTo(ordinals[1]);
+    }
+
+    private static Optional<BestSeatFinder.Block> find(ShowSeatInventory inventory, int quantity, SeatType type) {
+        return BestSeatFinder.find(inventory, inventory.snapshot(), quantity, type, CENTER);
+    }
+
+    interface SeatAttribute {
+        String of(String row, int number);
+    }
+
+    private static ShowSeatInventory hall(int rows, int seatsPerRow, SeatAttribute type, SeatAttribute status) {
+        List<SeatStateRow> seats = new ArrayList<>();
+        long id = 1;
+        for (int r = 0; r < rows; r++) {
+            String row = String.valueOf((char) ('A' + r));
+            for (int number = 1; number <= seatsPerRow; number++) {
+                seats.add(seat(id++, row, number, type.of(row, number), status.of(row, number)));
+            }
+        }
+        return ShowSeatInventory.load(header(rows, seatsPerRow), seats);
+    }
+
+    private static InventoryHeader header(int rows, int seatsPerRow) {
+        return new InventoryHeader() {
+            public Long getShowId() { return 1L; }
+            public Long getHallId() { return 1L; }
+            public Integer getTotalRows() { return rows; }
+            public Integer getSeatsPerRow() { return seatsPerRow; }
+            public String getStatus() { return "SCHEDULED"; }
+            public LocalDate getShowDate() { return LocalDate.now(); }
+            public LocalTime getStartTime() { return LocalTime.MIN; }
+            public LocalTime getEndTime() { return LocalTime.MAX; }
+        };
+    }
+
+    private static SeatStateRow seat(long id, String row, int number, String type, String seatStatus) {
+        return new SeatStateRow() {
+            public Long getShowSeatId() { return id; }
+            public String getRowName() { return row; }
+            public Integer getSeatNumber() { return number; }
+            public String getSeatType() { return type; }
+            public BigDecimal getPrice() { return BigDecimal.TEN; }
+            public String getStatus() { return "AVAILABLE"; }
+            public String getSeatStatus() { return seatStatus; }
+        };
+    }
+}
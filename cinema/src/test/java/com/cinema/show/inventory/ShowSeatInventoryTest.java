@@ -0,0 +1,125 @@
+package com.cinema.show.inventory;
+
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.repository.ShowRepository.InventoryHeader;
+import com.cinema.show.repository.ShowSeatRepository.SeatStateRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShowSeatInventoryTest {
+
+    @Test
+    void loadsSeatsByOrdinalAndTracksTransitions() {
+        List<SeatStateRow> seats = new ArrayList<>();
+        long id = 100;
+        for (String row : List.of("B", "A", "C")) {
+            for (int number = 1; number <= 10; number++) {
+                seats.add(seat(id++, row, number, number == 5 && row.equals("C") ? "SOLD" : "AVAILABLE"));
+            }
+        }
+        ShowSeatInventory inventory = ShowSeatInventory.load(header(3, 10), seats);
+
+        assertThat(inventory.getRows()).isEqualTo(3);
+        assertThat(inventory.count(ShowSeatStatus.AVAILABLE)).isEqualTo(29);
+        assertThat(inventory.count(ShowSeatStatus.SOLD)).isEqualTo(1);
+
+        // Row "B" was loaded first but is the second row of the hall
+        int ordinal = inventory.ordinalOf(100);
+        assertThat(ordinal).isEqualTo(10);
+        assertThat(inventory.getRowName(ordinal)).isEqualTo("B");
+        assertThat(inventory.getSeatNumber(ordinal)).isEqualTo(1);
+
+        assertThat(inventory.apply(ordinal, ShowSeatStatus.LOCKED)).isTrue();
+        assertThat(inventory.apply(ordinal, ShowSeatStatus.LOCKED)).isFalse();
+        ShowSeatInventory.Snapshot snapshot = inventory.snapshot();
+        assertThat(snapshot.version()).isEqualTo(1);
+        assertThat(snapshot.statusAt(ordinal)).isEqualTo(ShowSeatStatus.LOCKED);
+        assertThat(snapshot.count(ShowSeatStatus.AVAILABLE)).isEqualTo(28);
+        assertThat(inventory.ordinalOf(999)).isEqualTo(-1);
+    }
+
+    @Test
+    void reportsOrdinalsChangedBetweenSnapshots() {
+        List<SeatStateRow> seats = new ArrayList<>();
+        for (int number = 1; number <= 100; number++) {
+            seats.add(seat(number, "A", number, "AVAILABLE"));
+        }
+        ShowSeatInventory inventory = ShowSeatInventory.load(header(1, 100), seats);
+        ShowSeatInventory.Snapshot before = inventory.snapshot();
+
+        inventory.apply(3, ShowSeatStatus.LOCKED);
+        inventory.apply(70, ShowSeatStatus.SOLD);
+        inventory.apply(64, ShowSeatStatus.LOCKED);
+        inventory.apply(64, ShowSeatStatus.AVAILABLE);
+
+        ShowSeatInventory.Snapshot after = inventory.snapshot();
+        assertThat(after.changedSince(before)).containsExactly(3, 70);
+        assertThat(after.changedSince(after)).isEmpty();
+    }
+
+    @Test
+    void encodesStatusesAsRunsAndKeepsLayoutVersionAcrossReloads() {
+        List<SeatStateRow> seats = new ArrayList<>();
+        for (int number = 1; number <= 10; number++) {
+            if (number != 6) {
+                seats.add(seat(number, "A", number, number >= 8 ? "SOLD" : "AVAILABLE"));
+            }
+        }
+        ShowSeatInventory inventory = ShowSeatInventory.load(header(1, 10), seats);
+        inventory.apply(1, ShowSeatStatus.LOCKED);
+
+        assertThat(SeatStatusCodec.encode(inventory, inventory.snapshot())).isEqualTo("AL3A.A3S");
+
+        ShowSeatInventory reloaded = ShowSeatInventory.load(header(1, 10), seats);
+        assertThat(reloaded.getLayoutVersion()).isEqualTo(inventory.getLayoutVersion());
+        assertThat(reloaded.getEpoch()).isGreaterThan(inventory.getEpoch());
+    }
+
+    @Test
+    void followsTheTransitionSequenceAndReportsGaps() {
+        ShowSeatInventory inventory = ShowSeatInventory.load(header(1, 10), List.of(seat(1, "A", 1, "AVAILABLE")));
+        inventory.startSequenceAt(5);
+
+        assertThat(inventory.advanceSequence(4)).isTrue();
+        assertThat(inventory.advanceSequence(6)).isTrue();
+        assertThat(inventory.getSequence()).isEqualTo(6);
+        assertThat(inventory.advanceSequence(8)).isFalse();
+        assertThat(inventory.advanceSequence(1)).isFalse();
+
+        inventory.startSequenceAt(-1);
+        assertThat(inventory.advanceSequence(42)).isTrue();
+        assertThat(inventory.getSequence()).isEqualTo(42);
+    }
+
+    private static InventoryHeader header(int rows, int seatsPerRow) {
+        return new InventoryHeader() {
+            public Long getShowId() { return 1L; }
+            public Long getHallId() { return 1L; }
+            public Integer getTotalRows() { return rows; }
+            public Integer getSeatsPerRow() { return seatsPerRow; }
+            public String getStatus() { return "SCHEDULED"; }
+            public LocalDate getShowDate() { return LocalDate.now(); }
+            public LocalTime getStartTime() { return LocalTime.MIN; }
+            public LocalTime getEndTime() { return LocalTime.MAX; }
+        };
+    }
+
+    private static SeatStateRow seat(long id, String row, int number, String status) {
+        return new SeatStateRow() {
+            public Long getShowSeatId() { return id; }
+            public String getRowName() { return row; }
+            public Integer getSeatNumber() { return number; }
+            public String getSeatType() { return "NORMAL"; }
+            public BigDecimal getPrice() { return BigDecimal.TEN; }
+            public String getStatus() { return status; }
+            public String getSeatStatus() { return "ACTIVE"; }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.cinema.show.repository;
+
+import com.cinema.support.TestPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the show queries that depend on Postgres locking against Postgres.
+ */
+class ShowRepositoryTest {
+
+    @Test
+    void lockingTheActiveHallsMakesASecondScheduleWait() throws Exception {
+        JdbcTemplate jdbcTemplate = TestPostgres.jdbcTemplate();
+        long hallId = TestPostgres.insertHall(jdbcTemplate, "NORMAL");
+        long inactiveHallId = TestPostgres.insertHall(jdbcTemplate, "NORMAL");
+        jdbcTemplate.update("UPDATE halls SET status = 'MAINTENANCE' WHERE id = ?", inactiveHallId);
+        String lockActiveHalls = TestPostgres.nativeQuery(ShowRepository.class, "lockActiveHalls");
+        Map<String, Object> params = Map.of("hallIds", List.of(hallId, inactiveHallId));
+
+        try (Connection first = TestPostgres.dataSource().getConnection();
+             Connection second = TestPostgres.dataSource().getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            NamedParameterJdbcTemplate firstSchedule = template(first);
+            NamedParameterJdbcTemplate secondSchedule = template(second);
+
+            assertThat(firstSchedule.queryForList(lockActiveHalls, params, Long.class)).containsExactly(hallId);
+
+            secondSchedule.getJdbcTemplate().execute("SET LOCAL lock_timeout = '200ms'");
+            assertThatThrownBy(() -> secondSchedule.queryForList(lockActiveHalls, params, Long.class))
+                    .isInstanceOf(PessimisticLockingFailureException.class);
+            second.rollback();
+
+            first.commit();
+            assertThat(secondSchedule.queryForList(lockActiveHalls, params, Long.class)).containsExactly(hallId);
+            second.commit();
+        }
+    }
+
+    private static NamedParameterJdbcTemplate template(Connection connection) {
+        return new NamedParameterJdbcTemplate(new SingleConnectionDataSource(connection, true));
+    }
+}
@@ -0,0 +1,146 @@
+package com.cinema.show.repository;
+
+import com.cinema.booking.repository.BookingExpiryRepository;
+import com.cinema.show.service.ShowSeatCounterReconciler;
+import com.cinema.support.TestPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the V10 counter triggers and the counter reconciliation against Postgres.
+ */
+class ShowSeatCountersTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private long userId;
+    private long hallId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = TestPostgres.jdbcTemplate();
+        userId = TestPostgres.insertUser(jdbcTemplate);
+        hallId = TestPostgres.insertHall(jdbcTemplate, "NORMAL", "NORMAL", "VIP", "COUPLE");
+    }
+
+    @Test
+    void countersFollowSingleAndMultiRowTransitions() {
+        long first = TestPostgres.insertShow(jdbcTemplate, hallId, LocalDate.now().plusDays(1), LocalTime.of(10, 0));
+        long second = TestPostgres.insertShow(jdbcTemplate, hallId, LocalDate.now().plusDays(1), LocalTime.of(14, 0));
+        List<Long> firstSeats = TestPostgres.showSeatIds(jdbcTemplate, first);
+        List<Long> secondSeats = TestPostgres.showSeatIds(jdbcTemplate, second);
+        assertCounters(first, 4, 0, 0);
+
+        // One row per statement, as a checkout locks and a payment sells
+        lock(firstSeats.get(0));
+        lock(firstSeats.get(1));
+        lock(secondSeats.get(0));
+        jdbcTemplate.update("UPDATE show_seats SET status = 'SOLD' WHERE id = ?", firstSeats.get(1));
+        assertCounters(first, 2, 1, 1);
+        assertCounters(second, 3, 1, 0);
+
+        // The expiry sweep releases the seats of several shows in one statement
+        TestPostgres.insertBooking(jdbcTemplate, userId, first, LocalDateTime.of(1997, 1, 1, 0, 0),
+                List.of(firstSeats.get(0), firstSeats.get(1)));
+        TestPostgres.insertBooking(jdbcTemplate, userId, second, LocalDateTime.of(1997, 1, 1, 0, 0),
+                List.of(secondSeats.get(0)));
+        assertThat(new BookingExpiryRepository(jdbcTemplate).expireDue(LocalDateTime.of(1998, 1, 1, 0, 0), 10))
+                .hasSize(2);
+        assertCounters(first, 3, 0, 1);
+        assertCounters(second, 4, 0, 0);
+
+        // A multi-row update where some rows already are in the target state
+        jdbcTemplate.update("UPDATE show_seats SET status = 'SOLD' WHERE show_id = ?", first);
+        assertCounters(first, 0, 0, 4);
+
+        // Soft-deleted and deleted seats stop counting
+        jdbcTemplate.update("UPDATE show_seats SET deleted = TRUE WHERE id = ?", secondSeats.get(1));
+        jdbcTemplate.update("DELETE FROM show_seats WHERE id = ?", secondSeats.get(2));
+        assertCounters(second, 2, 0, 0);
+    }
+
+    @Test
+    void reconciliationRepairsDriftedAndMissingCounters() {
+        long drifted = TestPostgres.insertShow(jdbcTemplate, hallId, LocalDate.now().plusDays(2), LocalTime.of(10, 0));
+        long missing = TestPostgres.insertShow(jdbcTemplate, hallId, LocalDate.now().plusDays(2), LocalTime.of(14, 0));
+        long consistent = TestPostgres.insertShow(jdbcTemplate, hallId, LocalDate.now().plusDays(2), LocalTime.of(18, 0));
+        lock(TestPostgres.showSeatIds(jdbcTemplate, drifted).get(0));
+        jdbcTemplate.update("UPDATE show_seat_counters SET available_seats = 99, sold_seats = 5 WHERE show_id = ?", drifted);
+        jdbcTemplate.update("DELETE FROM show_seat_counters WHERE show_id = ?", missing);
+        LocalDateTime consistentUpdatedAt = jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM show_seat_counters WHERE show_id = ?", LocalDateTime.class, consistent);
+
+        new ShowSeatCounterReconciler(showRepository(),
+                new TransactionTemplate(new DataSourceTransactionManager(TestPostgres.dataSource()))).reconcile();
+
+        assertCounters(drifted, 3, 1, 0);
+        assertCounters(missing, 4, 0, 0);
+        assertCounters(consistent, 4, 0, 0);
+        // Counters that already match are not rewritten
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM show_seat_counters WHERE show_id = ?", LocalDateTime.class, consistent))
+                .isEqualTo(consistentUpdatedAt);
+    }
+
+    private void lock(long showSeatId) {
+        jdbcTemplate.update("UPDATE show_seats SET status = 'LOCKED', locked_by = ? WHERE id = ?", userId, showSeatId);
+    }
+
+    // Checks the counter row against the expected values and against a recount of show_seats
+    private void assertCounters(long showId, int available, int locked, int sold) {
+        List<Integer> expected = List.of(available, locked, sold);
+        List<Integer> counters = jdbcTemplate.queryForObject("""
+                        SELECT available_seats, locked_seats, sold_seats FROM show_seat_counters WHERE show_id = ?
+                        """,
+                (rs, rowNum) -> List.of(rs.getInt(1), rs.getInt(2), rs.getInt(3)), showId);
+        List<Integer> recount = jdbcTemplate.queryForObject("""
+                        SELECT COUNT(*) FILTER (WHERE status = 'AVAILABLE'),
+                               COUNT(*) FILTER (WHERE status = 'LOCKED'),
+                               COUNT(*) FILTER (WHERE status = 'SOLD')
+                        FROM show_seats WHERE show_id = ? AND deleted = FALSE
+                        """,
+                (rs, rowNum) -> List.of(rs.getInt(1), rs.getInt(2), rs.getInt(3)), showId);
+        assertThat(counters).isEqualTo(expected);
+        assertThat(recount).isEqualTo(expected);
+    }
+
+    // The reconciler's queries, run as ShowRepository runs them
+    @SuppressWarnings("unchecked")
+    private ShowRepository showRepository() {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        ShowRepository showRepository = mock(ShowRepository.class);
+        when(showRepository.findShowIdsFrom(any(), anyLong(), anyInt())).thenAnswer(invocation -> named.queryForList(
+                TestPostgres.nativeQuery(ShowRepository.class, "findShowIdsFrom"),
+                new MapSqlParameterSource()
+                        .addValue("fromDate", invocation.getArgument(0, LocalDate.class))
+                        .addValue("afterId", invocation.getArgument(1, Long.class))
+                        .addValue("limit", invocation.getArgument(2, Integer.class)),
+                Long.class));
+        when(showRepository.lockSeatCounters(anyCollection())).thenAnswer(invocation -> named.queryForList(
+                TestPostgres.nativeQuery(ShowRepository.class, "lockSeatCounters"),
+                new MapSqlParameterSource("showIds", invocation.getArgument(0, Collection.class)),
+                Long.class));
+        when(showRepository.reconcileSeatCounters(anyCollection())).thenAnswer(invocation -> named.update(
+                TestPostgres.nativeQuery(ShowRepository.class, "reconcileSeatCounters"),
+                new MapSqlParameterSource("showIds", invocation.getArgument(0, Collection.class))));
+        return showRepository;
+    }
+}
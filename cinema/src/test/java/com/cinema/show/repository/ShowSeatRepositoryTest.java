@@ -0,0 +1,68 @@
+package com.cinema.show.repository;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import com.cinema.show.repository.ShowBulkRepository.NewShow;
+import com.cinema.support.TestPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+/**
+ * Runs the bulk scheduling statements against Postgres.
+ */
+class ShowSeatRepositoryTest {
+
+    @Test
+    void createsOnePricedSeatPerActiveHallSeatForEveryShow() {
+        JdbcTemplate jdbcTemplate = TestPostgres.jdbcTemplate();
+        long hallId = TestPostgres.insertHall(jdbcTemplate, "NORMAL", "VIP", "COUPLE", "NORMAL");
+        long movieId = TestPostgres.insertMovie(jdbcTemplate, 120);
+        jdbcTemplate.update("UPDATE seats SET status = 'BROKEN' WHERE hall_id = ? AND seat_number = 4", hallId);
+        LocalDate day = LocalDate.now().plusDays(1);
+
+        List<Long> showIds = new ShowBulkRepository(jdbcTemplate).insertShows(List.of(
+                new NewShow(movieId, hallId, day, LocalTime.of(10, 0), LocalTime.of(12, 0), new BigDecimal("80000")),
+                new NewShow(movieId, hallId, day, LocalTime.of(14, 0), LocalTime.of(16, 0), new BigDecimal("99999.99"))),
+                "admin");
+        int inserted = new NamedParameterJdbcTemplate(jdbcTemplate).update(
+                TestPostgres.nativeQuery(ShowSeatRepository.class, "insertShowSeats"),
+                new MapSqlParameterSource()
+                        .addValue("showIds", showIds)
+                        .addValue("normalMultiplier", SeatType.NORMAL.getPriceMultiplier())
+                        .addValue("vipMultiplier", SeatType.VIP.getPriceMultiplier())
+                        .addValue("coupleMultiplier", SeatType.COUPLE.getPriceMultiplier()));
+
+        assertThat(inserted).isEqualTo(6);
+        List<Map<String, Object>> seats = jdbcTemplate.queryForList("""
+                        SELECT ss.show_id, st.seat_number, ss.price, ss.status
+                        FROM show_seats ss JOIN seats st ON st.id = ss.seat_id
+                        WHERE ss.show_id IN (?, ?)
+                        ORDER BY ss.show_id, st.seat_number
+                        """,
+                showIds.get(0), showIds.get(1));
+        assertThat(seats)
+                .extracting(row -> row.get("show_id"), row -> row.get("seat_number"),
+                        row -> row.get("price"), row -> row.get("status"))
+                .containsExactly(
+                        tuple(showIds.get(0), 1, new BigDecimal("80000.00"), "AVAILABLE"),
+                        tuple(showIds.get(0), 2, new BigDecimal("120000.00"), "AVAILABLE"),
+                        tuple(showIds.get(0), 3, new BigDecimal("160000.00"), "AVAILABLE"),
+                        tuple(showIds.get(1), 1, new BigDecimal("99999.99"), "AVAILABLE"),
+                        tuple(showIds.get(1), 2, new BigDecimal("149999.99"), "AVAILABLE"),
+                        tuple(showIds.get(1), 3, new BigDecimal("199999.98"), "AVAILABLE"));
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT available_seats FROM show_seat_counters WHERE show_id IN (?, ?)",
+                Integer.class, showIds.get(0), showIds.get(1)))
+                .containsExactly(3, 3);
+    }
+}
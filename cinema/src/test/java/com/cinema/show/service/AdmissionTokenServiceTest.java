@@ -0,0 +1,40 @@
+package com.cinema.show.service;
+
+import com.cinema.shared.config.AppProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionTokenServiceTest {
+
+    private final AdmissionTokenService tokens = new AdmissionTokenService(properties("secret-one"));
+
+    @Test
+    void acceptsTokenOnlyForItsShowAndUser() {
+        String token = tokens.issue(7L, 42L, Instant.now().plusSeconds(60));
+
+        assertThat(tokens.verify(token, 7L, 42L)).isTrue();
+        assertThat(tokens.verify(token, 8L, 42L)).isFalse();
+        assertThat(tokens.verify(token, 7L, 43L)).isFalse();
+        assertThat(tokens.verify(null, 7L, 42L)).isFalse();
+        assertThat(tokens.verify("garbage", 7L, 42L)).isFalse();
+    }
+
+    @Test
+    void rejectsExpiredAndForeignTokens() {
+        String expired = tokens.issue(7L, 42L, Instant.now().minusSeconds(1));
+        String foreign = new AdmissionTokenService(properties("secret-two"))
+                .issue(7L, 42L, Instant.now().plusSeconds(60));
+
+        assertThat(tokens.verify(expired, 7L, 42L)).isFalse();
+        assertThat(tokens.verify(foreign, 7L, 42L)).isFalse();
+    }
+
+    private static AppProperties properties(String secret) {
+        AppProperties properties = new AppProperties();
+        properties.getWaitingRoom().setTokenSecret(secret);
+        return properties;
+    }
+}
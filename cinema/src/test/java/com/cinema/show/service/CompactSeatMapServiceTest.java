@@ -0,0 +1,90 @@
+package com.cinema.show.service;
+
+import com.cinema.show.dto.CompactSeatStatusResponse;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.repository.ShowRepository.InventoryHeader;
+import com.cinema.show.repository.ShowSeatRepository.SeatStateRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CompactSeatMapServiceTest {
+
+    private static final long SHOW_ID = 1L;
+
+    private final CompactSeatMapService service = new CompactSeatMapService(mock(SeatInventoryService.class));
+
+    @Test
+    void changesTheStatusTagWhenALocalTransitionHasNotComeBackThroughTheRelay() {
+        ShowSeatInventory inventory = ShowSeatInventory.load(header(), seats());
+        inventory.startSequenceAt(40);
+        CompactSeatStatusResponse before = service.getStatus(inventory);
+        String beforeTag = service.statusETag(before);
+
+        // Applied locally; the relay has not yet delivered it, so the sequence stays at 40
+        inventory.apply(inventory.ordinalOf(3L), ShowSeatStatus.LOCKED);
+        CompactSeatStatusResponse after = service.getStatus(inventory);
+
+        assertThat(after.getSequence()).isEqualTo(before.getSequence());
+        assertThat(after.getStatus()).isNotEqualTo(before.getStatus());
+        assertThat(service.statusETag(after)).isNotEqualTo(beforeTag);
+    }
+
+    @Test
+    void givesTheSameTagForTheSameStatusesOnAnotherNode() {
+        ShowSeatInventory local = ShowSeatInventory.load(header(), seats());
+        ShowSeatInventory remote = ShowSeatInventory.load(header(), seats());
+        local.apply(local.ordinalOf(2L), ShowSeatStatus.SOLD);
+        remote.apply(remote.ordinalOf(5L), ShowSeatStatus.LOCKED);
+        remote.apply(remote.ordinalOf(5L), ShowSeatStatus.AVAILABLE);
+        remote.apply(remote.ordinalOf(2L), ShowSeatStatus.SOLD);
+        CompactSeatMapService remoteService = new CompactSeatMapService(mock(SeatInventoryService.class));
+
+        CompactSeatStatusResponse localStatus = service.getStatus(local);
+        CompactSeatStatusResponse remoteStatus = remoteService.getStatus(remote);
+
+        assertThat(localStatus.getVersion()).isNotEqualTo(remoteStatus.getVersion());
+        assertThat(service.statusETag(localStatus)).isEqualTo(remoteService.statusETag(remoteStatus));
+    }
+
+    private static List<SeatStateRow> seats() {
+        List<SeatStateRow> seats = new ArrayList<>();
+        for (int number = 1; number <= 6; number++) {
+            seats.add(seat(number, number));
+        }
+        return seats;
+    }
+
+    private static InventoryHeader header() {
+        return new InventoryHeader() {
+            public Long getShowId() { return SHOW_ID; }
+            public Long getHallId() { return 1L; }
+            public Integer getTotalRows() { return 1; }
+            public Integer getSeatsPerRow() { return 6; }
+            public String getStatus() { return "SCHEDULED"; }
+            public LocalDate getShowDate() { return LocalDate.now().plusDays(1); }
+            public LocalTime getStartTime() { return LocalTime.of(18, 0); }
+            public LocalTime getEndTime() { return LocalTime.of(20, 0); }
+        };
+    }
+
+    private static SeatStateRow seat(long id, int number) {
+        return new SeatStateRow() {
+            public Long getShowSeatId() { return id; }
+            public String getRowName() { return "A"; }
+            public Integer getSeatNumber() { return number; }
+            public String getSeatType() { return "NORMAL"; }
+            public BigDecimal getPrice() { return BigDecimal.TEN; }
+            public String getStatus() { return "AVAILABLE"; }
+            public String getSeatStatus() { return "ACTIVE"; }
+        };
+    }
+}
@@ -0,0 +1,225 @@
+package com.cinema.show.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.event.SeatStatusChangedEvent;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.repository.ShowRepository.InventoryHeader;
+import com.cinema.show.repository.ShowSeatRepository.SeatStateRow;
+import com.cinema.support.TestRedis;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the seat hold scripts against Redis.
+ */
+class SeatHoldServiceTest {
+
+    private static final long SHOW_ID = 1L;
+    private static final long ALICE = 10L;
+    private static final long BOB = 20L;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> HOLD_INDEX_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/seat-hold-index.lua"), List.class);
+
+    private final AppProperties appProperties = new AppProperties();
+    private final SeatInventoryService seatInventoryService = mock(SeatInventoryService.class);
+    private final SeatHoldExpiryService seatHoldExpiryService = mock(SeatHoldExpiryService.class);
+    private StringRedisTemplate redisTemplate;
+    private SeatHoldService service;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = TestRedis.redisTemplate();
+        when(seatInventoryService.getInventory(SHOW_ID)).thenReturn(ShowSeatInventory.load(header(), seats()));
+        appProperties.getBooking().setMaxSeatsPerBooking(3);
+        service = new SeatHoldService(redisTemplate, seatInventoryService, seatHoldExpiryService,
+                mock(ApplicationEventPublisher.class), appProperties);
+    }
+
+    @Test
+    void holdsASelectionEntirelyOrNotAtAll() {
+        service.hold(SHOW_ID, ALICE, List.of(2L));
+
+        assertThatThrownBy(() -> service.hold(SHOW_ID, BOB, List.of(1L, 2L)))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.SEAT_ALREADY_LOCKED);
+        assertThat(holder(1L)).isNull();
+        assertThat(holder(2L)).isEqualTo(Long.toString(ALICE));
+    }
+
+    @Test
+    void limitsTheSeatsOneOwnerHoldsForAShow() {
+        service.hold(SHOW_ID, ALICE, List.of(1L, 2L));
+
+        // Seats the owner holds already are not counted twice
+        service.hold(SHOW_ID, ALICE, List.of(2L, 3L));
+        assertThatThrownBy(() -> service.hold(SHOW_ID, ALICE, List.of(4L)))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.VALIDATION_ERROR);
+        assertThat(holder(4L)).isNull();
+
+        service.release(SHOW_ID, ALICE, List.of(1L));
+        service.hold(SHOW_ID, ALICE, List.of(4L));
+        assertThat(holder(4L)).isEqualTo(Long.toString(ALICE));
+    }
+
+    @Test
+    void releasesOnlyTheOwnersHolds() {
+        service.hold(SHOW_ID, ALICE, List.of(1L, 2L));
+
+        assertThat(service.release(SHOW_ID, BOB, List.of(1L, 2L))).isEmpty();
+        assertThat(service.release(SHOW_ID, ALICE, List.of(1L, 3L))).containsExactly(1L);
+
+        assertThat(holder(1L)).isNull();
+        assertThat(liveHolds()).containsExactly("2");
+    }
+
+    @Test
+    void extendsOnlyWhenEveryHoldStillBelongsToTheUser() {
+        service.hold(SHOW_ID, ALICE, List.of(1L, 2L));
+
+        assertThatThrownBy(() -> service.extend(SHOW_ID, BOB, List.of(1L), Duration.ofMinutes(15)))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.SEAT_NOT_LOCKED_BY_USER);
+        assertThatThrownBy(() -> service.extend(SHOW_ID, ALICE, List.of(1L, 3L), Duration.ofMinutes(15)))
+                .isInstanceOf(BusinessException.class);
+        assertThat(ttlSeconds(1L)).isLessThanOrEqualTo(300);
+
+        service.extend(SHOW_ID, ALICE, List.of(1L, 2L), Duration.ofMinutes(15));
+        assertThat(ttlSeconds(1L)).isGreaterThan(300);
+        assertThat(ttlSeconds(2L)).isGreaterThan(300);
+    }
+
+    @Test
+    void putsExtendedHoldsBackWhenTheBookingRollsBack() {
+        service.hold(SHOW_ID, ALICE, List.of(1L, 2L));
+
+        List<TransactionSynchronization> synchronizations;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.extend(SHOW_ID, ALICE, List.of(1L, 2L), Duration.ofMinutes(15));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(ttlSeconds(1L)).isGreaterThan(300);
+
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(ttlSeconds(1L)).isBetween(1L, 300L);
+        assertThat(ttlSeconds(2L)).isBetween(1L, 300L);
+        assertThat(holder(1L)).isEqualTo(Long.toString(ALICE));
+    }
+
+    @Test
+    void sellingDropsTheHoldsAndBlocksFurtherHolds() {
+        service.hold(SHOW_ID, ALICE, List.of(1L, 2L));
+
+        service.markSold(SHOW_ID, ALICE, List.of(1L, 2L));
+
+        assertThat(holder(1L)).isNull();
+        assertThat(liveHolds()).isEmpty();
+        assertThatThrownBy(() -> service.hold(SHOW_ID, BOB, List.of(2L)))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.SEAT_ALREADY_SOLD);
+        // Sold seats no longer count against the owner's limit
+        service.hold(SHOW_ID, ALICE, List.of(3L, 4L, 5L));
+    }
+
+    @Test
+    void reportsLapsedHoldsThatWereNotSold() throws InterruptedException {
+        appProperties.getSeatLock().setTimeoutSeconds(1);
+        service.hold(SHOW_ID, ALICE, List.of(1L, 2L));
+        service.markSold(SHOW_ID, ALICE, List.of(2L));
+        TimeUnit.MILLISECONDS.sleep(1_200);
+
+        ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+        new SeatHoldExpiryService(redisTemplate, publisher).releaseExpired(List.of(
+                new SeatHoldExpiryService.HoldDeadline(SHOW_ID, 1L),
+                new SeatHoldExpiryService.HoldDeadline(SHOW_ID, 2L)));
+
+        verify(publisher).publishEvent(new SeatStatusChangedEvent(SHOW_ID, 1L, ShowSeatStatus.AVAILABLE));
+        assertThat(liveHolds()).isEmpty();
+    }
+
+    private String holder(long seatId) {
+        return redisTemplate.opsForValue().get(SeatHoldService.holdKey(SHOW_ID, seatId));
+    }
+
+    private long ttlSeconds(long seatId) {
+        Long ttl = redisTemplate.getExpire(SeatHoldService.holdKey(SHOW_ID, seatId), TimeUnit.SECONDS);
+        return ttl != null ? ttl : -2;
+    }
+
+    // Seat ids of the show's hold index, as a freshly loaded inventory reads them
+    private List<String> liveHolds() {
+        List<?> holds = redisTemplate.execute(HOLD_INDEX_SCRIPT, List.of(SeatHoldService.holdIndexKey(SHOW_ID)));
+        List<String> seatIds = new ArrayList<>();
+        for (int i = 1; i + 1 < holds.size(); i += 2) {
+            seatIds.add(String.valueOf(holds.get(i)));
+        }
+        return seatIds;
+    }
+
+    private static List<SeatStateRow> seats() {
+        List<SeatStateRow> seats = new ArrayList<>();
+        for (int number = 1; number <= 10; number++) {
+            seats.add(seat(number, number));
+        }
+        return seats;
+    }
+
+    private static InventoryHeader header() {
+        return new InventoryHeader() {
+            public Long getShowId() { return SHOW_ID; }
+            public Long getHallId() { return 1L; }
+            public Integer getTotalRows() { return 1; }
+            public Integer getSeatsPerRow() { return 10; }
+            public String getStatus() { return "SCHEDULED"; }
+            public LocalDate getShowDate() { return LocalDate.now().plusDays(1); }
+            public LocalTime getStartTime() { return LocalTime.of(18, 0); }
+            public LocalTime getEndTime() { return LocalTime.of(20, 0); }
+        };
+    }
+
+    private static SeatStateRow seat(long id, int number) {
+        return new SeatStateRow() {
+            public Long getShowSeatId() { return id; }
+            public String getRowName() { return "A"; }
+            public Integer getSeatNumber() { return number; }
+            public String getSeatType() { return "NORMAL"; }
+            public BigDecimal getPrice() { return BigDecimal.TEN; }
+            public String getStatus() { return "AVAILABLE"; }
+            public String getSeatStatus() { return "ACTIVE"; }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.cinema.show.service;
+
+import com.cinema.show.entity.ShowSeat.ShowSeatStatus;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.repository.ShowRepository;
+import com.cinema.show.repository.ShowRepository.InventoryHeader;
+import com.cinema.show.repository.ShowRepository.SeatCounterRow;
+import com.cinema.show.repository.ShowSeatRepository;
+import com.cinema.show.repository.ShowSeatRepository.SeatStateRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatInventoryServiceTest {
+
+    private static final long SHOW_ID = 1L;
+
+    private final ShowRepository showRepository = mock(ShowRepository.class);
+    private final ShowSeatRepository showSeatRepository = mock(ShowSeatRepository.class);
+    private final SeatInventoryService service = new SeatInventoryService(showRepository, showSeatRepository,
+            mock(StringRedisTemplate.class), mock(SeatHoldExpiryService.class));
+
+    @BeforeEach
+    void setUp() {
+        when(showRepository.findInventoryHeader(SHOW_ID)).thenReturn(Optional.of(header()));
+    }
+
+    @Test
+    void replaysTransitionsThatArriveWhileTheShowLoads() {
+        when(showSeatRepository.findSeatStates(SHOW_ID)).thenAnswer(invocation -> {
+            // Commits after the seat states were read but before the inventory is published
+            assertThat(service.applyStatus(SHOW_ID, 3L, ShowSeatStatus.SOLD)).isTrue();
+            return seats();
+        });
+
+        ShowSeatInventory inventory = service.getInventory(SHOW_ID);
+
+        assertThat(inventory.snapshot().statusAt(inventory.ordinalOf(3L))).isEqualTo(ShowSeatStatus.SOLD);
+        assertThat(service.findLoadedInventory(SHOW_ID)).isSameAs(inventory);
+    }
+
+    @Test
+    void keepsAnEvictedLoadOutOfTheMap() {
+        when(showSeatRepository.findSeatStates(SHOW_ID)).thenAnswer(invocation -> {
+            service.evict(SHOW_ID);
+            return seats();
+        });
+
+        assertThat(service.getInventory(SHOW_ID)).isNotNull();
+        assertThat(service.findLoadedInventory(SHOW_ID)).isNull();
+    }
+
+    @Test
+    void reloadsAShowWhenARelayedTransitionWasMissed() {
+        when(showSeatRepository.findSeatStates(SHOW_ID)).thenReturn(seats());
+        ShowSeatInventory inventory = service.getInventory(SHOW_ID);
+
+        service.applyRelayed(SHOW_ID, 2L, ShowSeatStatus.LOCKED, 7);
+        service.applyRelayed(SHOW_ID, 3L, null, 8);
+        assertThat(service.findLoadedInventory(SHOW_ID)).isSameAs(inventory);
+        assertThat(inventory.getSequence()).isEqualTo(8);
+        assertThat(inventory.snapshot().statusAt(inventory.ordinalOf(2L))).isEqualTo(ShowSeatStatus.LOCKED);
+
+        service.applyRelayed(SHOW_ID, 4L, ShowSeatStatus.SOLD, 10);
+        assertThat(service.findLoadedInventory(SHOW_ID)).isNull();
+    }
+
+    @Test
+    void reloadsShowsThatDisagreeWithTheirCountersTwice() {
+        when(showSeatRepository.findSeatStates(SHOW_ID)).thenReturn(seats());
+        ShowSeatInventory inventory = service.getInventory(SHOW_ID);
+        when(showRepository.findSeatCounters(anyCollection())).thenReturn(List.of(counters(9, 0, 1)));
+
+        service.resyncWithCounters();
+        assertThat(service.findLoadedInventory(SHOW_ID)).isSameAs(inventory);
+
+        service.resyncWithCounters();
+        assertThat(service.findLoadedInventory(SHOW_ID)).isNull();
+    }
+
+    @Test
+    void treatsHoldsAsAvailableWhenComparingWithCounters() {
+        when(showSeatRepository.findSeatStates(SHOW_ID)).thenReturn(seats());
+        ShowSeatInventory inventory = service.getInventory(SHOW_ID);
+        service.applyStatus(SHOW_ID, 2L, ShowSeatStatus.LOCKED);
+        when(showRepository.findSeatCounters(anyCollection())).thenReturn(List.of(counters(10, 0, 0)));
+
+        service.resyncWithCounters();
+        service.resyncWithCounters();
+
+        assertThat(service.findLoadedInventory(SHOW_ID)).isSameAs(inventory);
+    }
+
+    private static List<SeatStateRow> seats() {
+        List<SeatStateRow> seats = new ArrayList<>();
+        for (int number = 1; number <= 10; number++) {
+            seats.add(seat(number, number));
+        }
+        return seats;
+    }
+
+    private static InventoryHeader header() {
+        return new InventoryHeader() {
+            public Long getShowId() { return SHOW_ID; }
+            public Long getHallId() { return 1L; }
+            public Integer getTotalRows() { return 1; }
+            public Integer getSeatsPerRow() { return 10; }
+            public String getStatus() { return "SCHEDULED"; }
+            public LocalDate getShowDate() { return LocalDate.now(); }
+            public LocalTime getStartTime() { return LocalTime.MIN; }
+            public LocalTime getEndTime() { return LocalTime.MAX; }
+        };
+    }
+
+    private static SeatStateRow seat(long id, int number) {
+        return new SeatStateRow() {
+            public Long getShowSeatId() { return id; }
+            public String getRowName() { return "A"; }
+            public Integer getSeatNumber() { return number; }
+            public String getSeatType() { return "NORMAL"; }
+            public BigDecimal getPrice() { return BigDecimal.TEN; }
+            public String getStatus() { return "AVAILABLE"; }
+            public String getSeatStatus() { return "ACTIVE"; }
+        };
+    }
+
+    private static SeatCounterRow counters(int available, int locked, int sold) {
+        return new SeatCounterRow() {
+            public Long getShowId() { return SHOW_ID; }
+            public Integer getAvailableSeats() { return available; }
+            public Integer getLockedSeats() { return locked; }
+            public Integer getSoldSeats() { return sold; }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.cinema.show.service;
+
+import com.cinema.cinema.entity.Seat.SeatType;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.dto.BulkScheduleRequest;
+import com.cinema.show.dto.BulkScheduleResponse;
+import com.cinema.show.repository.ShowBulkRepository;
+import com.cinema.show.repository.ShowBulkRepository.NewShow;
+import com.cinema.show.repository.ShowRepository;
+import com.cinema.show.repository.ShowRepository.MovieScheduleInfo;
+import com.cinema.show.repository.ShowRepository.ScheduledSlot;
+import com.cinema.show.repository.ShowSeatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.AuditorAware;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShowScheduleServiceTest {
+
+    private static final long MOVIE_ID = 3L;
+    private static final long HALL_ID = 5L;
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    private final ShowRepository showRepository = mock(ShowRepository.class);
+    private final ShowSeatRepository showSeatRepository = mock(ShowSeatRepository.class);
+    private final ShowBulkRepository showBulkRepository = mock(ShowBulkRepository.class);
+    @SuppressWarnings("unchecked")
+    private final AuditorAware<String> auditorProvider = mock(AuditorAware.class);
+    private final ShowScheduleService service = new ShowScheduleService(
+            showRepository, showSeatRepository, showBulkRepository, auditorProvider);
+
+    @BeforeEach
+    void setUp() {
+        when(showRepository.findMovieScheduleInfo(Set.of(MOVIE_ID))).thenReturn(List.of(movie()));
+        when(showRepository.lockActiveHalls(Set.of(HALL_ID))).thenReturn(List.of(HALL_ID));
+        when(auditorProvider.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+    }
+
+    @Test
+    void locksTheHallsBeforeReadingTheirShowsAndPricesSeatsByType() {
+        when(showBulkRepository.insertShows(anyList(), eq("admin"))).thenReturn(List.of(11L, 12L, 13L, 14L));
+        when(showSeatRepository.insertShowSeats(anyCollection(), any(), any(), any())).thenReturn(40);
+
+        BulkScheduleResponse response = service.schedule(request(LocalTime.of(10, 0), LocalTime.of(14, 0)));
+
+        var order = inOrder(showRepository, showBulkRepository, showSeatRepository);
+        order.verify(showRepository).lockActiveHalls(Set.of(HALL_ID));
+        order.verify(showRepository).findScheduledSlots(Set.of(HALL_ID), DAY, DAY.plusDays(1));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NewShow>> shows = ArgumentCaptor.forClass(List.class);
+        order.verify(showBulkRepository).insertShows(shows.capture(), eq("admin"));
+        order.verify(showSeatRepository).insertShowSeats(List.of(11L, 12L, 13L, 14L),
+                SeatType.NORMAL.getPriceMultiplier(),
+                SeatType.VIP.getPriceMultiplier(),
+                SeatType.COUPLE.getPriceMultiplier());
+
+        assertThat(shows.getValue()).containsExactly(
+                new NewShow(MOVIE_ID, HALL_ID, DAY, LocalTime.of(10, 0), LocalTime.of(12, 0), BigDecimal.TEN),
+                new NewShow(MOVIE_ID, HALL_ID, DAY, LocalTime.of(14, 0), LocalTime.of(16, 0), BigDecimal.TEN),
+                new NewShow(MOVIE_ID, HALL_ID, DAY.plusDays(1), LocalTime.of(10, 0), LocalTime.of(12, 0), BigDecimal.TEN),
+                new NewShow(MOVIE_ID, HALL_ID, DAY.plusDays(1), LocalTime.of(14, 0), LocalTime.of(16, 0), BigDecimal.TEN));
+        assertThat(response.getShowsCreated()).isEqualTo(4);
+        assertThat(response.getShowSeatsCreated()).isEqualTo(40);
+    }
+
+    @Test
+    void rejectsAShowOverlappingOneAlreadyScheduled() {
+        when(showRepository.findScheduledSlots(Set.of(HALL_ID), DAY, DAY.plusDays(1)))
+                .thenReturn(List.of(slot(DAY.plusDays(1), LocalTime.of(15, 0), LocalTime.of(17, 0))));
+
+        assertThatThrownBy(() -> service.schedule(request(LocalTime.of(10, 0), LocalTime.of(14, 0))))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.SHOW_SCHEDULE_CONFLICT);
+        verify(showBulkRepository, never()).insertShows(anyList(), anyString());
+    }
+
+    @Test
+    void rejectsOverlappingSlotsWithinOneRequest() {
+        assertThatThrownBy(() -> service.schedule(request(LocalTime.of(10, 0), LocalTime.of(11, 0))))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.SHOW_SCHEDULE_CONFLICT);
+        verify(showBulkRepository, never()).insertShows(anyList(), anyString());
+    }
+
+    private static BulkScheduleRequest request(LocalTime... timeSlots) {
+        return BulkScheduleRequest.builder()
+                .entries(List.of(BulkScheduleRequest.ScheduleEntry.builder()
+                        .movieId(MOVIE_ID)
+                        .hallId(HALL_ID)
+                        .startDate(DAY)
+                        .endDate(DAY.plusDays(1))
+                        .timeSlots(List.of(timeSlots))
+                        .basePrice(BigDecimal.TEN)
+                        .build()))
+                .build();
+    }
+
+    private static MovieScheduleInfo movie() {
+        return new MovieScheduleInfo() {
+            public Long getId() { return MOVIE_ID; }
+            public Integer getDuration() { return 120; }
+            public String getStatus() { return "NOW_SHOWING"; }
+        };
+    }
+
+    private static ScheduledSlot slot(LocalDate date, LocalTime start, LocalTime end) {
+        return new ScheduledSlot() {
+            public Long getHallId() { return HALL_ID; }
+            public LocalDate getShowDate() { return date; }
+            public LocalTime getStartTime() { return start; }
+            public LocalTime getEndTime() { return end; }
+        };
+    }
+}
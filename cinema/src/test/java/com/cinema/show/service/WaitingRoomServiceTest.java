@@ -0,0 +1,191 @@
+package com.cinema.show.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.shared.exception.ErrorCode;
+import com.cinema.show.dto.WaitingRoomAdminResponse;
+import com.cinema.show.dto.WaitingRoomStatusResponse;
+import com.cinema.show.inventory.ShowSeatInventory;
+import com.cinema.show.repository.ShowRepository.InventoryHeader;
+import com.cinema.show.repository.ShowSeatRepository.SeatStateRow;
+import com.cinema.support.TestRedis;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the waiting room scripts against Redis. Time passing is simulated by moving
+ * the room's rate clock (baseMs) back.
+ */
+class WaitingRoomServiceTest {
+
+    private static final long SHOW_ID = 1L;
+    private static final String ROOM_KEY = "waiting-room:{" + SHOW_ID + "}";
+
+    private final AppProperties appProperties = new AppProperties();
+    private final SeatInventoryService seatInventoryService = mock(SeatInventoryService.class);
+    private StringRedisTemplate redisTemplate;
+    private WaitingRoomService service;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = TestRedis.redisTemplate();
+        appProperties.getWaitingRoom().setTokenSecret("waiting-room-test-secret");
+        when(seatInventoryService.getInventory(SHOW_ID)).thenReturn(ShowSeatInventory.load(header(), List.of(seat())));
+        service = new WaitingRoomService(redisTemplate, seatInventoryService,
+                new AdmissionTokenService(appProperties), appProperties);
+    }
+
+    @Test
+    void queuesUsersInArrivalOrder() {
+        service.configure(SHOW_ID, 1);
+
+        assertThat(service.join(SHOW_ID, 30L).getPosition()).isEqualTo(1);
+        assertThat(service.join(SHOW_ID, 10L).getPosition()).isEqualTo(2);
+        assertThat(service.join(SHOW_ID, 20L).getPosition()).isEqualTo(3);
+
+        // Joining again or polling keeps the ticket
+        assertThat(service.join(SHOW_ID, 10L).getPosition()).isEqualTo(2);
+        WaitingRoomStatusResponse status = service.getStatus(SHOW_ID, 20L);
+        assertThat(status.isQueued()).isTrue();
+        assertThat(status.isAdmitted()).isFalse();
+        assertThat(status.getPosition()).isEqualTo(3);
+        // Polling does not take a ticket
+        assertThat(service.getStatus(SHOW_ID, 40L).isQueued()).isFalse();
+        assertThat(service.getRoom(SHOW_ID).getTicketsIssued()).isEqualTo(3);
+    }
+
+    @Test
+    void estimatesTheWaitFromThePositionAndRate() {
+        service.configure(SHOW_ID, 6);
+        for (long userId = 1; userId <= 3; userId++) {
+            service.join(SHOW_ID, userId);
+        }
+
+        WaitingRoomStatusResponse status = service.getStatus(SHOW_ID, 3L);
+
+        assertThat(status.getPosition()).isEqualTo(3);
+        assertThat(status.getEtaSeconds()).isEqualTo(30);
+        assertThat(status.getPollAfterSeconds()).isEqualTo(7);
+    }
+
+    @Test
+    void admitsUsersAtTheConfiguredRate() {
+        service.configure(SHOW_ID, 1);
+        for (long userId = 1; userId <= 4; userId++) {
+            service.join(SHOW_ID, userId);
+        }
+        assertThatThrownBy(() -> service.checkAdmission(SHOW_ID, 1L, null))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.WAITING_ROOM_ADMISSION_REQUIRED);
+
+        elapse(120_000);
+
+        WaitingRoomStatusResponse first = service.getStatus(SHOW_ID, 1L);
+        assertThat(first.isAdmitted()).isTrue();
+        service.checkAdmission(SHOW_ID, 1L, first.getAdmissionToken());
+        assertThat(service.getStatus(SHOW_ID, 2L).isAdmitted()).isTrue();
+        WaitingRoomStatusResponse third = service.getStatus(SHOW_ID, 3L);
+        assertThat(third.isAdmitted()).isFalse();
+        assertThat(third.getPosition()).isEqualTo(1);
+        assertThat(third.getEtaSeconds()).isEqualTo(60);
+
+        WaitingRoomAdminResponse room = service.getRoom(SHOW_ID);
+        assertThat(room.getAdmitted()).isEqualTo(2);
+        assertThat(room.getWaiting()).isEqualTo(2);
+    }
+
+    @Test
+    void appliesARateChangeWithoutLosingAdmissions() {
+        service.configure(SHOW_ID, 1);
+        for (long userId = 1; userId <= 5; userId++) {
+            service.join(SHOW_ID, userId);
+        }
+        elapse(120_000);
+        assertThat(service.getStatus(SHOW_ID, 4L).getEtaSeconds()).isEqualTo(120);
+
+        WaitingRoomAdminResponse room = service.configure(SHOW_ID, 30);
+
+        assertThat(room.getAdmissionsPerMinute()).isEqualTo(30);
+        assertThat(room.getAdmitted()).isEqualTo(2);
+        assertThat(service.getStatus(SHOW_ID, 2L).isAdmitted()).isTrue();
+        WaitingRoomStatusResponse fourth = service.getStatus(SHOW_ID, 4L);
+        assertThat(fourth.getPosition()).isEqualTo(2);
+        assertThat(fourth.getEtaSeconds()).isEqualTo(4);
+
+        elapse(6_000);
+        assertThat(service.getStatus(SHOW_ID, 5L).isAdmitted()).isTrue();
+    }
+
+    @Test
+    void sendsALapsedAdmissionToTheBackOfTheQueue() {
+        appProperties.getWaitingRoom().setAdmissionTtlMinutes(1);
+        service.configure(SHOW_ID, 1);
+        service.join(SHOW_ID, 1L);
+        service.join(SHOW_ID, 2L);
+        elapse(60_000);
+        assertThat(service.getStatus(SHOW_ID, 1L).isAdmitted()).isTrue();
+        redisTemplate.opsForHash().put(ROOM_KEY + ":admitted", "1",
+                Long.toString(System.currentTimeMillis() - 61_000));
+
+        assertThat(service.getStatus(SHOW_ID, 1L).isQueued()).isFalse();
+        WaitingRoomStatusResponse rejoined = service.join(SHOW_ID, 1L);
+
+        assertThat(rejoined.isAdmitted()).isFalse();
+        assertThat(rejoined.getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    void letsEveryoneThroughOnceTheRoomIsClosed() {
+        service.configure(SHOW_ID, 1);
+        service.join(SHOW_ID, 1L);
+
+        service.close(SHOW_ID);
+
+        assertThat(service.getStatus(SHOW_ID, 1L).isEnabled()).isFalse();
+        service.checkAdmission(SHOW_ID, 1L, null);
+        assertThat(redisTemplate.keys("waiting-room:*")).isEmpty();
+    }
+
+    // Moves the rate clock back, as if the room had been admitting for that long
+    private void elapse(long millis) {
+        long baseMs = Long.parseLong(String.valueOf(redisTemplate.opsForHash().get(ROOM_KEY, "baseMs")));
+        redisTemplate.opsForHash().put(ROOM_KEY, "baseMs", Long.toString(baseMs - millis));
+    }
+
+    private static InventoryHeader header() {
+        return new InventoryHeader() {
+            public Long getShowId() { return SHOW_ID; }
+            public Long getHallId() { return 1L; }
+            public Integer getTotalRows() { return 1; }
+            public Integer getSeatsPerRow() { return 1; }
+            public String getStatus() { return "SCHEDULED"; }
+            public LocalDate getShowDate() { return LocalDate.now().plusDays(1); }
+            public LocalTime getStartTime() { return LocalTime.of(18, 0); }
+            public LocalTime getEndTime() { return LocalTime.of(20, 0); }
+        };
+    }
+
+    private static SeatStateRow seat() {
+        return new SeatStateRow() {
+            public Long getShowSeatId() { return 1L; }
+            public String getRowName() { return "A"; }
+            public Integer getSeatNumber() { return 1; }
+            public String getSeatType() { return "NORMAL"; }
+            public BigDecimal getPrice() { return BigDecimal.TEN; }
+            public String getStatus() { return "AVAILABLE"; }
+            public String getSeatStatus() { return "ACTIVE"; }
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package com.cinema.support;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * One migrated Postgres per test run, for tests of SQL that mocks cannot check:
+ * triggers, locking, constraints and plans. Tests are skipped without Docker.
+ * The container is removed when the JVM exits.
+ */
+public final class TestPostgres {
+
+    private static PostgreSQLContainer<?> container;
+    private static DataSource dataSource;
+
+    private TestPostgres() {
+    }
+
+    public static synchronized DataSource dataSource() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        if (dataSource == null) {
+            // Same JDBC settings as application.yaml, so batching behaves as in production
+            container = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"))
+                    .withUrlParam("reWriteBatchedInserts", "true");
+            container.start();
+            dataSource = new DriverManagerDataSource(
+                    container.getJdbcUrl(), container.getUsername(), container.getPassword());
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration")
+                    .load()
+                    .migrate();
+        }
+        return dataSource;
+    }
+
+    /**
+     * Creates an empty database in the same container, for tests that migrate
+     * step by step.
+     */
+    public static DataSource newDatabase() {
+        DataSource migrated = dataSource();
+        String name = "db_" + System.nanoTime();
+        new JdbcTemplate(migrated).execute("CREATE DATABASE " + name);
+        return new DriverManagerDataSource(
+                "jdbc:postgresql://" + container.getHost() + ":" + container.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)
+                        + "/" + name + "?reWriteBatchedInserts=true",
+                container.getUsername(), container.getPassword());
+    }
+
+    public static JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource());
+    }
+
+    /**
+     * Inserts a customer with a unique username and returns its id.
+     */
+    public static long insertUser(JdbcTemplate jdbcTemplate) {
+        String name = "user-" + System.nanoTime();
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO users (email, username, password_hash, full_name)
+                        VALUES (?, ?, 'x', ?)
+                        RETURNING id
+                        """,
+                Long.class, name + "@test.local", name, name);
+    }
+
+    /**
+     * Inserts an active hall with one row of seats of the given types and returns its id.
+     */
+    public static long insertHall(JdbcTemplate jdbcTemplate, String... seatTypes) {
+        String name = "hall-" + System.nanoTime();
+        long cinemaId = jdbcTemplate.queryForObject("""
+                        INSERT INTO cinemas (name, address, city, phone_number)
+                        VALUES (?, 'address', 'city', '0000000000')
+                        RETURNING id
+                        """,
+                Long.class, name);
+        long hallId = jdbcTemplate.queryForObject("""
+                        INSERT INTO halls (cinema_id, name, total_rows, seats_per_row, total_seats)
+                        VALUES (?, ?, 1, ?, ?)
+                        RETURNING id
+                        """,
+                Long.class, cinemaId, name, seatTypes.length, seatTypes.length);
+        for (int i = 0; i < seatTypes.length; i++) {
+            jdbcTemplate.update("INSERT INTO seats (hall_id, row_name, seat_number, seat_type) VALUES (?, 'A', ?, ?)",
+                    hallId, i + 1, seatTypes[i]);
+        }
+        return hallId;
+    }
+
+    public static long insertMovie(JdbcTemplate jdbcTemplate, int duration) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO movies (title, director, duration, release_date, rating, status)
+                        VALUES ('movie', 'director', ?, CURRENT_DATE, 'P', 'NOW_SHOWING')
+                        RETURNING id
+                        """,
+                Long.class, duration);
+    }
+
+    /**
+     * Inserts a scheduled show with an AVAILABLE seat for every seat of the hall and
+     * returns its id.
+     */
+    public static long insertShow(JdbcTemplate jdbcTemplate, long hallId, LocalDate date, LocalTime start) {
+        long showId = jdbcTemplate.queryForObject("""
+                        INSERT INTO shows (movie_id, hall_id, show_date, start_time, end_time, base_price)
+                        VALUES (?, ?, ?, ?, ?, 100000)
+                        RETURNING id
+                        """,
+                Long.class, insertMovie(jdbcTemplate, 120), hallId, date, start, start.plusHours(2));
+        jdbcTemplate.update("""
+                        INSERT INTO show_seats (show_id, seat_id, price, status)
+                        SELECT ?, st.id, ?, 'AVAILABLE' FROM seats st WHERE st.hall_id = ? ORDER BY st.id
+                        """,
+                showId, new BigDecimal("100000"), hallId);
+        return showId;
+    }
+
+    /**
+     * Inserts a PENDING booking of the given show seats and returns its id. The
+     * seats themselves are left as they are.
+     */
+    public static long insertBooking(JdbcTemplate jdbcTemplate, long userId, long showId,
+                                     LocalDateTime expiresAt, List<Long> showSeatIds) {
+        long bookingId = jdbcTemplate.queryForObject("""
+                        INSERT INTO bookings (booking_code, user_id, show_id, total_amount, final_amount, status, expires_at)
+                        VALUES (?, ?, ?, 100000, 100000, 'PENDING', ?)
+                        RETURNING id
+                        """,
+                Long.class, "BT" + Long.toString(System.nanoTime(), 36), userId, showId, expiresAt);
+        for (Long showSeatId : showSeatIds) {
+            jdbcTemplate.update("INSERT INTO booking_seats (booking_id, show_seat_id, price) VALUES (?, ?, 100000)",
+                    bookingId, showSeatId);
+        }
+        return bookingId;
+    }
+
+    public static List<Long> showSeatIds(JdbcTemplate jdbcTemplate, long showId) {
+        return jdbcTemplate.queryForList("SELECT id FROM show_seats WHERE show_id = ? ORDER BY id", Long.class, showId);
+    }
+
+    /**
+     * Returns the native SQL of a repository query method, so tests run the
+     * statement the repository runs.
+     */
+    public static String nativeQuery(Class<?> repository, String methodName) {
+        Method method = Arrays.stream(repository.getDeclaredMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(repository.getSimpleName() + "." + methodName));
+        return method.getAnnotation(Query.class).value();
+    }
+}
@@ -0,0 +1,45 @@
+package com.cinema.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * One Redis per test run, for tests of the Lua scripts. Tests are skipped without
+ * Docker. The container is removed when the JVM exits.
+ */
+public final class TestRedis {
+
+    private static GenericContainer<?> container;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private TestRedis() {
+    }
+
+    /**
+     * A template on an emptied database.
+     */
+    public static synchronized StringRedisTemplate redisTemplate() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        if (connectionFactory == null) {
+            container = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+            container.start();
+            connectionFactory = new LettuceConnectionFactory(
+                    new RedisStandaloneConfiguration(container.getHost(), container.getMappedPort(6379)));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+        }
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+        return redisTemplate;
+    }
+}
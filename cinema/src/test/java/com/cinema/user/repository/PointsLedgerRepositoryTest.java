@@ -0,0 +1,67 @@
+package com.cinema.user.repository;
+
+import com.cinema.support.TestPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the ledger SQL against Postgres, where transaction ids and commit order can
+ * disagree.
+ */
+class PointsLedgerRepositoryTest {
+
+    @Test
+    void foldsADebitWhoseTransactionIdIsBelowTheCreditThatCoveredIt() throws Exception {
+        JdbcTemplate jdbcTemplate = TestPostgres.jdbcTemplate();
+        long userId = TestPostgres.insertUser(jdbcTemplate);
+
+        try (Connection debitConnection = TestPostgres.dataSource().getConnection();
+             Connection creditConnection = TestPostgres.dataSource().getConnection()) {
+            debitConnection.setAutoCommit(false);
+            creditConnection.setAutoCommit(false);
+            PointsLedgerRepository debits = repository(debitConnection);
+            PointsLedgerRepository credits = repository(creditConnection);
+
+            // The debit takes its transaction id first, then waits while a later credit commits
+            debits.lockBalance(userId);
+            credits.append(userId, 100, "ADMIN_ADJUST", null);
+            creditConnection.commit();
+            assertThat(debits.appendIfCovered(userId, -60, "REDEEM", "booking:1")).isTrue();
+            debitConnection.commit();
+        }
+
+        long debitXact = xactId(jdbcTemplate, userId, "REDEEM");
+        long creditXact = xactId(jdbcTemplate, userId, "ADMIN_ADJUST");
+        assertThat(debitXact).isLessThan(creditXact);
+        PointsLedgerRepository repository = new PointsLedgerRepository(jdbcTemplate);
+
+        // A range holding only the debit folds below zero instead of failing
+        repository.compact(debitXact, creditXact);
+        assertThat(snapshot(jdbcTemplate, userId)).isEqualTo(-60);
+        assertThat(repository.findBalance(userId)).isEqualTo(40);
+
+        repository.compact(creditXact, creditXact + 1);
+        assertThat(snapshot(jdbcTemplate, userId)).isEqualTo(40);
+        assertThat(repository.findBalance(userId)).isEqualTo(40);
+    }
+
+    private static PointsLedgerRepository repository(Connection connection) {
+        return new PointsLedgerRepository(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+    }
+
+    private static long xactId(JdbcTemplate jdbcTemplate, long userId, String entryType) {
+        return jdbcTemplate.queryForObject(
+                "SELECT xact_id FROM points_ledger WHERE user_id = ? AND entry_type = ?",
+                Long.class, userId, entryType);
+    }
+
+    private static int snapshot(JdbcTemplate jdbcTemplate, long userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM points_balances WHERE user_id = ?", Integer.class, userId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.cinema.user.repository;
+
+import com.cinema.support.TestPostgres;
+import com.cinema.user.dto.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a role-only page walks the V24 index in id order instead of sorting.
+ */
+class UserSearchRepositoryTest {
+
+    @Test
+    void pagesThroughARoleWithoutSorting() {
+        JdbcTemplate jdbcTemplate = TestPostgres.jdbcTemplate();
+        List<Long> staffIds = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long userId = TestPostgres.insertUser(jdbcTemplate);
+            if (i % 100 == 0) {
+                jdbcTemplate.update("UPDATE users SET role = 'STAFF' WHERE id = ?", userId);
+                staffIds.add(0, userId);
+            }
+        }
+        jdbcTemplate.execute("ANALYZE users");
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                        EXPLAIN SELECT id FROM users
+                        WHERE deleted = FALSE AND role = 'STAFF' AND id < ?
+                        ORDER BY id DESC LIMIT 5
+                        """,
+                String.class, Long.MAX_VALUE));
+        assertThat(plan).contains("idx_users_role_keyset").doesNotContain("Sort");
+
+        UserSearchRepository repository = new UserSearchRepository(jdbcTemplate, new ObjectMapper());
+        UserSearchRepository.Filter filter = new UserSearchRepository.Filter(null, "STAFF", null, false);
+        List<UserResponse> first = repository.findPage(filter, null, 5);
+        List<UserResponse> second = repository.findPage(filter, first.get(4).getId(), 5);
+        assertThat(first).extracting(UserResponse::getId).containsExactlyElementsOf(staffIds.subList(0, 5));
+        assertThat(second).extracting(UserResponse::getId).containsExactlyElementsOf(staffIds.subList(5, 10));
+    }
+}
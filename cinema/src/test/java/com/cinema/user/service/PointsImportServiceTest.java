@@ -0,0 +1,108 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.user.repository.PointsImportRepository;
+import com.cinema.user.repository.PointsImportRepository.Rejection;
+import com.cinema.user.service.PointsImportParser.Format;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PointsImportServiceTest {
+
+    private final PointsImportRepository repository = mock(PointsImportRepository.class);
+    private final PointsLedgerService pointsLedgerService = mock(PointsLedgerService.class);
+    private final PointsImportService service = new PointsImportService(repository, pointsLedgerService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new AppProperties(),
+            new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void grantsResolvedRowsAndRecordsTheRestAsRejected() {
+        when(repository.resolveUsers(any(), any(), any(), any())).thenReturn(Map.of(2L, 7L, 4L, 9L));
+        when(repository.advance(eq(5L), eq(0L), eq(5L), anyLong(), anyLong(), anyLong(), anyLong(), anyInt()))
+                .thenReturn(true);
+
+        service.applyChunk(5L, Format.CSV, 0, 5, List.of(
+                new PointsImportService.Line(1, "user,points,reason"),
+                new PointsImportService.Line(2, "7,100,\"Summer, 2026\""),
+                new PointsImportService.Line(3, "8,abc,"),
+                new PointsImportService.Line(4, "an@example.com,50"),
+                new PointsImportService.Line(5, "ghost@example.com,50")));
+
+        ArgumentCaptor<List<PointsLedgerService.Grant>> grants = ArgumentCaptor.forClass(List.class);
+        verify(pointsLedgerService).grantAll(grants.capture());
+        assertThat(grants.getValue()).containsExactly(
+                new PointsLedgerService.Grant(7L, 100, "import:5:2", "Summer, 2026"),
+                new PointsLedgerService.Grant(9L, 50, "import:5:4", null));
+        ArgumentCaptor<List<Rejection>> rejections = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertRejections(eq(5L), rejections.capture());
+        assertThat(rejections.getValue()).containsExactly(
+                new Rejection(3, "Invalid points", "8,abc,"),
+                new Rejection(5, "Unknown user", "ghost@example.com,50"));
+        verify(repository).advance(5L, 0, 5, 4, 2, 2, 150, 120);
+    }
+
+    @Test
+    void rollsBackAChunkWhenAnotherNodeAdvancedTheJob() {
+        when(repository.resolveUsers(any(), any(), any(), any())).thenReturn(Map.of(1L, 7L));
+        when(repository.advance(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyInt()))
+                .thenReturn(false);
+
+        assertThatThrownBy(() -> service.applyChunk(5L, Format.NDJSON, 0, 1, List.of(
+                new PointsImportService.Line(1, "{\"userId\":7,\"points\":10}"))))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void parsesNdjsonRows() {
+        assertThat(PointsImportParser.parse(Format.NDJSON, 3, "{\"email\":\"a@b.co\",\"points\":\"25\",\"reason\":\"Promo\"}", 100))
+                .isEqualTo(new PointsImportParser.Row(3, null, "a@b.co", 25, "Promo"));
+        assertThatThrownBy(() -> PointsImportParser.parse(Format.NDJSON, 4, "{\"userId\":7,\"points\":500}", 100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Points must be between 1 and 100");
+    }
+
+    @Test
+    void countsLinesWhileSpooling() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long lines = PointsImportService.spool(
+                new ByteArrayInputStream("1,10\n2,20\n3,30".getBytes(StandardCharsets.UTF_8)), out, 1_000);
+
+        assertThat(lines).isEqualTo(3);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("1,10\n2,20\n3,30");
+        assertThatThrownBy(() -> PointsImportService.spool(new ByteArrayInputStream(new byte[10]),
+                new ByteArrayOutputStream(), 5)).hasMessageContaining("exceeds");
+    }
+}
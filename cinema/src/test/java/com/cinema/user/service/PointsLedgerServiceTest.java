@@ -0,0 +1,91 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.user.repository.PointsLedgerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PointsLedgerServiceTest {
+
+    private final PointsLedgerRepository repository = mock(PointsLedgerRepository.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final PointsLedgerService service = new PointsLedgerService(
+            repository, new TransactionTemplate(mock(PlatformTransactionManager.class)), appProperties);
+
+    @Test
+    void earnsOncePerBooking() {
+        when(repository.append(7L, 12, "BOOKING_EARN", "booking:3")).thenReturn(true, false);
+
+        assertThat(service.earnForBooking(7L, 3L, new BigDecimal("12999"))).isEqualTo(12);
+        assertThat(service.earnForBooking(7L, 3L, new BigDecimal("12999"))).isZero();
+        assertThat(service.earnForBooking(7L, 4L, new BigDecimal("999"))).isZero();
+    }
+
+    @Test
+    void rejectsRedemptionTheBalanceDoesNotCover() {
+        when(repository.appendIfCovered(7L, -50, "REDEEM", "booking:3")).thenReturn(false);
+
+        assertThatThrownBy(() -> service.redeem(7L, 50, "booking:3")).isInstanceOf(BusinessException.class);
+        verify(repository).lockBalance(7L);
+    }
+
+    @Test
+    void compactsUpToTheHorizonInBatches() {
+        appProperties.getPoints().setCompactionBatchSize(100);
+        when(repository.findCompactionHorizon()).thenReturn(250L, 250L);
+        when(repository.findNextXactId(anyLong(), anyLong())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.tryLockCompaction()).thenReturn(true);
+
+        service.compact();
+        service.compact();
+
+        var order = inOrder(repository);
+        order.verify(repository).compact(0, 100);
+        order.verify(repository).compact(100, 200);
+        order.verify(repository).compact(200, 250);
+        order.verify(repository, never()).compact(anyLong(), anyLong());
+    }
+
+    @Test
+    void skipsTransactionRangesWithoutEntriesAndStopsBelowTheOldestRunningOne() {
+        appProperties.getPoints().setCompactionBatchSize(100);
+        when(repository.findCompactionHorizon()).thenReturn(1_000L, 1_000L, 1_050L);
+        when(repository.findNextXactId(anyLong(), anyLong())).thenReturn(null);
+        when(repository.findNextXactId(0, 1_000)).thenReturn(700L);
+        when(repository.tryLockCompaction()).thenReturn(true);
+
+        service.compact();
+        service.compact();
+        service.compact();
+
+        var order = inOrder(repository);
+        order.verify(repository).compact(700, 800);
+        order.verify(repository).findNextXactId(800, 1_000);
+        order.verify(repository).findNextXactId(1_000, 1_050);
+        verify(repository).compact(anyLong(), anyLong());
+    }
+
+    @Test
+    void leavesCompactionToTheNodeHoldingTheLock() {
+        when(repository.findCompactionHorizon()).thenReturn(250L);
+        when(repository.findNextXactId(0, 250)).thenReturn(0L);
+        when(repository.tryLockCompaction()).thenReturn(false);
+
+        service.compact();
+
+        verify(repository, never()).compact(anyLong(), anyLong());
+    }
+}
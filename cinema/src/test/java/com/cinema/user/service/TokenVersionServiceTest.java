@@ -0,0 +1,99 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.user.entity.User;
+import com.cinema.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenVersionServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final TokenVersionService service = new TokenVersionService(userRepository, redisTemplate,
+            mock(RedisMessageListenerContainer.class), new AppProperties(), new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        service.subscribe();
+    }
+
+    @Test
+    void readsThroughRedisToTheDatabaseOnceThenServesLocally() {
+        when(userRepository.findTokenVersionById(7L)).thenReturn(Optional.of(3L));
+
+        assertThat(service.isCurrent(7L, 3)).isTrue();
+        assertThat(service.isCurrent(7L, 2)).isFalse();
+
+        verify(values, times(1)).get("token-version:7");
+        verify(values).setIfAbsent("token-version:7", "3", Duration.ofMinutes(60));
+        verify(userRepository, times(1)).findTokenVersionById(7L);
+    }
+
+    @Test
+    void prefersRedisOverTheDatabase() {
+        when(values.get("token-version:7")).thenReturn("5");
+
+        assertThat(service.isCurrent(7L, 5)).isTrue();
+        verify(userRepository, never()).findTokenVersionById(any());
+    }
+
+    @Test
+    void rejectsUnknownUsers() {
+        when(userRepository.findTokenVersionById(9L)).thenReturn(Optional.empty());
+
+        assertThat(service.isCurrent(9L, 0)).isFalse();
+    }
+
+    @Test
+    void revokeInvalidatesOlderTokensAndNotifiesOtherNodes() {
+        User user = User.builder().id(7L).tokenVersion(3L).build();
+
+        service.revoke(user);
+
+        assertThat(user.getTokenVersion()).isEqualTo(4L);
+        assertThat(service.isCurrent(7L, 3)).isFalse();
+        assertThat(service.isCurrent(7L, 4)).isTrue();
+        verify(redisTemplate).execute(any(), anyList(), anyString(), anyString());
+        verify(redisTemplate).convertAndSend(TokenVersionService.CHANNEL, "7:4");
+        verify(userRepository, never()).findTokenVersionById(any());
+    }
+
+    @Test
+    void appliesRevokesFromOtherNodesButNeverGoesBack() {
+        when(userRepository.findTokenVersionById(7L)).thenReturn(Optional.of(3L));
+        service.isCurrent(7L, 3);
+
+        service.onMessage(message("7:5"), null);
+        service.onMessage(message("7:4"), null);
+
+        assertThat(service.isCurrent(7L, 5)).isTrue();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TokenVersionService.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
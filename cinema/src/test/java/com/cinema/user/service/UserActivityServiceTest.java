@@ -0,0 +1,92 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.config.AppProperties;
+import com.cinema.user.repository.UserActivityRepository;
+import com.cinema.user.repository.UserActivityRepository.Activity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class UserActivityServiceTest {
+
+    private final UserActivityRepository repository = mock(UserActivityRepository.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserActivityService service = new UserActivityService(repository, appProperties, meterRegistry);
+    private final List<List<Activity>> flushed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service.init();
+        doAnswer(invocation -> flushed.add(List.copyOf(invocation.getArgument(0))))
+                .when(repository).updateActivity(anyList());
+    }
+
+    @Test
+    void coalescesActivityPerUserIntoOneSortedBatch() {
+        service.recordSeen(9L);
+        service.recordLogin(3L);
+        service.recordSeen(3L);
+        service.recordSeen(9L);
+
+        service.flush();
+
+        assertThat(flushed).hasSize(1);
+        List<Activity> batch = flushed.get(0);
+        assertThat(batch).extracting(Activity::userId).containsExactly(3L, 9L);
+        assertThat(batch.get(0).lastLoginAt()).isNotNull();
+        assertThat(batch.get(0).lastSeenAt()).isAfterOrEqualTo(batch.get(0).lastLoginAt());
+        assertThat(batch.get(1).lastLoginAt()).isNull();
+
+        service.flush();
+        assertThat(flushed).hasSize(1);
+    }
+
+    @Test
+    void keepsFailedActivityForTheNextFlush() {
+        doAnswer(invocation -> {
+            throw new QueryTimeoutException("timeout");
+        }).when(repository).updateActivity(anyList());
+        service.recordLogin(1L);
+        service.flush();
+
+        doAnswer(invocation -> flushed.add(List.copyOf(invocation.getArgument(0))))
+                .when(repository).updateActivity(anyList());
+        service.flush();
+
+        assertThat(flushed).hasSize(1);
+        assertThat(flushed.get(0)).extracting(Activity::userId).containsExactly(1L);
+        assertThat(flushed.get(0).get(0).lastLoginAt()).isNotNull();
+    }
+
+    @Test
+    void dropsNewUsersOnceTheBufferIsFull() {
+        appProperties.getUserActivity().setMaxPendingUsers(1);
+        service.recordSeen(1L);
+        service.recordSeen(2L);
+        service.recordLogin(1L);
+
+        service.flush();
+
+        assertThat(flushed.get(0)).extracting(Activity::userId).containsExactly(1L);
+        assertThat(meterRegistry.counter("user.activity.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsTheDatabaseWhenNothingIsPending() {
+        service.flush();
+
+        verify(repository, never()).updateActivity(anyList());
+    }
+}
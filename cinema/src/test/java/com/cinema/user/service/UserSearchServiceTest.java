@@ -0,0 +1,69 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.dto.CursorPage;
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.user.dto.UserResponse;
+import com.cinema.user.repository.UserSearchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserSearchServiceTest {
+
+    private final UserSearchRepository repository = mock(UserSearchRepository.class);
+    private final PointsLedgerService pointsLedgerService = mock(PointsLedgerService.class);
+    private final UserSearchService service = new UserSearchService(repository, pointsLedgerService);
+
+    @Test
+    void continuesBelowTheLastIdOfThePreviousPage() {
+        UserSearchRepository.Filter filter = new UserSearchRepository.Filter("%ngu%", "CUSTOMER", null, false);
+        when(repository.findPage(filter, null, 3)).thenReturn(List.of(user(30L), user(20L), user(10L)));
+        when(pointsLedgerService.getBalances(List.of(30L, 20L))).thenReturn(Map.of(30L, 150));
+
+        CursorPage<UserResponse> first = service.searchUsers(" ngu ", "customer", null, false, null, 2, false);
+
+        assertThat(first.getItems()).extracting(UserResponse::getId).containsExactly(30L, 20L);
+        assertThat(first.getItems()).extracting(UserResponse::getPoints).containsExactly(150, 0);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getEstimatedTotal()).isNull();
+        verify(repository, never()).estimateCount(any());
+
+        when(repository.findPage(filter, 20L, 3)).thenReturn(List.of(user(10L)));
+        when(repository.estimateCount(filter)).thenReturn(1_200L);
+        CursorPage<UserResponse> second = service.searchUsers("ngu", "CUSTOMER", null, false,
+                first.getNextCursor(), 2, true);
+
+        assertThat(second.getItems()).extracting(UserResponse::getId).containsExactly(10L);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getEstimatedTotal()).isEqualTo(1_200L);
+    }
+
+    @Test
+    void matchesShortTermsAsPrefixesAndEscapesWildcards() {
+        assertThat(UserSearchService.pattern("09")).isEqualTo("09%");
+        assertThat(UserSearchService.pattern("50%_off\\")).isEqualTo("%50\\%\\_off\\\\%");
+        assertThat(UserSearchService.pattern("  ")).isNull();
+    }
+
+    @Test
+    void rejectsUnknownFiltersAndMalformedCursors() {
+        assertThatThrownBy(() -> service.searchUsers(null, "OWNER", null, false, null, 20, false))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> service.searchUsers(null, null, null, false, "not-a-cursor", 20, false))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private static UserResponse user(Long id) {
+        return UserResponse.builder().id(id).build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.cinema.user.service;
+
+import com.cinema.shared.exception.BusinessException;
+import com.cinema.user.dto.ChangePasswordRequest;
+import com.cinema.user.entity.User;
+import com.cinema.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final TokenVersionService tokenVersionService = mock(TokenVersionService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserService service = new UserService(userRepository, passwordEncoder,
+            mock(PointsLedgerService.class), tokenVersionService, new TransactionTemplate(transactionManager));
+
+    @Test
+    void hashesTheNewPasswordBeforeOpeningTheWriteTransaction() {
+        User user = user("old-hash");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("old", "old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenAnswer(invocation -> {
+            verifyNoInteractions(transactionManager);
+            return "new-hash";
+        });
+
+        service.changePassword(1L, request("old", "new"));
+
+        assertThat(user.getPasswordHash()).isEqualTo("new-hash");
+        verify(transactionManager).getTransaction(any());
+        verify(tokenVersionService).revoke(user);
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void rejectsTheChangeWhenThePasswordChangedWhileHashing() {
+        User user = user("old-hash");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user), Optional.of(user("other-hash")));
+        when(passwordEncoder.matches("old", "old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("new-hash");
+
+        assertThatThrownBy(() -> service.changePassword(1L, request("old", "new")))
+                .isInstanceOf(BusinessException.class);
+        verify(userRepository, never()).save(any());
+        verify(tokenVersionService, never()).revoke(any());
+    }
+
+    private static User user(String passwordHash) {
+        return User.builder()
+                .id(1L)
+                .username("alice")
+                .passwordHash(passwordHash)
+                .tokenVersion(0L)
+                .build();
+    }
+
+    private static ChangePasswordRequest request(String currentPassword, String newPassword) {
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setCurrentPassword(currentPassword);
+        request.setNewPassword(newPassword);
+        return request;
+    }
+}